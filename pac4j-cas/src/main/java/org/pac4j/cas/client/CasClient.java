@@ -58,6 +58,10 @@ public class CasClient extends IndirectClient {
 
     @Override
     protected CallbackUrlResolver newDefaultCallbackUrlResolver() {
+        // the client may not be initialized yet (callback lookup)
+        if (configuration == null) {
+            return new QueryParameterCallbackUrlResolver();
+        }
         return new QueryParameterCallbackUrlResolver(configuration.getCustomParams());
     }
 
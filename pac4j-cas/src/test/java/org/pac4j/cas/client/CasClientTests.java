@@ -2,6 +2,7 @@ package org.pac4j.cas.client;
 
 import org.junit.Test;
 import org.pac4j.cas.config.CasConfiguration;
+import org.pac4j.core.client.Clients;
 import org.pac4j.core.context.MockWebContext;
 import org.pac4j.core.context.WebContext;
 import org.pac4j.core.context.session.MockSessionStore;
@@ -16,6 +17,7 @@ import org.pac4j.core.util.TestsHelper;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.List;
 import java.util.zip.Deflater;
 
 import static org.junit.Assert.*;
@@ -41,6 +43,21 @@ public final class CasClientTests implements TestsConstants {
         + "<saml:NameID xmlns:saml=\\\"urn:oasis:names:tc:SAML:2.0:assertion\\\">@NOT_USED@</saml:NameID><samlp:SessionIndex>\""
         + TICKET + "\"</samlp:SessionIndex></samlp:LogoutRequest>\";";
 
+    @Test
+    public void testCallbackLookupBeforeConfiguration() {
+        final var casClient = new CasClient();
+        final var clients = new Clients(CALLBACK_URL, casClient);
+        final var context = MockWebContext.create().addRequestParameter(Pac4jConstants.DEFAULT_CLIENT_NAME_PARAMETER, "CasClient");
+        assertEquals(List.of(casClient), clients.findCallbackClients(context));
+
+        final var configuration = new CasConfiguration();
+        configuration.setLoginUrl(LOGIN_URL);
+        configuration.addCustomParam(KEY, VALUE);
+        casClient.setConfiguration(configuration);
+        casClient.init();
+        assertTrue(casClient.computeFinalCallbackUrl(MockWebContext.create()).contains(KEY + "=" + VALUE));
+    }
+
     @Test
     public void testMissingCasUrls() {
         final var casClient = new CasClient();
@@ -9,6 +9,9 @@ import org.pac4j.core.credentials.Credentials;
 import org.pac4j.core.credentials.authenticator.Authenticator;
 import org.pac4j.core.credentials.extractor.CredentialsExtractor;
 import org.pac4j.core.exception.CredentialsException;
+import org.pac4j.core.exception.http.HttpAction;
+import org.pac4j.core.metrics.Instrumentation;
+import org.pac4j.core.profile.AttributesProjection;
 import org.pac4j.core.profile.UserProfile;
 import org.pac4j.core.profile.creator.AuthenticatorProfileCreator;
 import org.pac4j.core.profile.creator.ProfileCreator;
@@ -31,6 +34,8 @@ import org.slf4j.LoggerFactory;
  * {@link #credentialsExtractor} and {@link #authenticator} components</li>
  * <li>The user profile retrieval in the {@link #getUserProfile(Credentials, WebContext, SessionStore)} method is ensured
  * by the {@link #profileCreator} component.</li>
+ * <li>The credentials extraction, the credentials validation and the user profile creation are timed by the {@link Instrumentation}
+ * (tagged by client and component names)</li>
  * </ul>
  *
  * @author Jerome Leleu
@@ -56,6 +61,10 @@ public abstract class BaseClient extends InitializableObject implements Client {
 
     private boolean multiProfile = false;
 
+    private AttributesProjection attributesProjection;
+
+    private Instrumentation instrumentation = Instrumentation.NONE;
+
     protected Boolean saveProfileInSession;
 
     private static boolean warned;
@@ -68,16 +77,8 @@ public abstract class BaseClient extends InitializableObject implements Client {
      */
     protected Optional<Credentials> retrieveCredentials(final WebContext context, final SessionStore sessionStore) {
         try {
-            final var optCredentials = this.credentialsExtractor.extract(context, sessionStore);
-            optCredentials.ifPresent(credentials -> {
-                final var t0 = System.currentTimeMillis();
-                try {
-                    this.authenticator.validate(credentials, context, sessionStore);
-                } finally {
-                    final var t1 = System.currentTimeMillis();
-                    logger.debug("Credentials validation took: {} ms", t1 - t0);
-                }
-            });
+            final var optCredentials = extractCredentials(context, sessionStore);
+            optCredentials.ifPresent(credentials -> validateCredentials(credentials, context, sessionStore));
             return optCredentials;
         } catch (CredentialsException e) {
             logger.info("Failed to retrieve or validate credentials: {}", e.getMessage());
@@ -87,6 +88,74 @@ public abstract class BaseClient extends InitializableObject implements Client {
         }
     }
 
+    /**
+     * Extract the credentials with the {@link #credentialsExtractor}.
+     *
+     * @param context the web context
+     * @param sessionStore the session store
+     * @return the credentials
+     */
+    protected Optional<Credentials> extractCredentials(final WebContext context, final SessionStore sessionStore) {
+        final var sample = startSample(Instrumentation.CREDENTIALS_EXTRACTION, Instrumentation.TAG_EXTRACTOR, this.credentialsExtractor);
+        var outcome = Instrumentation.ERROR;
+        try {
+            final var optCredentials = this.credentialsExtractor.extract(context, sessionStore);
+            outcome = optCredentials.isPresent() ? Instrumentation.SUCCESS : Instrumentation.FAILURE;
+            return optCredentials;
+        } catch (final CredentialsException e) {
+            outcome = Instrumentation.FAILURE;
+            throw e;
+        } catch (final HttpAction e) {
+            outcome = Instrumentation.ACTION;
+            throw e;
+        } finally {
+            sample.stop(outcome);
+        }
+    }
+
+    /**
+     * Validate the credentials with the {@link #authenticator}.
+     *
+     * @param credentials the credentials
+     * @param context the web context
+     * @param sessionStore the session store
+     */
+    protected void validateCredentials(final Credentials credentials, final WebContext context, final SessionStore sessionStore) {
+        final var sample = startSample(Instrumentation.AUTHENTICATION, Instrumentation.TAG_AUTHENTICATOR, this.authenticator);
+        var outcome = Instrumentation.ERROR;
+        final var t0 = System.currentTimeMillis();
+        try {
+            this.authenticator.validate(credentials, context, sessionStore);
+            outcome = Instrumentation.SUCCESS;
+        } catch (final CredentialsException e) {
+            outcome = Instrumentation.FAILURE;
+            throw e;
+        } catch (final HttpAction e) {
+            outcome = Instrumentation.ACTION;
+            throw e;
+        } finally {
+            sample.stop(outcome);
+            final var t1 = System.currentTimeMillis();
+            logger.debug("Credentials validation took: {} ms", t1 - t0);
+        }
+    }
+
+    /**
+     * Start a timer tagged by the name of this client and the name of the component (if the instrumentation is enabled).
+     *
+     * @param name the name of the timer
+     * @param componentTag the tag of the component
+     * @param component the component
+     * @return the started sample
+     */
+    protected Instrumentation.Sample startSample(final String name, final String componentTag, final Object component) {
+        if (!this.instrumentation.isEnabled()) {
+            return Instrumentation.Sample.NONE;
+        }
+        return this.instrumentation.start(name, Instrumentation.TAG_CLIENT, getName(), componentTag,
+            component != null ? component.getClass().getSimpleName() : "none");
+    }
+
     @Override
     public final Optional<UserProfile> getUserProfile(final Credentials credentials, final WebContext context,
                                                       final SessionStore sessionStore) {
@@ -110,6 +179,10 @@ public abstract class BaseClient extends InitializableObject implements Client {
                     profile = authorizationGenerator.generate(context, sessionStore, profile.get());
                 }
             }
+            // after the authorization generators which may need all the attributes
+            if (this.attributesProjection != null && profile.isPresent()) {
+                this.attributesProjection.project(profile.get());
+            }
         }
         return profile;
     }
@@ -123,9 +196,19 @@ public abstract class BaseClient extends InitializableObject implements Client {
      */
     protected final Optional<UserProfile> retrieveUserProfile(final Credentials credentials, final WebContext context,
                                                               final SessionStore sessionStore) {
-        final var profile = this.profileCreator.create(credentials, context, sessionStore);
-        logger.debug("profile: {}", profile);
-        return profile;
+        final var sample = startSample(Instrumentation.PROFILE_CREATION, Instrumentation.TAG_PROFILE_CREATOR, this.profileCreator);
+        var outcome = Instrumentation.ERROR;
+        try {
+            final var profile = this.profileCreator.create(credentials, context, sessionStore);
+            logger.debug("profile: {}", profile);
+            outcome = profile.isPresent() ? Instrumentation.SUCCESS : Instrumentation.FAILURE;
+            return profile;
+        } catch (final HttpAction e) {
+            outcome = Instrumentation.ACTION;
+            throw e;
+        } finally {
+            sample.stop(outcome);
+        }
     }
 
     @Override
@@ -261,6 +344,19 @@ public abstract class BaseClient extends InitializableObject implements Client {
         this.multiProfile = multiProfile;
     }
 
+    public AttributesProjection getAttributesProjection() {
+        return attributesProjection;
+    }
+
+    /**
+     * Define the attributes to keep in the user profiles (the other ones are removed after the authorization generators).
+     *
+     * @param attributesProjection the attributes projection
+     */
+    public void setAttributesProjection(final AttributesProjection attributesProjection) {
+        this.attributesProjection = attributesProjection;
+    }
+
     public Boolean getSaveProfileInSession(final WebContext context, final UserProfile profile) {
         return saveProfileInSession;
     }
@@ -269,12 +365,21 @@ public abstract class BaseClient extends InitializableObject implements Client {
         this.saveProfileInSession = saveProfileInSession;
     }
 
+    public Instrumentation getInstrumentation() {
+        return instrumentation;
+    }
+
+    public void setInstrumentation(final Instrumentation instrumentation) {
+        CommonHelper.assertNotNull("instrumentation", instrumentation);
+        this.instrumentation = instrumentation;
+    }
+
     @Override
     public String toString() {
         return CommonHelper.toNiceString(this.getClass(), "name", getName(), "credentialsExtractor", this.credentialsExtractor,
             "authenticator", this.authenticator, "profileCreator", this.profileCreator,
             "authorizationGenerators", authorizationGenerators, "customProperties", customProperties,
             "profileFactoryWhenNotAuthenticated", profileFactoryWhenNotAuthenticated, "multiProfile", multiProfile,
-            "saveProfileInSession", saveProfileInSession);
+            "saveProfileInSession", saveProfileInSession, "attributesProjection", attributesProjection);
     }
 }
@@ -75,6 +75,16 @@ public interface Client {
      */
     Optional<UserProfile> renewUserProfile(UserProfile profile, WebContext context, SessionStore sessionStore);
 
+    /**
+     * Renew the user profile without any web context, to renew it in the background before it expires.
+     *
+     * @param profile the user profile
+     * @return the renewed user profile (optional, empty if not supported).
+     */
+    default Optional<UserProfile> renewUserProfileInBackground(final UserProfile profile) {
+        return Optional.empty();
+    }
+
     /**
      * <p>Return the logout action (indirect clients).</p>
      *
@@ -1,12 +1,16 @@
 package org.pac4j.core.client;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import org.pac4j.core.authorization.generator.AuthorizationGenerator;
+import org.pac4j.core.context.WebContext;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.http.ajax.AjaxRequestResolver;
 import org.pac4j.core.http.callback.CallbackUrlResolver;
 import org.pac4j.core.http.url.UrlResolver;
+import org.pac4j.core.metrics.Instrumentation;
 import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.InitializableObject;
 import org.slf4j.Logger;
@@ -15,7 +19,8 @@ import org.slf4j.LoggerFactory;
 /**
  * <p>This class is made to group multiple clients, generally on one callback url.</p>
  *
- * <p>Clients can be changed at any time.</p>
+ * <p>Clients can be changed at any time: the list of clients is copied on write and indexed by name and by callback,
+ * clients can also be added or removed one by one without re-initializing the others.</p>
  *
  * @author Jerome Leleu
  * @since 1.3.0
@@ -25,11 +30,13 @@ public class Clients extends InitializableObject {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(Clients.class);
 
-    private volatile List<Client> clients;
+    private volatile List<Client> clients = Collections.emptyList();
 
-    private Map<String, Client> clientsMap;
+    private final List<Client> clientsView = new ClientsView();
 
-    private volatile Integer oldClientsHash;
+    private final AtomicInteger version = new AtomicInteger();
+
+    private volatile ClientsRegistry registry;
 
     private String callbackUrl;
 
@@ -43,6 +50,12 @@ public class Clients extends InitializableObject {
 
     private String defaultSecurityClients;
 
+    private Instrumentation instrumentation = Instrumentation.NONE;
+
+    private boolean unmodifiable;
+
+    private volatile Runnable modificationListener;
+
     public Clients() {
     }
 
@@ -70,45 +83,108 @@ public class Clients extends InitializableObject {
             return true;
         }
 
-        return oldClientsHash == null || oldClientsHash.intValue() != clients.hashCode();
+        final var currentRegistry = this.registry;
+        return currentRegistry == null || currentRegistry.getVersion() != version.get();
     }
 
     /**
-     * Populate the resolvers, callback URL and authz generators in the Client
+     * Populate the resolvers, callback URL, instrumentation and authz generators in the Client
      * if defined in Clients and not already in the Client itself. And check the client name.
      */
     @Override
     protected void internalInit(final boolean forceReinit) {
-        clientsMap = new HashMap<>();
+        final Map<String, Client> clientsMap = new HashMap<>();
         for (final var client : this.clients) {
-            final var name = client.getName();
-            CommonHelper.assertNotBlank("name", name);
-            final var lowerTrimmedName = name.toLowerCase().trim();
-            if (clientsMap.containsKey(lowerTrimmedName)) {
+            final var name = checkName(client);
+            if (clientsMap.containsKey(ClientsRegistry.normalizeName(name))) {
                 throw new TechnicalException("Duplicate name in clients: " + name);
             }
-            clientsMap.put(lowerTrimmedName, client);
-            if (client instanceof IndirectClient) {
-                final var indirectClient = (IndirectClient) client;
-                if (this.callbackUrl != null && indirectClient.getCallbackUrl() == null) {
-                    indirectClient.setCallbackUrl(this.callbackUrl);
-                }
-                if (this.urlResolver != null && indirectClient.getUrlResolver() == null) {
-                    indirectClient.setUrlResolver(this.urlResolver);
-                }
-                if (this.callbackUrlResolver != null && indirectClient.getCallbackUrlResolver() == null) {
-                    indirectClient.setCallbackUrlResolver(this.callbackUrlResolver);
-                }
-                if (this.ajaxRequestResolver != null && indirectClient.getAjaxRequestResolver() == null) {
-                    indirectClient.setAjaxRequestResolver(this.ajaxRequestResolver);
-                }
+            clientsMap.put(ClientsRegistry.normalizeName(name), client);
+            configureClient(client);
+        }
+        this.registry = new ClientsRegistry(this.version.get(), this.clients, clientsMap);
+    }
+
+    protected String checkName(final Client client) {
+        final var name = client.getName();
+        CommonHelper.assertNotBlank("name", name);
+        return name;
+    }
+
+    protected void configureClient(final Client client) {
+        if (client instanceof IndirectClient) {
+            final var indirectClient = (IndirectClient) client;
+            if (this.callbackUrl != null && indirectClient.getCallbackUrl() == null) {
+                indirectClient.setCallbackUrl(this.callbackUrl);
             }
-            final var baseClient = (BaseClient) client;
-            if (!authorizationGenerators.isEmpty()) {
-                baseClient.addAuthorizationGenerators(this.authorizationGenerators);
+            if (this.urlResolver != null && indirectClient.getUrlResolver() == null) {
+                indirectClient.setUrlResolver(this.urlResolver);
             }
+            if (this.callbackUrlResolver != null && indirectClient.getCallbackUrlResolver() == null) {
+                indirectClient.setCallbackUrlResolver(this.callbackUrlResolver);
+            }
+            if (this.ajaxRequestResolver != null && indirectClient.getAjaxRequestResolver() == null) {
+                indirectClient.setAjaxRequestResolver(this.ajaxRequestResolver);
+            }
+        }
+        final var baseClient = (BaseClient) client;
+        if (!authorizationGenerators.isEmpty()) {
+            baseClient.addAuthorizationGenerators(this.authorizationGenerators);
+        }
+        if (baseClient.getInstrumentation() == Instrumentation.NONE) {
+            baseClient.setInstrumentation(this.instrumentation);
+        }
+    }
+
+    /**
+     * Add a client without re-initializing the other clients.
+     *
+     * @param client the client to add
+     */
+    public void addClient(final Client client) {
+        doAddClient(client);
+        modified();
+    }
+
+    private synchronized void doAddClient(final Client client) {
+        CommonHelper.assertNotNull("client", client);
+        assertModifiable();
+        init();
+
+        final var name = checkName(client);
+        if (registry.containsName(name)) {
+            throw new TechnicalException("Duplicate name in clients: " + name);
+        }
+        configureClient(client);
+        updateClients(list -> list.add(client));
+        this.registry = registry.withClient(this.version.get(), this.clients, client);
+    }
+
+    /**
+     * Remove a client without re-initializing the other clients.
+     *
+     * @param name the name of the client to remove
+     * @return the removed client (if found)
+     */
+    public Optional<Client> removeClient(final String name) {
+        final var client = doRemoveClient(name);
+        if (client.isPresent()) {
+            modified();
         }
-        this.oldClientsHash = this.clients.hashCode();
+        return client;
+    }
+
+    private synchronized Optional<Client> doRemoveClient(final String name) {
+        CommonHelper.assertNotBlank("name", name);
+        assertModifiable();
+        init();
+
+        final var client = registry.findClient(name);
+        if (client != null) {
+            updateClients(list -> list.remove(client));
+            this.registry = registry.withoutClient(this.version.get(), this.clients, client);
+        }
+        return Optional.ofNullable(client);
     }
 
     /**
@@ -121,11 +197,37 @@ public class Clients extends InitializableObject {
         CommonHelper.assertNotBlank("name", name);
         init();
 
-        final var foundClient = clientsMap.get(name.toLowerCase().trim());
+        final var foundClient = registry.findClient(name);
         LOGGER.debug("Found client: {} for name: {}", foundClient, name);
         return Optional.ofNullable(foundClient);
     }
 
+    /**
+     * Find the indirect clients matching the current callback. The clients whose callback URL resolver is an
+     * {@link org.pac4j.core.http.callback.IndexableCallbackUrlResolver} (a built-in one or a direct implementation, not a subclass
+     * of a built-in one) are directly looked up by name. The clients are not initialized by this lookup: each one is initialized
+     * when it is first used.
+     *
+     * @param context the web context
+     * @return the matching clients
+     */
+    public List<Client> findCallbackClients(final WebContext context) {
+        init();
+
+        return registry.findCallbackClients(context);
+    }
+
+    /**
+     * Find all the indirect clients (not initialized by this lookup).
+     *
+     * @return all the indirect clients
+     */
+    public List<IndirectClient> findAllIndirectClients() {
+        init();
+
+        return registry.findAllIndirectClients();
+    }
+
     /**
      * Use {@link #findClient(String)} instead.
      */
@@ -162,11 +264,23 @@ public class Clients extends InitializableObject {
 
     public void setCallbackUrl(final String callbackUrl) {
         this.callbackUrl = callbackUrl;
+        modified();
     }
 
+    /**
+     * Define the clients. The list is copied: the later modifications of the given list are ignored, use
+     * {@link #getClients()}, {@link #addClient(Client)}, {@link #removeClient(String)} or call this method again
+     * to change the clients.
+     *
+     * @param clients the clients
+     */
     public void setClients(final List<Client> clients) {
         CommonHelper.assertNotNull("clients", clients);
-        this.clients = clients;
+        updateClients(list -> {
+            list.clear();
+            return list.addAll(clients);
+        });
+        modified();
     }
 
     public void setClients(final Client... clients) {
@@ -174,8 +288,90 @@ public class Clients extends InitializableObject {
         setClients(new ArrayList<>(Arrays.asList(clients)));
     }
 
+    /**
+     * Return the clients: the list can be modified, each modification replaces the internal copy of the clients.
+     *
+     * @return the clients
+     */
     public List<Client> getClients() {
-        return this.clients;
+        return this.clientsView;
+    }
+
+    /**
+     * Return a copy of these clients, sharing the same client instances: the later changes of the list of clients
+     * are not visible in the copy, and conversely.
+     *
+     * @return a copy of these clients
+     */
+    public Clients copy() {
+        return copy(false);
+    }
+
+    /**
+     * Return an unmodifiable copy of these clients (like for a configuration snapshot), sharing the same client instances:
+     * the later changes of the list of clients are not visible in the copy, whose list of clients cannot be changed.
+     *
+     * @return an unmodifiable copy of these clients
+     */
+    public Clients unmodifiableCopy() {
+        return copy(true);
+    }
+
+    private Clients copy(final boolean unmodifiable) {
+        final var copy = new Clients();
+        // the list of clients and the registry are read together
+        synchronized (this) {
+            copy.clients = this.clients;
+            final var currentRegistry = this.registry;
+            if (currentRegistry != null && currentRegistry.getVersion() == this.version.get()) {
+                // already initialized: the copy shares the immutable registry
+                copy.version.set(currentRegistry.getVersion());
+                copy.registry = currentRegistry;
+            } else {
+                copy.version.incrementAndGet();
+            }
+        }
+        copy.callbackUrl = this.callbackUrl;
+        copy.ajaxRequestResolver = this.ajaxRequestResolver;
+        copy.urlResolver = this.urlResolver;
+        copy.callbackUrlResolver = this.callbackUrlResolver;
+        copy.authorizationGenerators = new ArrayList<>(this.authorizationGenerators);
+        copy.defaultSecurityClients = this.defaultSecurityClients;
+        copy.instrumentation = this.instrumentation;
+        copy.unmodifiable = unmodifiable;
+        return copy;
+    }
+
+    /**
+     * Define a listener called after each modification of these clients (like the {@link org.pac4j.core.config.ReloadableConfig}
+     * publishing the modified clients). The listener is not kept by the copies.
+     *
+     * @param modificationListener the modification listener
+     */
+    public void setModificationListener(final Runnable modificationListener) {
+        this.modificationListener = modificationListener;
+    }
+
+    private void modified() {
+        final var listener = this.modificationListener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    private void assertModifiable() {
+        if (unmodifiable) {
+            throw new TechnicalException("The clients of a configuration snapshot cannot be modified");
+        }
+    }
+
+    private synchronized <R> R updateClients(final Function<List<Client>, R> modification) {
+        assertModifiable();
+        final List<Client> newClients = new ArrayList<>(this.clients);
+        final var result = modification.apply(newClients);
+        this.clients = Collections.unmodifiableList(newClients);
+        this.version.incrementAndGet();
+        return result;
     }
 
     public AjaxRequestResolver getAjaxRequestResolver() {
@@ -184,6 +380,7 @@ public class Clients extends InitializableObject {
 
     public void setAjaxRequestResolver(final AjaxRequestResolver ajaxRequestResolver) {
         this.ajaxRequestResolver = ajaxRequestResolver;
+        modified();
     }
 
     public CallbackUrlResolver getCallbackUrlResolver() {
@@ -192,6 +389,7 @@ public class Clients extends InitializableObject {
 
     public void setCallbackUrlResolver(final CallbackUrlResolver callbackUrlResolver) {
         this.callbackUrlResolver = callbackUrlResolver;
+        modified();
     }
 
     public List<AuthorizationGenerator> getAuthorizationGenerators() {
@@ -201,11 +399,13 @@ public class Clients extends InitializableObject {
     public void setAuthorizationGenerators(final List<AuthorizationGenerator> authorizationGenerators) {
         CommonHelper.assertNotNull("authorizationGenerators", authorizationGenerators);
         this.authorizationGenerators = authorizationGenerators;
+        modified();
     }
 
     public void setAuthorizationGenerators(final AuthorizationGenerator... authorizationGenerators) {
         CommonHelper.assertNotNull("authorizationGenerators", authorizationGenerators);
         this.authorizationGenerators = Arrays.asList(authorizationGenerators);
+        modified();
     }
 
     public void setAuthorizationGenerator(final AuthorizationGenerator authorizationGenerator) {
@@ -215,6 +415,7 @@ public class Clients extends InitializableObject {
     public void addAuthorizationGenerator(final AuthorizationGenerator authorizationGenerator) {
         CommonHelper.assertNotNull("authorizationGenerator", authorizationGenerator);
         this.authorizationGenerators.add(authorizationGenerator);
+        modified();
     }
 
     public String getDefaultSecurityClients() {
@@ -223,6 +424,22 @@ public class Clients extends InitializableObject {
 
     public void setDefaultSecurityClients(final String defaultSecurityClients) {
         this.defaultSecurityClients = defaultSecurityClients;
+        modified();
+    }
+
+    public Instrumentation getInstrumentation() {
+        return instrumentation;
+    }
+
+    /**
+     * Define the instrumentation of the logics and (if not already defined) of the clients.
+     *
+     * @param instrumentation the instrumentation
+     */
+    public void setInstrumentation(final Instrumentation instrumentation) {
+        CommonHelper.assertNotNull("instrumentation", instrumentation);
+        this.instrumentation = instrumentation;
+        modified();
     }
 
     public UrlResolver getUrlResolver() {
@@ -231,6 +448,7 @@ public class Clients extends InitializableObject {
 
     public void setUrlResolver(final UrlResolver urlResolver) {
         this.urlResolver = urlResolver;
+        modified();
     }
 
     @Override
@@ -240,4 +458,45 @@ public class Clients extends InitializableObject {
                 "authorizationGenerators", authorizationGenerators, "defaultSecurityClients", defaultSecurityClients,
                 "urlResolver", this.urlResolver);
     }
+
+    /**
+     * Live view of the clients, the modifications are copied on write.
+     */
+    private final class ClientsView extends AbstractList<Client> {
+
+        @Override
+        public Client get(final int index) {
+            return clients.get(index);
+        }
+
+        @Override
+        public int size() {
+            return clients.size();
+        }
+
+        @Override
+        public Client set(final int index, final Client client) {
+            final var previous = updateClients(list -> list.set(index, client));
+            modified();
+            return previous;
+        }
+
+        @Override
+        public void add(final int index, final Client client) {
+            updateClients(list -> {
+                list.add(index, client);
+                return null;
+            });
+            modCount++;
+            modified();
+        }
+
+        @Override
+        public Client remove(final int index) {
+            final var client = updateClients(list -> list.remove(index));
+            modCount++;
+            modified();
+            return client;
+        }
+    }
 }
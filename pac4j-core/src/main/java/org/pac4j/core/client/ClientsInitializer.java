@@ -0,0 +1,240 @@
+package org.pac4j.core.client;
+
+import org.pac4j.core.util.CommonHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Initialize the clients at startup, in parallel on a bounded pool of threads: each client is waited for up to the timeout
+ * (from the start of its initialization), a longer initialization goes on in the background.
+ *
+ * In the lazy mode, no client is initialized at startup: each client is initialized when it is first used (with a lock
+ * on this client only). Finding the client of a callback does not initialize the other clients.
+ *
+ * The readiness of each client is reported by the {@link #getStates()} method.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public class ClientsInitializer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClientsInitializer.class);
+
+    /**
+     * The initialization state of a client.
+     */
+    public enum State {
+        /** Not initialized yet (lazy mode or waiting for a thread). */
+        PENDING,
+        /** Initialized. */
+        READY,
+        /** Still initializing after the timeout. */
+        TIMED_OUT,
+        /** Failed to initialize. */
+        FAILED
+    }
+
+    private final Map<String, State> states = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> startTimes = new ConcurrentHashMap<>();
+
+    private Clients clients;
+
+    private Executor executor;
+
+    private int threads = 4;
+
+    private int timeout = 30;
+
+    private boolean lazy;
+
+    public ClientsInitializer() {}
+
+    public ClientsInitializer(final Clients clients) {
+        this.clients = clients;
+    }
+
+    /**
+     * Initialize the clients (unless in lazy mode).
+     *
+     * @return the initialization states of the clients
+     */
+    public Map<String, State> initialize() {
+        CommonHelper.assertNotNull("clients", clients);
+        CommonHelper.assertTrue(this.timeout > 0, "timeout must be greater than zero");
+
+        clients.init();
+        if (lazy) {
+            LOGGER.debug("Lazy mode: the clients will be initialized on first use");
+            return getStates();
+        }
+
+        var currentExecutor = this.executor;
+        ExecutorService builtExecutor = null;
+        if (currentExecutor == null) {
+            CommonHelper.assertTrue(this.threads > 0, "threads must be greater than zero");
+            builtExecutor = Executors.newFixedThreadPool(this.threads, runnable -> {
+                final var thread = new Thread(runnable, "pac4j-clients-initializer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            currentExecutor = builtExecutor;
+        }
+        try {
+            final Map<String, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+            for (final var client : clients.findAllClients()) {
+                final var name = client.getName();
+                states.put(name, State.PENDING);
+                futures.put(name, CompletableFuture.runAsync(() -> initClient(name, client), currentExecutor));
+            }
+            for (final var entry : futures.entrySet()) {
+                waitFor(entry.getKey(), entry.getValue());
+            }
+        } finally {
+            if (builtExecutor != null) {
+                // the initializations which have timed out go on
+                builtExecutor.shutdown();
+            }
+        }
+        final var result = getStates();
+        LOGGER.info("Clients initialized: {}", result);
+        return result;
+    }
+
+    protected void initClient(final String name, final Client client) {
+        startTimes.put(name, System.currentTimeMillis());
+        try {
+            if (client instanceof BaseClient) {
+                ((BaseClient) client).init();
+            }
+            states.put(name, State.READY);
+        } catch (final RuntimeException e) {
+            LOGGER.error("Unable to initialize the client: {}", name, e);
+            states.put(name, State.FAILED);
+        }
+    }
+
+    private void waitFor(final String name, final CompletableFuture<Void> future) {
+        final var timeoutInMillis = TimeUnit.SECONDS.toMillis(timeout);
+        final var waitStartTime = System.currentTimeMillis();
+        while (true) {
+            // a client still waiting for a thread is waited for from now
+            final var startTime = Math.max(waitStartTime, startTimes.getOrDefault(name, waitStartTime));
+            final var waitTime = startTime + timeoutInMillis - System.currentTimeMillis();
+            if (waitTime <= 0) {
+                LOGGER.warn("The initialization of the client: {} takes more than {} seconds", name, timeout);
+                states.replace(name, State.PENDING, State.TIMED_OUT);
+                return;
+            }
+            try {
+                future.get(waitTime, TimeUnit.MILLISECONDS);
+                return;
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (final ExecutionException e) {
+                return;
+            } catch (final TimeoutException e) {
+                LOGGER.debug("Still waiting for the client: {}", name);
+            }
+        }
+    }
+
+    /**
+     * Return the initialization state of the client.
+     *
+     * @param name the name of the client
+     * @return the initialization state
+     */
+    public State getState(final String name) {
+        final var client = clients.findClient(name);
+        if (client.isPresent() && (!(client.get() instanceof BaseClient) || ((BaseClient) client.get()).isInitialized())) {
+            return State.READY;
+        }
+        final var state = states.getOrDefault(name, State.PENDING);
+        return state == State.READY ? State.PENDING : state;
+    }
+
+    /**
+     * Return the initialization states of all the clients.
+     *
+     * @return the initialization states by client name
+     */
+    public Map<String, State> getStates() {
+        final Map<String, State> result = new LinkedHashMap<>();
+        for (final var client : clients.findAllClients()) {
+            result.put(client.getName(), getState(client.getName()));
+        }
+        return result;
+    }
+
+    /**
+     * Whether all the clients are initialized.
+     *
+     * @return whether all the clients are ready
+     */
+    public boolean isReady() {
+        return getStates().values().stream().allMatch(state -> state == State.READY);
+    }
+
+    public Clients getClients() {
+        return clients;
+    }
+
+    public void setClients(final Clients clients) {
+        this.clients = clients;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public void setExecutor(final Executor executor) {
+        this.executor = executor;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(final int threads) {
+        this.threads = threads;
+    }
+
+    public int getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Define how long the initialization of a client is waited for.
+     *
+     * @param timeout the timeout (in seconds)
+     */
+    public void setTimeout(final int timeout) {
+        this.timeout = timeout;
+    }
+
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    public void setLazy(final boolean lazy) {
+        this.lazy = lazy;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "clients", clients, "threads", threads, "timeout", timeout, "lazy", lazy);
+    }
+}
@@ -0,0 +1,175 @@
+package org.pac4j.core.client;
+
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.http.callback.CallbackUrlResolver;
+import org.pac4j.core.http.callback.IndexableCallbackUrlResolver;
+import org.pac4j.core.http.callback.NoParameterCallbackUrlResolver;
+import org.pac4j.core.http.callback.PathParameterCallbackUrlResolver;
+import org.pac4j.core.http.callback.QueryParameterCallbackUrlResolver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable index of the clients: by name and, lazily, by callback. Building the callback index does not initialize the indirect
+ * clients: only their callback URL resolvers are needed.
+ *
+ * A new registry is built for each change of the clients (copy-on-write). The callback index is built again when a callback
+ * URL resolver of an indirect client is changed.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+final class ClientsRegistry {
+
+    private final int version;
+
+    private final List<Client> clients;
+
+    private final Map<String, Client> clientsByName;
+
+    private final Map<String, Integer> positions;
+
+    private volatile CallbackIndex callbackIndex;
+
+    ClientsRegistry(final int version, final List<Client> clients, final Map<String, Client> clientsByName) {
+        this.version = version;
+        this.clients = clients;
+        this.clientsByName = clientsByName;
+        this.positions = new HashMap<>();
+        for (var i = 0; i < clients.size(); i++) {
+            positions.put(normalizeName(clients.get(i).getName()), i);
+        }
+    }
+
+    static String normalizeName(final String name) {
+        return name.toLowerCase().trim();
+    }
+
+    int getVersion() {
+        return version;
+    }
+
+    boolean containsName(final String name) {
+        return clientsByName.containsKey(normalizeName(name));
+    }
+
+    Client findClient(final String name) {
+        return clientsByName.get(normalizeName(name));
+    }
+
+    ClientsRegistry withClient(final int newVersion, final List<Client> newClients, final Client client) {
+        final Map<String, Client> newClientsByName = new HashMap<>(clientsByName);
+        newClientsByName.put(normalizeName(client.getName()), client);
+        return new ClientsRegistry(newVersion, newClients, newClientsByName);
+    }
+
+    ClientsRegistry withoutClient(final int newVersion, final List<Client> newClients, final Client client) {
+        final Map<String, Client> newClientsByName = new HashMap<>(clientsByName);
+        newClientsByName.remove(normalizeName(client.getName()));
+        return new ClientsRegistry(newVersion, newClients, newClientsByName);
+    }
+
+    List<IndirectClient> findAllIndirectClients() {
+        return Collections.unmodifiableList(getCallbackIndex().indirectClients);
+    }
+
+    List<Client> findCallbackClients(final WebContext context) {
+        final var index = getCallbackIndex();
+        final List<Client> result = new ArrayList<>();
+        for (final var group : index.indexedClients.values()) {
+            final var name = group.resolver.extractClientName(context);
+            if (name.isPresent()) {
+                final var client = group.clients.get(normalizeName(name.get()));
+                if (client != null) {
+                    result.add(client);
+                }
+            }
+        }
+        for (final var client : index.scannedClients) {
+            if (client.resolveCallbackUrlResolver().matches(client.getName(), context)) {
+                result.add(client);
+            }
+        }
+        if (result.size() > 1) {
+            result.sort(Comparator.comparing(client -> positions.get(normalizeName(client.getName()))));
+        }
+        return result;
+    }
+
+    private CallbackIndex getCallbackIndex() {
+        var index = this.callbackIndex;
+        if (index == null || index.resolverChanges != IndirectClient.getCallbackUrlResolverChanges()) {
+            index = new CallbackIndex(clients);
+            this.callbackIndex = index;
+        }
+        return index;
+    }
+
+    /*
+     * Only the built-in resolvers and the direct implementations of IndexableCallbackUrlResolver are indexed: a subclass of
+     * a built-in resolver may override its matching without overriding its extraction of the client name.
+     */
+    private static boolean isIndexable(final CallbackUrlResolver resolver) {
+        if (!(resolver instanceof IndexableCallbackUrlResolver)) {
+            return false;
+        }
+        final var resolverClass = resolver.getClass();
+        if (resolverClass == QueryParameterCallbackUrlResolver.class || resolverClass == PathParameterCallbackUrlResolver.class
+            || resolverClass == NoParameterCallbackUrlResolver.class) {
+            return true;
+        }
+        return !(resolver instanceof QueryParameterCallbackUrlResolver || resolver instanceof PathParameterCallbackUrlResolver
+            || resolver instanceof NoParameterCallbackUrlResolver);
+    }
+
+    /**
+     * The indirect clients grouped by callback URL resolver: indexed by name if the resolver supports it, to be tested otherwise.
+     */
+    private static final class CallbackIndex {
+
+        private final int resolverChanges = IndirectClient.getCallbackUrlResolverChanges();
+
+        private final List<IndirectClient> indirectClients = new ArrayList<>();
+
+        private final Map<Object, IndexedClients> indexedClients = new LinkedHashMap<>();
+
+        private final List<IndirectClient> scannedClients = new ArrayList<>();
+
+        private CallbackIndex(final List<Client> clients) {
+            for (final var client : clients) {
+                if (client instanceof IndirectClient) {
+                    final var indirectClient = (IndirectClient) client;
+                    indirectClients.add(indirectClient);
+                    final CallbackUrlResolver callbackUrlResolver = indirectClient.resolveCallbackUrlResolver();
+                    if (isIndexable(callbackUrlResolver)) {
+                        final var resolver = (IndexableCallbackUrlResolver) callbackUrlResolver;
+                        indexedClients.computeIfAbsent(resolver.getIndexKey(), k -> new IndexedClients(resolver)).clients
+                            .put(normalizeName(indirectClient.getName()), indirectClient);
+                    } else {
+                        scannedClients.add(indirectClient);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The clients indexed by name for a callback URL resolver (the first one of its index key).
+     */
+    private static final class IndexedClients {
+
+        private final IndexableCallbackUrlResolver resolver;
+
+        private final Map<String, IndirectClient> clients = new HashMap<>();
+
+        private IndexedClients(final IndexableCallbackUrlResolver resolver) {
+            this.resolver = resolver;
+        }
+    }
+}
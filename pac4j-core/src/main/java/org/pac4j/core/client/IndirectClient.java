@@ -19,6 +19,8 @@ import org.pac4j.core.util.HttpActionHelper;
 import org.pac4j.core.util.Pac4jConstants;
 
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import static org.pac4j.core.util.CommonHelper.*;
 
@@ -36,11 +38,17 @@ public abstract class IndirectClient extends BaseClient {
     private static final String NONCE_SESSION_PARAMETER = "$nonceSessionParameter";
     private static final String CODE_VERIFIER_SESSION_PARAMETER = "$codeVerifierSessionParameter";
 
+    // the changes of the callback URL resolvers (of all the indirect clients) invalidate the callback indexes of the clients
+    private static final AtomicInteger CALLBACK_URL_RESOLVER_CHANGES = new AtomicInteger();
+
+    private static final AtomicReferenceFieldUpdater<IndirectClient, CallbackUrlResolver> CALLBACK_URL_RESOLVER_UPDATER =
+        AtomicReferenceFieldUpdater.newUpdater(IndirectClient.class, CallbackUrlResolver.class, "callbackUrlResolver");
+
     protected String callbackUrl;
 
     protected UrlResolver urlResolver;
 
-    protected CallbackUrlResolver callbackUrlResolver;
+    protected volatile CallbackUrlResolver callbackUrlResolver;
 
     private AjaxRequestResolver ajaxRequestResolver;
 
@@ -57,9 +65,8 @@ public abstract class IndirectClient extends BaseClient {
         if (this.urlResolver == null) {
             this.urlResolver = new DefaultUrlResolver();
         }
-        if (this.callbackUrlResolver == null) {
-            this.callbackUrlResolver = newDefaultCallbackUrlResolver();
-        }
+        // a resolver defined concurrently is kept
+        CALLBACK_URL_RESOLVER_UPDATER.compareAndSet(this, null, newDefaultCallbackUrlResolver());
         if (this.ajaxRequestResolver == null) {
             ajaxRequestResolver = new DefaultAjaxRequestResolver();
         }
@@ -82,6 +89,22 @@ public abstract class IndirectClient extends BaseClient {
         return new QueryParameterCallbackUrlResolver();
     }
 
+    /**
+     * Return the callback URL resolver, or a default one if none is defined, without initializing the client
+     * (to find the client of a callback before initializing it). The default resolver is only kept by the initialization,
+     * as it may depend on the configuration of the client: the ones built before match the same callbacks.
+     *
+     * @return the callback URL resolver
+     */
+    CallbackUrlResolver resolveCallbackUrlResolver() {
+        final var resolver = this.callbackUrlResolver;
+        return resolver != null ? resolver : newDefaultCallbackUrlResolver();
+    }
+
+    static int getCallbackUrlResolverChanges() {
+        return CALLBACK_URL_RESOLVER_CHANGES.get();
+    }
+
     /**
      * <p>If an authentication has already been tried for this client and has failed (<code>null</code> credentials) or if the request is
      * an AJAX one, an unauthorized response is thrown instead of a "redirection".</p>
@@ -184,6 +207,7 @@ public abstract class IndirectClient extends BaseClient {
 
     public void setCallbackUrlResolver(final CallbackUrlResolver callbackUrlResolver) {
         this.callbackUrlResolver = callbackUrlResolver;
+        CALLBACK_URL_RESOLVER_CHANGES.incrementAndGet();
     }
 
     public AjaxRequestResolver getAjaxRequestResolver() {
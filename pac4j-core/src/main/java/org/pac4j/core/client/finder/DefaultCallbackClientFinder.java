@@ -2,7 +2,6 @@ package org.pac4j.core.client.finder;
 
 import org.pac4j.core.client.Client;
 import org.pac4j.core.client.Clients;
-import org.pac4j.core.client.IndirectClient;
 import org.pac4j.core.context.WebContext;
 import org.pac4j.core.util.CommonHelper;
 import org.slf4j.Logger;
@@ -27,19 +26,8 @@ public class DefaultCallbackClientFinder implements ClientFinder {
     @Override
     public List<Client> find(final Clients clients, final WebContext context, final String clientNames) {
 
-        final List<Client> result = new ArrayList<>();
-        final List<Client> indirectClients = new ArrayList<>();
-
-        for (final var client : clients.findAllClients()) {
-            if (client instanceof IndirectClient) {
-                final var indirectClient = (IndirectClient) client;
-                indirectClients.add(client);
-                indirectClient.init();
-                if (indirectClient.getCallbackUrlResolver().matches(indirectClient.getName(), context)) {
-                    result.add(indirectClient);
-                }
-            }
-        }
+        final List<Client> result = new ArrayList<>(clients.findCallbackClients(context));
+        final var indirectClients = clients.findAllIndirectClients();
         logger.debug("result: {}", result.stream().map(Client::getName).collect(Collectors.toList()));
 
         // fallback: no client found and we have a default client, use it
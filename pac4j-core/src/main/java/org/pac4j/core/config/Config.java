@@ -32,7 +32,7 @@ public class Config {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(Config.class);
 
-    private ProfileManagerFactory profileManagerFactory;
+    protected ProfileManagerFactory profileManagerFactory;
 
     protected Clients clients;
 
@@ -113,6 +113,16 @@ public class Config {
         setAuthorizers(authorizers);
     }
 
+    /**
+     * Return the configuration to use for a whole request: the configuration itself by default, the current immutable
+     * snapshot for a {@link ReloadableConfig}.
+     *
+     * @return the configuration to use
+     */
+    public Config snapshot() {
+        return this;
+    }
+
     public Clients getClients() {
         return clients;
     }
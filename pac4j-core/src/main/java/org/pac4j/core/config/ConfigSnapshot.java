@@ -0,0 +1,169 @@
+package org.pac4j.core.config;
+
+import org.pac4j.core.authorization.authorizer.Authorizer;
+import org.pac4j.core.client.Clients;
+import org.pac4j.core.context.WebContextFactory;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.context.session.SessionStoreFactory;
+import org.pac4j.core.engine.CallbackLogic;
+import org.pac4j.core.engine.LogoutLogic;
+import org.pac4j.core.engine.SecurityLogic;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.http.adapter.HttpActionAdapter;
+import org.pac4j.core.matching.matcher.Matcher;
+import org.pac4j.core.profile.factory.ProfileManagerFactory;
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An immutable copy of a configuration: the clients, authorizers and matchers are copied and all the setters fail.
+ * The list of clients of the snapshot cannot be changed either.
+ *
+ * The components themselves (client, authorizer... instances) are shared with the original configuration and must not be changed.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public final class ConfigSnapshot extends Config {
+
+    public ConfigSnapshot(final Config config) {
+        CommonHelper.assertNotNull("config", config);
+        final var source = config.snapshot();
+        this.clients = source.clients != null ? source.clients.unmodifiableCopy() : null;
+        this.authorizers = Collections.unmodifiableMap(new LinkedHashMap<>(source.authorizers));
+        this.matchers = Collections.unmodifiableMap(new LinkedHashMap<>(source.matchers));
+        this.sessionStore = source.sessionStore;
+        this.httpActionAdapter = source.httpActionAdapter;
+        this.securityLogic = source.securityLogic;
+        this.callbackLogic = source.callbackLogic;
+        this.logoutLogic = source.logoutLogic;
+        this.webContextFactory = source.webContextFactory;
+        this.sessionStoreFactory = source.sessionStoreFactory;
+        this.profileManagerFactory = source.profileManagerFactory;
+    }
+
+    /**
+     * Build a new mutable configuration from this snapshot.
+     *
+     * @return a mutable configuration
+     */
+    public Config toConfig() {
+        final var config = new Config();
+        config.clients = this.clients != null ? this.clients.copy() : null;
+        config.authorizers = new LinkedHashMap<>(this.authorizers);
+        config.matchers = new LinkedHashMap<>(this.matchers);
+        config.sessionStore = this.sessionStore;
+        config.httpActionAdapter = this.httpActionAdapter;
+        config.securityLogic = this.securityLogic;
+        config.callbackLogic = this.callbackLogic;
+        config.logoutLogic = this.logoutLogic;
+        config.webContextFactory = this.webContextFactory;
+        config.sessionStoreFactory = this.sessionStoreFactory;
+        config.profileManagerFactory = this.profileManagerFactory;
+        return config;
+    }
+
+    private static TechnicalException immutable() {
+        return new TechnicalException("A configuration snapshot cannot be modified");
+    }
+
+    @Override
+    public Config snapshot() {
+        return this;
+    }
+
+    @Override
+    public void setClients(final Clients clients) {
+        throw immutable();
+    }
+
+    @Override
+    public void setAuthorizer(final Authorizer authorizer) {
+        throw immutable();
+    }
+
+    @Override
+    public void setAuthorizers(final Map<String, Authorizer> authorizers) {
+        throw immutable();
+    }
+
+    @Override
+    public void addAuthorizer(final String name, final Authorizer authorizer) {
+        throw immutable();
+    }
+
+    @Override
+    public void setMatcher(final Matcher matcher) {
+        throw immutable();
+    }
+
+    @Override
+    public void setMatchers(final Map<String, Matcher> matchers) {
+        throw immutable();
+    }
+
+    @Override
+    public void addMatcher(final String name, final Matcher matcher) {
+        throw immutable();
+    }
+
+    @Override
+    @Deprecated
+    public void setSessionStore(final SessionStore sessionStore) {
+        throw immutable();
+    }
+
+    @Override
+    @Deprecated
+    public void defaultSessionStore(final SessionStore sessionStore) {
+        throw immutable();
+    }
+
+    @Override
+    public void setHttpActionAdapter(final HttpActionAdapter httpActionAdapter) {
+        throw immutable();
+    }
+
+    @Override
+    public void setSecurityLogic(final SecurityLogic securityLogic) {
+        throw immutable();
+    }
+
+    @Override
+    public void setCallbackLogic(final CallbackLogic callbackLogic) {
+        throw immutable();
+    }
+
+    @Override
+    public void setLogoutLogic(final LogoutLogic logoutLogic) {
+        throw immutable();
+    }
+
+    @Override
+    public void setWebContextFactory(final WebContextFactory webContextFactory) {
+        throw immutable();
+    }
+
+    @Override
+    public void setSessionStoreFactory(final SessionStoreFactory sessionStoreFactory) {
+        throw immutable();
+    }
+
+    @Override
+    public void defaultSessionStoreFactory(final SessionStoreFactory sessionStoreFactory) {
+        throw immutable();
+    }
+
+    @Override
+    public void setProfileManagerFactory(final ProfileManagerFactory profileManagerFactory) {
+        throw immutable();
+    }
+
+    @Override
+    public void defaultProfileManagerFactory(final ProfileManagerFactory profileManagerFactory) {
+        throw immutable();
+    }
+}
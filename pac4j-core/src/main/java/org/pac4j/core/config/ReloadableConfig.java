@@ -0,0 +1,394 @@
+package org.pac4j.core.config;
+
+import org.pac4j.core.authorization.authorizer.Authorizer;
+import org.pac4j.core.client.Clients;
+import org.pac4j.core.context.WebContextFactory;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.context.session.SessionStoreFactory;
+import org.pac4j.core.engine.CallbackLogic;
+import org.pac4j.core.engine.LogoutLogic;
+import org.pac4j.core.engine.SecurityLogic;
+import org.pac4j.core.http.adapter.HttpActionAdapter;
+import org.pac4j.core.matching.matcher.Matcher;
+import org.pac4j.core.profile.factory.ProfileManagerFactory;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.InitializableObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A configuration which can be reloaded at runtime: it delegates to an immutable {@link ConfigSnapshot} which is replaced
+ * by a single atomic swap. The logics use the same snapshot for a whole request (see {@link #snapshot()}).
+ *
+ * A new configuration is validated and its clients initialized before being published (by {@link #reload(Config)} or in
+ * the background by {@link #reloadAsync(Supplier, Executor)}). The setters also publish a new snapshot, like the modifications
+ * of the clients, authorizers and matchers returned by the getters (copy-on-write): <code>config.getClients().addClient(..)</code>
+ * or <code>config.getAuthorizers().put(..)</code> work as for a regular configuration.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public class ReloadableConfig extends Config {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReloadableConfig.class);
+
+    private final AtomicReference<ConfigSnapshot> current = new AtomicReference<>();
+
+    private boolean initClients = true;
+
+    // the modifiable clients returned by getClients(), whose modifications are published
+    private Clients liveClients;
+
+    private final Map<String, Authorizer> authorizersView = new SnapshotMapView<>(Config::getAuthorizers);
+
+    private final Map<String, Matcher> matchersView = new SnapshotMapView<>(Config::getMatchers);
+
+    public ReloadableConfig() {
+        this(new Config());
+    }
+
+    /**
+     * The initial configuration is published as is (the clients are initialized lazily).
+     *
+     * @param config the initial configuration
+     */
+    public ReloadableConfig(final Config config) {
+        current.set(new ConfigSnapshot(config));
+    }
+
+    @Override
+    public ConfigSnapshot snapshot() {
+        return current.get();
+    }
+
+    /**
+     * Validate and initialize a new configuration, then publish it.
+     *
+     * @param config the new configuration
+     * @return the published snapshot
+     */
+    public ConfigSnapshot reload(final Config config) {
+        final var snapshot = prepare(config);
+        synchronized (this) {
+            current.set(snapshot);
+            liveClients = null;
+        }
+        LOGGER.info("New configuration published: {}", snapshot.getClients());
+        return snapshot;
+    }
+
+    /**
+     * Build, validate and initialize a new configuration in the background, then publish it. The current configuration
+     * is kept if any error occurs.
+     *
+     * @param configSupplier the supplier of the new configuration
+     * @param executor the executor
+     * @return the future published snapshot
+     */
+    public CompletableFuture<ConfigSnapshot> reloadAsync(final Supplier<Config> configSupplier, final Executor executor) {
+        CommonHelper.assertNotNull("configSupplier", configSupplier);
+        CommonHelper.assertNotNull("executor", executor);
+        return CompletableFuture.supplyAsync(() -> reload(configSupplier.get()), executor);
+    }
+
+    /**
+     * Validate the configuration and initialize its clients (if enabled).
+     *
+     * @param config the configuration
+     * @return the snapshot of the configuration
+     */
+    protected ConfigSnapshot prepare(final Config config) {
+        CommonHelper.assertNotNull("config", config);
+        final var snapshot = new ConfigSnapshot(config);
+        final var clients = snapshot.getClients();
+        if (clients != null) {
+            clients.init();
+            if (initClients) {
+                for (final var client : clients.findAllClients()) {
+                    if (client instanceof InitializableObject) {
+                        ((InitializableObject) client).init();
+                    }
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Publish a modified copy of the current configuration (without any initialization).
+     *
+     * @param modification the modification
+     */
+    protected synchronized void update(final Consumer<Config> modification) {
+        final var config = current.get().toConfig();
+        modification.accept(config);
+        current.set(new ConfigSnapshot(config));
+    }
+
+    public boolean isInitClients() {
+        return initClients;
+    }
+
+    public void setInitClients(final boolean initClients) {
+        this.initClients = initClients;
+    }
+
+    /**
+     * Return modifiable clients: a copy of the clients of the current snapshot, whose modifications publish a new snapshot.
+     *
+     * @return the clients
+     */
+    @Override
+    public synchronized Clients getClients() {
+        if (liveClients == null) {
+            final var snapshotClients = current.get().getClients();
+            if (snapshotClients == null) {
+                return null;
+            }
+            final var clients = snapshotClients.copy();
+            clients.setModificationListener(() -> publishClients(clients));
+            liveClients = clients;
+        }
+        return liveClients;
+    }
+
+    private synchronized void publishClients(final Clients clients) {
+        if (clients == liveClients) {
+            update(config -> config.setClients(clients));
+        } else {
+            LOGGER.warn("Clients modified after a reload or a replacement of the clients: the modification is ignored");
+        }
+    }
+
+    @Override
+    public synchronized void setClients(final Clients clients) {
+        update(config -> config.setClients(clients));
+        liveClients = null;
+    }
+
+    /**
+     * Return a view of the authorizers of the current snapshot, whose modifications publish a new snapshot.
+     *
+     * @return the authorizers
+     */
+    @Override
+    public Map<String, Authorizer> getAuthorizers() {
+        return authorizersView;
+    }
+
+    @Override
+    public void setAuthorizer(final Authorizer authorizer) {
+        update(config -> config.setAuthorizer(authorizer));
+    }
+
+    @Override
+    public void setAuthorizers(final Map<String, Authorizer> authorizers) {
+        update(config -> config.setAuthorizers(authorizers));
+    }
+
+    @Override
+    public void addAuthorizer(final String name, final Authorizer authorizer) {
+        update(config -> config.addAuthorizer(name, authorizer));
+    }
+
+    /**
+     * Return a view of the matchers of the current snapshot, whose modifications publish a new snapshot.
+     *
+     * @return the matchers
+     */
+    @Override
+    public Map<String, Matcher> getMatchers() {
+        return matchersView;
+    }
+
+    @Override
+    public void setMatcher(final Matcher matcher) {
+        update(config -> config.setMatcher(matcher));
+    }
+
+    @Override
+    public void setMatchers(final Map<String, Matcher> matchers) {
+        update(config -> config.setMatchers(matchers));
+    }
+
+    @Override
+    public void addMatcher(final String name, final Matcher matcher) {
+        update(config -> config.addMatcher(name, matcher));
+    }
+
+    @Override
+    @Deprecated
+    public SessionStore getSessionStore() {
+        return current.get().getSessionStore();
+    }
+
+    @Override
+    @Deprecated
+    public void setSessionStore(final SessionStore sessionStore) {
+        update(config -> config.setSessionStore(sessionStore));
+    }
+
+    @Override
+    @Deprecated
+    public void defaultSessionStore(final SessionStore sessionStore) {
+        update(config -> config.defaultSessionStore(sessionStore));
+    }
+
+    @Override
+    public HttpActionAdapter getHttpActionAdapter() {
+        return current.get().getHttpActionAdapter();
+    }
+
+    @Override
+    public void setHttpActionAdapter(final HttpActionAdapter httpActionAdapter) {
+        update(config -> config.setHttpActionAdapter(httpActionAdapter));
+    }
+
+    @Override
+    public SecurityLogic getSecurityLogic() {
+        return current.get().getSecurityLogic();
+    }
+
+    @Override
+    public void setSecurityLogic(final SecurityLogic securityLogic) {
+        update(config -> config.setSecurityLogic(securityLogic));
+    }
+
+    @Override
+    public CallbackLogic getCallbackLogic() {
+        return current.get().getCallbackLogic();
+    }
+
+    @Override
+    public void setCallbackLogic(final CallbackLogic callbackLogic) {
+        update(config -> config.setCallbackLogic(callbackLogic));
+    }
+
+    @Override
+    public LogoutLogic getLogoutLogic() {
+        return current.get().getLogoutLogic();
+    }
+
+    @Override
+    public void setLogoutLogic(final LogoutLogic logoutLogic) {
+        update(config -> config.setLogoutLogic(logoutLogic));
+    }
+
+    @Override
+    public WebContextFactory getWebContextFactory() {
+        return current.get().getWebContextFactory();
+    }
+
+    @Override
+    public void setWebContextFactory(final WebContextFactory webContextFactory) {
+        update(config -> config.setWebContextFactory(webContextFactory));
+    }
+
+    @Override
+    public SessionStoreFactory getSessionStoreFactory() {
+        return current.get().getSessionStoreFactory();
+    }
+
+    @Override
+    public void setSessionStoreFactory(final SessionStoreFactory sessionStoreFactory) {
+        update(config -> config.setSessionStoreFactory(sessionStoreFactory));
+    }
+
+    @Override
+    public void defaultSessionStoreFactory(final SessionStoreFactory sessionStoreFactory) {
+        update(config -> config.defaultSessionStoreFactory(sessionStoreFactory));
+    }
+
+    @Override
+    public ProfileManagerFactory getProfileManagerFactory() {
+        return current.get().getProfileManagerFactory();
+    }
+
+    @Override
+    public void setProfileManagerFactory(final ProfileManagerFactory profileManagerFactory) {
+        update(config -> config.setProfileManagerFactory(profileManagerFactory));
+    }
+
+    @Override
+    public void defaultProfileManagerFactory(final ProfileManagerFactory profileManagerFactory) {
+        update(config -> config.defaultProfileManagerFactory(profileManagerFactory));
+    }
+
+    /**
+     * A view of a map of the current snapshot: the reads use the current snapshot, the writes publish a new one.
+     */
+    private final class SnapshotMapView<V> extends AbstractMap<String, V> {
+
+        private final Function<Config, Map<String, V>> getter;
+
+        private SnapshotMapView(final Function<Config, Map<String, V>> getter) {
+            this.getter = getter;
+        }
+
+        private Map<String, V> current() {
+            return getter.apply(current.get());
+        }
+
+        private <R> R modify(final Function<Map<String, V>, R> modification) {
+            final var result = new AtomicReference<R>();
+            update(config -> result.set(modification.apply(getter.apply(config))));
+            return result.get();
+        }
+
+        @Override
+        public Set<Entry<String, V>> entrySet() {
+            return current().entrySet();
+        }
+
+        @Override
+        public V get(final Object key) {
+            return current().get(key);
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return current().containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return current().size();
+        }
+
+        @Override
+        public V put(final String key, final V value) {
+            return modify(map -> map.put(key, value));
+        }
+
+        @Override
+        public V remove(final Object key) {
+            return modify(map -> map.remove(key));
+        }
+
+        @Override
+        public void putAll(final Map<? extends String, ? extends V> map) {
+            modify(m -> {
+                m.putAll(map);
+                return null;
+            });
+        }
+
+        @Override
+        public void clear() {
+            modify(map -> {
+                map.clear();
+                return null;
+            });
+        }
+    }
+}
@@ -0,0 +1,518 @@
+package org.pac4j.core.context.session;
+
+import org.pac4j.core.context.Cookie;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.store.GuavaStore;
+import org.pac4j.core.store.Store;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.InitializableObject;
+import org.pac4j.core.util.serializer.JavaSerializer;
+import org.pac4j.core.util.serializer.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A session store which keeps the session data in a key-value {@link Store} (shared by all the nodes), independently
+ * of the web session of the framework.
+ *
+ * The browser only holds a signed cookie with the session identifier, the version of the session data and its expiration.
+ * The first modification of a request saves the (serialized) session data under a new version and writes the cookie: the next
+ * modifications of the same request update this version without writing the cookie again. So the data of a version are no longer
+ * modified once the request is over and are cached on each node (near cache, with Guava by default): the reads of a current
+ * session need no access to the shared store. The session data are also kept in the request during a request.
+ *
+ * When a new version is saved, the previous one is only dropped from the near cache: it is left in the shared store, so that
+ * the concurrent requests of the session can still read it, and the shared store must expire its entries (a bit after
+ * <code>sessionTimeout</code>). The current version is removed from the shared store when the session is renewed or destroyed,
+ * so its cookie is no longer valid (except on the nodes which still cache its data, until the end of their expiration).
+ * The cookie expires after <code>sessionTimeout</code> seconds of inactivity: it is written again (with a new version)
+ * once half of this timeout has elapsed.
+ * The concurrent modifications of a session are not merged: the last saved version wins.
+ * The back-channel logout is not supported as the session cannot be found without its cookie.
+ *
+ * Add the <code>guava</code> dependency to use the default near cache.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public class DistributedSessionStore extends InitializableObject implements SessionStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DistributedSessionStore.class);
+
+    private static final String CURRENT_SESSION = "pac4jDistributedSession";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private static final Session NO_SESSION = new Session(null, 0, 0, Collections.emptyMap(), false);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private SecretKeySpec signingKey;
+
+    private Store<String, byte[]> store;
+
+    private Store<String, Map<String, Object>> localStore;
+
+    private Serializer serializer = new JavaSerializer();
+
+    private String signingSecret;
+
+    private int localCacheSize = 10000;
+
+    private int localCacheTimeout = 30;
+
+    private int sessionTimeout = 1800;
+
+    private String cookieName = "pac4jSession";
+
+    private String cookiePath = "/";
+
+    private String cookieDomain;
+
+    private boolean cookieSecure = true;
+
+    private String cookieSameSitePolicy = "Lax";
+
+    private int cookieMaxAge = -1;
+
+    public DistributedSessionStore() {}
+
+    public DistributedSessionStore(final Store<String, byte[]> store, final String signingSecret) {
+        this.store = store;
+        this.signingSecret = signingSecret;
+    }
+
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        CommonHelper.assertNotNull("store", store);
+        CommonHelper.assertNotNull("serializer", serializer);
+        CommonHelper.assertNotBlank("signingSecret", signingSecret);
+        CommonHelper.assertNotBlank("cookieName", cookieName);
+        CommonHelper.assertTrue(sessionTimeout > 0, "sessionTimeout must be greater than zero");
+
+        this.signingKey = new SecretKeySpec(signingSecret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        if (this.localStore == null && this.localCacheSize > 0) {
+            this.localStore = new GuavaStore<>(localCacheSize, localCacheTimeout, TimeUnit.MINUTES);
+        }
+    }
+
+    @Override
+    public Optional<String> getSessionId(final WebContext context, final boolean createSession) {
+        init();
+
+        final var session = currentSession(context);
+        if (session != NO_SESSION) {
+            return Optional.of(session.id);
+        } else if (createSession) {
+            return Optional.of(createSession(context).id);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<Object> get(final WebContext context, final String key) {
+        init();
+
+        return Optional.ofNullable(currentSession(context).data.get(key));
+    }
+
+    @Override
+    public void set(final WebContext context, final String key, final Object value) {
+        init();
+
+        var session = currentSession(context);
+        if (value == null && !session.data.containsKey(key)) {
+            return;
+        }
+        if (session == NO_SESSION) {
+            session = createSession(context);
+        }
+        final Map<String, Object> data = new LinkedHashMap<>(session.data);
+        if (value == null) {
+            data.remove(key);
+        } else {
+            data.put(key, value);
+        }
+        save(context, session, session.id, data);
+    }
+
+    @Override
+    public boolean destroySession(final WebContext context) {
+        init();
+
+        final var session = currentSession(context);
+        if (session != NO_SESSION) {
+            removeData(session);
+        }
+        final var cookie = buildCookie("");
+        cookie.setMaxAge(0);
+        context.addResponseCookie(cookie);
+        context.setRequestAttribute(CURRENT_SESSION, NO_SESSION);
+        return true;
+    }
+
+    @Override
+    public Optional<Object> getTrackableSession(final WebContext context) {
+        LOGGER.debug("getTrackableSession is not supported");
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<SessionStore> buildFromTrackableSession(final WebContext context, final Object trackableSession) {
+        LOGGER.debug("buildFromTrackableSession is not supported");
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean renewSession(final WebContext context) {
+        init();
+
+        final var session = currentSession(context);
+        if (session == NO_SESSION) {
+            return false;
+        }
+        save(context, session, generateId(), session.data);
+        return true;
+    }
+
+    private Session currentSession(final WebContext context) {
+        final var current = context.getRequestAttribute(CURRENT_SESSION);
+        if (current.isPresent()) {
+            return (Session) current.get();
+        }
+        final var now = now();
+        var session = NO_SESSION;
+        for (final var cookie : context.getRequestCookies()) {
+            if (cookieName.equals(cookie.getName())) {
+                session = readCookie(cookie.getValue(), now);
+                if (session != NO_SESSION) {
+                    break;
+                }
+            }
+        }
+        context.setRequestAttribute(CURRENT_SESSION, session);
+        if (session != NO_SESSION && session.expiration - now < TimeUnit.SECONDS.toMillis(sessionTimeout) / 2) {
+            // half of the timeout has elapsed: the session is saved again to extend its expiration
+            session = save(context, session, session.id, session.data);
+        }
+        return session;
+    }
+
+    private Session readCookie(final String value, final long now) {
+        final var parts = value != null ? value.split("\\.") : new String[0];
+        if (parts.length != 4 || !MessageDigest.isEqual(sign(parts[0] + "." + parts[1] + "." + parts[2])
+            .getBytes(StandardCharsets.UTF_8), parts[3].getBytes(StandardCharsets.UTF_8))) {
+            LOGGER.debug("Missing or invalid session cookie");
+            return NO_SESSION;
+        }
+        final long version;
+        final long expiration;
+        try {
+            version = Long.parseLong(parts[1], Character.MAX_RADIX);
+            expiration = Long.parseLong(parts[2], Character.MAX_RADIX);
+        } catch (final NumberFormatException e) {
+            return NO_SESSION;
+        }
+        if (expiration <= now) {
+            LOGGER.debug("Expired session cookie");
+            return NO_SESSION;
+        }
+        return new Session(parts[0], version, expiration, load(parts[0], version), false);
+    }
+
+    private Map<String, Object> load(final String id, final long version) {
+        final var key = computeKey(id, version);
+        if (localStore != null) {
+            final var localData = localStore.get(key);
+            if (localData.isPresent()) {
+                return localData.get();
+            }
+        }
+        final var bytes = store.get(key);
+        final Map<String, Object> data;
+        if (bytes.isEmpty()) {
+            // an empty session, or a previous version already removed
+            LOGGER.debug("No session data for key: {}", key);
+            data = Collections.emptyMap();
+        } else {
+            final var savedData = serializer.deserializeFromBytes(bytes.get());
+            if (savedData instanceof Map) {
+                @SuppressWarnings("unchecked")
+                final var savedMap = (Map<String, Object>) savedData;
+                data = Collections.unmodifiableMap(savedMap);
+            } else {
+                // corrupted or no longer deserializable data: the session is reset
+                LOGGER.warn("Unreadable session data for key: {}", key);
+                store.remove(key);
+                data = Collections.emptyMap();
+            }
+        }
+        if (localStore != null) {
+            localStore.set(key, data);
+        }
+        return data;
+    }
+
+    private Session createSession(final WebContext context) {
+        return save(context, NO_SESSION, generateId(), Collections.emptyMap());
+    }
+
+    private Session save(final WebContext context, final Session previous, final String id, final Map<String, Object> data) {
+        final Session session;
+        final var sameVersion = previous.savedInRequest && id.equals(previous.id);
+        if (sameVersion) {
+            // already saved in this request: the version is updated and the cookie is already written
+            session = new Session(id, previous.version, previous.expiration, Collections.unmodifiableMap(data), true);
+        } else {
+            session = new Session(id, generateVersion(), now() + TimeUnit.SECONDS.toMillis(sessionTimeout),
+                Collections.unmodifiableMap(data), true);
+            if (previous != NO_SESSION && !id.equals(previous.id)) {
+                // renewed session: the previous identifier is no longer valid
+                removeData(previous);
+            } else if (previous != NO_SESSION && localStore != null) {
+                // new version: the previous one is left to the expiration of the shared store for the concurrent requests
+                localStore.remove(computeKey(previous.id, previous.version));
+            }
+            final var value = session.id + "." + Long.toString(session.version, Character.MAX_RADIX) + "."
+                + Long.toString(session.expiration, Character.MAX_RADIX);
+            context.addResponseCookie(buildCookie(value + "." + sign(value)));
+        }
+        final var key = computeKey(id, session.version);
+        if (!data.isEmpty()) {
+            store.set(key, serializer.serializeToBytes(new LinkedHashMap<>(data)));
+        } else if (sameVersion && !previous.data.isEmpty()) {
+            store.remove(key);
+        }
+        if (localStore != null) {
+            localStore.set(key, session.data);
+        }
+        context.setRequestAttribute(CURRENT_SESSION, session);
+        return session;
+    }
+
+    private void removeData(final Session session) {
+        final var key = computeKey(session.id, session.version);
+        store.remove(key);
+        if (localStore != null) {
+            localStore.remove(key);
+        }
+    }
+
+    private static long generateVersion() {
+        // a random version: two concurrent modifications never save different data under the same key
+        final var version = ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE;
+        return version != 0 ? version : 1;
+    }
+
+    protected Cookie buildCookie(final String value) {
+        final var cookie = new Cookie(cookieName, value);
+        cookie.setPath(cookiePath);
+        cookie.setDomain(cookieDomain);
+        cookie.setSecure(cookieSecure);
+        cookie.setHttpOnly(true);
+        cookie.setSameSitePolicy(cookieSameSitePolicy);
+        cookie.setMaxAge(cookieMaxAge);
+        return cookie;
+    }
+
+    protected String generateId() {
+        final var bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    protected long now() {
+        return System.currentTimeMillis();
+    }
+
+    protected String computeKey(final String id, final long version) {
+        return id + ":" + Long.toString(version, Character.MAX_RADIX);
+    }
+
+    private String sign(final String value) {
+        try {
+            final var mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(signingKey);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (final GeneralSecurityException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    public Store<String, byte[]> getStore() {
+        return store;
+    }
+
+    public void setStore(final Store<String, byte[]> store) {
+        this.store = store;
+    }
+
+    public Store<String, Map<String, Object>> getLocalStore() {
+        return localStore;
+    }
+
+    /**
+     * Define the near cache of the session data (a Guava store of <code>localCacheSize</code> entries by default).
+     *
+     * @param localStore the local store
+     */
+    public void setLocalStore(final Store<String, Map<String, Object>> localStore) {
+        this.localStore = localStore;
+    }
+
+    public Serializer getSerializer() {
+        return serializer;
+    }
+
+    public void setSerializer(final Serializer serializer) {
+        this.serializer = serializer;
+    }
+
+    public String getSigningSecret() {
+        return signingSecret;
+    }
+
+    /**
+     * Define the secret to sign the session cookie (the same on all the nodes).
+     *
+     * @param signingSecret the signing secret
+     */
+    public void setSigningSecret(final String signingSecret) {
+        this.signingSecret = signingSecret;
+    }
+
+    public int getLocalCacheSize() {
+        return localCacheSize;
+    }
+
+    /**
+     * Define the size of the default near cache (a negative or zero value disables the near cache).
+     *
+     * @param localCacheSize the size of the near cache
+     */
+    public void setLocalCacheSize(final int localCacheSize) {
+        this.localCacheSize = localCacheSize;
+    }
+
+    public int getLocalCacheTimeout() {
+        return localCacheTimeout;
+    }
+
+    /**
+     * Define how long the session data are kept in the default near cache.
+     *
+     * @param localCacheTimeout the timeout (in minutes)
+     */
+    public void setLocalCacheTimeout(final int localCacheTimeout) {
+        this.localCacheTimeout = localCacheTimeout;
+    }
+
+    public int getSessionTimeout() {
+        return sessionTimeout;
+    }
+
+    /**
+     * Define how long a session is kept without any request (its cookie is not accepted after this timeout).
+     *
+     * @param sessionTimeout the timeout (in seconds)
+     */
+    public void setSessionTimeout(final int sessionTimeout) {
+        this.sessionTimeout = sessionTimeout;
+    }
+
+    public String getCookieName() {
+        return cookieName;
+    }
+
+    public void setCookieName(final String cookieName) {
+        this.cookieName = cookieName;
+    }
+
+    public String getCookiePath() {
+        return cookiePath;
+    }
+
+    public void setCookiePath(final String cookiePath) {
+        this.cookiePath = cookiePath;
+    }
+
+    public String getCookieDomain() {
+        return cookieDomain;
+    }
+
+    public void setCookieDomain(final String cookieDomain) {
+        this.cookieDomain = cookieDomain;
+    }
+
+    public boolean isCookieSecure() {
+        return cookieSecure;
+    }
+
+    public void setCookieSecure(final boolean cookieSecure) {
+        this.cookieSecure = cookieSecure;
+    }
+
+    public String getCookieSameSitePolicy() {
+        return cookieSameSitePolicy;
+    }
+
+    public void setCookieSameSitePolicy(final String cookieSameSitePolicy) {
+        this.cookieSameSitePolicy = cookieSameSitePolicy;
+    }
+
+    public int getCookieMaxAge() {
+        return cookieMaxAge;
+    }
+
+    public void setCookieMaxAge(final int cookieMaxAge) {
+        this.cookieMaxAge = cookieMaxAge;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "store", store, "localStore", localStore, "serializer", serializer,
+            "sessionTimeout", sessionTimeout, "cookieName", cookieName, "cookiePath", cookiePath, "cookieDomain", cookieDomain,
+            "cookieSecure", cookieSecure, "cookieSameSitePolicy", cookieSameSitePolicy, "cookieMaxAge", cookieMaxAge);
+    }
+
+    /**
+     * The identifier, the version, the expiration and the (unmodifiable) data of a session,
+     * and whether this version has been saved in the current request.
+     */
+    private static final class Session {
+
+        private final String id;
+
+        private final long version;
+
+        private final long expiration;
+
+        private final Map<String, Object> data;
+
+        private final boolean savedInRequest;
+
+        private Session(final String id, final long version, final long expiration, final Map<String, Object> data,
+                        final boolean savedInRequest) {
+            this.id = id;
+            this.version = version;
+            this.expiration = expiration;
+            this.data = data;
+            this.savedInRequest = savedInRequest;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.pac4j.core.context.session;
+
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.metrics.Instrumentation;
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * A session store which times the calls to another session store (timer <code>pac4j.session.store</code>, tagged by
+ * <code>operation</code> and <code>outcome</code>: <code>failure</code> for a missing value or an unsupported operation).
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public class InstrumentedSessionStore implements SessionStore {
+
+    private final SessionStore delegate;
+
+    private final Instrumentation instrumentation;
+
+    public InstrumentedSessionStore(final SessionStore delegate, final Instrumentation instrumentation) {
+        CommonHelper.assertNotNull("delegate", delegate);
+        CommonHelper.assertNotNull("instrumentation", instrumentation);
+        this.delegate = delegate;
+        this.instrumentation = instrumentation;
+    }
+
+    private <T> T record(final String operation, final Supplier<T> call) {
+        final var sample = instrumentation.start(Instrumentation.SESSION_STORE, Instrumentation.TAG_OPERATION, operation);
+        var outcome = Instrumentation.ERROR;
+        try {
+            final var result = call.get();
+            outcome = (result instanceof Optional && ((Optional<?>) result).isEmpty()) || Boolean.FALSE.equals(result)
+                ? Instrumentation.FAILURE : Instrumentation.SUCCESS;
+            return result;
+        } finally {
+            sample.stop(outcome);
+        }
+    }
+
+    @Override
+    public Optional<String> getSessionId(final WebContext context, final boolean createSession) {
+        return record("getSessionId", () -> delegate.getSessionId(context, createSession));
+    }
+
+    @Override
+    public Optional<Object> get(final WebContext context, final String key) {
+        return record("get", () -> delegate.get(context, key));
+    }
+
+    @Override
+    public void set(final WebContext context, final String key, final Object value) {
+        record("set", () -> {
+            delegate.set(context, key, value);
+            return null;
+        });
+    }
+
+    @Override
+    public boolean destroySession(final WebContext context) {
+        return record("destroySession", () -> delegate.destroySession(context));
+    }
+
+    @Override
+    public Optional<Object> getTrackableSession(final WebContext context) {
+        return record("getTrackableSession", () -> delegate.getTrackableSession(context));
+    }
+
+    @Override
+    public Optional<SessionStore> buildFromTrackableSession(final WebContext context, final Object trackableSession) {
+        return delegate.buildFromTrackableSession(context, trackableSession)
+            .map(sessionStore -> new InstrumentedSessionStore(sessionStore, instrumentation));
+    }
+
+    @Override
+    public boolean renewSession(final WebContext context) {
+        return record("renewSession", () -> delegate.renewSession(context));
+    }
+
+    public SessionStore getDelegate() {
+        return delegate;
+    }
+
+    public Instrumentation getInstrumentation() {
+        return instrumentation;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "delegate", delegate, "instrumentation", instrumentation);
+    }
+}
@@ -0,0 +1,421 @@
+package org.pac4j.core.credentials.authenticator;
+
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.credentials.Credentials;
+import org.pac4j.core.credentials.TokenCredentials;
+import org.pac4j.core.credentials.UsernamePasswordCredentials;
+import org.pac4j.core.exception.CredentialsException;
+import org.pac4j.core.credentials.extractor.CredentialsExtractor;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.store.Store;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.InitializableObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * An authenticator which protects another authenticator against the repeated failed validations:
+ * <ul>
+ * <li>the recently rejected credentials are remembered (as keyed digests, for <code>failureTtl</code> seconds) and rejected again
+ * without calling the delegate authenticator</li>
+ * <li>the failed validations are throttled per principal (username) and per IP address by token buckets: each failure consumes
+ * a token, a token is given back every <code>refillPeriod</code> seconds and no validation is tried when the bucket is empty.</li>
+ * </ul>
+ *
+ * The rejected credentials and the buckets are held in lock-free concurrent maps: beyond <code>maxEntries</code>, the expired
+ * entries and then the oldest ones are evicted. The rejected credentials can also be shared between several nodes via a
+ * {@link Store} (in that case, the same <code>digestSecret</code> must be defined on all nodes): their expiration is stored along
+ * with them.
+ *
+ * The IP address is the remote address, unless an <code>ipExtractor</code> is defined (to read it behind trusted proxies).
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public class ThrottlingAuthenticator extends InitializableObject implements Authenticator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ThrottlingAuthenticator.class);
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final ConcurrentMap<String, Long> rejectedCredentials = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, AtomicLong> principalBuckets = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, AtomicLong> ipBuckets = new ConcurrentHashMap<>();
+
+    private SecretKeySpec digestKey;
+
+    private Authenticator delegate;
+
+    private Store<String, Long> store;
+
+    private CredentialsExtractor ipExtractor;
+
+    private String digestSecret;
+
+    private int failureTtl = 60;
+
+    private int principalCapacity = 5;
+
+    private int ipCapacity = 20;
+
+    private int refillPeriod = 60;
+
+    private int maxEntries = 100000;
+
+    public ThrottlingAuthenticator() {}
+
+    public ThrottlingAuthenticator(final Authenticator delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        CommonHelper.assertNotNull("delegate", delegate);
+        CommonHelper.assertTrue(refillPeriod > 0, "refillPeriod must be greater than zero");
+
+        final byte[] secret;
+        if (CommonHelper.isNotBlank(digestSecret)) {
+            secret = digestSecret.getBytes(StandardCharsets.UTF_8);
+        } else {
+            secret = new byte[32];
+            RANDOM.nextBytes(secret);
+        }
+        this.digestKey = new SecretKeySpec(secret, HMAC_ALGORITHM);
+
+        if (delegate instanceof InitializableObject) {
+            ((InitializableObject) delegate).init(forceReinit);
+        }
+    }
+
+    @Override
+    public void validate(final Credentials credentials, final WebContext context, final SessionStore sessionStore) {
+        init();
+
+        final var now = now();
+        final var principal = getPrincipal(credentials);
+        final var ip = getIp(context, sessionStore);
+        if (isThrottled(principalBuckets, principal, principalCapacity, now) || isThrottled(ipBuckets, ip, ipCapacity, now)) {
+            LOGGER.debug("Too many failed validations for principal: {} / IP: {}", principal, ip);
+            throw new CredentialsException("Too many failed validations");
+        }
+
+        final var digest = computeDigest(credentials);
+        if (digest != null && isRejected(digest, now)) {
+            LOGGER.debug("Credentials recently rejected");
+            recordFailure(principal, ip, now);
+            throw new CredentialsException("Credentials recently rejected");
+        }
+
+        try {
+            delegate.validate(credentials, context, sessionStore);
+        } catch (final CredentialsException e) {
+            if (digest != null) {
+                reject(digest, now);
+            }
+            recordFailure(principal, ip, now);
+            throw e;
+        }
+    }
+
+    /**
+     * Return the principal of the credentials, known before their validation.
+     *
+     * @param credentials the credentials
+     * @return the principal (or <code>null</code>)
+     */
+    protected String getPrincipal(final Credentials credentials) {
+        if (credentials instanceof UsernamePasswordCredentials) {
+            return ((UsernamePasswordCredentials) credentials).getUsername();
+        }
+        return null;
+    }
+
+    /**
+     * Return the IP address of the client: the one extracted by the <code>ipExtractor</code> if defined, the remote address otherwise.
+     *
+     * @param context the web context
+     * @param sessionStore the session store
+     * @return the IP address (or <code>null</code>)
+     */
+    protected String getIp(final WebContext context, final SessionStore sessionStore) {
+        if (context == null) {
+            return null;
+        }
+        if (ipExtractor != null) {
+            return ipExtractor.extract(context, sessionStore)
+                .filter(credentials -> credentials instanceof TokenCredentials)
+                .map(credentials -> ((TokenCredentials) credentials).getToken())
+                .orElse(null);
+        }
+        return context.getRemoteAddr();
+    }
+
+    /**
+     * Compute a keyed digest of the credentials: only the credentials fully defined by their values (username/password
+     * and token credentials) can be remembered as rejected.
+     *
+     * @param credentials the credentials
+     * @return the digest (or <code>null</code> if the credentials cannot be remembered)
+     */
+    protected String computeDigest(final Credentials credentials) {
+        final String value;
+        if (credentials instanceof UsernamePasswordCredentials) {
+            final var usernamePasswordCredentials = (UsernamePasswordCredentials) credentials;
+            value = "up:" + usernamePasswordCredentials.getUsername() + '\u0000' + usernamePasswordCredentials.getPassword();
+        } else if (credentials instanceof TokenCredentials) {
+            value = "token:" + ((TokenCredentials) credentials).getToken();
+        } else {
+            return null;
+        }
+        try {
+            final var mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(digestKey);
+            return Base64.getEncoder().encodeToString(mac.doFinal(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (final GeneralSecurityException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    private boolean isRejected(final String digest, final long now) {
+        final var expiration = rejectedCredentials.get(digest);
+        if (expiration != null) {
+            if (expiration > now) {
+                return true;
+            }
+            rejectedCredentials.remove(digest, expiration);
+        }
+        if (store != null) {
+            final var sharedExpiration = store.get(digest);
+            if (sharedExpiration.isPresent() && sharedExpiration.get() > now) {
+                // rejected by another node: remember it locally until its original expiration
+                evict(rejectedCredentials, value -> value, now);
+                rejectedCredentials.put(digest, sharedExpiration.get());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void reject(final String digest, final long now) {
+        final var expiration = now + TimeUnit.SECONDS.toMillis(failureTtl);
+        evict(rejectedCredentials, value -> value, now);
+        rejectedCredentials.put(digest, expiration);
+        if (store != null) {
+            store.set(digest, expiration);
+        }
+    }
+
+    /*
+     * Beyond maxEntries, the expired entries are removed, then the oldest ones (the ones expiring first), with a 10% margin
+     * not to sort the entries on each new key. The entries are never all forgotten at once (which would bypass the throttling).
+     */
+    private <V> void evict(final ConcurrentMap<String, V> map, final ToLongFunction<V> expiration, final long now) {
+        if (map.size() < maxEntries) {
+            return;
+        }
+        map.values().removeIf(value -> expiration.applyAsLong(value) <= now);
+        if (map.size() >= maxEntries) {
+            final var nbToRemove = map.size() - maxEntries + 1 + maxEntries / 10;
+            LOGGER.warn("Too many entries ({}): evicting the {} oldest ones", map.size(), nbToRemove);
+            map.entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> expiration.applyAsLong(entry.getValue())))
+                .limit(nbToRemove)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList())
+                .forEach(map::remove);
+        }
+    }
+
+    private void recordFailure(final String principal, final String ip, final long now) {
+        consume(principalBuckets, principal, principalCapacity, now);
+        consume(ipBuckets, ip, ipCapacity, now);
+    }
+
+    /*
+     * The token buckets are implemented by the generic cell rate algorithm: a single "theoretical arrival time" per key,
+     * which is the time when the bucket is full again.
+     */
+
+    private boolean isThrottled(final ConcurrentMap<String, AtomicLong> buckets, final String key, final int capacity,
+                                final long now) {
+        if (key == null || capacity <= 0) {
+            return false;
+        }
+        final var bucket = buckets.get(key);
+        // the bucket is empty when it needs more than (capacity - 1) periods to be full again
+        return bucket != null && bucket.get() - now > (capacity - 1) * refillPeriodInMillis();
+    }
+
+    private void consume(final ConcurrentMap<String, AtomicLong> buckets, final String key, final int capacity, final long now) {
+        if (key == null || capacity <= 0) {
+            return;
+        }
+        if (!buckets.containsKey(key)) {
+            // the full buckets are forgotten first, then the fullest ones
+            evict(buckets, AtomicLong::get, now);
+        }
+        final var period = refillPeriodInMillis();
+        buckets.computeIfAbsent(key, k -> new AtomicLong()).accumulateAndGet(now, (tat, time) -> Math.max(tat, time) + period);
+    }
+
+    private long refillPeriodInMillis() {
+        return TimeUnit.SECONDS.toMillis(refillPeriod);
+    }
+
+    protected long now() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Forget the failures of a principal.
+     *
+     * @param principal the principal
+     */
+    public void resetPrincipal(final String principal) {
+        principalBuckets.remove(principal);
+    }
+
+    /**
+     * Forget the failures of an IP address.
+     *
+     * @param ip the IP address
+     */
+    public void resetIp(final String ip) {
+        ipBuckets.remove(ip);
+    }
+
+    public Authenticator getDelegate() {
+        return delegate;
+    }
+
+    public void setDelegate(final Authenticator delegate) {
+        this.delegate = delegate;
+    }
+
+    public Store<String, Long> getStore() {
+        return store;
+    }
+
+    /**
+     * Define a store to share the rejected credentials (their digests and expirations) between several nodes.
+     *
+     * @param store the store
+     */
+    public void setStore(final Store<String, Long> store) {
+        this.store = store;
+    }
+
+    public CredentialsExtractor getIpExtractor() {
+        return ipExtractor;
+    }
+
+    /**
+     * Define the extractor of the IP address (like the <code>IpExtractor</code> with trusted proxies),
+     * the remote address is used by default.
+     *
+     * @param ipExtractor the IP extractor
+     */
+    public void setIpExtractor(final CredentialsExtractor ipExtractor) {
+        this.ipExtractor = ipExtractor;
+    }
+
+    public String getDigestSecret() {
+        return digestSecret;
+    }
+
+    /**
+     * Define the secret of the digests of the rejected credentials (a random secret is generated by default).
+     *
+     * @param digestSecret the secret
+     */
+    public void setDigestSecret(final String digestSecret) {
+        this.digestSecret = digestSecret;
+    }
+
+    public int getFailureTtl() {
+        return failureTtl;
+    }
+
+    /**
+     * Define how long the rejected credentials are remembered.
+     *
+     * @param failureTtl the time to live (in seconds)
+     */
+    public void setFailureTtl(final int failureTtl) {
+        this.failureTtl = failureTtl;
+    }
+
+    public int getPrincipalCapacity() {
+        return principalCapacity;
+    }
+
+    /**
+     * Define how many consecutive failures are allowed for a principal (a negative or zero value disables this throttling).
+     *
+     * @param principalCapacity the capacity of the bucket of each principal
+     */
+    public void setPrincipalCapacity(final int principalCapacity) {
+        this.principalCapacity = principalCapacity;
+    }
+
+    public int getIpCapacity() {
+        return ipCapacity;
+    }
+
+    /**
+     * Define how many consecutive failures are allowed for an IP address (a negative or zero value disables this throttling).
+     *
+     * @param ipCapacity the capacity of the bucket of each IP address
+     */
+    public void setIpCapacity(final int ipCapacity) {
+        this.ipCapacity = ipCapacity;
+    }
+
+    public int getRefillPeriod() {
+        return refillPeriod;
+    }
+
+    /**
+     * Define how often a failure is forgiven (a token is given back to the buckets).
+     *
+     * @param refillPeriod the refill period (in seconds)
+     */
+    public void setRefillPeriod(final int refillPeriod) {
+        this.refillPeriod = refillPeriod;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(final int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "delegate", delegate, "store", store, "ipExtractor", ipExtractor,
+            "failureTtl", failureTtl, "principalCapacity", principalCapacity, "ipCapacity", ipCapacity,
+            "refillPeriod", refillPeriod, "maxEntries", maxEntries);
+    }
+}
@@ -5,21 +5,33 @@ import org.pac4j.core.context.WebContext;
 import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.credentials.Credentials;
 import org.pac4j.core.exception.CredentialsException;
-import org.pac4j.core.credentials.TokenCredentials;
 import org.pac4j.core.credentials.UsernamePasswordCredentials;
 
 import java.nio.charset.StandardCharsets;
-import java.util.Base64;
+import java.util.Arrays;
 import java.util.Optional;
 
 /**
  * To extract basic auth header.
  *
+ * The Base64 value is decoded in place from the header into a single byte array, from which the username and the password
+ * are built.
+ *
  * @author Jerome Leleu
  * @since 1.8.0
  */
 public class BasicAuthExtractor implements CredentialsExtractor {
 
+    private static final int[] BASE64_VALUES = new int[128];
+
+    static {
+        Arrays.fill(BASE64_VALUES, -1);
+        final var alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        for (var i = 0; i < alphabet.length(); i++) {
+            BASE64_VALUES[alphabet.charAt(i)] = i;
+        }
+    }
+
     private final HeaderExtractor extractor;
 
     public BasicAuthExtractor() {
@@ -27,28 +39,79 @@ public class BasicAuthExtractor implements CredentialsExtractor {
     }
 
     public BasicAuthExtractor(final String headerName, final String prefixHeader) {
-        this.extractor = new HeaderExtractor(headerName, prefixHeader);
+        this.extractor = new HeaderExtractor(headerName, prefixHeader) {
+            @Override
+            protected Credentials buildCredentials(final String header, final int start, final int end) {
+                return decode(header, start, end);
+            }
+        };
     }
 
     @Override
     public Optional<Credentials> extract(final WebContext context, final SessionStore sessionStore) {
-        final var optCredentials = this.extractor.extract(context, sessionStore);
-        return optCredentials.map(cred -> {
-
-            final var credentials = (TokenCredentials) cred;
-            final byte[] decoded;
-            try {
-                decoded = Base64.getDecoder().decode(credentials.getToken());
-            } catch (IllegalArgumentException e) {
-                throw new CredentialsException("Bad format of the basic auth header");
+        return this.extractor.extract(context, sessionStore);
+    }
+
+    /**
+     * Decode the Base64 <code>username:password</code> value of the header.
+     *
+     * @param header the whole header
+     * @param start the start index of the Base64 value
+     * @param end the end index of the Base64 value
+     * @return the username/password credentials
+     */
+    protected static UsernamePasswordCredentials decode(final CharSequence header, final int start, final int end) {
+        final var decoded = decodeBase64(header, start, end);
+        var delim = -1;
+        for (var i = 0; i < decoded.length; i++) {
+            // in UTF-8, the ':' byte can only be the ':' character
+            if (decoded[i] == ':') {
+                delim = i;
+                break;
             }
-            final var token = new String(decoded, StandardCharsets.UTF_8);
+        }
+        if (delim < 0) {
+            throw badFormat();
+        }
+        return new UsernamePasswordCredentials(new String(decoded, 0, delim, StandardCharsets.UTF_8),
+            new String(decoded, delim + 1, decoded.length - delim - 1, StandardCharsets.UTF_8));
+    }
 
-            final var delim = token.indexOf(":");
-            if (delim < 0) {
-                throw new CredentialsException("Bad format of the basic auth header");
+    private static byte[] decodeBase64(final CharSequence value, final int start, final int end) {
+        // the padding is optional
+        var last = end;
+        if (last > start && value.charAt(last - 1) == '=') {
+            last--;
+            if (last > start && value.charAt(last - 1) == '=') {
+                last--;
+            }
+        }
+        final var length = last - start;
+        if (length % 4 == 1 || last != end && (end - start) % 4 != 0) {
+            throw badFormat();
+        }
+        final var decoded = new byte[length * 3 / 4];
+        var bits = 0;
+        var nbBits = 0;
+        var index = 0;
+        for (var i = start; i < last; i++) {
+            final var c = value.charAt(i);
+            final var sixBits = c < BASE64_VALUES.length ? BASE64_VALUES[c] : -1;
+            if (sixBits < 0) {
+                throw badFormat();
             }
-            return new UsernamePasswordCredentials(token.substring(0, delim), token.substring(delim + 1));
-        });
+            bits = (bits << 6) | sixBits;
+            nbBits += 6;
+            if (nbBits >= 8) {
+                nbBits -= 8;
+                decoded[index++] = (byte) (bits >> nbBits);
+                bits &= (1 << nbBits) - 1;
+            }
+        }
+        return decoded;
+    }
+
+    private static CredentialsException badFormat() {
+        return new CredentialsException("Bad format of the basic auth header");
     }
 }
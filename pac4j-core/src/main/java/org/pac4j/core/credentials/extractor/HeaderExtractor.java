@@ -12,6 +12,9 @@ import java.util.Optional;
 /**
  * To extract header value.
  *
+ * The prefix is checked in place and the credentials are only built from the value (without intermediate strings)
+ * by the {@link #buildCredentials(String, int, int)} method once the prefix matches.
+ *
  * @author Jerome Leleu
  * @since 1.8.0
  */
@@ -19,6 +22,8 @@ public class HeaderExtractor implements CredentialsExtractor {
 
     private String headerName;
 
+    private String lowerCaseHeaderName;
+
     private String prefixHeader;
 
     private boolean trimValue;
@@ -29,6 +34,7 @@ public class HeaderExtractor implements CredentialsExtractor {
 
     public void setHeaderName(String headerName) {
         this.headerName = headerName;
+        this.lowerCaseHeaderName = headerName != null ? headerName.toLowerCase() : null;
     }
 
     public String getPrefixHeader() {
@@ -52,7 +58,7 @@ public class HeaderExtractor implements CredentialsExtractor {
     }
 
     public HeaderExtractor(final String headerName, final String prefixHeader) {
-        this.headerName = headerName;
+        setHeaderName(headerName);
         this.prefixHeader = prefixHeader;
     }
 
@@ -63,21 +69,42 @@ public class HeaderExtractor implements CredentialsExtractor {
 
         var header = context.getRequestHeader(this.headerName);
         if (!header.isPresent()) {
-            header = context.getRequestHeader(this.headerName.toLowerCase());
+            if (this.headerName.equals(this.lowerCaseHeaderName)) {
+                return Optional.empty();
+            }
+            header = context.getRequestHeader(this.lowerCaseHeaderName);
             if (!header.isPresent()) {
                 return Optional.empty();
             }
         }
 
-        if (!header.get().startsWith(this.prefixHeader)) {
+        final var value = header.get();
+        if (!value.startsWith(this.prefixHeader)) {
             throw new CredentialsException("Wrong prefix for header: " + this.headerName);
         }
 
-        var headerWithoutPrefix = header.get().substring(this.prefixHeader.length());
-
+        var start = this.prefixHeader.length();
+        var end = value.length();
         if (trimValue) {
-            headerWithoutPrefix = headerWithoutPrefix.trim();
+            while (start < end && value.charAt(start) <= ' ') {
+                start++;
+            }
+            while (end > start && value.charAt(end - 1) <= ' ') {
+                end--;
+            }
         }
-        return Optional.of(new TokenCredentials(headerWithoutPrefix));
+        return Optional.of(buildCredentials(value, start, end));
+    }
+
+    /**
+     * Build the credentials from the header value (after the prefix).
+     *
+     * @param header the whole header
+     * @param start the start index of the value
+     * @param end the end index of the value
+     * @return the credentials
+     */
+    protected Credentials buildCredentials(final String header, final int start, final int end) {
+        return new TokenCredentials(header.substring(start, end));
     }
 }
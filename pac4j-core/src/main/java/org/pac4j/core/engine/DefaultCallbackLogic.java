@@ -12,6 +12,7 @@ import org.pac4j.core.engine.savedrequest.DefaultSavedRequestHandler;
 import org.pac4j.core.engine.savedrequest.SavedRequestHandler;
 import org.pac4j.core.exception.http.HttpAction;
 import org.pac4j.core.http.adapter.HttpActionAdapter;
+import org.pac4j.core.metrics.Instrumentation;
 import org.pac4j.core.profile.UserProfile;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,7 +38,7 @@ public class DefaultCallbackLogic extends AbstractExceptionAwareLogic implements
     private SavedRequestHandler savedRequestHandler = new DefaultSavedRequestHandler();
 
     @Override
-    public Object perform(final WebContext webContext, final SessionStore sessionStore, final Config config,
+    public Object perform(final WebContext webContext, final SessionStore sessionStore, final Config inputConfig,
                           final HttpActionAdapter httpActionAdapter, final String inputDefaultUrl, final Boolean inputRenewSession,
                           final String defaultClient) {
 
@@ -58,9 +59,11 @@ public class DefaultCallbackLogic extends AbstractExceptionAwareLogic implements
             // checks
             assertNotNull("clientFinder", clientFinder);
             assertNotNull("webContext", webContext);
-            assertNotNull("config", config);
+            assertNotNull("config", inputConfig);
             assertNotNull("httpActionAdapter", httpActionAdapter);
             assertNotBlank(Pac4jConstants.DEFAULT_URL, defaultUrl);
+            // use the same configuration during the whole request
+            final var config = inputConfig.snapshot();
             final var clients = config.getClients();
             assertNotNull("clients", clients);
 
@@ -73,17 +76,30 @@ public class DefaultCallbackLogic extends AbstractExceptionAwareLogic implements
             LOGGER.debug("foundClient: {}", foundClient);
             assertNotNull("foundClient", foundClient);
 
-            final var credentials = foundClient.getCredentials(webContext, sessionStore);
-            LOGGER.debug("credentials: {}", credentials);
-
-            final var optProfile = foundClient.getUserProfile(credentials.orElse(null), webContext, sessionStore);
-            LOGGER.debug("optProfile: {}", optProfile);
-            if (optProfile.isPresent()) {
-                final var profile = optProfile.get();
-                final boolean saveProfileInSession = ((BaseClient) foundClient).getSaveProfileInSession(webContext, profile);
-                final var multiProfile = ((BaseClient) foundClient).isMultiProfile(webContext, profile);
-                LOGGER.debug("saveProfileInSession: {} / multiProfile: {}", saveProfileInSession, multiProfile);
-                saveUserProfile(webContext, sessionStore, config, profile, saveProfileInSession, multiProfile, renewSession);
+            final var instrumentation = clients.getInstrumentation();
+            final var sample = instrumentation.isEnabled()
+                ? instrumentation.start(Instrumentation.CALLBACK, Instrumentation.TAG_CLIENT, foundClient.getName())
+                : Instrumentation.Sample.NONE;
+            var outcome = Instrumentation.ERROR;
+            try {
+                final var credentials = foundClient.getCredentials(webContext, sessionStore);
+                LOGGER.debug("credentials: {}", credentials);
+
+                final var optProfile = foundClient.getUserProfile(credentials.orElse(null), webContext, sessionStore);
+                LOGGER.debug("optProfile: {}", optProfile);
+                if (optProfile.isPresent()) {
+                    final var profile = optProfile.get();
+                    final boolean saveProfileInSession = ((BaseClient) foundClient).getSaveProfileInSession(webContext, profile);
+                    final var multiProfile = ((BaseClient) foundClient).isMultiProfile(webContext, profile);
+                    LOGGER.debug("saveProfileInSession: {} / multiProfile: {}", saveProfileInSession, multiProfile);
+                    saveUserProfile(webContext, sessionStore, config, profile, saveProfileInSession, multiProfile, renewSession);
+                }
+                outcome = optProfile.isPresent() ? Instrumentation.SUCCESS : Instrumentation.FAILURE;
+            } catch (final HttpAction e) {
+                outcome = Instrumentation.ACTION;
+                throw e;
+            } finally {
+                sample.stop(outcome);
             }
 
             action = redirectToOriginallyRequestedUrl(webContext, sessionStore, defaultUrl);
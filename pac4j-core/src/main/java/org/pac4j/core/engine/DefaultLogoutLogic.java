@@ -7,6 +7,7 @@ import org.pac4j.core.context.WebContext;
 import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.exception.http.*;
 import org.pac4j.core.http.adapter.HttpActionAdapter;
+import org.pac4j.core.metrics.Instrumentation;
 import org.pac4j.core.util.HttpActionHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,13 +39,15 @@ public class DefaultLogoutLogic extends AbstractExceptionAwareLogic implements L
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultLogoutLogic.class);
 
     @Override
-    public Object perform(final WebContext context, final SessionStore sessionStore, final Config config,
+    public Object perform(final WebContext context, final SessionStore sessionStore, final Config inputConfig,
                           final HttpActionAdapter httpActionAdapter, final String defaultUrl, final String inputLogoutUrlPattern,
                           final Boolean inputLocalLogout, final Boolean inputDestroySession, final Boolean inputCentralLogout) {
 
         LOGGER.debug("=== LOGOUT ===");
 
         HttpAction action;
+        var sample = Instrumentation.Sample.NONE;
+        var outcome = Instrumentation.ERROR;
         try {
 
             // default values
@@ -60,11 +63,17 @@ public class DefaultLogoutLogic extends AbstractExceptionAwareLogic implements L
 
             // checks
             assertNotNull("context", context);
-            assertNotNull("config", config);
+            assertNotNull("config", inputConfig);
             assertNotNull("httpActionAdapter", httpActionAdapter);
             assertNotBlank(Pac4jConstants.LOGOUT_URL_PATTERN, logoutUrlPattern);
+            // use the same configuration during the whole request
+            final var config = inputConfig.snapshot();
             final var configClients = config.getClients();
             assertNotNull("configClients", configClients);
+            final var instrumentation = configClients.getInstrumentation();
+            if (instrumentation.isEnabled()) {
+                sample = instrumentation.start(Instrumentation.LOGOUT);
+            }
 
             // logic
             final var manager = getProfileManager(context, sessionStore);
@@ -127,9 +136,15 @@ public class DefaultLogoutLogic extends AbstractExceptionAwareLogic implements L
                     }
                 }
             }
+            outcome = Instrumentation.SUCCESS;
 
         } catch (final RuntimeException e) {
+            if (e instanceof HttpAction) {
+                outcome = Instrumentation.ACTION;
+            }
             return handleException(e, httpActionAdapter, context);
+        } finally {
+            sample.stop(outcome);
         }
 
         return httpActionAdapter.adapt(action, context);
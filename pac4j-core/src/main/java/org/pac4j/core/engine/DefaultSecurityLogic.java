@@ -1,5 +1,6 @@
 package org.pac4j.core.engine;
 
+import org.pac4j.core.authorization.authorizer.Authorizer;
 import org.pac4j.core.authorization.checker.AuthorizationChecker;
 import org.pac4j.core.authorization.checker.DefaultAuthorizationChecker;
 import org.pac4j.core.client.Client;
@@ -18,6 +19,8 @@ import org.pac4j.core.http.adapter.HttpActionAdapter;
 import org.pac4j.core.http.ajax.AjaxRequestResolver;
 import org.pac4j.core.matching.checker.DefaultMatchingChecker;
 import org.pac4j.core.matching.checker.MatchingChecker;
+import org.pac4j.core.matching.matcher.Matcher;
+import org.pac4j.core.metrics.Instrumentation;
 import org.pac4j.core.profile.ProfileManager;
 import org.pac4j.core.profile.UserProfile;
 import org.pac4j.core.util.HttpActionHelper;
@@ -26,6 +29,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.pac4j.core.util.CommonHelper.*;
 
@@ -44,6 +48,8 @@ import static org.pac4j.core.util.CommonHelper.*;
  * <p>Finally, if the user is not authenticated (no profile), he is redirected to the appropriate identity provider
  * if the first defined client is an indirect one in the <code>clients</code> configuration. Otherwise, a 401 error page is displayed.</p>
  *
+ * <p>The matching and the authorization are timed and the decisions counted by the {@link Instrumentation} of the clients.</p>
+ *
  * @author Jerome Leleu
  * @since 1.9.0
  */
@@ -64,7 +70,7 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
     private boolean loadProfilesFromSession = true;
 
     @Override
-    public Object perform(final WebContext context, final SessionStore sessionStore, final Config config,
+    public Object perform(final WebContext context, final SessionStore sessionStore, final Config inputConfig,
                           final SecurityGrantedAccessAdapter securityGrantedAccessAdapter, final HttpActionAdapter httpActionAdapter,
                           final String clients, final String authorizers, final String matchers, final Object... parameters) {
 
@@ -74,11 +80,13 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
         try {
             // checks
             assertNotNull("context", context);
-            assertNotNull("config", config);
+            assertNotNull("config", inputConfig);
             assertNotNull("httpActionAdapter", httpActionAdapter);
             assertNotNull("clientFinder", clientFinder);
             assertNotNull("authorizationChecker", authorizationChecker);
             assertNotNull("matchingChecker", matchingChecker);
+            // use the same configuration during the whole request
+            final var config = inputConfig.snapshot();
             final var configClients = config.getClients();
             assertNotNull("configClients", configClients);
 
@@ -87,8 +95,9 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
             LOGGER.debug("clients: {} | matchers: {}", clients, matchers);
             final var currentClients = clientFinder.find(configClients, context, clients);
             LOGGER.debug("currentClients: {}", currentClients);
+            final var instrumentation = configClients.getInstrumentation();
 
-            if (matchingChecker.matches(context, sessionStore, matchers, config.getMatchers(), currentClients)) {
+            if (matches(instrumentation, context, sessionStore, matchers, config.getMatchers(), currentClients)) {
 
                 final var manager = getProfileManager(context, sessionStore);
                 manager.setConfig(config);
@@ -135,21 +144,25 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
                 // we have profile(s) -> check authorizations; otherwise, redirect to identity provider or 401
                 if (isNotEmpty(profiles)) {
                     LOGGER.debug("authorizers: {}", authorizers);
-                    if (authorizationChecker.isAuthorized(context, sessionStore, profiles,
-                                                          authorizers, config.getAuthorizers(), currentClients)) {
+                    if (isAuthorized(instrumentation, context, sessionStore, profiles, authorizers, config.getAuthorizers(),
+                                     currentClients)) {
                         LOGGER.debug("authenticated and authorized -> grant access");
+                        instrumentation.increment(Instrumentation.SECURITY, Instrumentation.TAG_OUTCOME, "granted");
                         return securityGrantedAccessAdapter.adapt(context, sessionStore, profiles, parameters);
                     } else {
                         LOGGER.debug("forbidden");
+                        instrumentation.increment(Instrumentation.SECURITY, Instrumentation.TAG_OUTCOME, "forbidden");
                         action = forbidden(context, sessionStore, currentClients, profiles, authorizers);
                     }
                 } else {
                     if (startAuthentication(context, sessionStore, currentClients)) {
                         LOGGER.debug("Starting authentication");
+                        instrumentation.increment(Instrumentation.SECURITY, Instrumentation.TAG_OUTCOME, "redirect");
                         saveRequestedUrl(context, sessionStore, currentClients, config.getClients().getAjaxRequestResolver());
                         action = redirectToIdentityProvider(context, sessionStore, currentClients);
                     } else {
                         LOGGER.debug("unauthorized");
+                        instrumentation.increment(Instrumentation.SECURITY, Instrumentation.TAG_OUTCOME, "unauthorized");
                         action = unauthorized(context, sessionStore, currentClients);
                     }
                 }
@@ -157,6 +170,7 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
             } else {
 
                 LOGGER.debug("no matching for this request -> grant access");
+                instrumentation.increment(Instrumentation.SECURITY, Instrumentation.TAG_OUTCOME, "skipped");
                 return securityGrantedAccessAdapter.adapt(context, sessionStore, Collections.emptyList(), parameters);
             }
 
@@ -167,6 +181,43 @@ public class DefaultSecurityLogic extends AbstractExceptionAwareLogic implements
         return httpActionAdapter.adapt(action, context);
     }
 
+    private boolean matches(final Instrumentation instrumentation, final WebContext context, final SessionStore sessionStore,
+                            final String matchers, final Map<String, Matcher> matchersMap, final List<Client> clients) {
+        final var sample = instrumentation.isEnabled()
+            ? instrumentation.start(Instrumentation.MATCHING)
+            : Instrumentation.Sample.NONE;
+        var outcome = Instrumentation.ERROR;
+        try {
+            final var matches = matchingChecker.matches(context, sessionStore, matchers, matchersMap, clients);
+            outcome = matches ? Instrumentation.SUCCESS : Instrumentation.FAILURE;
+            return matches;
+        } catch (final HttpAction e) {
+            outcome = Instrumentation.ACTION;
+            throw e;
+        } finally {
+            sample.stop(outcome);
+        }
+    }
+
+    private boolean isAuthorized(final Instrumentation instrumentation, final WebContext context, final SessionStore sessionStore,
+                                 final List<UserProfile> profiles, final String authorizers, final Map<String, Authorizer> authorizersMap,
+                                 final List<Client> clients) {
+        final var sample = instrumentation.isEnabled()
+            ? instrumentation.start(Instrumentation.AUTHORIZATION)
+            : Instrumentation.Sample.NONE;
+        var outcome = Instrumentation.ERROR;
+        try {
+            final var authorized = authorizationChecker.isAuthorized(context, sessionStore, profiles, authorizers, authorizersMap, clients);
+            outcome = authorized ? Instrumentation.SUCCESS : Instrumentation.FAILURE;
+            return authorized;
+        } catch (final HttpAction e) {
+            outcome = Instrumentation.ACTION;
+            throw e;
+        } finally {
+            sample.stop(outcome);
+        }
+    }
+
     /**
      * Load the profiles.
      *
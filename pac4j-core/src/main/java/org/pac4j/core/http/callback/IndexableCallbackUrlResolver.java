@@ -0,0 +1,34 @@
+package org.pac4j.core.http.callback;
+
+import org.pac4j.core.context.WebContext;
+
+import java.util.Optional;
+
+/**
+ * A callback URL resolver whose matching only depends on a client name extracted from the web context:
+ * {@link #matches(String, WebContext)} must be <code>true</code> only for the extracted name (ignoring case and trimming).
+ *
+ * It allows to find the client on the callback by a direct lookup on its name instead of testing all the clients.
+ * The resolvers with the same extraction logic (the same {@link #getIndexKey()}) index their clients together.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public interface IndexableCallbackUrlResolver extends CallbackUrlResolver {
+
+    /**
+     * Extract the client name from the web context.
+     *
+     * @param context the web context
+     * @return the client name (if found)
+     */
+    Optional<String> extractClientName(WebContext context);
+
+    /**
+     * Return the key of the extraction logic, read once when the clients are indexed: the resolvers with equal keys
+     * extract the client name the same way. The key must be immutable.
+     *
+     * @return the index key
+     */
+    Object getIndexKey();
+}
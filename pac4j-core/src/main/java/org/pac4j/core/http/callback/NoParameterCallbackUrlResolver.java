@@ -3,13 +3,15 @@ package org.pac4j.core.http.callback;
 import org.pac4j.core.context.WebContext;
 import org.pac4j.core.http.url.UrlResolver;
 
+import java.util.Optional;
+
 /**
  * No name is added to the callback URL to be able to distinguish the client, so it doesn't match.
  *
  * @author Jerome Leleu
  * @since 3.0.0
  */
-public class NoParameterCallbackUrlResolver implements CallbackUrlResolver {
+public class NoParameterCallbackUrlResolver implements IndexableCallbackUrlResolver {
 
     @Override
     public String compute(final UrlResolver urlResolver, final String url, final String clientName, final WebContext context) {
@@ -20,4 +22,14 @@ public class NoParameterCallbackUrlResolver implements CallbackUrlResolver {
     public boolean matches(final String clientName, final WebContext context) {
         return false;
     }
+
+    @Override
+    public Optional<String> extractClientName(final WebContext context) {
+        return Optional.empty();
+    }
+
+    @Override
+    public Object getIndexKey() {
+        return getClass();
+    }
 }
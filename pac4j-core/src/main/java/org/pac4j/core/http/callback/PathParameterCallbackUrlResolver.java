@@ -4,13 +4,15 @@ import org.pac4j.core.context.WebContext;
 import org.pac4j.core.http.url.UrlResolver;
 import org.pac4j.core.util.CommonHelper;
 
+import java.util.Optional;
+
 /**
  * The client name is added to the path of the callback URL.
  *
  * @author Jerome Leleu
  * @since 3.0.0
  */
-public class PathParameterCallbackUrlResolver implements CallbackUrlResolver {
+public class PathParameterCallbackUrlResolver implements IndexableCallbackUrlResolver {
 
     @Override
     public String compute(final UrlResolver urlResolver, final String url, final String clientName, final WebContext context) {
@@ -26,17 +28,26 @@ public class PathParameterCallbackUrlResolver implements CallbackUrlResolver {
 
     @Override
     public boolean matches(final String clientName, final WebContext context) {
+        final var name = extractClientName(context);
+        return name.isPresent() && CommonHelper.areEqualsIgnoreCaseAndTrim(name.get(), clientName);
+    }
+
+    @Override
+    public Optional<String> extractClientName(final WebContext context) {
         final var path = context.getPath();
         if (path != null) {
             final var pos = path.lastIndexOf("/");
-            final String name;
             if (pos >= 0) {
-                name = path.substring(pos + 1);
+                return Optional.of(path.substring(pos + 1));
             } else {
-                name = path;
+                return Optional.of(path);
             }
-            return CommonHelper.areEqualsIgnoreCaseAndTrim(name, clientName);
         }
-        return false;
+        return Optional.empty();
+    }
+
+    @Override
+    public Object getIndexKey() {
+        return getClass();
     }
 }
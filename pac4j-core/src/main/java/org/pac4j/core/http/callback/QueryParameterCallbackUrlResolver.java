@@ -7,6 +7,7 @@ import org.pac4j.core.util.CommonHelper;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * The client name is added as a query parameter to the callback URL.
@@ -14,7 +15,7 @@ import java.util.Map;
  * @author Jerome Leleu
  * @since 3.0.0
  */
-public class QueryParameterCallbackUrlResolver implements CallbackUrlResolver {
+public class QueryParameterCallbackUrlResolver implements IndexableCallbackUrlResolver {
     private String clientNameParameter = Pac4jConstants.DEFAULT_CLIENT_NAME_PARAMETER;
 
     private Map<String, String> customParams = new HashMap<>();
@@ -44,6 +45,11 @@ public class QueryParameterCallbackUrlResolver implements CallbackUrlResolver {
         return CommonHelper.areEqualsIgnoreCaseAndTrim(name, clientName);
     }
 
+    @Override
+    public Optional<String> extractClientName(final WebContext context) {
+        return context.getRequestParameter(this.clientNameParameter);
+    }
+
     public String getClientNameParameter() {
         return clientNameParameter;
     }
@@ -51,4 +57,10 @@ public class QueryParameterCallbackUrlResolver implements CallbackUrlResolver {
     public void setClientNameParameter(final String clientNameParameter) {
         this.clientNameParameter = clientNameParameter;
     }
+
+    @Override
+    public Object getIndexKey() {
+        // the custom parameters do not change the extraction of the client name
+        return getClass().getName() + "?" + clientNameParameter;
+    }
 }
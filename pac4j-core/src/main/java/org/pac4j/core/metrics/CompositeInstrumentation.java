@@ -0,0 +1,56 @@
+package org.pac4j.core.metrics;
+
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Record the metrics in several instrumentations (like Micrometer and JFR).
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public class CompositeInstrumentation implements Instrumentation {
+
+    private final List<Instrumentation> instrumentations;
+
+    public CompositeInstrumentation(final Instrumentation... instrumentations) {
+        CommonHelper.assertNotNull("instrumentations", instrumentations);
+        this.instrumentations = Arrays.asList(instrumentations);
+    }
+
+    @Override
+    public Sample start(final String name, final String... tags) {
+        final var samples = new Sample[instrumentations.size()];
+        for (var i = 0; i < samples.length; i++) {
+            samples[i] = instrumentations.get(i).start(name, tags);
+        }
+        return outcome -> {
+            for (final var sample : samples) {
+                sample.stop(outcome);
+            }
+        };
+    }
+
+    @Override
+    public void increment(final String name, final String... tags) {
+        for (final var instrumentation : instrumentations) {
+            instrumentation.increment(name, tags);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return instrumentations.stream().anyMatch(Instrumentation::isEnabled);
+    }
+
+    public List<Instrumentation> getInstrumentations() {
+        return instrumentations;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "instrumentations", instrumentations);
+    }
+}
@@ -0,0 +1,107 @@
+package org.pac4j.core.metrics;
+
+/**
+ * Instrumentation SPI: timers and counters identified by a name and tags (alternating keys and values).
+ *
+ * The default {@link #NONE} instrumentation does nothing: the instrumented components check {@link #isEnabled()} before
+ * computing their tags, so that a disabled instrumentation costs nothing.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public interface Instrumentation {
+
+    /** No instrumentation. */
+    Instrumentation NONE = new NoInstrumentation();
+
+    /** Security decisions (counter). */
+    String SECURITY = "pac4j.security";
+
+    /** Matchers checks. */
+    String MATCHING = "pac4j.matching";
+
+    /** Credentials extractions. */
+    String CREDENTIALS_EXTRACTION = "pac4j.credentials.extraction";
+
+    /** Credentials validations. */
+    String AUTHENTICATION = "pac4j.authentication";
+
+    /** User profiles creations. */
+    String PROFILE_CREATION = "pac4j.profile.creation";
+
+    /** Authorizers checks. */
+    String AUTHORIZATION = "pac4j.authorization";
+
+    /** Callbacks. */
+    String CALLBACK = "pac4j.callback";
+
+    /** Logouts. */
+    String LOGOUT = "pac4j.logout";
+
+    /** Session store calls. */
+    String SESSION_STORE = "pac4j.session.store";
+
+    String TAG_CLIENT = "client";
+
+    String TAG_EXTRACTOR = "extractor";
+
+    String TAG_AUTHENTICATOR = "authenticator";
+
+    String TAG_PROFILE_CREATOR = "profileCreator";
+
+    String TAG_OPERATION = "operation";
+
+    String TAG_OUTCOME = "outcome";
+
+    String SUCCESS = "success";
+
+    String FAILURE = "failure";
+
+    String ERROR = "error";
+
+    /** The operation has been interrupted by an HTTP action (like a redirection or an authentication challenge). */
+    String ACTION = "action";
+
+    /**
+     * Start a timer.
+     *
+     * @param name the name of the timer
+     * @param tags the tags (alternating keys and values)
+     * @return the started sample
+     */
+    Sample start(String name, String... tags);
+
+    /**
+     * Increment a counter.
+     *
+     * @param name the name of the counter
+     * @param tags the tags (alternating keys and values)
+     */
+    void increment(String name, String... tags);
+
+    /**
+     * Whether this instrumentation records something.
+     *
+     * @return whether this instrumentation is enabled
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * A running timer.
+     */
+    @FunctionalInterface
+    interface Sample {
+
+        /** A sample which records nothing. */
+        Sample NONE = outcome -> {};
+
+        /**
+         * Stop the timer and record the duration.
+         *
+         * @param outcome the outcome of the timed operation (recorded as the <code>outcome</code> tag)
+         */
+        void stop(String outcome);
+    }
+}
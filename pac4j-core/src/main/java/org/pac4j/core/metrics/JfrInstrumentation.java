@@ -0,0 +1,101 @@
+package org.pac4j.core.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Record the metrics as Java Flight Recorder events: <code>org.pac4j.Operation</code> (with a duration) for the timers
+ * and <code>org.pac4j.Count</code> for the counters.
+ *
+ * When no recording is running (or when the events are disabled), no event is built.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public class JfrInstrumentation implements Instrumentation {
+
+    @Override
+    public Sample start(final String name, final String... tags) {
+        final var event = new OperationEvent();
+        if (!event.isEnabled()) {
+            return Sample.NONE;
+        }
+        event.begin();
+        return outcome -> {
+            event.end();
+            if (event.shouldCommit()) {
+                event.name = name;
+                event.tags = formatTags(tags);
+                event.outcome = outcome;
+                event.commit();
+            }
+        };
+    }
+
+    @Override
+    public void increment(final String name, final String... tags) {
+        final var event = new CountEvent();
+        if (event.shouldCommit()) {
+            event.name = name;
+            event.tags = formatTags(tags);
+            event.commit();
+        }
+    }
+
+    protected static String formatTags(final String... tags) {
+        final var sb = new StringBuilder();
+        for (var i = 0; i + 1 < tags.length; i += 2) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(tags[i]).append('=').append(tags[i + 1]);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "JfrInstrumentation";
+    }
+
+    /**
+     * A timed pac4j operation.
+     */
+    @Name("org.pac4j.Operation")
+    @Label("pac4j Operation")
+    @Category("pac4j")
+    @Description("A timed pac4j operation (credentials validation, session store call...)")
+    @StackTrace(false)
+    static final class OperationEvent extends Event {
+
+        @Label("Name")
+        String name;
+
+        @Label("Tags")
+        String tags;
+
+        @Label("Outcome")
+        String outcome;
+    }
+
+    /**
+     * A counted pac4j event.
+     */
+    @Name("org.pac4j.Count")
+    @Label("pac4j Count")
+    @Category("pac4j")
+    @Description("A counted pac4j event (security decision...)")
+    @StackTrace(false)
+    static final class CountEvent extends Event {
+
+        @Label("Name")
+        String name;
+
+        @Label("Tags")
+        String tags;
+    }
+}
@@ -0,0 +1,28 @@
+package org.pac4j.core.metrics;
+
+/**
+ * An instrumentation which records nothing.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+final class NoInstrumentation implements Instrumentation {
+
+    @Override
+    public Sample start(final String name, final String... tags) {
+        return Sample.NONE;
+    }
+
+    @Override
+    public void increment(final String name, final String... tags) {}
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "NoInstrumentation";
+    }
+}
@@ -0,0 +1,86 @@
+package org.pac4j.core.profile;
+
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Keep only the allowed attributes and authentication attributes of a profile (to reduce the size of the profiles saved
+ * in the web session). A <code>null</code> list of allowed names keeps all the attributes.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public class AttributesProjection {
+
+    private Set<String> attributes;
+
+    private Set<String> authenticationAttributes;
+
+    public AttributesProjection() {}
+
+    public AttributesProjection(final Collection<String> attributes) {
+        setAttributes(attributes);
+    }
+
+    public AttributesProjection(final Collection<String> attributes, final Collection<String> authenticationAttributes) {
+        setAttributes(attributes);
+        setAuthenticationAttributes(authenticationAttributes);
+    }
+
+    /**
+     * Remove the attributes which are not allowed from the profile (the authentication attributes only for a
+     * {@link BasicUserProfile}).
+     *
+     * @param profile the profile
+     * @return the same profile
+     */
+    public UserProfile project(final UserProfile profile) {
+        if (attributes != null) {
+            for (final var name : namesToRemove(profile.getAttributes().keySet(), attributes)) {
+                profile.removeAttribute(name);
+            }
+        }
+        if (authenticationAttributes != null && profile instanceof BasicUserProfile) {
+            final var authAttributes = ((BasicUserProfile) profile).getAuthenticationAttributes();
+            for (final var name : namesToRemove(authAttributes.keySet(), authenticationAttributes)) {
+                profile.removeAuthenticationAttribute(name);
+            }
+        }
+        return profile;
+    }
+
+    private static Collection<String> namesToRemove(final Set<String> names, final Set<String> allowedNames) {
+        final Collection<String> namesToRemove = new ArrayList<>();
+        for (final var name : names) {
+            if (!allowedNames.contains(name)) {
+                namesToRemove.add(name);
+            }
+        }
+        return namesToRemove;
+    }
+
+    public Set<String> getAttributes() {
+        return attributes;
+    }
+
+    public void setAttributes(final Collection<String> attributes) {
+        this.attributes = attributes != null ? new HashSet<>(attributes) : null;
+    }
+
+    public Set<String> getAuthenticationAttributes() {
+        return authenticationAttributes;
+    }
+
+    public void setAuthenticationAttributes(final Collection<String> authenticationAttributes) {
+        this.authenticationAttributes = authenticationAttributes != null ? new HashSet<>(authenticationAttributes) : null;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "attributes", attributes, "authenticationAttributes", authenticationAttributes);
+    }
+}
@@ -5,12 +5,9 @@ import org.pac4j.core.util.Pac4jConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.common.collect.Streams;
-
 import java.io.*;
 import java.security.Principal;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * This class is the user profile retrieved from a provider after successful authentication: it's an identifier (string) and attributes
@@ -120,7 +117,9 @@ public class BasicUserProfile implements UserProfile, Externalizable {
     private void addAttributeToMap(final Map<String, Object> map, final String key, final Object value)
     {
         if (value != null) {
-            logger.debug("adding => key: {} / value: {} / {}", key, value, value.getClass());
+            if (logger.isDebugEnabled()) {
+                logger.debug("adding => key: {} / value: {} / {}", key, value, value.getClass());
+            }
             var valueForMap = getValueForMap(map, key, value);
             map.put(key, valueForMap);
         }
@@ -148,7 +147,29 @@ public class BasicUserProfile implements UserProfile, Externalizable {
 
     private <T> Collection<T> mergeCollectionAttributes(final Collection<T> existingCollection, final Collection<T> newCollection)
     {
-        return Streams.concat(existingCollection.stream(), newCollection.stream()).collect(Collectors.toList());
+        final List<T> mergedCollection = new ArrayList<>(existingCollection.size() + newCollection.size());
+        mergedCollection.addAll(existingCollection);
+        mergedCollection.addAll(newCollection);
+        return mergedCollection;
+    }
+
+    /**
+     * Size the attributes maps up front before adding many attributes (only if they are still empty).
+     *
+     * @param nbAttributes the expected number of attributes
+     * @param nbAuthenticationAttributes the expected number of authentication attributes
+     */
+    public void ensureCapacity(final int nbAttributes, final int nbAuthenticationAttributes) {
+        this.attributes = presize(this.attributes, nbAttributes);
+        this.authenticationAttributes = presize(this.authenticationAttributes, nbAuthenticationAttributes);
+    }
+
+    private static Map<String, Object> presize(final Map<String, Object> map, final int nbEntries) {
+        // the default capacity is enough for 12 entries
+        if (nbEntries > 12 && map.isEmpty()) {
+            return new HashMap<>((int) (nbEntries / 0.75f) + 1);
+        }
+        return map;
     }
 
     /**
@@ -183,6 +204,7 @@ public class BasicUserProfile implements UserProfile, Externalizable {
      */
     public void addAttributes(final Map<String, Object> attributes) {
         if (attributes != null) {
+            this.attributes = presize(this.attributes, attributes.size());
             for (final var entry : attributes.entrySet()) {
                 addAttribute(entry.getKey(), entry.getValue());
             }
@@ -196,6 +218,7 @@ public class BasicUserProfile implements UserProfile, Externalizable {
      */
     public void addAuthenticationAttributes(final Map<String, Object> attributeMap) {
         if (attributeMap != null) {
+            this.authenticationAttributes = presize(this.authenticationAttributes, attributeMap.size());
             for (final var entry : attributeMap.entrySet()) {
                 addAuthenticationAttribute(entry.getKey(), entry.getValue());
             }
@@ -241,13 +264,7 @@ public class BasicUserProfile implements UserProfile, Externalizable {
     }
 
     private static Map<String, Object> getAttributeMap(final Map<String, Object> attributeMap) {
-        final Map<String, Object> newAttributes = new HashMap<>();
-        for (var entries : attributeMap.entrySet()) {
-            final var key = entries.getKey();
-            final var value = attributeMap.get(key);
-            newAttributes.put(key, value);
-        }
-        return newAttributes;
+        return new HashMap<>(attributeMap);
     }
 
     /**
@@ -513,6 +530,16 @@ public class BasicUserProfile implements UserProfile, Externalizable {
         return false;
     }
 
+    /**
+     * The profile never expires: a subclass overriding {@link #isExpired()} must override this method as well.
+     *
+     * @return {@link Long#MAX_VALUE}
+     */
+    @Override
+    public long getExpirationTime() {
+        return Long.MAX_VALUE;
+    }
+
     @Override
     public Principal asPrincipal() {
         return new Pac4JPrincipal(this);
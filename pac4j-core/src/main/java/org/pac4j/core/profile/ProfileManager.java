@@ -2,6 +2,7 @@ package org.pac4j.core.profile;
 
 import org.pac4j.core.authorization.authorizer.Authorizer;
 import org.pac4j.core.authorization.authorizer.IsAuthenticatedAuthorizer;
+import org.pac4j.core.client.Client;
 import org.pac4j.core.config.Config;
 import org.pac4j.core.util.Pac4jConstants;
 import org.pac4j.core.context.WebContext;
@@ -9,10 +10,12 @@ import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.exception.http.HttpAction;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.serializer.JavaSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class is a generic way to manage the current user profile(s), i.e. the one(s) of the current authenticated user.
@@ -24,6 +27,10 @@ public class ProfileManager {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ProfileManager.class);
 
+    private static final JavaSerializer SIZE_SERIALIZER = new JavaSerializer();
+
+    private static final String PROFILES_VIEW = "pac4jProfilesView";
+
     private final Authorizer IS_AUTHENTICATED_AUTHORIZER = new IsAuthenticatedAuthorizer();
 
     protected final Logger logger = LoggerFactory.getLogger(getClass());
@@ -34,6 +41,10 @@ public class ProfileManager {
 
     protected Config config;
 
+    protected ProfileRepository profileRepository;
+
+    protected ProfileRenewer profileRenewer;
+
     public ProfileManager(final WebContext context, final SessionStore sessionStore) {
         CommonHelper.assertNotNull("context", context);
         CommonHelper.assertNotNull("sessionStore", sessionStore);
@@ -41,6 +52,18 @@ public class ProfileManager {
         this.sessionStore = sessionStore;
     }
 
+    /**
+     * Save the user profiles in a repository: only their references are saved in the web session.
+     *
+     * @param context the web context
+     * @param sessionStore the session store
+     * @param profileRepository the profile repository
+     */
+    public ProfileManager(final WebContext context, final SessionStore sessionStore, final ProfileRepository profileRepository) {
+        this(context, sessionStore);
+        this.profileRepository = profileRepository;
+    }
+
     /**
      * Retrieve the first user profile if it exists, ignoring any {@link AnonymousProfile} if possible.
      *
@@ -68,59 +91,152 @@ public class ProfileManager {
     /**
      * Retrieve the map of profiles from the session or the request.
      *
+     * The profiles read from the session are kept in a view of the request (until they may be expired or are saved again),
+     * so that they are merged and checked only once per request.
+     *
      * @param readFromSession if the user profiles must be read from session
      * @return the map of profiles
      */
     protected LinkedHashMap<String, UserProfile> retrieveAll(final boolean readFromSession) {
-        final var profiles = new LinkedHashMap<String, UserProfile>();
-        this.context.getRequestAttribute(Pac4jConstants.USER_PROFILES)
-            .ifPresent(requestAttribute -> {
-                LOGGER.debug("Retrieved profiles (request): {}", requestAttribute);
-                profiles.putAll((Map<String, UserProfile>) requestAttribute);
-            });
-        if (readFromSession) {
-            this.sessionStore.get(this.context, Pac4jConstants.USER_PROFILES)
-                .ifPresent(sessionAttribute -> {
-                    LOGGER.debug("Retrieved profiles (session): {}", sessionAttribute);
-                    profiles.putAll((Map<String, UserProfile>) sessionAttribute);
+        final LinkedHashMap<String, UserProfile> profiles;
+        final var view = readFromSession ? retrieveView() : null;
+        if (view != null) {
+            if (!view.mayBeExpired()) {
+                return new LinkedHashMap<>(view.profiles);
+            }
+            profiles = new LinkedHashMap<>(view.profiles);
+        } else {
+            profiles = new LinkedHashMap<>();
+            this.context.getRequestAttribute(Pac4jConstants.USER_PROFILES)
+                .ifPresent(requestAttribute -> {
+                    LOGGER.debug("Retrieved profiles (request): {}", requestAttribute);
+                    profiles.putAll((Map<String, UserProfile>) requestAttribute);
                 });
+            if (readFromSession && profileRepository != null) {
+                profiles.putAll(profileRepository.load(this.context, this.sessionStore));
+            } else if (readFromSession) {
+                this.sessionStore.get(this.context, Pac4jConstants.USER_PROFILES)
+                    .ifPresent(sessionAttribute -> {
+                        LOGGER.debug("Retrieved profiles (session): {}", sessionAttribute);
+                        profiles.putAll((Map<String, UserProfile>) sessionAttribute);
+                    });
+            }
         }
 
         removeOrRenewExpiredProfiles(profiles, readFromSession);
+        if (readFromSession) {
+            saveView(profiles);
+        }
 
         return profiles;
     }
 
+    /**
+     * Remove the expired profiles (or replace them by their renewed profiles) and save the profiles if any has expired.
+     *
+     * @param profiles the map of profiles
+     * @param readFromSession if the user profiles have been read from session
+     */
     protected void removeOrRenewExpiredProfiles(final LinkedHashMap<String, UserProfile> profiles, final boolean readFromSession) {
         var profilesUpdated = false;
-        for (final var entry : profiles.entrySet()) {
+        final Set<String> renewedKeys = new HashSet<>();
+        final var iterator = profiles.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final var entry = iterator.next();
             final var key = entry.getKey();
             final var profile = entry.getValue();
-            if (profile.isExpired()) {
+            final var renewalKey = profileRenewer != null ? computeRenewalKey(key, profile) : null;
+            if (renewalKey != null) {
+                final var renewedProfile = profileRenewer.pollRenewed(renewalKey);
+                if (renewedProfile.isPresent()) {
+                    LOGGER.debug("Renewed in the background by profile: {}", renewedProfile);
+                    profilesUpdated = true;
+                    entry.setValue(renewedProfile.get());
+                    renewedKeys.add(key);
+                    continue;
+                }
+            }
+            if (mayBeExpired(profile.getExpirationTime()) && profile.isExpired()) {
                 LOGGER.debug("Expired profile: {}", profile);
                 profilesUpdated = true;
-                profiles.remove(key);
-                if (config != null && profile.getClientName() != null) {
-                    final var client = config.getClients().findClient(profile.getClientName());
-                    if (client.isPresent()) {
-                        try {
-                            final var newProfile = client.get().renewUserProfile(profile, context, sessionStore);
-                            if (newProfile.isPresent()) {
-                                LOGGER.debug("Renewed by profile: {}", newProfile);
-                                profiles.put(key, newProfile.get());
-                            }
-                        } catch (final RuntimeException e) {
-                            logger.error("Unable to renew the user profile for key: {}", key, e);
-                        }
-                    }
+                final var newProfile = renewProfile(key, renewalKey, profile);
+                if (newProfile.isPresent()) {
+                    LOGGER.debug("Renewed by profile: {}", newProfile);
+                    entry.setValue(newProfile.get());
+                    renewedKeys.add(key);
+                } else {
+                    iterator.remove();
                 }
+            } else if (renewalKey != null && profileRenewer.isRenewalDue(profile)) {
+                renewProfileInBackground(renewalKey, profile);
             }
         }
         if (profilesUpdated) {
-            saveAll(profiles, readFromSession);
+            saveAll(profiles, readFromSession, renewedKeys);
+        }
+    }
+
+    private static boolean mayBeExpired(final long expirationTime) {
+        return expirationTime == Long.MIN_VALUE || System.currentTimeMillis() >= expirationTime;
+    }
+
+    private Optional<UserProfile> renewProfile(final String key, final String renewalKey, final UserProfile profile) {
+        final var client = findClient(profile);
+        if (client.isPresent()) {
+            try {
+                if (renewalKey != null) {
+                    return profileRenewer.renew(renewalKey, () -> client.get().renewUserProfile(profile, context, sessionStore));
+                }
+                return client.get().renewUserProfile(profile, context, sessionStore);
+            } catch (final RuntimeException e) {
+                logger.error("Unable to renew the user profile for key: {}", key, e);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void renewProfileInBackground(final String renewalKey, final UserProfile profile) {
+        final var client = findClient(profile);
+        if (client.isPresent()) {
+            profileRenewer.renewInBackground(renewalKey, () -> client.get().renewUserProfileInBackground(profile));
         }
     }
 
+    private Optional<Client> findClient(final UserProfile profile) {
+        if (config != null && profile.getClientName() != null) {
+            return config.getClients().findClient(profile.getClientName());
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Compute the key of the renewals of a profile (the same for all the requests of the session and the same user).
+     *
+     * @param key the key of the profile
+     * @param profile the profile
+     * @return the renewal key, <code>null</code> if there is no session (the renewals are then not shared)
+     */
+    protected String computeRenewalKey(final String key, final UserProfile profile) {
+        final var sessionId = sessionStore.getSessionId(context, false);
+        if (sessionId.isEmpty()) {
+            return null;
+        }
+        return sessionId.get() + ":" + key + ":" + profile.getId();
+    }
+
+    private ProfilesView retrieveView() {
+        final var view = this.context.getRequestAttribute(PROFILES_VIEW);
+        if (view.isPresent() && ((ProfilesView) view.get()).sessionStore == this.sessionStore) {
+            return (ProfilesView) view.get();
+        }
+        return null;
+    }
+
+    private void saveView(final LinkedHashMap<String, UserProfile> profiles) {
+        final var renewalAdvance = profileRenewer != null ? TimeUnit.SECONDS.toMillis(profileRenewer.getRenewalAdvance()) : 0L;
+        this.context.setRequestAttribute(PROFILES_VIEW, new ProfilesView(this.sessionStore, profiles, renewalAdvance));
+    }
+
     /**
      * Remove the current user profile(s).
      */
@@ -128,10 +244,15 @@ public class ProfileManager {
         final var sessionExists = sessionStore.getSessionId(context, false).isPresent();
         if (sessionExists) {
             LOGGER.debug("Removing profiles from session");
-            this.sessionStore.set(this.context, Pac4jConstants.USER_PROFILES, new LinkedHashMap<String, UserProfile>());
+            if (profileRepository != null) {
+                profileRepository.removeAll(this.context, this.sessionStore);
+            } else {
+                this.sessionStore.set(this.context, Pac4jConstants.USER_PROFILES, new LinkedHashMap<String, UserProfile>());
+            }
         }
         LOGGER.debug("Removing profiles from request");
         this.context.setRequestAttribute(Pac4jConstants.USER_PROFILES, new LinkedHashMap<String, UserProfile>());
+        saveView(new LinkedHashMap<>());
     }
 
     /**
@@ -153,7 +274,26 @@ public class ProfileManager {
         }
         profiles.put(clientName, profile);
 
-        saveAll(profiles, saveInSession);
+        if (saveInSession && LOGGER.isDebugEnabled()) {
+            reportProfileSize(clientName, profile);
+        }
+        saveAll(profiles, saveInSession, Collections.singleton(clientName));
+    }
+
+    /**
+     * Log the size of the serialized profile (saved in the web session) to identify the clients with large profiles.
+     *
+     * @param clientName the client name
+     * @param profile the profile
+     */
+    protected void reportProfileSize(final String clientName, final UserProfile profile) {
+        try {
+            final var size = SIZE_SERIALIZER.serializeToBytes(profile).length;
+            LOGGER.debug("Size of the serialized profile for client: {} = {} bytes ({} attributes)", clientName, size,
+                profile.getAttributes().size());
+        } catch (final RuntimeException e) {
+            LOGGER.debug("Cannot compute the size of the profile for client: {}", clientName, e);
+        }
     }
 
     protected String retrieveClientName(final UserProfile profile) {
@@ -165,12 +305,32 @@ public class ProfileManager {
     }
 
     protected void saveAll(LinkedHashMap<String, UserProfile> profiles, final boolean saveInSession) {
-        if (saveInSession) {
+        saveAll(profiles, saveInSession, null);
+    }
+
+    /**
+     * Save the map of profiles in the session (or in the repository) and the request.
+     *
+     * @param profiles the map of profiles
+     * @param saveInSession if the user profiles must be saved in session
+     * @param modifiedKeys the keys of the modified profiles (<code>null</code> if all the profiles may be modified)
+     */
+    protected void saveAll(final LinkedHashMap<String, UserProfile> profiles, final boolean saveInSession,
+                           final Collection<String> modifiedKeys) {
+        if (saveInSession && profileRepository != null) {
+            LOGGER.debug("Saving profiles (repository): {}", profiles);
+            profileRepository.save(this.context, this.sessionStore, profiles, modifiedKeys);
+        } else if (saveInSession) {
             LOGGER.debug("Saving profiles (session): {}", profiles);
             this.sessionStore.set(this.context, Pac4jConstants.USER_PROFILES, profiles);
         }
         LOGGER.debug("Saving profiles (request): {}", profiles);
         this.context.setRequestAttribute(Pac4jConstants.USER_PROFILES, profiles);
+        if (saveInSession) {
+            saveView(profiles);
+        } else {
+            this.context.setRequestAttribute(PROFILES_VIEW, null);
+        }
     }
 
     /**
@@ -193,4 +353,47 @@ public class ProfileManager {
     public void setConfig(final Config config) {
         this.config = config;
     }
+
+    public ProfileRenewer getProfileRenewer() {
+        return profileRenewer;
+    }
+
+    public void setProfileRenewer(final ProfileRenewer profileRenewer) {
+        this.profileRenewer = profileRenewer;
+    }
+
+    public ProfileRepository getProfileRepository() {
+        return profileRepository;
+    }
+
+    public void setProfileRepository(final ProfileRepository profileRepository) {
+        this.profileRepository = profileRepository;
+    }
+
+    /**
+     * The profiles of the request and the session, valid until the earliest expiration time of the profiles.
+     */
+    private static final class ProfilesView {
+
+        private final SessionStore sessionStore;
+
+        private final LinkedHashMap<String, UserProfile> profiles;
+
+        private final long expirationTime;
+
+        private ProfilesView(final SessionStore sessionStore, final Map<String, UserProfile> profiles, final long renewalAdvance) {
+            this.sessionStore = sessionStore;
+            this.profiles = new LinkedHashMap<>(profiles);
+            var earliest = Long.MAX_VALUE;
+            for (final var profile : profiles.values()) {
+                earliest = Math.min(earliest, profile.getExpirationTime());
+            }
+            // the profiles must be checked earlier if they are renewed in the background
+            this.expirationTime = earliest == Long.MIN_VALUE || earliest == Long.MAX_VALUE ? earliest : earliest - renewalAdvance;
+        }
+
+        private boolean mayBeExpired() {
+            return ProfileManager.mayBeExpired(expirationTime);
+        }
+    }
 }
@@ -0,0 +1,250 @@
+package org.pac4j.core.profile;
+
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.InitializableObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Renew the user profiles shortly before they expire, in the background, so that the users don't wait for the renewal
+ * (like a refresh token grant). The renewed profile is picked up (and saved) by the next request of the user.
+ *
+ * There is at most one renewal in progress for a key (a client of a session): the concurrent requests share its result.
+ * A failed (or timed out) background renewal is forgotten as soon as it completes, a successful one when it is picked up.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public class ProfileRenewer extends InitializableObject {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProfileRenewer.class);
+
+    private final Map<String, CompletableFuture<Optional<UserProfile>>> renewals = new ConcurrentHashMap<>();
+
+    private Executor executor;
+
+    private int threads = 2;
+
+    private int renewalAdvance = 60;
+
+    private int timeout = 10;
+
+    private int renewalTimeout = 60;
+
+    private int size = 10000;
+
+    public ProfileRenewer() {}
+
+    public ProfileRenewer(final Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        CommonHelper.assertTrue(this.renewalAdvance >= 0, "renewalAdvance cannot be negative");
+        CommonHelper.assertTrue(this.timeout > 0, "timeout must be greater than zero");
+        CommonHelper.assertTrue(this.renewalTimeout > 0, "renewalTimeout must be greater than zero");
+        CommonHelper.assertTrue(this.size > 0, "size must be greater than zero");
+
+        if (this.executor == null) {
+            CommonHelper.assertTrue(this.threads > 0, "threads must be greater than zero");
+            this.executor = Executors.newFixedThreadPool(this.threads, runnable -> {
+                final var thread = new Thread(runnable, "pac4j-profile-renewer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Whether the profile must be renewed in the background (it will expire soon).
+     *
+     * @param profile the profile
+     * @return whether the profile must be renewed
+     */
+    public boolean isRenewalDue(final UserProfile profile) {
+        final var expirationTime = profile.getExpirationTime();
+        return expirationTime != Long.MIN_VALUE && expirationTime != Long.MAX_VALUE
+            && System.currentTimeMillis() >= expirationTime - TimeUnit.SECONDS.toMillis(renewalAdvance);
+    }
+
+    /**
+     * Start the renewal in the background, unless a renewal is already in progress or done for this key.
+     *
+     * @param key the key of the renewal
+     * @param renewal the renewal
+     */
+    public void renewInBackground(final String key, final Supplier<Optional<UserProfile>> renewal) {
+        init();
+
+        if (renewals.size() >= size) {
+            renewals.values().removeIf(CompletableFuture::isDone);
+        }
+        final var future = new CompletableFuture<Optional<UserProfile>>();
+        if (renewals.putIfAbsent(key, future) != null) {
+            return;
+        }
+        LOGGER.debug("Renewing the profile in the background for key: {}", key);
+        try {
+            CompletableFuture.supplyAsync(renewal, executor).orTimeout(renewalTimeout, TimeUnit.SECONDS).whenComplete((profile, e) -> {
+                if (e != null) {
+                    LOGGER.error("Unable to renew the user profile in the background for key: {}", key, e);
+                }
+                if (e != null || profile == null || profile.isEmpty()) {
+                    renewals.remove(key, future);
+                    future.complete(Optional.empty());
+                } else {
+                    future.complete(profile);
+                }
+            });
+        } catch (final RuntimeException e) {
+            renewals.remove(key, future);
+            future.complete(Optional.empty());
+            throw e;
+        }
+    }
+
+    /**
+     * Return the profile renewed in the background, if the renewal is done.
+     *
+     * @param key the key of the renewal
+     * @return the renewed profile
+     */
+    public Optional<UserProfile> pollRenewed(final String key) {
+        final var future = renewals.get(key);
+        if (future != null && future.isDone()) {
+            final var profile = future.join();
+            if (profile.isPresent() && renewals.remove(key, future)) {
+                LOGGER.debug("Profile renewed in the background for key: {}", key);
+                return profile;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Renew an expired profile: wait for the renewal in progress (up to the timeout) or run the renewal in the current thread.
+     *
+     * @param key the key of the renewal
+     * @param renewal the renewal
+     * @return the renewed profile
+     */
+    public Optional<UserProfile> renew(final String key, final Supplier<Optional<UserProfile>> renewal) {
+        init();
+
+        final var newFuture = new CompletableFuture<Optional<UserProfile>>();
+        final var future = renewals.compute(key,
+            (k, existing) -> existing == null || existing.isDone() && existing.join().isEmpty() ? newFuture : existing);
+        if (future == newFuture) {
+            try {
+                newFuture.complete(renewal.get());
+            } catch (final RuntimeException e) {
+                newFuture.complete(Optional.empty());
+                throw e;
+            } finally {
+                renewals.remove(key, newFuture);
+            }
+            return newFuture.join();
+        }
+
+        try {
+            final var profile = future.get(timeout, TimeUnit.SECONDS);
+            renewals.remove(key, future);
+            return profile;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException | TimeoutException e) {
+            LOGGER.warn("No renewed profile for key: {}", key, e);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Return the number of renewals in progress or not picked up yet.
+     *
+     * @return the number of renewals
+     */
+    public int getNbRenewals() {
+        return renewals.size();
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public void setExecutor(final Executor executor) {
+        this.executor = executor;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(final int threads) {
+        this.threads = threads;
+    }
+
+    public int getRenewalAdvance() {
+        return renewalAdvance;
+    }
+
+    /**
+     * Define how long before their expiration the profiles are renewed in the background.
+     *
+     * @param renewalAdvance the renewal advance (in seconds)
+     */
+    public void setRenewalAdvance(final int renewalAdvance) {
+        this.renewalAdvance = renewalAdvance;
+    }
+
+    public int getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Define how long a request waits for the renewal in progress of an expired profile.
+     *
+     * @param timeout the timeout (in seconds)
+     */
+    public void setTimeout(final int timeout) {
+        this.timeout = timeout;
+    }
+
+    public int getRenewalTimeout() {
+        return renewalTimeout;
+    }
+
+    /**
+     * Define how long a background renewal can last before it is forgotten.
+     *
+     * @param renewalTimeout the renewal timeout (in seconds)
+     */
+    public void setRenewalTimeout(final int renewalTimeout) {
+        this.renewalTimeout = renewalTimeout;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(final int size) {
+        this.size = size;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "threads", threads, "renewalAdvance", renewalAdvance, "timeout", timeout,
+            "renewalTimeout", renewalTimeout, "size", size);
+    }
+}
@@ -0,0 +1,227 @@
+package org.pac4j.core.profile;
+
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.store.Store;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.Pac4jConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Save the user profiles in a dedicated store instead of the web session: only small references (an identifier and a version
+ * per client) are saved in the web session (under the {@link Pac4jConstants#USER_PROFILE_REFERENCES} key).
+ *
+ * A new version of a profile is saved under a new key (with a random version, so that concurrent requests of the same session
+ * never share a key), so the entries of the store are never modified and can be cached locally
+ * (see {@link org.pac4j.core.store.NearCacheStore}). Only the modified profiles are saved again.
+ *
+ * The entries are removed on logout and when a profile is saved again, but not when the web session expires (or when two
+ * concurrent requests save a new version of the same profile, for the one which is not referenced in the end): the store must
+ * expire its entries, after a timeout longer than the one of the web session.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public class ProfileRepository {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProfileRepository.class);
+
+    private static final String LOADED_PROFILES = "pac4jLoadedProfiles";
+
+    private Store<String, UserProfile> store;
+
+    public ProfileRepository() {}
+
+    public ProfileRepository(final Store<String, UserProfile> store) {
+        this.store = store;
+    }
+
+    /**
+     * Load the user profiles referenced in the web session.
+     *
+     * @param context the web context
+     * @param sessionStore the session store
+     * @return the user profiles
+     */
+    public LinkedHashMap<String, UserProfile> load(final WebContext context, final SessionStore sessionStore) {
+        CommonHelper.assertNotNull("store", store);
+
+        final var profiles = new LinkedHashMap<String, UserProfile>();
+        final var references = retrieveReferences(context, sessionStore);
+        if (references == null) {
+            return profiles;
+        }
+        final var loaded = context.getRequestAttribute(LOADED_PROFILES);
+        if (loaded.isPresent() && ((LoadedProfiles) loaded.get()).references.equals(references)) {
+            profiles.putAll(((LoadedProfiles) loaded.get()).profiles);
+            return profiles;
+        }
+        for (final var entry : references.getVersions().entrySet()) {
+            final var key = computeKey(references.getId(), entry.getKey(), entry.getValue());
+            final var profile = store.get(key);
+            if (profile.isPresent()) {
+                profiles.put(entry.getKey(), profile.get());
+            } else {
+                LOGGER.debug("No profile in the repository for key: {}", key);
+            }
+        }
+        LOGGER.debug("Loaded profiles (repository): {}", profiles);
+        context.setRequestAttribute(LOADED_PROFILES, new LoadedProfiles(references, profiles));
+        return profiles;
+    }
+
+    /**
+     * Save the user profiles and their references in the web session. The profiles which are already referenced and
+     * not modified are not saved again.
+     *
+     * @param context the web context
+     * @param sessionStore the session store
+     * @param profiles the user profiles
+     * @param modifiedKeys the keys of the modified profiles (<code>null</code> if all the profiles may be modified)
+     */
+    public void save(final WebContext context, final SessionStore sessionStore, final LinkedHashMap<String, UserProfile> profiles,
+                     final Collection<String> modifiedKeys) {
+        CommonHelper.assertNotNull("store", store);
+
+        final var current = retrieveReferences(context, sessionStore);
+        final var id = current != null ? current.getId() : UUID.randomUUID().toString();
+        final var versions = new LinkedHashMap<String, String>();
+        for (final var entry : profiles.entrySet()) {
+            final var clientName = entry.getKey();
+            final var currentVersion = current != null ? current.getVersions().get(clientName) : null;
+            if (currentVersion != null && modifiedKeys != null && !modifiedKeys.contains(clientName)) {
+                versions.put(clientName, currentVersion);
+            } else {
+                final var version = generateVersion();
+                LOGGER.debug("Saving profile (repository) for client: {} with version: {}", clientName, version);
+                store.set(computeKey(id, clientName, version), entry.getValue());
+                versions.put(clientName, version);
+            }
+        }
+
+        final var references = new References(id, versions);
+        if (!references.equals(current)) {
+            sessionStore.set(context, Pac4jConstants.USER_PROFILE_REFERENCES, references);
+        }
+        context.setRequestAttribute(LOADED_PROFILES, new LoadedProfiles(references, profiles));
+        if (current != null) {
+            for (final var entry : current.getVersions().entrySet()) {
+                if (!entry.getValue().equals(versions.get(entry.getKey()))) {
+                    store.remove(computeKey(id, entry.getKey(), entry.getValue()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove the user profiles and their references.
+     *
+     * @param context the web context
+     * @param sessionStore the session store
+     */
+    public void removeAll(final WebContext context, final SessionStore sessionStore) {
+        CommonHelper.assertNotNull("store", store);
+
+        final var current = retrieveReferences(context, sessionStore);
+        if (current != null) {
+            sessionStore.set(context, Pac4jConstants.USER_PROFILE_REFERENCES, null);
+            for (final var entry : current.getVersions().entrySet()) {
+                store.remove(computeKey(current.getId(), entry.getKey(), entry.getValue()));
+            }
+        }
+        context.setRequestAttribute(LOADED_PROFILES, null);
+    }
+
+    protected References retrieveReferences(final WebContext context, final SessionStore sessionStore) {
+        return (References) sessionStore.get(context, Pac4jConstants.USER_PROFILE_REFERENCES).orElse(null);
+    }
+
+    protected String generateVersion() {
+        return UUID.randomUUID().toString();
+    }
+
+    protected String computeKey(final String id, final String clientName, final String version) {
+        return id + ":" + clientName + ":" + version;
+    }
+
+    public Store<String, UserProfile> getStore() {
+        return store;
+    }
+
+    public void setStore(final Store<String, UserProfile> store) {
+        this.store = store;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "store", store);
+    }
+
+    /**
+     * The references of the user profiles saved in the web session.
+     */
+    public static final class References implements Serializable {
+
+        private static final long serialVersionUID = -6309722398717232946L;
+
+        private final String id;
+
+        private final Map<String, String> versions;
+
+        public References(final String id, final Map<String, String> versions) {
+            this.id = id;
+            this.versions = Collections.unmodifiableMap(new LinkedHashMap<>(versions));
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public Map<String, String> getVersions() {
+            return versions;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final var that = (References) o;
+            return id.equals(that.id) && versions.equals(that.versions);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, versions);
+        }
+
+        @Override
+        public String toString() {
+            return CommonHelper.toNiceString(this.getClass(), "id", id, "versions", versions);
+        }
+    }
+
+    private static final class LoadedProfiles {
+
+        private final References references;
+
+        private final Map<String, UserProfile> profiles;
+
+        private LoadedProfiles(final References references, final Map<String, UserProfile> profiles) {
+            this.references = references;
+            this.profiles = new LinkedHashMap<>(profiles);
+        }
+    }
+}
@@ -62,5 +62,14 @@ public interface UserProfile extends Serializable {
 
     boolean isExpired();
 
+    /**
+     * The time (in milliseconds) before which the profile cannot be expired, to avoid calling {@link #isExpired()} before.
+     *
+     * @return {@link Long#MAX_VALUE} if the profile never expires, {@link Long#MIN_VALUE} if it must always be checked (default)
+     */
+    default long getExpirationTime() {
+        return Long.MIN_VALUE;
+    }
+
     Principal asPrincipal();
 }
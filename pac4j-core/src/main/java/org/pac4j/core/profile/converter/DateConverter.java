@@ -2,7 +2,15 @@ package org.pac4j.core.profile.converter;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.ResolverStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
 import java.util.Date;
 import java.util.Locale;
 
@@ -12,6 +20,10 @@ import org.slf4j.LoggerFactory;
 /**
  * This class converts a String (depending on a specified format) into a Date.
  *
+ * The format is compiled once (at construction) into an immutable {@link DateTimeFormatter} (when its pattern letters have the same meaning
+ * as for the {@link SimpleDateFormat}). A {@link SimpleDateFormat} per thread is used for the other formats and the values
+ * the strict {@link DateTimeFormatter} rejects, to keep the lenient parsing.
+ *
  * @author Jerome Leleu
  * @since 1.0.0
  */
@@ -19,40 +31,118 @@ public class DateConverter extends AbstractAttributeConverter {
 
     protected static final Logger logger = LoggerFactory.getLogger(DateConverter.class);
 
+    // pattern letters whose meaning differs between SimpleDateFormat and DateTimeFormatter
+    private static final String INCOMPATIBLE_LETTERS = "uYSwWF";
+
     protected String format;
 
     protected Locale locale;
 
+    private final DateTimeFormatter formatter;
+
+    private final ThreadLocal<SimpleDateFormat> simpleDateFormat;
+
     public DateConverter() {
         this(DateTimeFormatter.ISO_LOCAL_DATE_TIME.toString());
     }
 
     public DateConverter(final String format) {
-        super(Date.class);
-        this.format = format;
+        this(format, null);
     }
 
     public DateConverter(final String format, final Locale locale) {
-        this(format);
+        super(Date.class);
+        this.format = format;
         this.locale = locale;
+        this.formatter = buildFormatter(format, locale);
+        this.simpleDateFormat = ThreadLocal.withInitial(() -> buildSimpleDateFormat(format, locale));
     }
 
     @Override
     protected Date internalConvert(final Object attribute) {
         if (attribute instanceof String) {
-            SimpleDateFormat simpleDateFormat;
-            if (this.locale == null) {
-                simpleDateFormat = new SimpleDateFormat(this.format);
-            } else {
-                simpleDateFormat = new SimpleDateFormat(this.format, this.locale);
-            }
             final var s = (String) attribute;
+            if (formatter != null) {
+                try {
+                    return toDate(formatter.parse(s));
+                } catch (final DateTimeException e) {
+                    logger.debug("Cannot parse {} with the formatter, falling back to the SimpleDateFormat", s);
+                }
+            }
             try {
-                return simpleDateFormat.parse(s);
+                return simpleDateFormat.get().parse(s);
             } catch (final ParseException e) {
                 logger.error("parse exception on {} with format: {} and locale: {}", s, this.format, this.locale, e);
             }
         }
         return null;
     }
+
+    private static SimpleDateFormat buildSimpleDateFormat(final String format, final Locale locale) {
+        if (locale == null) {
+            return new SimpleDateFormat(format);
+        } else {
+            return new SimpleDateFormat(format, locale);
+        }
+    }
+
+    /**
+     * Build the formatter equivalent to the {@link SimpleDateFormat} for the format, if possible.
+     *
+     * @param format the format
+     * @param locale the locale (optional)
+     * @return the formatter or <code>null</code>
+     */
+    protected static DateTimeFormatter buildFormatter(final String format, final Locale locale) {
+        if (!isCompatibleFormat(format)) {
+            return null;
+        }
+        try {
+            final var builder = new DateTimeFormatterBuilder()
+                .appendPattern(format)
+                // missing fields: same default values as the SimpleDateFormat
+                .parseDefaulting(ChronoField.ERA, 1)
+                .parseDefaulting(ChronoField.YEAR_OF_ERA, 1970)
+                .parseDefaulting(ChronoField.MONTH_OF_YEAR, 1)
+                .parseDefaulting(ChronoField.DAY_OF_MONTH, 1)
+                .parseDefaulting(ChronoField.HOUR_OF_DAY, 0)
+                .parseDefaulting(ChronoField.MINUTE_OF_HOUR, 0)
+                .parseDefaulting(ChronoField.SECOND_OF_MINUTE, 0);
+            final var newFormatter = locale == null ? builder.toFormatter() : builder.toFormatter(locale);
+            return newFormatter.withResolverStyle(ResolverStyle.STRICT);
+        } catch (final IllegalArgumentException e) {
+            logger.debug("Cannot build a formatter for: {}", format);
+            return null;
+        }
+    }
+
+    private static boolean isCompatibleFormat(final String format) {
+        var quoted = false;
+        var i = 0;
+        while (i < format.length()) {
+            final var c = format.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+                i++;
+            } else if (quoted) {
+                i++;
+            } else {
+                var end = i + 1;
+                while (end < format.length() && format.charAt(end) == c) {
+                    end++;
+                }
+                // two-digit years are not resolved the same way
+                if (INCOMPATIBLE_LETTERS.indexOf(c) >= 0 || c == 'y' && end - i == 2) {
+                    return false;
+                }
+                i = end;
+            }
+        }
+        return !quoted;
+    }
+
+    private static Date toDate(final TemporalAccessor parsed) {
+        final var zone = parsed.query(TemporalQueries.zone());
+        return Date.from(LocalDateTime.from(parsed).atZone(zone != null ? zone : ZoneId.systemDefault()).toInstant());
+    }
 }
@@ -2,6 +2,7 @@ package org.pac4j.core.profile.definition;
 
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.profile.AttributeLocation;
+import org.pac4j.core.profile.BasicUserProfile;
 import org.pac4j.core.profile.CommonProfile;
 import org.pac4j.core.profile.ProfileHelper;
 import org.pac4j.core.profile.UserProfile;
@@ -92,15 +93,17 @@ public abstract class ProfileDefinition {
             final var converter = this.converters.get(name);
             if (converter != null) {
                 convertedValue = converter.convert(value);
-                if (convertedValue != null) {
+                if (convertedValue != null && logger.isDebugEnabled()) {
                     logger.debug("converted to => key: {} / value: {} / {}", name, convertedValue, convertedValue.getClass());
                 }
             } else {
                 convertedValue = value;
-                logger.debug("no conversion => key: {} / value: {} / {}", name, convertedValue, convertedValue.getClass());
+                if (logger.isDebugEnabled()) {
+                    logger.debug("no conversion => key: {} / value: {} / {}", name, convertedValue, convertedValue.getClass());
+                }
             }
 
-            if (attributeLocation.equals(AUTHENTICATION_ATTRIBUTE)) {
+            if (attributeLocation == AUTHENTICATION_ATTRIBUTE) {
                 profile.addAuthenticationAttribute(name, convertedValue);
             } else {
                 profile.addAttribute(name, convertedValue);
@@ -118,13 +121,20 @@ public abstract class ProfileDefinition {
     public void convertAndAdd(final UserProfile profile,
             final Map<String, Object> profileAttributes,
             final Map<String, Object> authenticationAttributes) {
+        if (profile instanceof BasicUserProfile) {
+            // size the maps of the profile once for all the attributes
+            ((BasicUserProfile) profile).ensureCapacity(profileAttributes != null ? profileAttributes.size() : 0,
+                authenticationAttributes != null ? authenticationAttributes.size() : 0);
+        }
         if (profileAttributes != null) {
-            profileAttributes.entrySet().stream()
-                .forEach(entry -> convertAndAdd(profile, PROFILE_ATTRIBUTE, entry.getKey(), entry.getValue()));
+            for (final var entry : profileAttributes.entrySet()) {
+                convertAndAdd(profile, PROFILE_ATTRIBUTE, entry.getKey(), entry.getValue());
+            }
         }
         if (authenticationAttributes != null) {
-            authenticationAttributes.entrySet().stream()
-                .forEach(entry -> convertAndAdd(profile, AUTHENTICATION_ATTRIBUTE, entry.getKey(), entry.getValue()));
+            for (final var entry : authenticationAttributes.entrySet()) {
+                convertAndAdd(profile, AUTHENTICATION_ATTRIBUTE, entry.getKey(), entry.getValue());
+            }
         }
     }
 
@@ -15,6 +15,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.pac4j.core.util.Pac4jConstants.*;
 import static org.pac4j.core.profile.AttributeLocation.PROFILE_ATTRIBUTE;
@@ -49,9 +54,16 @@ public abstract class AbstractProfileService<U extends CommonProfile> extends Pr
 
     protected String[] attributeNames;
 
+    private ExecutorService executor;
+
+    private int maxParallelism = 4;
+
+    private VerifiedCredentialsCache verifiedCredentialsCache;
+
     @Override
     protected void internalInit(final boolean forceReinit) {
         assertNotNull("profileDefinition", getProfileDefinition());
+        assertTrue(maxParallelism > 0, "maxParallelism must be greater than zero");
         assertNotBlank("usernameAttribute", this.usernameAttribute);
         assertNotBlank("passwordAttribute", this.passwordAttribute);
         assertNotBlank("idAttribute", this.idAttribute);
@@ -95,6 +107,7 @@ public abstract class AbstractProfileService<U extends CommonProfile> extends Pr
 
         final var attributes = convertProfileAndPasswordToAttributes(profile, password);
         update(attributes);
+        invalidateVerifiedCredentials(profile.getId(), profile.getUsername());
     }
 
     @Override
@@ -113,6 +126,45 @@ public abstract class AbstractProfileService<U extends CommonProfile> extends Pr
         assertNotBlank(ID, id);
 
         deleteById(id);
+        invalidateVerifiedCredentials(id, null);
+    }
+
+    @Override
+    public void createAll(final Collection<U> profiles, final Map<String, String> passwords) {
+        init();
+
+        assertNotNull("profiles", profiles);
+        assertNotNull("passwords", passwords);
+        final var listAttributes = executeInParallel(profiles, profile -> {
+            assertNotNull("profile", profile);
+            final var password = passwords.get(profile.getId());
+            assertNotBlank(PASSWORD, password);
+            assertNotBlank(ID, profile.getId());
+            assertNotBlank(USERNAME, profile.getUsername());
+            return convertProfileAndPasswordToAttributes(profile, password);
+        });
+        if (!listAttributes.isEmpty()) {
+            batchInsert(listAttributes);
+        }
+    }
+
+    @Override
+    public void updateAll(final Collection<U> profiles, final Map<String, String> passwords) {
+        init();
+
+        assertNotNull("profiles", profiles);
+        final var listAttributes = executeInParallel(profiles, profile -> {
+            assertNotNull("profile", profile);
+            assertNotBlank(ID, profile.getId());
+            assertNotBlank(USERNAME, profile.getUsername());
+            return convertProfileAndPasswordToAttributes(profile, passwords != null ? passwords.get(profile.getId()) : null);
+        });
+        if (!listAttributes.isEmpty()) {
+            batchUpdate(listAttributes);
+        }
+        for (final var profile : profiles) {
+            invalidateVerifiedCredentials(profile.getId(), profile.getUsername());
+        }
     }
 
     /**
@@ -171,6 +223,34 @@ public abstract class AbstractProfileService<U extends CommonProfile> extends Pr
      */
     protected abstract void deleteById(final String id);
 
+    /**
+     * Insert the attributes of several profiles in the storage.
+     *
+     * By default, each profile is inserted by {@link #insert(Map)}, in parallel if an executor is defined.
+     *
+     * @param listAttributes the list of attributes
+     */
+    protected void batchInsert(final List<Map<String, Object>> listAttributes) {
+        executeInParallel(listAttributes, attributes -> {
+            insert(attributes);
+            return null;
+        });
+    }
+
+    /**
+     * Update the attributes of several profiles in the storage.
+     *
+     * By default, each profile is updated by {@link #update(Map)}, in parallel if an executor is defined.
+     *
+     * @param listAttributes the list of attributes
+     */
+    protected void batchUpdate(final List<Map<String, Object>> listAttributes) {
+        executeInParallel(listAttributes, attributes -> {
+            update(attributes);
+            return null;
+        });
+    }
+
     @Override
     public U findById(final String id) {
         init();
@@ -191,6 +271,26 @@ public abstract class AbstractProfileService<U extends CommonProfile> extends Pr
         return convertAttributesToProfile(listAttributes, null);
     }
 
+    @Override
+    public List<U> findAllByIds(final Collection<String> ids) {
+        init();
+
+        assertNotNull("ids", ids);
+        for (final var id : ids) {
+            assertNotBlank(getIdAttribute(), id);
+        }
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        final var listAttributes = batchRead(defineAttributesToRead(), getIdAttribute(), ids);
+        final List<U> profiles = new ArrayList<>(listAttributes.size());
+        for (final var attributes : listAttributes) {
+            profiles.add(convertAttributesToProfile(Collections.singletonList(attributes), null));
+        }
+        return profiles;
+    }
+
     /**
      * Define the attributes to read in the storage.
      *
@@ -243,25 +343,36 @@ public abstract class AbstractProfileService<U extends CommonProfile> extends Pr
             return profile;
         } else {
             // new behaviour (>= v2.0): read the serialized profile
-            final var serializedProfile = (String) storageAttributes.get(SERIALIZED_PROFILE);
-            if (serializedProfile == null) {
-                throw new TechnicalException("No serialized profile found. You should certainly define the explicit attribute names you " +
-                    "want to retrieve");
-            }
-            final var profile = (U) serializer.deserializeFromString(serializedProfile);
-            if (profile == null) {
-                throw new TechnicalException("No deserialized profile available. You should certainly define the explicit attribute " +
-                    "names you want to retrieve");
-            }
-            final var id = storageAttributes.get(getIdAttribute());
-            if (isBlank(profile.getId()) && id != null) {
-                profile.setId(ProfileHelper.sanitizeIdentifier(id));
-            }
-            if (isBlank(profile.getLinkedId()) && isNotBlank(linkedId)) {
-                profile.setLinkedId(linkedId);
-            }
-            return profile;
+            return convertSerializedProfile((String) storageAttributes.get(SERIALIZED_PROFILE), storageAttributes.get(getIdAttribute()),
+                linkedId);
+        }
+    }
+
+    /**
+     * Convert the serialized profile from the storage into a profile (not in legacy mode).
+     *
+     * @param serializedProfile the serialized profile
+     * @param id the identifier from the storage
+     * @param linkedId the linked identifier from the storage
+     * @return the profile
+     */
+    protected U convertSerializedProfile(final String serializedProfile, final Object id, final String linkedId) {
+        if (serializedProfile == null) {
+            throw new TechnicalException("No serialized profile found. You should certainly define the explicit attribute names you " +
+                "want to retrieve");
+        }
+        final var profile = (U) serializer.deserializeFromString(serializedProfile);
+        if (profile == null) {
+            throw new TechnicalException("No deserialized profile available. You should certainly define the explicit attribute " +
+                "names you want to retrieve");
+        }
+        if (isBlank(profile.getId()) && id != null) {
+            profile.setId(ProfileHelper.sanitizeIdentifier(id));
+        }
+        if (isBlank(profile.getLinkedId()) && isNotBlank(linkedId)) {
+            profile.setLinkedId(linkedId);
         }
+        return profile;
     }
 
     /**
@@ -274,6 +385,70 @@ public abstract class AbstractProfileService<U extends CommonProfile> extends Pr
      */
     protected abstract List<Map<String, Object>> read(final List<String> names, final String key, final String value);
 
+    /**
+     * Read the list of defined attributes in the storage for several key=value queries.
+     *
+     * By default, each query is performed by {@link #read(List, String, String)}, in parallel if an executor is defined.
+     *
+     * @param names the attribute names to read
+     * @param key the key for the queries
+     * @param values the values for the queries
+     * @return the list of map of attributes
+     */
+    protected List<Map<String, Object>> batchRead(final List<String> names, final String key, final Collection<String> values) {
+        final List<Map<String, Object>> listAttributes = new ArrayList<>();
+        for (final var found : executeInParallel(values, value -> read(names, key, value))) {
+            listAttributes.addAll(found);
+        }
+        return listAttributes;
+    }
+
+    /**
+     * Apply a function to all the items and return the results in the same order. If an executor is defined,
+     * the items are split into at most <code>maxParallelism</code> tasks run on the executor, otherwise they are processed
+     * sequentially.
+     *
+     * @param items the items
+     * @param function the function
+     * @param <T> the type of the items
+     * @param <R> the type of the results
+     * @return the results
+     */
+    protected <T, R> List<R> executeInParallel(final Collection<T> items, final Function<T, R> function) {
+        if (executor == null || maxParallelism == 1 || items.size() <= 1) {
+            final List<R> results = new ArrayList<>(items.size());
+            for (final var item : items) {
+                results.add(function.apply(item));
+            }
+            return results;
+        }
+
+        final List<T> itemsList = new ArrayList<>(items);
+        final var nbTasks = Math.min(maxParallelism, itemsList.size());
+        final var chunkSize = (itemsList.size() + nbTasks - 1) / nbTasks;
+        final List<Future<List<R>>> futures = new ArrayList<>(nbTasks);
+        for (var start = 0; start < itemsList.size(); start += chunkSize) {
+            final var chunk = itemsList.subList(start, Math.min(start + chunkSize, itemsList.size()));
+            futures.add(executor.submit(() -> chunk.stream().map(function).collect(Collectors.toList())));
+        }
+
+        final List<R> results = new ArrayList<>(itemsList.size());
+        try {
+            for (final var future : futures) {
+                results.addAll(future.get());
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TechnicalException(e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new TechnicalException(e.getCause());
+        }
+        return results;
+    }
+
     @Override
     public void validate(final Credentials cred, final WebContext context, final SessionStore sessionStore) {
         init();
@@ -296,11 +471,17 @@ public abstract class AbstractProfileService<U extends CommonProfile> extends Pr
             } else if (listAttributes.size() > 1) {
                 throw new MultipleAccountsFoundException("Too many accounts found for: " + username);
             } else {
-                final var retrievedPassword = (String) listAttributes.get(0).get(getPasswordAttribute());
-                // check password
-                if (!passwordEncoder.matches(password, retrievedPassword)) {
+                final var storageAttributes = listAttributes.get(0);
+                final var retrievedPassword = (String) storageAttributes.get(getPasswordAttribute());
+                // check password (unless recently verified)
+                final var verified = verifiedCredentialsCache != null
+                    && verifiedCredentialsCache.get(username, password, retrievedPassword).isPresent();
+                if (!verified && !passwordEncoder.matches(password, retrievedPassword)) {
                     throw new BadCredentialsException("Bad credentials for: " + username);
                 } else {
+                    if (!verified) {
+                        rememberVerifiedCredentials(storageAttributes, username, password, retrievedPassword);
+                    }
                     final var profile = convertAttributesToProfile(listAttributes, null);
                     credentials.setUserProfile(profile);
                 }
@@ -312,10 +493,72 @@ public abstract class AbstractProfileService<U extends CommonProfile> extends Pr
         }
     }
 
+    /**
+     * Remember successfully verified credentials (if the cache is enabled).
+     *
+     * @param storageAttributes the attributes of the account in the storage
+     * @param username the username
+     * @param password the password
+     * @param storedPassword the stored (encoded) password, if any
+     */
+    protected void rememberVerifiedCredentials(final Map<String, Object> storageAttributes, final String username,
+                                               final String password, final String storedPassword) {
+        final var id = storageAttributes.get(getIdAttribute());
+        if (verifiedCredentialsCache != null && id != null) {
+            verifiedCredentialsCache.put(id.toString(), username, password, storedPassword);
+        }
+    }
+
+    /**
+     * Forget the verified credentials of an account (if the cache is enabled).
+     *
+     * @param id the identifier of the account
+     * @param username the username (optional)
+     */
+    protected void invalidateVerifiedCredentials(final String id, final String username) {
+        if (verifiedCredentialsCache != null) {
+            verifiedCredentialsCache.invalidate(id, username);
+        }
+    }
+
     protected boolean isLegacyMode() {
         return attributes != null;
     }
 
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Define the executor used to run in parallel the bulk operations which are not natively batched by the storage.
+     *
+     * @param executor the executor
+     */
+    public void setExecutor(final ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    public int getMaxParallelism() {
+        return maxParallelism;
+    }
+
+    public void setMaxParallelism(final int maxParallelism) {
+        this.maxParallelism = maxParallelism;
+    }
+
+    public VerifiedCredentialsCache getVerifiedCredentialsCache() {
+        return verifiedCredentialsCache;
+    }
+
+    /**
+     * Define the cache of the successfully verified credentials to skip the password check for the next authentications.
+     *
+     * @param verifiedCredentialsCache the verified credentials cache
+     */
+    public void setVerifiedCredentialsCache(final VerifiedCredentialsCache verifiedCredentialsCache) {
+        this.verifiedCredentialsCache = verifiedCredentialsCache;
+    }
+
     public PasswordEncoder getPasswordEncoder() {
         return passwordEncoder;
     }
@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import static org.pac4j.core.util.CommonHelper.*;
@@ -26,7 +27,7 @@ public class InMemoryProfileService<U extends CommonProfile> extends AbstractPro
     public ProfileFactory profileFactory;
 
     public InMemoryProfileService(final ProfileFactory profileFactory) {
-        this(new HashMap<>(), profileFactory);
+        this(new ConcurrentHashMap<>(), profileFactory);
     }
 
     public InMemoryProfileService(final Map<String,Map<String,Object>> profiles, final ProfileFactory profileFactory) {
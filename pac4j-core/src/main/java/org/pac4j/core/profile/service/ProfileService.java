@@ -2,6 +2,11 @@ package org.pac4j.core.profile.service;
 
 import org.pac4j.core.profile.CommonProfile;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Profile services: creation, update, delete and retrievals in the storage.
  *
@@ -55,4 +60,45 @@ public interface ProfileService<U extends CommonProfile> {
      * @return the found profile
      */
     U findByLinkedId(String linkedId);
+
+    /**
+     * Create profiles with their associated passwords in the storage.
+     *
+     * @param profiles the profiles
+     * @param passwords the passwords of the profiles, by profile identifier
+     */
+    default void createAll(final Collection<U> profiles, final Map<String, String> passwords) {
+        for (final var profile : profiles) {
+            create(profile, passwords.get(profile.getId()));
+        }
+    }
+
+    /**
+     * Update profiles (with their associated optional passwords) in the storage.
+     *
+     * @param profiles the profiles
+     * @param passwords the optional passwords of the profiles, by profile identifier (may be <code>null</code>)
+     */
+    default void updateAll(final Collection<U> profiles, final Map<String, String> passwords) {
+        for (final var profile : profiles) {
+            update(profile, passwords != null ? passwords.get(profile.getId()) : null);
+        }
+    }
+
+    /**
+     * Find profiles by their identifiers.
+     *
+     * @param ids the identifiers
+     * @return the found profiles (the identifiers not found are ignored)
+     */
+    default List<U> findAllByIds(final Collection<String> ids) {
+        final List<U> profiles = new ArrayList<>();
+        for (final var id : ids) {
+            final var profile = findById(id);
+            if (profile != null) {
+                profiles.add(profile);
+            }
+        }
+        return profiles;
+    }
 }
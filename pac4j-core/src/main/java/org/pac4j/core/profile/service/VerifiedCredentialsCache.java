@@ -0,0 +1,239 @@
+package org.pac4j.core.profile.service;
+
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.InitializableObject;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.pac4j.core.util.CommonHelper.*;
+
+/**
+ * Cache of the successful username/password verifications, to avoid re-running a slow password check
+ * (like BCrypt or an LDAP bind) for each request of a direct client.
+ *
+ * Only a keyed HMAC of the username, password and stored password is kept (never the plaintext password),
+ * during a short time. The secret key is random (per instance) unless defined. When the cache is full, the oldest
+ * entries are evicted.
+ *
+ * While an entry is cached, the changes made outside of the profile service are not seen: for an LDAP bind, a password
+ * change or an account lockout/expiration in the directory is only taken into account after the timeout.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public class VerifiedCredentialsCache extends InitializableObject {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private static final int KEY_SIZE = 32;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private int size = 10000;
+
+    private int timeout = 60;
+
+    private TimeUnit timeUnit = TimeUnit.SECONDS;
+
+    private byte[] secret;
+
+    private ThreadLocal<Mac> macs;
+
+    public VerifiedCredentialsCache() {}
+
+    public VerifiedCredentialsCache(final int size, final int timeout, final TimeUnit timeUnit) {
+        this.size = size;
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+    }
+
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        assertTrue(this.size > 0, "size must be greater than zero");
+        assertTrue(this.timeout > 0, "timeout must be greater than zero");
+        assertNotNull("timeUnit", this.timeUnit);
+
+        var keyBytes = this.secret;
+        if (keyBytes == null) {
+            keyBytes = new byte[KEY_SIZE];
+            RANDOM.nextBytes(keyBytes);
+        }
+        final var key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                final var mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (final GeneralSecurityException e) {
+                throw new TechnicalException(e);
+            }
+        });
+        entries.clear();
+    }
+
+    /**
+     * Check whether the credentials have been successfully verified recently.
+     *
+     * @param username the username
+     * @param password the password
+     * @param storedPassword the stored (encoded) password, if any
+     * @return the identifier of the account in the storage if the credentials have been verified
+     */
+    public Optional<String> get(final String username, final String password, final String storedPassword) {
+        init();
+
+        final var entry = entries.get(username);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (entry.expiration - System.nanoTime() <= 0) {
+            entries.remove(username, entry);
+            return Optional.empty();
+        }
+        if (MessageDigest.isEqual(entry.mac, computeMac(username, password, storedPassword))) {
+            return Optional.of(entry.id);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Remember successfully verified credentials.
+     *
+     * @param id the identifier of the account in the storage
+     * @param username the username
+     * @param password the password
+     * @param storedPassword the stored (encoded) password, if any
+     */
+    public void put(final String id, final String username, final String password, final String storedPassword) {
+        init();
+
+        if (entries.size() >= size) {
+            evict();
+        }
+        entries.put(username, new Entry(id, computeMac(username, password, storedPassword),
+            System.nanoTime() + timeUnit.toNanos(timeout)));
+    }
+
+    /**
+     * Remove the expired entries and, if the cache is still full, the oldest ones (a tenth of the cache).
+     */
+    private synchronized void evict() {
+        if (entries.size() < size) {
+            return;
+        }
+        final var now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.expiration - now <= 0);
+        if (entries.size() >= size) {
+            final var nbEvicted = entries.size() - size + 1 + size / 10;
+            final var oldest = entries.entrySet().stream()
+                .sorted((e1, e2) -> Long.compare(e1.getValue().expiration - now, e2.getValue().expiration - now))
+                .limit(nbEvicted)
+                .collect(Collectors.toList());
+            for (final var entry : oldest) {
+                entries.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Forget the verifications of an account.
+     *
+     * @param id the identifier of the account in the storage
+     * @param username the username (optional)
+     */
+    public void invalidate(final String id, final String username) {
+        if (username != null) {
+            entries.remove(username);
+        }
+        if (id != null) {
+            entries.values().removeIf(entry -> id.equals(entry.id));
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    protected byte[] computeMac(final String username, final String password, final String storedPassword) {
+        // doFinal resets the MAC, which is reused by the current thread
+        final var mac = macs.get();
+        update(mac, username);
+        update(mac, password);
+        update(mac, storedPassword);
+        return mac.doFinal();
+    }
+
+    private static void update(final Mac mac, final String value) {
+        if (value == null) {
+            mac.update((byte) 0);
+        } else {
+            final var bytes = value.getBytes(StandardCharsets.UTF_8);
+            mac.update((byte) 1);
+            mac.update((byte) (bytes.length >>> 24));
+            mac.update((byte) (bytes.length >>> 16));
+            mac.update((byte) (bytes.length >>> 8));
+            mac.update((byte) bytes.length);
+            mac.update(bytes);
+        }
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(final int size) {
+        this.size = size;
+    }
+
+    public int getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(final int timeout) {
+        this.timeout = timeout;
+    }
+
+    public TimeUnit getTimeUnit() {
+        return timeUnit;
+    }
+
+    public void setTimeUnit(final TimeUnit timeUnit) {
+        this.timeUnit = timeUnit;
+    }
+
+    /**
+     * Define the secret key of the HMAC (a random key is generated otherwise).
+     *
+     * @param secret the secret key
+     */
+    public void setSecret(final byte[] secret) {
+        this.secret = secret != null ? secret.clone() : null;
+    }
+
+    private static final class Entry {
+
+        private final String id;
+
+        private final byte[] mac;
+
+        private final long expiration;
+
+        private Entry(final String id, final byte[] mac, final long expiration) {
+            this.id = id;
+            this.mac = mac;
+            this.expiration = expiration;
+        }
+    }
+}
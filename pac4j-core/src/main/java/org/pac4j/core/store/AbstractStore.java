@@ -45,6 +45,24 @@ public abstract class AbstractStore<K, O> extends InitializableObject implements
         internalRemove(key);
     }
 
+    @Override
+    public Optional<O> pop(final K key) {
+        CommonHelper.assertNotNull("key", key);
+        init();
+
+        return internalPop(key);
+    }
+
+    protected Optional<O> internalPop(final K key) {
+        synchronized (this) {
+            final var value = internalGet(key);
+            if (value.isPresent()) {
+                internalRemove(key);
+            }
+            return value;
+        }
+    }
+
     protected abstract Optional<O> internalGet(final K key);
 
     protected abstract void internalSet(final K key, final O value);
@@ -58,6 +58,11 @@ public class GuavaStore<K, O> extends AbstractStore<K, O> {
         cache.invalidate(key);
     }
 
+    @Override
+    protected Optional<O> internalPop(final K key) {
+        return Optional.ofNullable(cache.asMap().remove(key));
+    }
+
     public Cache<K, O> getCache() {
         return cache;
     }
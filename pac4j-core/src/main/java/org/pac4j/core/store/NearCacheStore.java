@@ -0,0 +1,84 @@
+package org.pac4j.core.store;
+
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.Optional;
+
+/**
+ * Store data in a shared store (L2), with a local store (L1) in front of it to avoid the remote accesses.
+ *
+ * The local entries are not invalidated when another node changes the shared store: this store is meant for values which
+ * are never modified for a given key (like the versioned entries of the {@link org.pac4j.core.profile.ProfileRepository}).
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public class NearCacheStore<K, O> extends AbstractStore<K, O> {
+
+    private Store<K, O> localStore;
+
+    private Store<K, O> sharedStore;
+
+    public NearCacheStore() {}
+
+    public NearCacheStore(final Store<K, O> localStore, final Store<K, O> sharedStore) {
+        this.localStore = localStore;
+        this.sharedStore = sharedStore;
+    }
+
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        CommonHelper.assertNotNull("localStore", this.localStore);
+        CommonHelper.assertNotNull("sharedStore", this.sharedStore);
+    }
+
+    @Override
+    protected Optional<O> internalGet(final K key) {
+        final var localValue = localStore.get(key);
+        if (localValue.isPresent()) {
+            return localValue;
+        }
+        final var sharedValue = sharedStore.get(key);
+        sharedValue.ifPresent(value -> localStore.set(key, value));
+        return sharedValue;
+    }
+
+    @Override
+    protected void internalSet(final K key, final O value) {
+        sharedStore.set(key, value);
+        localStore.set(key, value);
+    }
+
+    @Override
+    protected void internalRemove(final K key) {
+        localStore.remove(key);
+        sharedStore.remove(key);
+    }
+
+    @Override
+    protected Optional<O> internalPop(final K key) {
+        localStore.remove(key);
+        return sharedStore.pop(key);
+    }
+
+    public Store<K, O> getLocalStore() {
+        return localStore;
+    }
+
+    public void setLocalStore(final Store<K, O> localStore) {
+        this.localStore = localStore;
+    }
+
+    public Store<K, O> getSharedStore() {
+        return sharedStore;
+    }
+
+    public void setSharedStore(final Store<K, O> sharedStore) {
+        this.sharedStore = sharedStore;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "localStore", localStore, "sharedStore", sharedStore);
+    }
+}
@@ -32,4 +32,24 @@ public interface Store<K, O> {
      * @param key the key
      */
     void remove(K key);
+
+    /**
+     * Remove the value associated to the key and return it.
+     *
+     * The default implementation is only atomic against the other calls of this method on the same store instance:
+     * the stores shared between several nodes should override it.
+     *
+     * @param key the key
+     * @return the removed object (optional)
+     * @since 5.5.0
+     */
+    default Optional<O> pop(final K key) {
+        synchronized (this) {
+            final var value = get(key);
+            if (value.isPresent()) {
+                remove(key);
+            }
+            return value;
+        }
+    }
 }
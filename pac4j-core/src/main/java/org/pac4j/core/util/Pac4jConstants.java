@@ -14,6 +14,9 @@ public interface Pac4jConstants {
     /* User profiles object saved in session */
     String USER_PROFILES = "pac4jUserProfiles";
 
+    /* References of the user profiles saved in session (profiles saved in a repository) */
+    String USER_PROFILE_REFERENCES = "pac4jUserProfileReferences";
+
     /* CSRF token name saved in session */
     String PREVIOUS_CSRF_TOKEN = "pac4jPreviousCsrfToken";
     String CSRF_TOKEN = "pac4jCsrfToken";
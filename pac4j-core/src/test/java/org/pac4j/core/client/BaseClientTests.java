@@ -7,12 +7,17 @@ import org.pac4j.core.context.session.MockSessionStore;
 import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.exception.http.HttpAction;
 import org.pac4j.core.exception.http.FoundAction;
+import org.pac4j.core.credentials.MockCredentials;
 import org.pac4j.core.profile.AnonymousProfile;
+import org.pac4j.core.profile.AttributesProjection;
 import org.pac4j.core.profile.CommonProfile;
 import org.pac4j.core.util.TestsConstants;
 import org.pac4j.core.util.TestsHelper;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.Assert.*;
 
@@ -110,4 +115,26 @@ public final class BaseClientTests implements TestsConstants {
         final var context = MockWebContext.create();
         TestsHelper.expectException(() -> client.getRedirectionAction(context, null));
     }
+
+    @Test
+    public void testAttributesProjection() {
+        final var profile = new CommonProfile();
+        profile.addAttribute(FIRSTNAME, FIRSTNAME_VALUE);
+        profile.addAttribute(KEY, VALUE);
+        profile.addAuthenticationAttribute(NAME, VALUE);
+        profile.addAuthenticationAttribute(KEY, VALUE);
+        final var client = new MockDirectClient(TYPE, Optional.of(new MockCredentials()), profile);
+        client.setAuthorizationGenerators((ctx, store, p) -> {
+            // the generators can still read all the attributes
+            p.addRole((String) p.getAttribute(KEY));
+            return Optional.of(p);
+        });
+        client.setAttributesProjection(new AttributesProjection(List.of(FIRSTNAME), List.of(NAME)));
+        final var context = MockWebContext.create();
+        final var credentials = client.getCredentials(context, new MockSessionStore()).get();
+        final var result = (CommonProfile) client.getUserProfile(credentials, context, new MockSessionStore()).get();
+        assertEquals(Map.of(FIRSTNAME, FIRSTNAME_VALUE), result.getAttributes());
+        assertEquals(Map.of(NAME, VALUE), result.getAuthenticationAttributes());
+        assertEquals(Set.of(VALUE), result.getRoles());
+    }
 }
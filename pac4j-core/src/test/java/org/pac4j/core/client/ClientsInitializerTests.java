@@ -0,0 +1,132 @@
+package org.pac4j.core.client;
+
+import org.junit.Test;
+import org.pac4j.core.client.finder.DefaultCallbackClientFinder;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.exception.http.FoundAction;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.util.Pac4jConstants;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link ClientsInitializer}.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public final class ClientsInitializerTests implements TestsConstants {
+
+    private static final String CLIENT1 = "client1";
+
+    private static final String CLIENT2 = "client2";
+
+    private static final String CLIENT3 = "client3";
+
+    private static final class SlowClient extends DirectClient {
+
+        private final CountDownLatch latch;
+
+        private final boolean fail;
+
+        private SlowClient(final String name, final CountDownLatch latch, final boolean fail) {
+            setName(name);
+            this.latch = latch;
+            this.fail = fail;
+        }
+
+        @Override
+        protected void internalInit(final boolean forceReinit) {
+            try {
+                latch.await(5, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (fail) {
+                throw new TechnicalException("cannot initialize");
+            }
+            defaultCredentialsExtractor((ctx, store) -> Optional.empty());
+            defaultAuthenticator((cred, ctx, store) -> {});
+        }
+    }
+
+    @Test
+    public void testMissingClients() {
+        TestsHelper.expectException(() -> new ClientsInitializer().initialize(), TechnicalException.class, "clients cannot be null");
+    }
+
+    @Test
+    public void testParallelInitialization() {
+        final var latch = new CountDownLatch(3);
+        final var clients = new Clients(new SlowClient(CLIENT1, latch, false), new SlowClient(CLIENT2, latch, false),
+            new SlowClient(CLIENT3, latch, false), new MockDirectClient(FAKE_VALUE));
+        // the three clients wait for each other: they are initialized in parallel
+        final var initializer = new ClientsInitializer(clients);
+        initializer.setThreads(4);
+        final var states = initializer.initialize();
+        assertEquals(4, states.size());
+        assertTrue(states.values().stream().allMatch(state -> state == ClientsInitializer.State.READY));
+        assertTrue(initializer.isReady());
+    }
+
+    @Test
+    public void testTimeoutAndFailure() throws InterruptedException {
+        final var latch = new CountDownLatch(1);
+        final var slowClient = new SlowClient(CLIENT1, latch, false);
+        final var clients = new Clients(slowClient, new SlowClient(CLIENT2, new CountDownLatch(0), true));
+        final var initializer = new ClientsInitializer(clients);
+        initializer.setTimeout(1);
+        final var states = initializer.initialize();
+        assertEquals(ClientsInitializer.State.TIMED_OUT, states.get(CLIENT1));
+        assertEquals(ClientsInitializer.State.FAILED, states.get(CLIENT2));
+        assertFalse(initializer.isReady());
+
+        // the initialization goes on in the background
+        latch.countDown();
+        for (var i = 0; i < 50 && !slowClient.isInitialized(); i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(ClientsInitializer.State.READY, initializer.getState(CLIENT1));
+    }
+
+    @Test
+    public void testLazy() {
+        final var client = new MockDirectClient(CLIENT1);
+        final var initializer = new ClientsInitializer(new Clients(client));
+        initializer.setLazy(true);
+        assertEquals(ClientsInitializer.State.PENDING, initializer.initialize().get(CLIENT1));
+        assertFalse(client.isInitialized());
+
+        client.init();
+        assertEquals(ClientsInitializer.State.READY, initializer.getState(CLIENT1));
+        assertTrue(initializer.isReady());
+    }
+
+    @Test
+    public void testLazyCallback() {
+        final var client1 = new MockIndirectClient(CLIENT1, new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile());
+        final var client2 = new MockIndirectClient(CLIENT2, new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile());
+        final var clients = new Clients(CALLBACK_URL, client1, client2);
+        final var initializer = new ClientsInitializer(clients);
+        initializer.setLazy(true);
+        initializer.initialize();
+
+        final var context = MockWebContext.create().addRequestParameter(Pac4jConstants.DEFAULT_CLIENT_NAME_PARAMETER, CLIENT2);
+        final var client = (IndirectClient) new DefaultCallbackClientFinder().find(clients, context, null).get(0);
+        assertEquals(client2, client);
+        assertFalse(client1.isInitialized());
+        client.getCredentials(context, new MockSessionStore());
+        assertTrue(client2.isInitialized());
+        assertFalse(client1.isInitialized());
+        assertEquals(ClientsInitializer.State.PENDING, initializer.getState(CLIENT1));
+        assertEquals(ClientsInitializer.State.READY, initializer.getState(CLIENT2));
+    }
+}
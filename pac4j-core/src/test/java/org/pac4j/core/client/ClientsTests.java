@@ -1,22 +1,28 @@
 package org.pac4j.core.client;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.Ignore;
 import org.junit.Test;
 import org.pac4j.core.authorization.generator.AuthorizationGenerator;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.WebContext;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.exception.http.FoundAction;
 import org.pac4j.core.http.ajax.AjaxRequestResolver;
 import org.pac4j.core.http.ajax.DefaultAjaxRequestResolver;
 import org.pac4j.core.http.callback.CallbackUrlResolver;
 import org.pac4j.core.http.callback.NoParameterCallbackUrlResolver;
+import org.pac4j.core.http.callback.PathParameterCallbackUrlResolver;
 import org.pac4j.core.http.callback.QueryParameterCallbackUrlResolver;
 import org.pac4j.core.http.url.DefaultUrlResolver;
 import org.pac4j.core.http.url.UrlResolver;
 import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.util.Pac4jConstants;
 import org.pac4j.core.util.TestsConstants;
 import org.pac4j.core.util.TestsHelper;
 
@@ -192,6 +198,126 @@ public final class ClientsTests implements TestsConstants {
         assertTrue(fclient.getCallbackUrlResolver() instanceof NoParameterCallbackUrlResolver);
     }
 
+    @Test
+    public void testAddRemoveClient() {
+        final var facebookClient = newFacebookClient();
+        final var clients = new Clients(CALLBACK_URL, facebookClient);
+        assertTrue(clients.findClient("FacebookClient").isPresent());
+        final var yahooClient = newYahooClient();
+        clients.addClient(yahooClient);
+        assertEquals(yahooClient, clients.findClient("yahooclient").get());
+        assertEquals(CALLBACK_URL, yahooClient.getCallbackUrl());
+        assertEquals(2, clients.findAllClients().size());
+        TestsHelper.expectException(() -> clients.addClient(newYahooClient()), TechnicalException.class,
+            "Duplicate name in clients: YahooClient");
+        assertEquals(facebookClient, clients.removeClient("FACEBOOKCLIENT").get());
+        assertFalse(clients.findClient("FacebookClient").isPresent());
+        assertFalse(clients.removeClient("FacebookClient").isPresent());
+        assertEquals(1, clients.findAllClients().size());
+    }
+
+    @Test
+    public void testModifyClientsList() {
+        final var facebookClient = newFacebookClient();
+        final var clients = new Clients(CALLBACK_URL, facebookClient);
+        assertTrue(clients.findClient("FacebookClient").isPresent());
+        final var yahooClient = newYahooClient();
+        clients.getClients().set(0, yahooClient);
+        assertFalse(clients.findClient("FacebookClient").isPresent());
+        assertEquals(yahooClient, clients.findClient("YahooClient").get());
+    }
+
+    @Test
+    public void testFindCallbackClients() {
+        final var list = new ArrayList<Client>();
+        for (var i = 0; i < 100; i++) {
+            list.add(new MockIndirectClient("Client" + i, new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile()));
+        }
+        final var pathClient = new MockIndirectClient("PathClient", new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile());
+        pathClient.setCallbackUrlResolver(new PathParameterCallbackUrlResolver());
+        list.add(pathClient);
+        final var customClient = new MockIndirectClient("CustomClient", new FoundAction(LOGIN_URL), Optional.empty(),
+            new CommonProfile());
+        customClient.setCallbackUrlResolver(new CallbackUrlResolver() {
+            @Override
+            public String compute(final UrlResolver urlResolver, final String url, final String clientName, final WebContext context) {
+                return url;
+            }
+
+            @Override
+            public boolean matches(final String clientName, final WebContext context) {
+                return context.getRequestHeader("X-Client").isPresent();
+            }
+        });
+        list.add(customClient);
+        final var clients = new Clients(CALLBACK_URL, list);
+
+        var context = MockWebContext.create().addRequestParameter(Pac4jConstants.DEFAULT_CLIENT_NAME_PARAMETER, " client42 ");
+        assertEquals(List.of(list.get(42)), clients.findCallbackClients(context));
+        // the lookup does not initialize the clients
+        assertFalse(((IndirectClient) list.get(42)).isInitialized());
+        assertFalse(((IndirectClient) list.get(41)).isInitialized());
+        context = MockWebContext.create().setPath("/callback/pathclient");
+        assertEquals(List.of(pathClient), clients.findCallbackClients(context));
+        context = MockWebContext.create().addRequestParameter(Pac4jConstants.DEFAULT_CLIENT_NAME_PARAMETER, "unknown");
+        assertTrue(clients.findCallbackClients(context).isEmpty());
+        assertEquals(102, clients.findAllIndirectClients().size());
+
+        clients.removeClient("Client42");
+        context = MockWebContext.create().addRequestParameter(Pac4jConstants.DEFAULT_CLIENT_NAME_PARAMETER, "Client42")
+            .addRequestHeader("X-Client", "true");
+        assertEquals(List.of(customClient), clients.findCallbackClients(context));
+    }
+
+    @Test
+    public void testIndexedResolversWithCustomParams() {
+        final var client1 = new MockIndirectClient("Client1", new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile());
+        client1.setCallbackUrlResolver(new QueryParameterCallbackUrlResolver(Map.of(KEY, VALUE)));
+        final var client2 = new MockIndirectClient("Client2", new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile());
+        final Map<String, String> customParams = new HashMap<>();
+        client2.setCallbackUrlResolver(new QueryParameterCallbackUrlResolver(customParams));
+        final var clients = new Clients(CALLBACK_URL, client1, client2);
+
+        final var context = MockWebContext.create().addRequestParameter(Pac4jConstants.DEFAULT_CLIENT_NAME_PARAMETER, "client2");
+        assertEquals(List.of(client2), clients.findCallbackClients(context));
+        // the index key is read once: a later change of a resolver does not corrupt the index
+        customParams.put(NAME, VALUE);
+        assertEquals(List.of(client2), clients.findCallbackClients(context));
+    }
+
+    @Test
+    public void testSubclassedResolverAndResolverChange() {
+        final var client1 = new MockIndirectClient("Client1", new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile());
+        // only the matching is overridden: the client cannot be indexed by name
+        client1.setCallbackUrlResolver(new QueryParameterCallbackUrlResolver() {
+            @Override
+            public boolean matches(final String clientName, final WebContext context) {
+                return context.getRequestHeader("X-Client").isPresent();
+            }
+        });
+        final var client2 = new MockIndirectClient("Client2", new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile());
+        final var clients = new Clients(CALLBACK_URL, client1, client2);
+
+        final var context = MockWebContext.create().addRequestHeader("X-Client", "true");
+        assertEquals(List.of(client1), clients.findCallbackClients(context));
+
+        // the index is built again when a resolver changes
+        final var pathContext = MockWebContext.create().setPath("/callback/client2");
+        assertTrue(clients.findCallbackClients(pathContext).isEmpty());
+        client2.setCallbackUrlResolver(new PathParameterCallbackUrlResolver());
+        assertEquals(List.of(client2), clients.findCallbackClients(pathContext));
+    }
+
+    @Test
+    public void testSetClientsCopiesTheList() {
+        final var list = new ArrayList<Client>();
+        list.add(newFacebookClient());
+        final var clients = new Clients(CALLBACK_URL, list);
+        list.add(newYahooClient());
+        assertEquals(1, clients.findAllClients().size());
+        assertFalse(clients.findClient("YahooClient").isPresent());
+    }
+
     @Test
     @Ignore
     public void testPerfFind() {
@@ -0,0 +1,144 @@
+package org.pac4j.core.config;
+
+import org.junit.Test;
+import org.pac4j.core.authorization.authorizer.RequireAnyRoleAuthorizer;
+import org.pac4j.core.client.Clients;
+import org.pac4j.core.client.MockIndirectClient;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.exception.http.FoundAction;
+import org.pac4j.core.matching.matcher.HttpMethodMatcher;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the {@link ReloadableConfig} and the {@link ConfigSnapshot}.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public final class ReloadableConfigTests implements TestsConstants {
+
+    private static MockIndirectClient newClient(final String name) {
+        return new MockIndirectClient(name, new FoundAction(LOGIN_URL), Optional.empty(), new CommonProfile());
+    }
+
+    @Test
+    public void testSnapshotIsImmutable() {
+        final var config = new Config(CALLBACK_URL, newClient(NAME));
+        config.addAuthorizer(NAME, new RequireAnyRoleAuthorizer());
+        final var snapshot = new ConfigSnapshot(config);
+        assertSame(snapshot, snapshot.snapshot());
+        assertNotSame(config.getClients(), snapshot.getClients());
+        config.getClients().addClient(newClient(VALUE));
+        assertTrue(snapshot.getClients().findClient(NAME).isPresent());
+        assertFalse(snapshot.getClients().findClient(VALUE).isPresent());
+        TestsHelper.expectException(() -> snapshot.getClients().addClient(newClient(KEY)), TechnicalException.class,
+            "The clients of a configuration snapshot cannot be modified");
+        TestsHelper.expectException(() -> snapshot.getClients().getClients().clear(), TechnicalException.class,
+            "The clients of a configuration snapshot cannot be modified");
+        TestsHelper.expectException(() -> snapshot.addAuthorizer(KEY, new RequireAnyRoleAuthorizer()), TechnicalException.class,
+            "A configuration snapshot cannot be modified");
+        TestsHelper.expectException(() -> snapshot.setClients(new Clients()), TechnicalException.class,
+            "A configuration snapshot cannot be modified");
+        TestsHelper.expectException(() -> snapshot.getAuthorizers().put(KEY, new RequireAnyRoleAuthorizer()));
+        config.addAuthorizer(KEY, new RequireAnyRoleAuthorizer());
+        assertEquals(1, snapshot.getAuthorizers().size());
+        final var copy = snapshot.toConfig();
+        copy.getClients().addClient(newClient(KEY));
+        assertFalse(snapshot.getClients().findClient(KEY).isPresent());
+        copy.addAuthorizer(KEY, new RequireAnyRoleAuthorizer());
+        assertEquals(2, copy.getAuthorizers().size());
+        assertEquals(1, snapshot.getAuthorizers().size());
+    }
+
+    @Test
+    public void testReload() {
+        final var config = new ReloadableConfig(new Config(CALLBACK_URL, newClient(NAME)));
+        final var oldSnapshot = config.snapshot();
+        final var client = newClient(VALUE);
+        final var published = config.reload(new Config(CALLBACK_URL, client));
+        assertSame(published, config.snapshot());
+        assertTrue(client.isInitialized());
+        assertEquals(client, config.getClients().findClient(VALUE).get());
+        assertFalse(config.getClients().findClient(NAME).isPresent());
+        assertTrue(oldSnapshot.getClients().findClient(NAME).isPresent());
+    }
+
+    @Test
+    public void testReloadFailureKeepsCurrentConfig() {
+        final var config = new ReloadableConfig(new Config(CALLBACK_URL, newClient(NAME)));
+        final var snapshot = config.snapshot();
+        TestsHelper.expectException(() -> config.reload(new Config(CALLBACK_URL, newClient(VALUE), newClient(VALUE))),
+            TechnicalException.class, "Duplicate name in clients: " + VALUE.toLowerCase());
+        assertSame(snapshot, config.snapshot());
+    }
+
+    @Test
+    public void testSettersPublishNewSnapshot() {
+        final var config = new ReloadableConfig();
+        final var snapshot = config.snapshot();
+        config.addAuthorizer(NAME, new RequireAnyRoleAuthorizer());
+        assertNotSame(snapshot, config.snapshot());
+        assertTrue(snapshot.getAuthorizers().isEmpty());
+        assertEquals(1, config.getAuthorizers().size());
+        assertEquals(1, config.snapshot().getAuthorizers().size());
+    }
+
+    @Test
+    public void testModificationsOfTheGettersArePublished() {
+        final var config = new ReloadableConfig(new Config(CALLBACK_URL, newClient(NAME)));
+        final var snapshot = config.snapshot();
+
+        final var clients = config.getClients();
+        assertSame(clients, config.getClients());
+        clients.addClient(newClient(VALUE));
+        assertTrue(config.snapshot().getClients().findClient(VALUE).isPresent());
+        assertFalse(snapshot.getClients().findClient(VALUE).isPresent());
+        config.getClients().removeClient(NAME);
+        assertFalse(config.snapshot().getClients().findClient(NAME).isPresent());
+        config.getClients().setDefaultSecurityClients(VALUE);
+        assertEquals(VALUE, config.snapshot().getClients().getDefaultSecurityClients());
+
+        config.getAuthorizers().put(KEY, new RequireAnyRoleAuthorizer());
+        assertTrue(config.snapshot().getAuthorizers().containsKey(KEY));
+        assertTrue(snapshot.getAuthorizers().isEmpty());
+        config.getMatchers().put(KEY, new HttpMethodMatcher());
+        config.addMatcher(NAME, new HttpMethodMatcher());
+        assertEquals(2, config.snapshot().getMatchers().size());
+        config.getMatchers().remove(KEY);
+        assertEquals(1, config.getMatchers().size());
+        // the clients are still the modified ones
+        assertTrue(config.snapshot().getClients().findClient(VALUE).isPresent());
+
+        // after a reload, the previous clients are no longer published
+        config.reload(new Config(CALLBACK_URL, newClient(KEY)));
+        clients.addClient(newClient(NAME));
+        assertFalse(config.snapshot().getClients().findClient(NAME).isPresent());
+        assertNotSame(clients, config.getClients());
+        assertTrue(config.getClients().findClient(KEY).isPresent());
+    }
+
+    @Test
+    public void testReloadAsync() throws Exception {
+        final var config = new ReloadableConfig();
+        final var published = config.reloadAsync(() -> new Config(CALLBACK_URL, newClient(NAME)), Runnable::run).get();
+        assertSame(published, config.snapshot());
+        assertTrue(config.getClients().findClient(NAME).isPresent());
+    }
+
+    @Test
+    public void testReloadAsyncFailure() {
+        final var config = new ReloadableConfig();
+        final var snapshot = config.snapshot();
+        final var future = config.reloadAsync(() -> {
+            throw new TechnicalException(KEY);
+        }, Runnable::run);
+        assertTrue(future.isCompletedExceptionally());
+        assertSame(snapshot, config.snapshot());
+    }
+}
@@ -0,0 +1,250 @@
+package org.pac4j.core.context.session;
+
+import org.junit.Test;
+import org.pac4j.core.context.Cookie;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.store.GuavaStore;
+import org.pac4j.core.store.Store;
+import org.pac4j.core.util.TestsConstants;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link DistributedSessionStore}.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public final class DistributedSessionStoreTests implements TestsConstants {
+
+    private final AtomicInteger nbReads = new AtomicInteger();
+
+    private final AtomicInteger nbWrites = new AtomicInteger();
+
+    private final Set<String> writtenKeys = new HashSet<>();
+
+    private long time = 1000000;
+
+    private final GuavaStore<String, byte[]> sharedStore = new GuavaStore<>(100, 1, TimeUnit.HOURS);
+
+    private final Store<String, byte[]> countingStore = new Store<>() {
+        @Override
+        public Optional<byte[]> get(final String key) {
+            nbReads.incrementAndGet();
+            return sharedStore.get(key);
+        }
+
+        @Override
+        public void set(final String key, final byte[] value) {
+            nbWrites.incrementAndGet();
+            writtenKeys.add(key);
+            sharedStore.set(key, value);
+        }
+
+        @Override
+        public void remove(final String key) {
+            sharedStore.remove(key);
+        }
+    };
+
+    private DistributedSessionStore newSessionStore() {
+        return new DistributedSessionStore(countingStore, SECRET) {
+            @Override
+            protected long now() {
+                return time;
+            }
+        };
+    }
+
+    private static Cookie sessionCookie(final MockWebContext context) {
+        Cookie sessionCookie = null;
+        for (final var cookie : context.getResponseCookies()) {
+            if ("pac4jSession".equals(cookie.getName())) {
+                sessionCookie = cookie;
+            }
+        }
+        return sessionCookie;
+    }
+
+    private int nbStoredVersions() {
+        var nb = 0;
+        for (final var key : writtenKeys) {
+            if (sharedStore.get(key).isPresent()) {
+                nb++;
+            }
+        }
+        return nb;
+    }
+
+    private static MockWebContext nextRequest(final MockWebContext context) {
+        final var nextContext = MockWebContext.create();
+        final var cookie = sessionCookie(context);
+        if (cookie != null) {
+            nextContext.getRequestCookies().add(cookie);
+        }
+        return nextContext;
+    }
+
+    @Test
+    public void testSetGetAcrossRequests() {
+        final var sessionStore = newSessionStore();
+        final var context = MockWebContext.create();
+        assertTrue(sessionStore.getSessionId(context, false).isEmpty());
+        assertTrue(sessionStore.get(context, KEY).isEmpty());
+
+        sessionStore.set(context, KEY, VALUE);
+        sessionStore.set(context, NAME, VALUE);
+        assertEquals(VALUE, sessionStore.get(context, KEY).get());
+        final var id = sessionStore.getSessionId(context, false).get();
+        final var cookie = sessionCookie(context);
+        assertTrue(cookie.isHttpOnly());
+        assertTrue(cookie.isSecure());
+
+        final var context2 = nextRequest(context);
+        assertEquals(id, sessionStore.getSessionId(context2, false).get());
+        assertEquals(VALUE, sessionStore.get(context2, KEY).get());
+        assertEquals(VALUE, sessionStore.get(context2, NAME).get());
+        // served by the near cache
+        assertEquals(0, nbReads.get());
+
+        sessionStore.set(context2, KEY, null);
+        final var context3 = nextRequest(context2);
+        assertTrue(sessionStore.get(context3, KEY).isEmpty());
+        assertEquals(VALUE, sessionStore.get(context3, NAME).get());
+    }
+
+    @Test
+    public void testOtherNode() {
+        final var context = MockWebContext.create();
+        newSessionStore().set(context, KEY, VALUE);
+
+        final var otherNode = newSessionStore();
+        final var context2 = nextRequest(context);
+        assertEquals(VALUE, otherNode.get(context2, KEY).get());
+        assertEquals(VALUE, otherNode.get(context2, KEY).get());
+        assertEquals(VALUE, otherNode.get(nextRequest(context), KEY).get());
+        // one read in the shared store, then the request and the near cache
+        assertEquals(1, nbReads.get());
+    }
+
+    @Test
+    public void testTamperedCookie() {
+        final var sessionStore = newSessionStore();
+        final var context = MockWebContext.create();
+        sessionStore.set(context, KEY, VALUE);
+
+        final var cookie = sessionCookie(context);
+        final var parts = cookie.getValue().split("\\.");
+        final var context2 = MockWebContext.create();
+        context2.getRequestCookies().add(new Cookie(cookie.getName(), parts[0] + ".1." + parts[2] + "." + parts[3]));
+        assertTrue(sessionStore.get(context2, KEY).isEmpty());
+
+        final var context3 = MockWebContext.create();
+        context3.getRequestCookies().add(cookie);
+        assertTrue(new DistributedSessionStore(countingStore, VALUE).get(context3, KEY).isEmpty());
+    }
+
+    @Test
+    public void testCorruptedData() {
+        final var context = MockWebContext.create();
+        newSessionStore().set(context, KEY, VALUE);
+        final var key = writtenKeys.iterator().next();
+        sharedStore.set(key, new byte[] {1, 2, 3});
+
+        final var otherNode = newSessionStore();
+        final var context2 = nextRequest(context);
+        assertTrue(otherNode.get(context2, KEY).isEmpty());
+        assertTrue(otherNode.getSessionId(context2, false).isPresent());
+        assertTrue(sharedStore.get(key).isEmpty());
+        otherNode.set(context2, KEY, VALUE);
+        assertEquals(VALUE, otherNode.get(nextRequest(context2), KEY).get());
+    }
+
+    @Test
+    public void testRenewAndDestroy() {
+        final var sessionStore = newSessionStore();
+        final var context = MockWebContext.create();
+        assertFalse(sessionStore.renewSession(context));
+        sessionStore.set(context, KEY, VALUE);
+        final var id = sessionStore.getSessionId(context, false).get();
+
+        final var context2 = nextRequest(context);
+        assertTrue(sessionStore.renewSession(context2));
+        final var newId = sessionStore.getSessionId(context2, false).get();
+        assertNotEquals(id, newId);
+        assertEquals(VALUE, sessionStore.get(nextRequest(context2), KEY).get());
+
+        final var context3 = nextRequest(context2);
+        assertTrue(sessionStore.destroySession(context3));
+        assertTrue(sessionStore.get(context3, KEY).isEmpty());
+        assertEquals(0, sessionCookie(context3).getMaxAge());
+        final var context4 = nextRequest(context3);
+        assertTrue(sessionStore.get(context4, KEY).isEmpty());
+        assertEquals(0, nbStoredVersions());
+
+        // the old cookies are no longer valid, even on another node
+        assertTrue(newSessionStore().get(nextRequest(context), KEY).isEmpty());
+        assertTrue(newSessionStore().get(nextRequest(context2), KEY).isEmpty());
+    }
+
+    @Test
+    public void testOneVersionAndCookiePerRequest() {
+        final var sessionStore = newSessionStore();
+        final var context = MockWebContext.create();
+        sessionStore.getSessionId(context, true);
+        sessionStore.set(context, KEY, VALUE);
+        sessionStore.set(context, NAME, VALUE);
+        sessionStore.set(context, NAME, null);
+        assertEquals(1, context.getResponseCookies().size());
+        assertEquals(1, writtenKeys.size());
+        assertEquals(3, nbWrites.get());
+
+        final var context2 = nextRequest(context);
+        sessionStore.set(context2, NAME, VALUE);
+        sessionStore.set(context2, KEY, null);
+        assertEquals(1, context2.getResponseCookies().size());
+        assertEquals(2, writtenKeys.size());
+        final var context3 = nextRequest(context2);
+        assertTrue(sessionStore.get(context3, KEY).isEmpty());
+        assertEquals(VALUE, sessionStore.get(context3, NAME).get());
+
+        // the previous version is kept in the shared store for the concurrent requests
+        assertEquals(2, nbStoredVersions());
+        final var reads = nbReads.get();
+        assertEquals(VALUE, sessionStore.get(nextRequest(context), KEY).get());
+        assertEquals(reads + 1, nbReads.get());
+        assertEquals(VALUE, newSessionStore().get(nextRequest(context), KEY).get());
+    }
+
+    @Test
+    public void testSessionTimeout() {
+        final var sessionStore = newSessionStore();
+        sessionStore.setSessionTimeout(60);
+        final var context = MockWebContext.create();
+        sessionStore.set(context, KEY, VALUE);
+
+        // before half of the timeout: the cookie is not written again
+        time += TimeUnit.SECONDS.toMillis(20);
+        final var context2 = nextRequest(context);
+        assertEquals(VALUE, sessionStore.get(context2, KEY).get());
+        assertTrue(context2.getResponseCookies().isEmpty());
+
+        // after half of the timeout: the expiration is extended
+        time += TimeUnit.SECONDS.toMillis(20);
+        final var context3 = nextRequest(context);
+        assertEquals(VALUE, sessionStore.get(context3, KEY).get());
+        assertEquals(1, context3.getResponseCookies().size());
+        time += TimeUnit.SECONDS.toMillis(50);
+        assertEquals(VALUE, sessionStore.get(nextRequest(context3), KEY).get());
+
+        // expired
+        time += TimeUnit.SECONDS.toMillis(61);
+        assertTrue(sessionStore.get(nextRequest(context3), KEY).isEmpty());
+    }
+}
@@ -0,0 +1,192 @@
+package org.pac4j.core.credentials.authenticator;
+
+import org.junit.Test;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.credentials.Credentials;
+import org.pac4j.core.credentials.MockCredentials;
+import org.pac4j.core.credentials.TokenCredentials;
+import org.pac4j.core.credentials.UsernamePasswordCredentials;
+import org.pac4j.core.exception.CredentialsException;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.store.GuavaStore;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link ThrottlingAuthenticator}.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public final class ThrottlingAuthenticatorTests implements TestsConstants {
+
+    private static final String IP1 = "ip1";
+
+    private static final String IP2 = "ip2";
+
+    private int nbCalls;
+
+    private long time = 1000000;
+
+    private final Authenticator delegate = (credentials, context, sessionStore) -> {
+        nbCalls++;
+        final var usernamePasswordCredentials = (UsernamePasswordCredentials) credentials;
+        if (!PASSWORD.equals(usernamePasswordCredentials.getPassword())) {
+            throw new CredentialsException("Bad password");
+        }
+        final var profile = new CommonProfile();
+        profile.setId(usernamePasswordCredentials.getUsername());
+        credentials.setUserProfile(profile);
+    };
+
+    private ThrottlingAuthenticator newAuthenticator() {
+        return new ThrottlingAuthenticator(delegate) {
+            @Override
+            protected long now() {
+                return time;
+            }
+        };
+    }
+
+    private static void validate(final Authenticator authenticator, final Credentials credentials, final String ip) {
+        authenticator.validate(credentials, MockWebContext.create().setRemoteAddress(ip), new MockSessionStore());
+    }
+
+    private static void expectRejected(final Authenticator authenticator, final Credentials credentials, final String ip,
+                                       final String message) {
+        TestsHelper.expectException(() -> validate(authenticator, credentials, ip), CredentialsException.class, message);
+    }
+
+    @Test
+    public void testRejectedCredentialsAreCached() {
+        final var authenticator = newAuthenticator();
+        expectRejected(authenticator, new UsernamePasswordCredentials(USERNAME, VALUE), IP1, "Bad password");
+        expectRejected(authenticator, new UsernamePasswordCredentials(USERNAME, VALUE), IP1, "Credentials recently rejected");
+        assertEquals(1, nbCalls);
+
+        final var credentials = new UsernamePasswordCredentials(USERNAME, PASSWORD);
+        validate(authenticator, credentials, IP1);
+        assertEquals(USERNAME, credentials.getUserProfile().getId());
+
+        // expired
+        time += TimeUnit.SECONDS.toMillis(61);
+        expectRejected(authenticator, new UsernamePasswordCredentials(USERNAME, VALUE), IP1, "Bad password");
+        assertEquals(3, nbCalls);
+    }
+
+    @Test
+    public void testThrottlingPerPrincipal() {
+        final var authenticator = newAuthenticator();
+        authenticator.setPrincipalCapacity(2);
+        expectRejected(authenticator, new UsernamePasswordCredentials(USERNAME, VALUE), IP1, "Bad password");
+        expectRejected(authenticator, new UsernamePasswordCredentials(USERNAME, NAME), IP2, "Bad password");
+        // even the good password is not checked
+        expectRejected(authenticator, new UsernamePasswordCredentials(USERNAME, PASSWORD), IP1, "Too many failed validations");
+        assertEquals(2, nbCalls);
+        // another user is not throttled
+        validate(authenticator, new UsernamePasswordCredentials(NAME, PASSWORD), IP1);
+
+        // a failure is forgiven after the refill period
+        time += TimeUnit.SECONDS.toMillis(60);
+        validate(authenticator, new UsernamePasswordCredentials(USERNAME, PASSWORD), IP1);
+        expectRejected(authenticator, new UsernamePasswordCredentials(USERNAME, KEY), IP1, "Bad password");
+        expectRejected(authenticator, new UsernamePasswordCredentials(USERNAME, PASSWORD), IP1, "Too many failed validations");
+
+        authenticator.resetPrincipal(USERNAME);
+        validate(authenticator, new UsernamePasswordCredentials(USERNAME, PASSWORD), IP1);
+    }
+
+    @Test
+    public void testThrottlingPerIp() {
+        final var authenticator = newAuthenticator();
+        authenticator.setIpCapacity(3);
+        authenticator.setPrincipalCapacity(0);
+        for (var i = 0; i < 3; i++) {
+            expectRejected(authenticator, new UsernamePasswordCredentials(USERNAME + i, VALUE), IP1, "Bad password");
+        }
+        expectRejected(authenticator, new UsernamePasswordCredentials(NAME, PASSWORD), IP1, "Too many failed validations");
+        validate(authenticator, new UsernamePasswordCredentials(NAME, PASSWORD), IP2);
+    }
+
+    @Test
+    public void testSharedStore() {
+        final var store = new GuavaStore<String, Long>(100, 10, TimeUnit.MINUTES);
+        final var authenticator1 = newAuthenticator();
+        authenticator1.setStore(store);
+        authenticator1.setDigestSecret(SECRET);
+        final var authenticator2 = newAuthenticator();
+        authenticator2.setStore(store);
+        authenticator2.setDigestSecret(SECRET);
+
+        expectRejected(authenticator1, new UsernamePasswordCredentials(USERNAME, VALUE), IP1, "Bad password");
+        expectRejected(authenticator2, new UsernamePasswordCredentials(USERNAME, VALUE), IP2, "Credentials recently rejected");
+        assertEquals(1, nbCalls);
+
+        // the shared expiration is kept, not re-armed
+        time += TimeUnit.SECONDS.toMillis(61);
+        expectRejected(authenticator2, new UsernamePasswordCredentials(USERNAME, VALUE), IP2, "Bad password");
+        assertEquals(2, nbCalls);
+        time += TimeUnit.SECONDS.toMillis(30);
+        expectRejected(authenticator1, new UsernamePasswordCredentials(USERNAME, VALUE), IP1, "Credentials recently rejected");
+        time += TimeUnit.SECONDS.toMillis(31);
+        expectRejected(authenticator1, new UsernamePasswordCredentials(USERNAME, VALUE), IP1, "Bad password");
+        assertEquals(3, nbCalls);
+    }
+
+    @Test
+    public void testEvictOldest() {
+        final var authenticator = newAuthenticator();
+        authenticator.setMaxEntries(10);
+        authenticator.setPrincipalCapacity(0);
+        authenticator.setIpCapacity(0);
+        for (var i = 0; i < 10; i++) {
+            expectRejected(authenticator, new UsernamePasswordCredentials(USERNAME, VALUE + i), IP1, "Bad password");
+            time += 1000;
+        }
+        expectRejected(authenticator, new UsernamePasswordCredentials(USERNAME, VALUE + 10), IP1, "Bad password");
+        // the most recently rejected credentials are still remembered
+        expectRejected(authenticator, new UsernamePasswordCredentials(USERNAME, VALUE + 9), IP1, "Credentials recently rejected");
+        expectRejected(authenticator, new UsernamePasswordCredentials(USERNAME, VALUE + 2), IP1, "Credentials recently rejected");
+        // the oldest ones are evicted (and not all the credentials)
+        expectRejected(authenticator, new UsernamePasswordCredentials(USERNAME, VALUE + 1), IP1, "Bad password");
+        assertEquals(12, nbCalls);
+    }
+
+    @Test
+    public void testIpExtractor() {
+        final var authenticator = newAuthenticator();
+        authenticator.setIpCapacity(1);
+        authenticator.setPrincipalCapacity(0);
+        authenticator.setIpExtractor((context, sessionStore) -> Optional.of(new TokenCredentials(
+            context.getRequestHeader(VALUE).orElse(context.getRemoteAddr()))));
+        final var context = MockWebContext.create().setRemoteAddress(IP1).addRequestHeader(VALUE, IP2);
+        TestsHelper.expectException(() -> authenticator.validate(new UsernamePasswordCredentials(USERNAME, VALUE), context,
+            new MockSessionStore()), CredentialsException.class, "Bad password");
+        // throttled on the extracted IP, not on the remote address
+        expectRejected(authenticator, new UsernamePasswordCredentials(NAME, PASSWORD), IP2, "Too many failed validations");
+        validate(authenticator, new UsernamePasswordCredentials(NAME, PASSWORD), IP1);
+    }
+
+    @Test
+    public void testUnsupportedCredentialsNotCached() {
+        final var authenticator = new ThrottlingAuthenticator((credentials, context, sessionStore) -> {
+            nbCalls++;
+            throw new CredentialsException("Bad credentials");
+        });
+        authenticator.setPrincipalCapacity(0);
+        authenticator.setIpCapacity(0);
+        final WebContext context = MockWebContext.create();
+        for (var i = 0; i < 2; i++) {
+            TestsHelper.expectException(() -> authenticator.validate(new MockCredentials(), context, new MockSessionStore()),
+                CredentialsException.class, "Bad credentials");
+        }
+        assertEquals(2, nbCalls);
+    }
+}
@@ -0,0 +1,64 @@
+package org.pac4j.core.credentials.extractor;
+
+import org.junit.Test;
+import org.pac4j.core.context.HttpConstants;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.credentials.UsernamePasswordCredentials;
+import org.pac4j.core.exception.CredentialsException;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class tests the {@link BasicAuthExtractor}.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public final class BasicAuthExtractorTests implements TestsConstants {
+
+    private final BasicAuthExtractor extractor = new BasicAuthExtractor();
+
+    private UsernamePasswordCredentials extract(final String value) {
+        final var context = MockWebContext.create().addRequestHeader(HttpConstants.AUTHORIZATION_HEADER,
+            HttpConstants.BASIC_HEADER_PREFIX + value);
+        return (UsernamePasswordCredentials) extractor.extract(context, null).get();
+    }
+
+    private static String encode(final String value) {
+        return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testDecode() {
+        // all the padding lengths
+        for (final var password : new String[] {"", "p", "pa", "pas", "pass:word", "pé€😀"}) {
+            final var credentials = extract(encode(USERNAME + ":" + password));
+            assertEquals(USERNAME, credentials.getUsername());
+            assertEquals(password, credentials.getPassword());
+        }
+    }
+
+    @Test
+    public void testDecodeWithoutPadding() {
+        final var credentials = extract(Base64.getEncoder().withoutPadding().encodeToString("a:b".getBytes(StandardCharsets.UTF_8)));
+        assertEquals("a", credentials.getUsername());
+        assertEquals("b", credentials.getPassword());
+    }
+
+    @Test
+    public void testNoHeader() {
+        assertFalse(extractor.extract(MockWebContext.create(), null).isPresent());
+    }
+
+    @Test
+    public void testBadFormats() {
+        for (final var value : new String[] {encode(USERNAME), "YWJj*GVm", "YWJjZ", "YQ=", "YQ==YQ==", "éééé"}) {
+            TestsHelper.expectException(() -> extract(value), CredentialsException.class, "Bad format of the basic auth header");
+        }
+    }
+}
@@ -32,6 +32,15 @@ public final class HeaderExtractorTests implements TestsConstants {
         assertEquals(VALUE, credentials.getToken());
     }
 
+    @Test
+    public void testRetrieveLowerCaseHeaderTrimmed() {
+        final var trimExtractor = new HeaderExtractor(GOOD_HEADER, GOOD_PREFIX);
+        trimExtractor.setTrimValue(true);
+        final var context = MockWebContext.create().addRequestHeader(GOOD_HEADER.toLowerCase(), GOOD_PREFIX + "  " + VALUE + " \t");
+        final var credentials = (TokenCredentials) trimExtractor.extract(context, null).get();
+        assertEquals(VALUE, credentials.getToken());
+    }
+
     @Test
     public void testBadHeader() {
         final var context = MockWebContext.create().addRequestHeader(BAD_HEADER, GOOD_PREFIX + VALUE);
@@ -0,0 +1,127 @@
+package org.pac4j.core.metrics;
+
+import org.junit.Test;
+import org.pac4j.core.client.Clients;
+import org.pac4j.core.client.MockDirectClient;
+import org.pac4j.core.config.Config;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.session.InstrumentedSessionStore;
+import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.credentials.MockCredentials;
+import org.pac4j.core.engine.DefaultSecurityLogic;
+import org.pac4j.core.exception.http.FoundAction;
+import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the {@link Instrumentation} of the logics, clients and session stores.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public final class InstrumentationTests implements TestsConstants {
+
+    private static final class RecordingInstrumentation implements Instrumentation {
+
+        private final List<String> timers = new ArrayList<>();
+
+        private final List<String> counters = new ArrayList<>();
+
+        @Override
+        public Sample start(final String name, final String... tags) {
+            return outcome -> timers.add(name + Arrays.toString(tags) + ":" + outcome);
+        }
+
+        @Override
+        public void increment(final String name, final String... tags) {
+            counters.add(name + Arrays.toString(tags));
+        }
+    }
+
+    @Test
+    public void testSecurityLogic() {
+        final var profile = new CommonProfile();
+        profile.setId(ID);
+        final var client = new MockDirectClient(NAME, Optional.of(new MockCredentials()), profile);
+        final var clients = new Clients(client);
+        final var instrumentation = new RecordingInstrumentation();
+        clients.setInstrumentation(instrumentation);
+        final var nbCalls = new int[1];
+
+        DefaultSecurityLogic.INSTANCE.perform(MockWebContext.create(), new MockSessionStore(), new Config(clients),
+            (ctx, store, profiles, parameters) -> nbCalls[0]++, (action, ctx) -> null, NAME, null, null);
+
+        assertEquals(1, nbCalls[0]);
+        assertSame(instrumentation, client.getInstrumentation());
+        final var timers = instrumentation.timers;
+        assertEquals(5, timers.size());
+        assertEquals("pac4j.matching[]:success", timers.get(0));
+        assertTrue(timers.get(1).startsWith("pac4j.credentials.extraction[client, " + NAME + ", extractor, "));
+        assertTrue(timers.get(1).endsWith(":success"));
+        assertTrue(timers.get(2).startsWith("pac4j.authentication[client, " + NAME + ", authenticator, "));
+        assertEquals("pac4j.profile.creation[client, " + NAME + ", profileCreator, AuthenticatorProfileCreator]:success", timers.get(3));
+        assertEquals("pac4j.authorization[]:success", timers.get(4));
+        assertEquals(List.of("pac4j.security[outcome, granted]"), instrumentation.counters);
+    }
+
+    @Test
+    public void testNoCredentials() {
+        final var client = new MockDirectClient(NAME);
+        final var instrumentation = new RecordingInstrumentation();
+        client.setInstrumentation(instrumentation);
+
+        assertTrue(client.getCredentials(MockWebContext.create(), new MockSessionStore()).isEmpty());
+        assertEquals(1, instrumentation.timers.size());
+        assertTrue(instrumentation.timers.get(0).endsWith(":failure"));
+    }
+
+    @Test
+    public void testHttpAction() {
+        final var client = new MockDirectClient(NAME, () -> {
+            throw new FoundAction(LOGIN_URL);
+        }, null);
+        final var instrumentation = new RecordingInstrumentation();
+        client.setInstrumentation(instrumentation);
+
+        TestsHelper.expectException(() -> client.getCredentials(MockWebContext.create(), new MockSessionStore()), FoundAction.class,
+            "Performing a 302 HTTP action");
+        assertEquals(1, instrumentation.timers.size());
+        assertTrue(instrumentation.timers.get(0).endsWith(":" + Instrumentation.ACTION));
+    }
+
+    @Test
+    public void testSessionStore() {
+        final var instrumentation = new RecordingInstrumentation();
+        final var sessionStore = new InstrumentedSessionStore(new MockSessionStore(), instrumentation);
+        final var context = MockWebContext.create();
+
+        assertTrue(sessionStore.get(context, KEY).isEmpty());
+        sessionStore.set(context, KEY, VALUE);
+        assertEquals(VALUE, sessionStore.get(context, KEY).get());
+        assertEquals(List.of("pac4j.session.store[operation, get]:failure", "pac4j.session.store[operation, set]:success",
+            "pac4j.session.store[operation, get]:success"), instrumentation.timers);
+    }
+
+    @Test
+    public void testComposite() {
+        final var instrumentation1 = new RecordingInstrumentation();
+        final var instrumentation2 = new RecordingInstrumentation();
+        final var composite = new CompositeInstrumentation(instrumentation1, Instrumentation.NONE, instrumentation2);
+        assertTrue(composite.isEnabled());
+        assertFalse(new CompositeInstrumentation(Instrumentation.NONE).isEnabled());
+
+        composite.start(NAME, KEY, VALUE).stop(Instrumentation.SUCCESS);
+        composite.increment(NAME);
+        assertEquals(List.of(NAME + "[" + KEY + ", " + VALUE + "]:success"), instrumentation1.timers);
+        assertEquals(instrumentation1.timers, instrumentation2.timers);
+        assertEquals(List.of(NAME + "[]"), instrumentation2.counters);
+    }
+}
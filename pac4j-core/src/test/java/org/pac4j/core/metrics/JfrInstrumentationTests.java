@@ -0,0 +1,50 @@
+package org.pac4j.core.metrics;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+import org.pac4j.core.util.TestsConstants;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link JfrInstrumentation}.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public final class JfrInstrumentationTests implements TestsConstants {
+
+    private final JfrInstrumentation instrumentation = new JfrInstrumentation();
+
+    @Test
+    public void testNoRecording() {
+        assertSame(Instrumentation.Sample.NONE, instrumentation.start(NAME));
+    }
+
+    @Test
+    public void testEvents() throws IOException {
+        final var file = Files.createTempFile("pac4j", ".jfr");
+        try (var recording = new Recording()) {
+            recording.enable("org.pac4j.Operation");
+            recording.enable("org.pac4j.Count");
+            recording.start();
+            instrumentation.start(Instrumentation.AUTHENTICATION, Instrumentation.TAG_CLIENT, NAME).stop(Instrumentation.SUCCESS);
+            instrumentation.increment(Instrumentation.SECURITY, Instrumentation.TAG_OUTCOME, "granted");
+            recording.stop();
+            recording.dump(file);
+        }
+        final var events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+        assertEquals(2, events.size());
+        final var operation = events.stream().filter(e -> "org.pac4j.Operation".equals(e.getEventType().getName())).findFirst().get();
+        assertEquals(Instrumentation.AUTHENTICATION, operation.getString("name"));
+        assertEquals("client=" + NAME, operation.getString("tags"));
+        assertEquals(Instrumentation.SUCCESS, operation.getString("outcome"));
+        final var count = events.stream().filter(e -> "org.pac4j.Count".equals(e.getEventType().getName())).findFirst().get();
+        assertEquals("outcome=granted", count.getString("tags"));
+    }
+}
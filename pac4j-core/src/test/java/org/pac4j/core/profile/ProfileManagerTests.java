@@ -5,14 +5,17 @@ import org.junit.Test;
 import org.pac4j.core.client.BaseClient;
 import org.pac4j.core.config.Config;
 import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.context.WebContext;
 import org.pac4j.core.context.session.MockSessionStore;
 import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.store.GuavaStore;
 import org.pac4j.core.util.Pac4jConstants;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 
 import static org.mockito.Mockito.*;
 import static org.junit.Assert.*;
@@ -30,6 +33,7 @@ public final class ProfileManagerTests {
     private static final String ID3 = "ID3";
     private static final String CLIENT1 = "client1";
     private static final String CLIENT2 = "client2";
+    private static final String CLIENT3 = "client3";
     private CommonProfile profile1;
     private CommonProfile profile2;
     private CommonProfile profile3;
@@ -266,6 +270,209 @@ public final class ProfileManagerTests {
         assertEquals(profile3, profiles.get(1));
     }
 
+    @Test
+    public void testProfilesReadOnceFromSession() {
+        sessionStore = spy(new MockSessionStore());
+        profileManager = new ProfileManager(context, sessionStore);
+        profiles.put(CLIENT1, profile1);
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        assertEquals(profile1, profileManager.getProfile().get());
+        assertEquals(profile1, profileManager.getProfiles().get(0));
+        assertTrue(new ProfileManager(context, sessionStore).isAuthenticated());
+        verify(sessionStore, times(1)).get(context, Pac4jConstants.USER_PROFILES);
+    }
+
+    @Test
+    public void testViewUpdatedAfterSave() {
+        profiles.put(CLIENT1, profile1);
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        assertEquals(1, profileManager.getProfiles().size());
+        profileManager.save(true, profile2, true);
+        assertEquals(2, profileManager.getProfiles().size());
+        profileManager.removeProfiles();
+        assertEquals(0, profileManager.getProfiles().size());
+    }
+
+    @Test
+    public void testRemoveAndRenewSeveralExpiredProfiles() {
+        profile1 = mock(CommonProfile.class);
+        when(profile1.getClientName()).thenReturn(CLIENT1);
+        when(profile1.isExpired()).thenReturn(true);
+        profile2 = mock(CommonProfile.class);
+        when(profile2.getClientName()).thenReturn(CLIENT2);
+        when(profile2.isExpired()).thenReturn(true);
+        final var linkedProfiles = new LinkedHashMap<String, UserProfile>();
+        linkedProfiles.put(CLIENT1, profile1);
+        linkedProfiles.put(CLIENT2, profile2);
+        linkedProfiles.put(CLIENT3, profile3);
+        final var client1 = mock(BaseClient.class);
+        when(client1.getName()).thenReturn(CLIENT1);
+        when(client1.renewUserProfile(profile1, context, sessionStore)).thenReturn(Optional.of(profile3));
+        profileManager.setConfig(new Config(client1));
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, linkedProfiles);
+        final var profiles = profileManager.getProfiles();
+        assertEquals(2, profiles.size());
+        assertEquals(profile3, profiles.get(0));
+        assertEquals(profile3, profiles.get(1));
+        final var savedProfiles =
+            (LinkedHashMap<String, UserProfile>) sessionStore.get(context, Pac4jConstants.USER_PROFILES).get();
+        assertEquals(2, savedProfiles.size());
+        assertFalse(savedProfiles.containsKey(CLIENT2));
+    }
+
+    @Test
+    public void testNeverExpiringProfilesNotChecked() {
+        profile1 = spy(new CommonProfile());
+        profile1.setId(ID1);
+        profile1.setClientName(CLIENT1);
+        profiles.put(CLIENT1, profile1);
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        assertEquals(profile1, profileManager.getProfile().get());
+        assertEquals(1, profileManager.getProfiles().size());
+        assertTrue(mockingDetails(profile1).getInvocations().stream()
+            .noneMatch(invocation -> "isExpired".equals(invocation.getMethod().getName())));
+    }
+
+    @Test
+    public void testRenewalInBackground() {
+        profile1 = mock(CommonProfile.class);
+        when(profile1.getId()).thenReturn(ID1);
+        when(profile1.getClientName()).thenReturn(CLIENT1);
+        when(profile1.getExpirationTime()).thenReturn(System.currentTimeMillis() + 10000);
+        final var client1 = mock(BaseClient.class);
+        when(client1.getName()).thenReturn(CLIENT1);
+        when(client1.renewUserProfileInBackground(profile1)).thenReturn(Optional.of(profile3));
+        final var renewer = new ProfileRenewer(Runnable::run);
+        profileManager.setProfileRenewer(renewer);
+        profileManager.setConfig(new Config(client1));
+        profiles.put(CLIENT1, profile1);
+        sessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        assertEquals(profile1, profileManager.getProfile().get());
+        verify(client1, times(1)).renewUserProfileInBackground(profile1);
+
+        final var otherManager = new ProfileManager(MockWebContext.create(), sessionStore);
+        otherManager.setProfileRenewer(renewer);
+        otherManager.setConfig(new Config(client1));
+        assertEquals(profile3, otherManager.getProfile().get());
+        final var savedProfiles =
+            (LinkedHashMap<String, UserProfile>) sessionStore.get(context, Pac4jConstants.USER_PROFILES).get();
+        assertEquals(profile3, savedProfiles.get(CLIENT1));
+        assertTrue(mockingDetails(client1).getInvocations().stream()
+            .noneMatch(invocation -> "renewUserProfile".equals(invocation.getMethod().getName())));
+    }
+
+    @Test
+    public void testNoRenewalInBackgroundWithoutSession() {
+        profile1 = mock(CommonProfile.class);
+        when(profile1.getId()).thenReturn(ID1);
+        when(profile1.getClientName()).thenReturn(CLIENT1);
+        when(profile1.getExpirationTime()).thenReturn(System.currentTimeMillis() + 10000);
+        final var client1 = mock(BaseClient.class);
+        when(client1.getName()).thenReturn(CLIENT1);
+        final var renewer = new ProfileRenewer(Runnable::run);
+        final var noSessionStore = new MockSessionStore() {
+            @Override
+            public Optional<String> getSessionId(final WebContext context, final boolean createSession) {
+                return Optional.empty();
+            }
+        };
+        profileManager = new ProfileManager(context, noSessionStore);
+        profileManager.setProfileRenewer(renewer);
+        profileManager.setConfig(new Config(client1));
+        profiles.put(CLIENT1, profile1);
+        noSessionStore.set(context, Pac4jConstants.USER_PROFILES, profiles);
+        assertEquals(profile1, profileManager.getProfile().get());
+        verify(client1, never()).renewUserProfileInBackground(profile1);
+        assertEquals(0, renewer.getNbRenewals());
+    }
+
+    @Test
+    public void testSaveInRepository() {
+        final var store = new GuavaStore<String, UserProfile>(10, 1, TimeUnit.HOURS);
+        final var repository = new ProfileRepository(store);
+        profileManager = new ProfileManager(context, sessionStore, repository);
+        profileManager.save(true, profile1, true);
+        profileManager.save(true, profile2, true);
+        assertFalse(sessionStore.get(context, Pac4jConstants.USER_PROFILES).isPresent());
+        final var references = (ProfileRepository.References) sessionStore.get(context, Pac4jConstants.USER_PROFILE_REFERENCES).get();
+        assertEquals(2, references.getVersions().size());
+        assertEquals(2, store.getCache().size());
+
+        final var otherManager = new ProfileManager(MockWebContext.create(), sessionStore, repository);
+        final var profiles = otherManager.getProfiles();
+        assertEquals(2, profiles.size());
+        assertEquals(profile1, profiles.get(0));
+        assertEquals(profile2, profiles.get(1));
+    }
+
+    @Test
+    public void testRenewedProfileInRepository() {
+        final var store = new GuavaStore<String, UserProfile>(10, 1, TimeUnit.HOURS);
+        final var repository = new ProfileRepository(store);
+        profile2 = mock(CommonProfile.class);
+        when(profile2.getId()).thenReturn(ID2);
+        when(profile2.getClientName()).thenReturn(CLIENT2);
+        profileManager = new ProfileManager(context, sessionStore, repository);
+        profileManager.save(true, profile1, true);
+        profileManager.save(true, profile2, true);
+        final var references = (ProfileRepository.References) sessionStore.get(context, Pac4jConstants.USER_PROFILE_REFERENCES).get();
+
+        when(profile2.isExpired()).thenReturn(true);
+        final var renewedProfile = new CommonProfile();
+        renewedProfile.setId(ID3);
+        renewedProfile.setClientName(CLIENT2);
+        final var client2 = mock(BaseClient.class);
+        when(client2.getName()).thenReturn(CLIENT2);
+        final var otherContext = MockWebContext.create();
+        when(client2.renewUserProfile(profile2, otherContext, sessionStore)).thenReturn(Optional.of(renewedProfile));
+        final var otherManager = new ProfileManager(otherContext, sessionStore, repository);
+        otherManager.setConfig(new Config(client2));
+        final var profiles = otherManager.getProfiles();
+        assertEquals(profile1, profiles.get(0));
+        assertEquals(renewedProfile, profiles.get(1));
+
+        final var newReferences =
+            (ProfileRepository.References) sessionStore.get(context, Pac4jConstants.USER_PROFILE_REFERENCES).get();
+        assertEquals(references.getVersions().get(CLIENT1), newReferences.getVersions().get(CLIENT1));
+        assertNotEquals(references.getVersions().get(CLIENT2), newReferences.getVersions().get(CLIENT2));
+        assertEquals(2, store.getCache().size());
+    }
+
+    @Test
+    public void testConcurrentSavesInRepository() {
+        final var store = new GuavaStore<String, UserProfile>(10, 1, TimeUnit.HOURS);
+        final var repository = new ProfileRepository(store);
+        final var profiles = new LinkedHashMap<String, UserProfile>();
+        profiles.put(CLIENT1, profile1);
+        repository.save(context, sessionStore, profiles, null);
+        final var references = sessionStore.get(context, Pac4jConstants.USER_PROFILE_REFERENCES).get();
+
+        // two requests of the same session save a new version of the profile from the same references
+        final var otherSessionStore = new MockSessionStore();
+        final var otherContext = MockWebContext.create();
+        otherSessionStore.set(otherContext, Pac4jConstants.USER_PROFILE_REFERENCES, references);
+        repository.save(context, sessionStore, profiles, null);
+        repository.save(otherContext, otherSessionStore, profiles, null);
+        final var newReferences = (ProfileRepository.References) sessionStore.get(context, Pac4jConstants.USER_PROFILE_REFERENCES).get();
+        final var otherReferences =
+            (ProfileRepository.References) otherSessionStore.get(otherContext, Pac4jConstants.USER_PROFILE_REFERENCES).get();
+        assertNotEquals(newReferences.getVersions().get(CLIENT1), otherReferences.getVersions().get(CLIENT1));
+        assertEquals(2, store.getCache().size());
+        assertEquals(profile1, new ProfileManager(MockWebContext.create(), sessionStore, repository).getProfile().get());
+        assertEquals(profile1, new ProfileManager(MockWebContext.create(), otherSessionStore, repository).getProfile().get());
+    }
+
+    @Test
+    public void testRemoveFromRepository() {
+        final var store = new GuavaStore<String, UserProfile>(10, 1, TimeUnit.HOURS);
+        profileManager = new ProfileManager(context, sessionStore, new ProfileRepository(store));
+        profileManager.save(true, profile1, true);
+        profileManager.removeProfiles();
+        assertFalse(profileManager.getProfile().isPresent());
+        assertFalse(sessionStore.get(context, Pac4jConstants.USER_PROFILE_REFERENCES).isPresent());
+        assertEquals(0, store.getCache().size());
+    }
+
     @Test
     public void testIsAuthenticatedAnonymousProfile() {
         profiles.put(CLIENT1, AnonymousProfile.INSTANCE);
@@ -0,0 +1,159 @@
+package org.pac4j.core.profile;
+
+import org.junit.Test;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link ProfileRenewer}.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public final class ProfileRenewerTests implements TestsConstants {
+
+    private static UserProfile buildProfile(final long expirationTime) {
+        final var profile = new ExpiringProfile();
+        profile.expirationTime = expirationTime;
+        profile.setId(ID);
+        return profile;
+    }
+
+    @Test
+    public void testIsRenewalDue() {
+        final var renewer = new ProfileRenewer();
+        renewer.setRenewalAdvance(60);
+        assertFalse(renewer.isRenewalDue(new CommonProfile()));
+        assertFalse(renewer.isRenewalDue(buildProfile(Long.MAX_VALUE)));
+        assertFalse(renewer.isRenewalDue(buildProfile(System.currentTimeMillis() + 120000)));
+        assertTrue(renewer.isRenewalDue(buildProfile(System.currentTimeMillis() + 30000)));
+        assertTrue(renewer.isRenewalDue(buildProfile(System.currentTimeMillis() - 1000)));
+    }
+
+    @Test
+    public void testRenewInBackground() {
+        final var renewer = new ProfileRenewer(Runnable::run);
+        final var counter = new AtomicInteger();
+        final var newProfile = buildProfile(Long.MAX_VALUE);
+        renewer.renewInBackground(KEY, () -> {
+            counter.incrementAndGet();
+            return Optional.of(newProfile);
+        });
+        renewer.renewInBackground(KEY, () -> {
+            counter.incrementAndGet();
+            return Optional.of(newProfile);
+        });
+        assertEquals(1, counter.get());
+        assertEquals(newProfile, renewer.pollRenewed(KEY).get());
+        assertFalse(renewer.pollRenewed(KEY).isPresent());
+    }
+
+    @Test
+    public void testFailedRenewalInBackground() {
+        final var renewer = new ProfileRenewer(Runnable::run);
+        renewer.renewInBackground(KEY, () -> {
+            throw new TechnicalException(VALUE);
+        });
+        assertFalse(renewer.pollRenewed(KEY).isPresent());
+        assertEquals(0, renewer.getNbRenewals());
+        final var newProfile = buildProfile(Long.MAX_VALUE);
+        assertEquals(newProfile, renewer.renew(KEY, () -> Optional.of(newProfile)).get());
+    }
+
+    @Test
+    public void testSingleFlightRenewal() throws Exception {
+        final var renewer = new ProfileRenewer();
+        final var counter = new AtomicInteger();
+        final var started = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var newProfile = buildProfile(Long.MAX_VALUE);
+        final var first = new CompletableFuture<Optional<UserProfile>>();
+        final var firstThread = new Thread(() -> first.complete(renewer.renew(KEY, () -> {
+            counter.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Optional.of(newProfile);
+        })));
+        firstThread.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        final var second = new CompletableFuture<Optional<UserProfile>>();
+        final var secondThread = new Thread(() -> second.complete(renewer.renew(KEY, () -> {
+            counter.incrementAndGet();
+            return Optional.of(newProfile);
+        })));
+        secondThread.start();
+        // wait for the second renewal to wait for the first one
+        final var deadline = System.currentTimeMillis() + 5000;
+        while (secondThread.getState() != Thread.State.TIMED_WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+        assertEquals(newProfile, first.get(5, TimeUnit.SECONDS).get());
+        assertEquals(newProfile, second.get(5, TimeUnit.SECONDS).get());
+        assertEquals(1, counter.get());
+    }
+
+    @Test
+    public void testRenewalTimeoutInBackground() throws Exception {
+        final var renewer = new ProfileRenewer(runnable -> new Thread(runnable).start());
+        renewer.setRenewalTimeout(1);
+        final var release = new CountDownLatch(1);
+        renewer.renewInBackground(KEY, () -> {
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Optional.of(buildProfile(Long.MAX_VALUE));
+        });
+        assertEquals(1, renewer.getNbRenewals());
+        final var deadline = System.currentTimeMillis() + 5000;
+        while (renewer.getNbRenewals() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        release.countDown();
+        assertEquals(0, renewer.getNbRenewals());
+        assertFalse(renewer.pollRenewed(KEY).isPresent());
+    }
+
+    @Test
+    public void testBadRenewalTimeout() {
+        final var renewer = new ProfileRenewer();
+        renewer.setRenewalTimeout(0);
+        TestsHelper.expectException(renewer::init, TechnicalException.class, "renewalTimeout must be greater than zero");
+    }
+
+    @Test
+    public void testBadTimeout() {
+        final var renewer = new ProfileRenewer();
+        renewer.setTimeout(0);
+        TestsHelper.expectException(renewer::init, TechnicalException.class, "timeout must be greater than zero");
+    }
+
+    public static final class ExpiringProfile extends CommonProfile {
+
+        private static final long serialVersionUID = 5409153457396787432L;
+
+        private long expirationTime;
+
+        public ExpiringProfile() {}
+
+        @Override
+        public long getExpirationTime() {
+            return expirationTime;
+        }
+    }
+}
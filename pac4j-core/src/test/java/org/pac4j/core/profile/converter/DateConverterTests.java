@@ -1,7 +1,14 @@
 package org.pac4j.core.profile.converter;
 
+import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Test;
 
@@ -44,4 +51,57 @@ public final class DateConverterTests {
     public void testBadDate() {
         assertNull(this.converter.convert(BAD_DATE));
     }
+
+    @Test
+    public void testSameResultsAsSimpleDateFormat() throws ParseException {
+        final Object[][] cases = {
+            {Converters.DATE_TZ_GENERAL_FORMAT, null, "2012-02-06T12:46:43GMT"},
+            {Converters.DATE_TZ_GENERAL_FORMAT, null, "2012-02-06T12:46:43+0100"},
+            {Converters.DATE_TZ_RFC822_FORMAT, null, "2012-02-06T12:46:43Z"},
+            {"EEE MMM dd HH:mm:ss Z yyyy", Locale.US, "Mon Feb 06 12:46:43 +0000 2012"},
+            {"MM/dd", null, "02/06"},
+            {"MM/dd/yyyy", null, "02/06/2012"},
+            {"dd.MM.yyyy", null, "06.02.2012"},
+            {"yyyy", null, "2012"},
+            {"yy-MM-dd", null, "85-02-06"},
+            {FORMAT, null, "2012.1.1"},
+            {FORMAT, null, "2012.02.31"},
+            {FORMAT, null, "2012.01.01 trailing"},
+        };
+        for (final var c : cases) {
+            final var format = (String) c[0];
+            final var locale = (Locale) c[1];
+            final var value = (String) c[2];
+            final var simpleDateFormat = locale == null ? new SimpleDateFormat(format) : new SimpleDateFormat(format, locale);
+            final var dateConverter = locale == null ? new DateConverter(format) : new DateConverter(format, locale);
+            assertEquals(format + " / " + value, simpleDateFormat.parse(value), dateConverter.convert(value));
+        }
+    }
+
+    @Test
+    public void testFormatters() {
+        assertNotNull(DateConverter.buildFormatter(Converters.DATE_TZ_RFC822_FORMAT, null));
+        assertNotNull(DateConverter.buildFormatter("EEE MMM dd HH:mm:ss Z yyyy", Locale.US));
+        assertNull(DateConverter.buildFormatter("yy-MM-dd", null));
+        assertNull(DateConverter.buildFormatter("yyyy-MM-dd HH:mm:ss.SSS", null));
+        assertNull(DateConverter.buildFormatter(DateTimeFormatter.ISO_LOCAL_DATE_TIME.toString(), null));
+    }
+
+    @Test
+    public void testConcurrentConversions() throws Exception {
+        final var dateConverter = new DateConverter(FORMAT);
+        final var expected = new SimpleDateFormat(FORMAT).parse(GOOD_DATE);
+        final var executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Object>> futures = new ArrayList<>();
+            for (var i = 0; i < 100; i++) {
+                futures.add(executor.submit(() -> dateConverter.convert(GOOD_DATE)));
+            }
+            for (final var future : futures) {
+                assertEquals(expected, future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
 }
@@ -3,6 +3,11 @@ package org.pac4j.core.profile.definition;
 import org.junit.Test;
 import org.pac4j.core.profile.BasicUserProfile;
 import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.Gender;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.*;
 
@@ -45,4 +50,24 @@ public class CommonProfileDefinitionTest {
         final var profile = definition.newProfile(String.class.getName() + "#");
         assertTrue(profile instanceof CommonProfile);
     }
+
+    @Test
+    public void testConvertAndAddManyAttributes() {
+        final ProfileDefinition definition = new CommonProfileDefinition();
+        final var profile = (CommonProfile) definition.newProfile();
+        profile.addAttribute(CommonProfileDefinition.EMAIL, "existing");
+        final Map<String, Object> attributes = new HashMap<>();
+        for (var i = 0; i < 100; i++) {
+            attributes.put("attribute" + i, "value" + i);
+        }
+        attributes.put(CommonProfileDefinition.EMAIL, "email");
+        attributes.put(CommonProfileDefinition.GENDER, "F");
+        definition.convertAndAdd(profile, attributes, Map.of("authattribute", List.of("value1")));
+        definition.convertAndAdd(profile, null, Map.of("authattribute", List.of("value2")));
+        assertEquals(102, profile.getAttributes().size());
+        assertEquals("value50", profile.getAttribute("attribute50"));
+        assertEquals("email", profile.getEmail());
+        assertEquals(Gender.FEMALE, profile.getGender());
+        assertEquals(List.of("value1", "value2"), profile.getAuthenticationAttribute("authattribute"));
+    }
 }
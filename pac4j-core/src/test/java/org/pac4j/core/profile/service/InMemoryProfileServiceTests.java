@@ -5,14 +5,17 @@ import org.junit.*;
 import org.pac4j.core.exception.*;
 import org.pac4j.core.profile.CommonProfile;
 import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
 import org.pac4j.core.credentials.UsernamePasswordCredentials;
 import org.pac4j.core.credentials.password.PasswordEncoder;
 import org.pac4j.core.credentials.password.ShiroPasswordEncoder;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executors;
 
 import static org.junit.Assert.*;
 
@@ -142,6 +145,48 @@ public final class InMemoryProfileServiceTests implements TestsConstants {
         assertEquals(0, results3.size());
     }
 
+    @Test
+    public void testBatchOperationsWithExecutor() {
+        final var executor = Executors.newFixedThreadPool(2);
+        try {
+            inMemoryProfileService.setExecutor(executor);
+            inMemoryProfileService.setMaxParallelism(2);
+            final List<CommonProfile> profiles = new ArrayList<>();
+            final Map<String, String> passwords = new HashMap<>();
+            for (var i = 0; i < 5; i++) {
+                final var profile = new CommonProfile();
+                profile.setId(TEST_ID + i);
+                profile.addAttribute(USERNAME, TEST_USER + i);
+                profiles.add(profile);
+                passwords.put(profile.getId(), TEST_PASS);
+            }
+            inMemoryProfileService.createAll(profiles, passwords);
+            final var found = inMemoryProfileService.findAllByIds(Arrays.asList(TEST_ID + 0, TEST_ID + 3, IDPERSON1, "unknown"));
+            assertEquals(3, found.size());
+            assertEquals(TEST_USER + 0, found.get(0).getUsername());
+            assertEquals(TEST_USER + 3, found.get(1).getUsername());
+            assertEquals(GOOD_USERNAME, found.get(2).getUsername());
+
+            for (final var profile : profiles) {
+                profile.addAttribute(USERNAME, TEST_USER2 + profile.getId());
+            }
+            inMemoryProfileService.updateAll(profiles, null);
+            assertEquals(TEST_USER2 + TEST_ID + 4, inMemoryProfileService.findById(TEST_ID + 4).getUsername());
+            final var credentials = new UsernamePasswordCredentials(TEST_USER2 + TEST_ID + 2, TEST_PASS);
+            inMemoryProfileService.validate(credentials, null, null);
+            assertNotNull(credentials.getUserProfile());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testBadMaxParallelism() {
+        inMemoryProfileService.setMaxParallelism(0);
+        TestsHelper.expectException(() -> inMemoryProfileService.init(true), TechnicalException.class,
+            "maxParallelism must be greater than zero");
+    }
+
     private List<Map<String, Object>> getData(final String id) {
         return inMemoryProfileService.read(Arrays.asList("id", "username", "linkedid", "password", "serializedprofile"), "id", id);
     }
@@ -0,0 +1,107 @@
+package org.pac4j.core.profile.service;
+
+import org.junit.Test;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the {@link VerifiedCredentialsCache}.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public final class VerifiedCredentialsCacheTests implements TestsConstants {
+
+    private static final String STORED_PASSWORD = "encodedPassword";
+
+    @Test
+    public void testBadTimeout() {
+        final var cache = new VerifiedCredentialsCache(10, 0, TimeUnit.SECONDS);
+        TestsHelper.expectException(cache::init, TechnicalException.class, "timeout must be greater than zero");
+    }
+
+    @Test
+    public void testPutGet() {
+        final var cache = new VerifiedCredentialsCache();
+        assertFalse(cache.get(USERNAME, PASSWORD, STORED_PASSWORD).isPresent());
+        cache.put(ID, USERNAME, PASSWORD, STORED_PASSWORD);
+        assertEquals(ID, cache.get(USERNAME, PASSWORD, STORED_PASSWORD).get());
+        assertFalse(cache.get(USERNAME, PASSWORD + "bad", STORED_PASSWORD).isPresent());
+        assertFalse(cache.get(USERNAME, PASSWORD, STORED_PASSWORD + "changed").isPresent());
+        assertFalse(cache.get(USERNAME, PASSWORD, null).isPresent());
+        assertFalse(cache.get(GOOD_USERNAME, PASSWORD, STORED_PASSWORD).isPresent());
+    }
+
+    @Test
+    public void testNoAmbiguousConcatenation() {
+        final var cache = new VerifiedCredentialsCache();
+        cache.put(ID, USERNAME, "ab", "c");
+        assertFalse(cache.get(USERNAME, "a", "bc").isPresent());
+    }
+
+    @Test
+    public void testSecret() {
+        final var cache1 = new VerifiedCredentialsCache();
+        cache1.setSecret(SALT.getBytes(StandardCharsets.UTF_8));
+        cache1.init();
+        final var cache2 = new VerifiedCredentialsCache();
+        cache2.setSecret(SALT.getBytes(StandardCharsets.UTF_8));
+        cache2.init();
+        final var cache3 = new VerifiedCredentialsCache();
+        cache3.init();
+        assertArrayEquals(cache1.computeMac(USERNAME, PASSWORD, null), cache2.computeMac(USERNAME, PASSWORD, null));
+        assertFalse(Arrays.equals(cache1.computeMac(USERNAME, PASSWORD, null), cache3.computeMac(USERNAME, PASSWORD, null)));
+    }
+
+    @Test
+    public void testInvalidate() {
+        final var cache = new VerifiedCredentialsCache();
+        cache.put(ID, USERNAME, PASSWORD, STORED_PASSWORD);
+        cache.put(VALUE, GOOD_USERNAME, PASSWORD, STORED_PASSWORD);
+        cache.invalidate(ID, null);
+        assertFalse(cache.get(USERNAME, PASSWORD, STORED_PASSWORD).isPresent());
+        assertTrue(cache.get(GOOD_USERNAME, PASSWORD, STORED_PASSWORD).isPresent());
+        cache.invalidate(null, GOOD_USERNAME);
+        assertFalse(cache.get(GOOD_USERNAME, PASSWORD, STORED_PASSWORD).isPresent());
+    }
+
+    @Test
+    public void testExpiration() throws InterruptedException {
+        final var cache = new VerifiedCredentialsCache(10, 1, TimeUnit.MILLISECONDS);
+        cache.put(ID, USERNAME, PASSWORD, STORED_PASSWORD);
+        Thread.sleep(5);
+        assertFalse(cache.get(USERNAME, PASSWORD, STORED_PASSWORD).isPresent());
+    }
+
+    @Test
+    public void testSize() {
+        final var cache = new VerifiedCredentialsCache(2, 1, TimeUnit.MINUTES);
+        cache.put(ID, USERNAME, PASSWORD, STORED_PASSWORD);
+        cache.put(ID, GOOD_USERNAME, PASSWORD, STORED_PASSWORD);
+        cache.put(ID, BAD_USERNAME, PASSWORD, STORED_PASSWORD);
+        assertTrue(cache.get(BAD_USERNAME, PASSWORD, STORED_PASSWORD).isPresent());
+        assertFalse(cache.get(USERNAME, PASSWORD, STORED_PASSWORD).isPresent());
+    }
+
+    @Test
+    public void testEvictOldest() {
+        final var cache = new VerifiedCredentialsCache(10, 1, TimeUnit.MINUTES);
+        for (var i = 0; i < 10; i++) {
+            cache.put(ID, USERNAME + i, PASSWORD, STORED_PASSWORD);
+        }
+        cache.put(ID, GOOD_USERNAME, PASSWORD, STORED_PASSWORD);
+        assertFalse(cache.get(USERNAME + 0, PASSWORD, STORED_PASSWORD).isPresent());
+        assertFalse(cache.get(USERNAME + 1, PASSWORD, STORED_PASSWORD).isPresent());
+        for (var i = 2; i < 10; i++) {
+            assertTrue(cache.get(USERNAME + i, PASSWORD, STORED_PASSWORD).isPresent());
+        }
+        assertTrue(cache.get(GOOD_USERNAME, PASSWORD, STORED_PASSWORD).isPresent());
+    }
+}
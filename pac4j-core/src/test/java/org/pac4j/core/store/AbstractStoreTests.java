@@ -26,6 +26,15 @@ public abstract class AbstractStoreTests<S extends Store> implements TestsConsta
         assertFalse(store.get(KEY).isPresent());
     }
 
+    @Test
+    public void testSetPop() {
+        final var store = buildStore();
+        store.set(KEY, VALUE);
+        assertEquals(VALUE, store.pop(KEY).get());
+        assertFalse(store.get(KEY).isPresent());
+        assertFalse(store.pop(KEY).isPresent());
+    }
+
     @Test
     public void testSetExpiredGet() {
         final var store = buildStore();
@@ -0,0 +1,49 @@
+package org.pac4j.core.store;
+
+import org.junit.Test;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsHelper;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link NearCacheStore}.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public final class NearCacheStoreTests extends AbstractStoreTests<NearCacheStore> {
+
+    @Override
+    protected NearCacheStore buildStore() {
+        return new NearCacheStore(new GuavaStore(10, 1000, TimeUnit.MILLISECONDS), new GuavaStore(10, 1000, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testGetFromSharedStore() {
+        final var localStore = new GuavaStore<String, String>(10, 1000, TimeUnit.MILLISECONDS);
+        final var sharedStore = new GuavaStore<String, String>(10, 1000, TimeUnit.MILLISECONDS);
+        final var store = new NearCacheStore<>(localStore, sharedStore);
+        sharedStore.set(KEY, VALUE);
+        assertFalse(localStore.get(KEY).isPresent());
+        assertEquals(VALUE, store.get(KEY).get());
+        assertEquals(VALUE, localStore.get(KEY).get());
+        store.remove(KEY);
+        assertFalse(localStore.get(KEY).isPresent());
+        assertFalse(sharedStore.get(KEY).isPresent());
+    }
+
+    @Test
+    public void testMissingLocalStore() {
+        final var store = new NearCacheStore<String, String>(null, new GuavaStore<>(10, 1000, TimeUnit.MILLISECONDS));
+        TestsHelper.expectException(store::init, TechnicalException.class, "localStore cannot be null");
+    }
+
+    @Test
+    public void testMissingSharedStore() {
+        final var store = new NearCacheStore<String, String>(new GuavaStore<>(10, 1000, TimeUnit.MILLISECONDS), null);
+        TestsHelper.expectException(store::init, TechnicalException.class, "sharedStore cannot be null");
+    }
+}
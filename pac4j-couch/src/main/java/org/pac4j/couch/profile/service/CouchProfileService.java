@@ -15,6 +15,7 @@ import org.pac4j.core.profile.service.AbstractProfileService;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -157,6 +158,35 @@ public class CouchProfileService extends AbstractProfileService<CouchProfile> {
         return listAttributes;
     }
 
+    @Override
+    protected List<Map<String, Object>> batchRead(final List<String> names, final String key, final Collection<String> values) {
+        if (!key.equals(COUCH_ID)) {
+            return super.batchRead(names, key, values);
+        }
+
+        logger.debug("Reading key / values: {} / {}", key, values);
+        final List<Map<String, Object>> listAttributes = new ArrayList<>();
+        final var query = new ViewQuery()
+                .allDocs()
+                .includeDocs(true)
+                .keys(values);
+        final var result = couchDbConnector.queryView(query);
+        for (var row : result.getRows()) {
+            final var doc = row.getDoc();
+            if (doc != null) {
+                try {
+                    final Map<String, Object> res = objectMapper.readValue(doc, typeRef);
+                    listAttributes.add(populateAttributes(res, names));
+                } catch (IOException e) {
+                    logger.error("Unexpected IO CouchDB Exception", e);
+                }
+            }
+        }
+        logger.debug("Found: {}", listAttributes);
+
+        return listAttributes;
+    }
+
     public CouchDbConnector getCouchDbConnector() {
         return couchDbConnector;
     }
@@ -0,0 +1,51 @@
+package org.pac4j.http.authorization.authorizer;
+
+import org.pac4j.core.authorization.authorizer.Authorizer;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.profile.UserProfile;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.http.credentials.authenticator.CidrIpMatcher;
+
+import java.util.List;
+
+/**
+ * Authorizes users based on their IP and allowed/denied networks (see {@link CidrIpMatcher}).
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public class CidrIpAuthorizer implements Authorizer {
+
+    private CidrIpMatcher matcher;
+
+    public CidrIpAuthorizer() {}
+
+    public CidrIpAuthorizer(final CidrIpMatcher matcher) {
+        this.matcher = matcher;
+    }
+
+    public CidrIpAuthorizer(final String... allowed) {
+        this.matcher = new CidrIpMatcher(allowed);
+    }
+
+    @Override
+    public boolean isAuthorized(final WebContext context, final SessionStore sessionStore, final List<UserProfile> profiles) {
+        CommonHelper.assertNotNull("matcher", matcher);
+
+        return matcher.matches(context.getRemoteAddr());
+    }
+
+    public CidrIpMatcher getMatcher() {
+        return matcher;
+    }
+
+    public void setMatcher(final CidrIpMatcher matcher) {
+        this.matcher = matcher;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "matcher", matcher);
+    }
+}
@@ -0,0 +1,73 @@
+package org.pac4j.http.credentials.authenticator;
+
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.credentials.Credentials;
+import org.pac4j.core.credentials.TokenCredentials;
+import org.pac4j.core.credentials.authenticator.Authenticator;
+import org.pac4j.core.exception.CredentialsException;
+import org.pac4j.core.profile.definition.CommonProfileDefinition;
+import org.pac4j.core.profile.definition.ProfileDefinitionAware;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.http.profile.IpProfile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Authenticates users based on their IP and allowed/denied networks (see {@link CidrIpMatcher}).
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public class CidrIpAuthenticator extends ProfileDefinitionAware implements Authenticator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CidrIpAuthenticator.class);
+
+    private CidrIpMatcher matcher;
+
+    public CidrIpAuthenticator() {}
+
+    public CidrIpAuthenticator(final CidrIpMatcher matcher) {
+        this.matcher = matcher;
+    }
+
+    public CidrIpAuthenticator(final String... allowed) {
+        this.matcher = new CidrIpMatcher(allowed);
+    }
+
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        CommonHelper.assertNotNull("matcher", matcher);
+        defaultProfileDefinition(new CommonProfileDefinition(x -> new IpProfile()));
+    }
+
+    @Override
+    public void validate(final Credentials credentials, final WebContext context, final SessionStore sessionStore) {
+        init();
+
+        final var ip = ((TokenCredentials) credentials).getToken();
+
+        if (!this.matcher.matches(ip)) {
+            throw new CredentialsException("Unauthorized IP address: " + ip);
+        }
+
+        final var profile = (IpProfile) getProfileDefinition().newProfile();
+        profile.setId(ip);
+        LOGGER.debug("profile: {}", profile);
+
+        credentials.setUserProfile(profile);
+    }
+
+    public CidrIpMatcher getMatcher() {
+        return matcher;
+    }
+
+    public void setMatcher(final CidrIpMatcher matcher) {
+        this.matcher = matcher;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "matcher", matcher);
+    }
+}
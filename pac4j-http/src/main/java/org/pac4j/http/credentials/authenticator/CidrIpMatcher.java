@@ -0,0 +1,344 @@
+package org.pac4j.http.credentials.authenticator;
+
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.InitializableObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Match IP addresses (IPv4 and IPv6) against allowed and denied networks in the CIDR notation (like <code>10.0.0.0/8</code>
+ * or <code>2001:db8::/32</code>, a single address being a <code>/32</code> or <code>/128</code> network).
+ * An address matches if it belongs to an allowed network and to no denied network.
+ *
+ * The networks are indexed in binary prefix tries: a lookup costs at most 32 (IPv4) or 128 (IPv6) steps, whatever
+ * the number of networks.
+ *
+ * The networks can also be read from a file (one network per line, a denied network starting with <code>!</code>,
+ * the lines starting with <code>#</code> are ignored), which is reloaded in the background when it is modified.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public class CidrIpMatcher extends InitializableObject {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CidrIpMatcher.class);
+
+    private volatile Rules rules;
+
+    private volatile long lastModified = -1;
+
+    private ScheduledExecutorService scheduler;
+
+    private List<String> allowed = new ArrayList<>();
+
+    private List<String> denied = new ArrayList<>();
+
+    private String location;
+
+    private int refreshInterval = 60;
+
+    public CidrIpMatcher() {}
+
+    public CidrIpMatcher(final String... allowed) {
+        setAllowed(Arrays.asList(allowed));
+    }
+
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        if (this.location == null) {
+            this.rules = new Rules(allowed, denied);
+        } else {
+            load();
+            if (this.refreshInterval > 0 && this.scheduler == null) {
+                this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    final var thread = new Thread(runnable, "pac4j-cidr-refresher");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                this.scheduler.scheduleWithFixedDelay(this::refresh, refreshInterval, refreshInterval, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    /**
+     * Whether the IP address belongs to an allowed network and to no denied network.
+     *
+     * @param ip the IP address (a literal, no host name is resolved)
+     * @return whether the IP address matches
+     */
+    public boolean matches(final String ip) {
+        init();
+
+        final var address = parseAddress(ip);
+        return address != null && rules.matches(address);
+    }
+
+    /**
+     * Reload the networks from the file (if modified), keeping the current ones in case of failure.
+     */
+    public void refresh() {
+        try {
+            load();
+        } catch (final RuntimeException e) {
+            LOGGER.error("Unable to reload the networks from: {}, keeping the current ones", location, e);
+        }
+    }
+
+    protected void load() {
+        final var path = Path.of(location);
+        try {
+            final var modified = Files.getLastModifiedTime(path).toMillis();
+            if (modified == this.lastModified) {
+                return;
+            }
+            final List<String> fileAllowed = new ArrayList<>(allowed);
+            final List<String> fileDenied = new ArrayList<>(denied);
+            for (final var line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                final var trimmedLine = line.trim();
+                if (trimmedLine.isEmpty() || trimmedLine.startsWith("#")) {
+                    continue;
+                }
+                if (trimmedLine.startsWith("!")) {
+                    fileDenied.add(trimmedLine.substring(1).trim());
+                } else {
+                    fileAllowed.add(trimmedLine);
+                }
+            }
+            this.rules = new Rules(fileAllowed, fileDenied);
+            this.lastModified = modified;
+            LOGGER.debug("Loaded {} allowed and {} denied networks from: {}", fileAllowed.size(), fileDenied.size(), location);
+        } catch (final IOException e) {
+            throw new TechnicalException("Unable to load the networks from: " + location, e);
+        }
+    }
+
+    /**
+     * Parse an IP literal (IPv4-mapped IPv6 addresses are returned as IPv4 addresses).
+     *
+     * @param ip the IP literal
+     * @return the address bytes or <code>null</code> if it is not an IP literal
+     */
+    protected static byte[] parseAddress(final String ip) {
+        if (ip == null || ip.isEmpty()) {
+            return null;
+        }
+        if (ip.indexOf(':') < 0) {
+            return parseIpv4(ip);
+        }
+        final var first = ip.charAt(0);
+        if (first != ':' && first != '[' && Character.digit(first, 16) < 0) {
+            return null;
+        }
+        try {
+            // starting with a hexadecimal digit, a colon or a bracket, the string is parsed as an IPv6 literal: no name resolution
+            return InetAddress.getByName(ip).getAddress();
+        } catch (final UnknownHostException e) {
+            return null;
+        }
+    }
+
+    private static byte[] parseIpv4(final String ip) {
+        final var bytes = new byte[4];
+        var part = 0;
+        var value = -1;
+        for (var i = 0; i < ip.length(); i++) {
+            final var c = ip.charAt(i);
+            if (c == '.') {
+                if (value < 0 || part == 3) {
+                    return null;
+                }
+                bytes[part++] = (byte) value;
+                value = -1;
+            } else if (c >= '0' && c <= '9') {
+                value = (value < 0 ? 0 : value * 10) + (c - '0');
+                if (value > 255) {
+                    return null;
+                }
+            } else {
+                return null;
+            }
+        }
+        if (value < 0 || part != 3) {
+            return null;
+        }
+        bytes[3] = (byte) value;
+        return bytes;
+    }
+
+    /**
+     * Stop the background refresh.
+     */
+    public void destroy() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+            this.scheduler = null;
+        }
+    }
+
+    public List<String> getAllowed() {
+        return Collections.unmodifiableList(allowed);
+    }
+
+    public void setAllowed(final Collection<String> allowed) {
+        CommonHelper.assertNotNull("allowed", allowed);
+        this.allowed = new ArrayList<>(allowed);
+    }
+
+    public List<String> getDenied() {
+        return Collections.unmodifiableList(denied);
+    }
+
+    public void setDenied(final Collection<String> denied) {
+        CommonHelper.assertNotNull("denied", denied);
+        this.denied = new ArrayList<>(denied);
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * Define the file of networks, read in addition to the allowed and denied networks.
+     *
+     * @param location the path of the file
+     */
+    public void setLocation(final String location) {
+        this.location = location;
+    }
+
+    public int getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    /**
+     * Define how often the file is checked for modifications (a negative or zero value disables the background refresh).
+     *
+     * @param refreshInterval the refresh interval (in seconds)
+     */
+    public void setRefreshInterval(final int refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "allowed", allowed.size(), "denied", denied.size(), "location", location,
+            "refreshInterval", refreshInterval);
+    }
+
+    /**
+     * The allowed and denied networks, by IP version.
+     */
+    private static final class Rules {
+
+        private final PrefixTrie allowedV4 = new PrefixTrie();
+
+        private final PrefixTrie allowedV6 = new PrefixTrie();
+
+        private final PrefixTrie deniedV4 = new PrefixTrie();
+
+        private final PrefixTrie deniedV6 = new PrefixTrie();
+
+        private Rules(final Collection<String> allowed, final Collection<String> denied) {
+            for (final var network : allowed) {
+                add(network, allowedV4, allowedV6);
+            }
+            for (final var network : denied) {
+                add(network, deniedV4, deniedV6);
+            }
+        }
+
+        private static void add(final String network, final PrefixTrie v4, final PrefixTrie v6) {
+            final var slash = network.indexOf('/');
+            final var address = parseAddress(slash < 0 ? network.trim() : network.substring(0, slash).trim());
+            if (address == null) {
+                throw new TechnicalException("Invalid network: " + network);
+            }
+            final var maxLength = address.length * 8;
+            final int length;
+            try {
+                length = slash < 0 ? maxLength : Integer.parseInt(network.substring(slash + 1).trim());
+            } catch (final NumberFormatException e) {
+                throw new TechnicalException("Invalid network: " + network);
+            }
+            if (length < 0 || length > maxLength) {
+                throw new TechnicalException("Invalid prefix length in network: " + network);
+            }
+            (address.length == 4 ? v4 : v6).add(address, length);
+        }
+
+        private boolean matches(final byte[] address) {
+            if (address.length == 4) {
+                return allowedV4.contains(address) && !deniedV4.contains(address);
+            }
+            return allowedV6.contains(address) && !deniedV6.contains(address);
+        }
+    }
+
+    /**
+     * A binary prefix trie stored in arrays: the children of the node <code>n</code> are at the indexes <code>2n</code>
+     * (bit 0) and <code>2n + 1</code> (bit 1), a zero index meaning no child (the root is the node 0).
+     */
+    private static final class PrefixTrie {
+
+        private int[] children = new int[64];
+
+        private final BitSet terminals = new BitSet();
+
+        private int size = 1;
+
+        private void add(final byte[] address, final int length) {
+            var node = 0;
+            for (var i = 0; i < length; i++) {
+                if (terminals.get(node)) {
+                    // a shorter prefix already includes this network
+                    return;
+                }
+                final var index = 2 * node + bit(address, i);
+                if (children[index] == 0) {
+                    if (2 * size + 2 > children.length) {
+                        children = Arrays.copyOf(children, children.length * 2);
+                    }
+                    children[index] = size++;
+                }
+                node = children[index];
+            }
+            terminals.set(node);
+        }
+
+        private boolean contains(final byte[] address) {
+            var node = 0;
+            final var length = address.length * 8;
+            for (var i = 0; i < length; i++) {
+                if (terminals.get(node)) {
+                    return true;
+                }
+                node = children[2 * node + bit(address, i)];
+                if (node == 0) {
+                    return false;
+                }
+            }
+            return terminals.get(node);
+        }
+
+        private static int bit(final byte[] address, final int i) {
+            return (address[i >> 3] >> (7 - (i & 7))) & 1;
+        }
+    }
+}
@@ -5,18 +5,34 @@ import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.credentials.Credentials;
 import org.pac4j.core.credentials.authenticator.Authenticator;
 import org.pac4j.core.exception.CredentialsException;
+import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.profile.definition.CommonProfileDefinition;
+import org.pac4j.core.store.Store;
+import org.pac4j.core.util.CommonHelper;
 import org.pac4j.http.credentials.X509Credentials;
 import org.pac4j.http.profile.X509Profile;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.util.Base64;
+
 /**
  * Authenticates {@link X509Credentials}. Like the SubjectDnX509PrincipalExtractor in Spring Security.
  *
+ * The profiles can be cached by SHA-256 fingerprint of the certificate (with a bounded store, like the
+ * {@link org.pac4j.core.store.GuavaStore}) and the revoked certificates rejected with a {@link X509CrlChecker}.
+ *
  * @author Jerome Leleu
  * @since 3.3.0
  */
 public class X509Authenticator extends AbstractRegexpAuthenticator implements Authenticator {
 
+    private Store<String, X509Profile> profileCache;
+
+    private X509CrlChecker crlChecker;
+
     public X509Authenticator() {
         setRegexpPattern("CN=(.*?)(?:,|$)");
     }
@@ -38,6 +54,25 @@ public class X509Authenticator extends AbstractRegexpAuthenticator implements Au
         if (certificate == null) {
             throw new CredentialsException("No X509 certificate");
         }
+        if (crlChecker != null && crlChecker.isStale()) {
+            throw new CredentialsException("Stale CRLs, cannot check the X509 certificate: " + certificate.getSerialNumber());
+        }
+        if (crlChecker != null && crlChecker.isRevoked(certificate)) {
+            throw new CredentialsException("Revoked X509 certificate: " + certificate.getSerialNumber());
+        }
+
+        final var fingerprint = profileCache != null ? computeFingerprint(certificate) : null;
+        if (fingerprint != null) {
+            final var cachedProfile = profileCache.get(fingerprint);
+            if (cachedProfile.isPresent()) {
+                // the cached profile is not shared
+                final var profile = (X509Profile) getProfileDefinition().newProfile();
+                profile.build(cachedProfile.get().getId(), cachedProfile.get().getAttributes());
+                logger.debug("cached profile: {}", profile);
+                credentials.setUserProfile(profile);
+                return;
+            }
+        }
 
         final var principal = certificate.getSubjectDN();
         if (principal == null) {
@@ -66,6 +101,42 @@ public class X509Authenticator extends AbstractRegexpAuthenticator implements Au
         profile.setId(id);
         logger.debug("profile: {}", profile);
 
+        if (fingerprint != null) {
+            final var cachedProfile = (X509Profile) getProfileDefinition().newProfile();
+            cachedProfile.build(profile.getId(), profile.getAttributes());
+            profileCache.set(fingerprint, cachedProfile);
+        }
         credentials.setUserProfile(profile);
     }
+
+    protected String computeFingerprint(final X509Certificate certificate) {
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256").digest(certificate.getEncoded());
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (final NoSuchAlgorithmException | CertificateEncodingException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    public Store<String, X509Profile> getProfileCache() {
+        return profileCache;
+    }
+
+    public void setProfileCache(final Store<String, X509Profile> profileCache) {
+        this.profileCache = profileCache;
+    }
+
+    public X509CrlChecker getCrlChecker() {
+        return crlChecker;
+    }
+
+    public void setCrlChecker(final X509CrlChecker crlChecker) {
+        this.crlChecker = crlChecker;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "regexpPattern", this.regexpPattern, "profileCache", profileCache,
+            "crlChecker", crlChecker);
+    }
 }
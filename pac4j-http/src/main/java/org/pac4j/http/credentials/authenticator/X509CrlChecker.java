@@ -0,0 +1,281 @@
+package org.pac4j.http.credentials.authenticator;
+
+import org.pac4j.core.context.HttpConstants;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.InitializableObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.security.auth.x500.X500Principal;
+
+/**
+ * Check whether the X509 certificates are revoked, according to certificate revocation lists (CRLs) read from a file or
+ * a URL (<code>http(s):</code>, <code>file:</code>...).
+ *
+ * The revoked certificates are indexed once (by issuer and serial number) and the CRLs are reloaded in the background
+ * (every <code>refreshInterval</code> seconds, only if modified for a file): a check is a hash lookup.
+ *
+ * The signature of each CRL is verified against the configured certificate of its issuer (<code>issuerCertificates</code>).
+ * Once the next update of a CRL has passed (and no newer CRL could be loaded), the CRLs are stale and all the certificates
+ * are considered as revoked.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public class X509CrlChecker extends InitializableObject {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(X509CrlChecker.class);
+
+    private volatile Set<String> revokedCertificates = Collections.emptySet();
+
+    private volatile long nextUpdate = Long.MAX_VALUE;
+
+    private volatile long lastModified = -1;
+
+    private ScheduledExecutorService scheduler;
+
+    private String location;
+
+    private List<X509Certificate> issuerCertificates = new ArrayList<>();
+
+    private int refreshInterval = 3600;
+
+    private int connectTimeout = HttpConstants.DEFAULT_CONNECT_TIMEOUT;
+
+    private int readTimeout = HttpConstants.DEFAULT_READ_TIMEOUT;
+
+    public X509CrlChecker() {}
+
+    public X509CrlChecker(final String location, final X509Certificate... issuerCertificates) {
+        this.location = location;
+        this.issuerCertificates = new ArrayList<>(Arrays.asList(issuerCertificates));
+    }
+
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        CommonHelper.assertNotBlank("location", location);
+        CommonHelper.assertTrue(issuerCertificates != null && !issuerCertificates.isEmpty(), "issuerCertificates cannot be empty");
+
+        load();
+        if (this.refreshInterval > 0 && this.scheduler == null) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final var thread = new Thread(runnable, "pac4j-crl-refresher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.scheduler.scheduleWithFixedDelay(this::refresh, refreshInterval, refreshInterval, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Whether the certificate is revoked.
+     *
+     * @param certificate the certificate
+     * @return whether the certificate is revoked
+     */
+    public boolean isRevoked(final X509Certificate certificate) {
+        init();
+
+        if (isStale()) {
+            LOGGER.error("Stale CRLs from: {} (next update: {}), the certificate: {} is considered as revoked", location, nextUpdate,
+                certificate.getSerialNumber());
+            return true;
+        }
+        return revokedCertificates.contains(computeKey(certificate.getIssuerX500Principal(), certificate.getSerialNumber()));
+    }
+
+    /**
+     * Whether the next update of a CRL has passed.
+     *
+     * @return whether the CRLs are stale
+     */
+    public boolean isStale() {
+        init();
+
+        return System.currentTimeMillis() >= nextUpdate;
+    }
+
+    /**
+     * Reload the CRLs, keeping the current ones in case of failure.
+     */
+    public void refresh() {
+        try {
+            load();
+        } catch (final RuntimeException e) {
+            LOGGER.error("Unable to reload the CRLs from: {}, keeping the current ones", location, e);
+        }
+    }
+
+    protected void load() {
+        final var path = isUrl(location) ? null : Path.of(location);
+        try {
+            if (path != null) {
+                final var modified = Files.getLastModifiedTime(path).toMillis();
+                if (modified == this.lastModified) {
+                    LOGGER.debug("CRLs not modified: {}", location);
+                    return;
+                }
+                try (var in = Files.newInputStream(path)) {
+                    index(in);
+                }
+                this.lastModified = modified;
+            } else {
+                final var connection = new URL(location).openConnection();
+                connection.setConnectTimeout(connectTimeout);
+                connection.setReadTimeout(readTimeout);
+                try (var in = connection.getInputStream()) {
+                    index(in);
+                }
+            }
+            LOGGER.debug("Loaded {} revoked certificates from: {}", revokedCertificates.size(), location);
+        } catch (final IOException | GeneralSecurityException e) {
+            throw new TechnicalException("Unable to load the CRLs from: " + location, e);
+        }
+    }
+
+    protected void index(final InputStream in) throws GeneralSecurityException {
+        final Set<String> revoked = new HashSet<>();
+        var earliestNextUpdate = Long.MAX_VALUE;
+        for (final var crl : CertificateFactory.getInstance("X.509").generateCRLs(in)) {
+            final var x509Crl = (X509CRL) crl;
+            verify(x509Crl);
+            if (x509Crl.getNextUpdate() != null) {
+                earliestNextUpdate = Math.min(earliestNextUpdate, x509Crl.getNextUpdate().getTime());
+            }
+            final var entries = x509Crl.getRevokedCertificates();
+            if (entries != null) {
+                for (final var entry : entries) {
+                    final var issuer = entry.getCertificateIssuer() != null ? entry.getCertificateIssuer()
+                        : x509Crl.getIssuerX500Principal();
+                    revoked.add(computeKey(issuer, entry.getSerialNumber()));
+                }
+            }
+        }
+        this.revokedCertificates = Collections.unmodifiableSet(revoked);
+        this.nextUpdate = earliestNextUpdate;
+    }
+
+    /**
+     * Verify the signature of the CRL with the certificate of its issuer.
+     *
+     * @param crl the CRL
+     * @throws GeneralSecurityException if the CRL cannot be verified
+     */
+    protected void verify(final X509CRL crl) throws GeneralSecurityException {
+        final var issuer = crl.getIssuerX500Principal();
+        for (final var issuerCertificate : issuerCertificates) {
+            if (issuerCertificate.getSubjectX500Principal().equals(issuer)) {
+                crl.verify(issuerCertificate.getPublicKey());
+                return;
+            }
+        }
+        throw new TechnicalException("No issuer certificate to verify the CRL of: " + issuer);
+    }
+
+    private static String computeKey(final X500Principal issuer, final BigInteger serialNumber) {
+        return issuer.getName(X500Principal.CANONICAL) + "#" + serialNumber.toString(16);
+    }
+
+    private static boolean isUrl(final String location) {
+        final var colon = location.indexOf(':');
+        // at least two characters before the colon: not a Windows drive
+        return colon > 1 && location.substring(0, colon).chars().allMatch(Character::isLetter);
+    }
+
+    /**
+     * Stop the background refresh.
+     */
+    public void destroy() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+            this.scheduler = null;
+        }
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(final String location) {
+        this.location = location;
+    }
+
+    public List<X509Certificate> getIssuerCertificates() {
+        return issuerCertificates;
+    }
+
+    /**
+     * Define the certificates of the CRL issuers, to verify the signatures of the CRLs.
+     *
+     * @param issuerCertificates the certificates of the CRL issuers
+     */
+    public void setIssuerCertificates(final List<X509Certificate> issuerCertificates) {
+        this.issuerCertificates = issuerCertificates;
+    }
+
+    public int getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    /**
+     * Define how often the CRLs are reloaded (a negative or zero value disables the background refresh).
+     *
+     * @param refreshInterval the refresh interval (in seconds)
+     */
+    public void setRefreshInterval(final int refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * Define the connect timeout when the CRLs are read from a URL.
+     *
+     * @param connectTimeout the connect timeout (in milliseconds)
+     */
+    public void setConnectTimeout(final int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    /**
+     * Define the read timeout when the CRLs are read from a URL.
+     *
+     * @param readTimeout the read timeout (in milliseconds)
+     */
+    public void setReadTimeout(final int readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "location", location, "issuerCertificates", issuerCertificates,
+            "refreshInterval", refreshInterval, "connectTimeout", connectTimeout, "readTimeout", readTimeout);
+    }
+}
@@ -7,6 +7,7 @@ import org.pac4j.core.credentials.TokenCredentials;
 import org.pac4j.core.credentials.extractor.CredentialsExtractor;
 import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.Pac4jConstants;
+import org.pac4j.http.credentials.authenticator.CidrIpMatcher;
 
 import java.util.Arrays;
 import java.util.Collections;
@@ -19,6 +20,9 @@ import java.util.Optional;
  * The first match will be returned as specified for {@code enhanced for} iteration over arrays.
  * By default, if no proxy ip is setted ({@link #setProxyIp(String)}), only request from proxy IP will be accepted.
  *
+ * With trusted proxies ({@link #setTrustedProxies(CidrIpMatcher)}), the <code>X-Forwarded-For</code> chain is read from
+ * right to left, starting from the remote address: the IP is the first address which is not a trusted proxy.
+ *
  * @author Jerome Leleu
  * @author Guilherme I F L Weizenmann
  * @since 1.8.0
@@ -29,6 +33,10 @@ public class IpExtractor implements CredentialsExtractor {
 
     private String proxyIp = Pac4jConstants.EMPTY_STRING;
 
+    private CidrIpMatcher trustedProxies;
+
+    private String forwardedForHeader = "X-Forwarded-For";
+
     public IpExtractor() {}
 
     public IpExtractor(String... alternateIpHeaders) {
@@ -38,7 +46,9 @@ public class IpExtractor implements CredentialsExtractor {
     @Override
     public Optional<Credentials> extract(WebContext context, final SessionStore sessionStore) {
         final Optional<String> ip;
-        if (alternateIpHeaders.isEmpty()) {
+        if (trustedProxies != null) {
+            ip = ipFromForwardedChain(context);
+        } else if (alternateIpHeaders.isEmpty()) {
             ip = Optional.ofNullable(context.getRemoteAddr());
         } else {
             var requestSourceIp = context.getRemoteAddr();
@@ -60,6 +70,27 @@ public class IpExtractor implements CredentialsExtractor {
         return Optional.of(new TokenCredentials(ip.get()));
     }
 
+    private Optional<String> ipFromForwardedChain(final WebContext context) {
+        var ip = context.getRemoteAddr();
+        if (ip == null || !trustedProxies.matches(ip)) {
+            return Optional.ofNullable(ip);
+        }
+        final var chain = context.getRequestHeader(forwardedForHeader);
+        if (chain.isPresent()) {
+            final var hops = chain.get().split(",");
+            for (var i = hops.length - 1; i >= 0; i--) {
+                final var hop = hops[i].trim();
+                if (!hop.isEmpty()) {
+                    ip = hop;
+                    if (!trustedProxies.matches(hop)) {
+                        break;
+                    }
+                }
+            }
+        }
+        return Optional.of(ip);
+    }
+
     private Optional<String> ipFromHeaders(WebContext context) {
         Optional<String> ip;
         for (var header : alternateIpHeaders) {
@@ -106,8 +137,34 @@ public class IpExtractor implements CredentialsExtractor {
         this.alternateIpHeaders = Arrays.asList(alternateIpHeaders);
     }
 
+    public CidrIpMatcher getTrustedProxies() {
+        return trustedProxies;
+    }
+
+    /**
+     * @param trustedProxies Set the networks of the trusted proxies to read the IP from the forwarded chain.
+     * @since 5.5.0
+     */
+    public void setTrustedProxies(final CidrIpMatcher trustedProxies) {
+        this.trustedProxies = trustedProxies;
+    }
+
+    public String getForwardedForHeader() {
+        return forwardedForHeader;
+    }
+
+    /**
+     * @param forwardedForHeader Set the header of the forwarded chain ({@code X-Forwarded-For} by default).
+     * @since 5.5.0
+     */
+    public void setForwardedForHeader(final String forwardedForHeader) {
+        CommonHelper.assertNotBlank("forwardedForHeader", forwardedForHeader);
+        this.forwardedForHeader = forwardedForHeader;
+    }
+
     @Override
     public String toString() {
-        return CommonHelper.toNiceString(this.getClass(), "alternateIpHeaders", Arrays.asList(this.alternateIpHeaders));
+        return CommonHelper.toNiceString(this.getClass(), "alternateIpHeaders", Arrays.asList(this.alternateIpHeaders),
+            "trustedProxies", trustedProxies, "forwardedForHeader", forwardedForHeader);
     }
 }
@@ -3,16 +3,32 @@ package org.pac4j.http.client.direct;
 import org.junit.Test;
 import org.pac4j.core.context.MockWebContext;
 import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.exception.CredentialsException;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.profile.UserProfile;
+import org.pac4j.core.store.GuavaStore;
 import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
 import org.pac4j.http.credentials.X509Credentials;
+import org.pac4j.http.credentials.authenticator.X509Authenticator;
+import org.pac4j.http.credentials.authenticator.X509CrlChecker;
 import org.pac4j.http.credentials.extractor.X509CredentialsExtractor;
 import org.pac4j.http.profile.X509Profile;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
 import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 
@@ -44,8 +60,90 @@ public final class X509ClientTests implements TestsConstants {
         "RLrT3lejJyf1GVhZvxOcXPglcXdQyX1vGxf15mRW91LbyghsGUF3REAmE6K1hWCe" +
         "YT/h4KtrPV/aOyx+fVMum0AuskOTaKF+QQ==";
 
+    private static final String CRL_ISSUER_CERTIFICATE =
+        "-----BEGIN CERTIFICATE-----\n" +
+        "MIICCjCCAbGgAwIBAgIJAJ5DJ20gdbV2MAoGCCqGSM49BAMCMGsxEDAOBgNVBAYT\n" +
+        "B1Vua25vd24xEDAOBgNVBAgTB1Vua25vd24xEDAOBgNVBAcTB1Vua25vd24xEDAO\n" +
+        "BgNVBAoTB1Vua25vd24xEDAOBgNVBAsTB1Vua25vd24xDzANBgNVBAMTBmplcm9t\n" +
+        "ZTAgFw0yNjEwMTkxNzE2NTFaGA8yMTI2MDkyNTE3MTY1MVowazEQMA4GA1UEBhMH\n" +
+        "VW5rbm93bjEQMA4GA1UECBMHVW5rbm93bjEQMA4GA1UEBxMHVW5rbm93bjEQMA4G\n" +
+        "A1UEChMHVW5rbm93bjEQMA4GA1UECxMHVW5rbm93bjEPMA0GA1UEAxMGamVyb21l\n" +
+        "MFkwEwYHKoZIzj0CAQYIKoZIzj0DAQcDQgAE3RDnlWJ7aFpT6ijUVpcdsTNnjlU9\n" +
+        "ZcNf3ZGH6Yu4DOU/b3O9DWw57qnJRgLSZN6j5KCES/EavquielLLPlh2f6M8MDow\n" +
+        "HQYDVR0OBBYEFHioiq4K7UeiI7QqiPU++ccjhkkVMAsGA1UdDwQEAwIBBjAMBgNV\n" +
+        "HRMEBTADAQH/MAoGCCqGSM49BAMCA0cAMEQCH3sZND6ZaAI3FwZiDBnqiE3wsBuS\n" +
+        "obrZ5R2s9sRn+VwCIQD7cE0N9YE87w+Ogjdf6F26hOgbHF3tEtRFWLtk9svMuQ==\n" +
+        "-----END CERTIFICATE-----\n";
+
+    private static final String REVOKED_CRL =
+        "-----BEGIN X509 CRL-----\n" +
+        "MIIBHjCBxgIBATAKBggqhkjOPQQDAjBrMRAwDgYDVQQGEwdVbmtub3duMRAwDgYD\n" +
+        "VQQIEwdVbmtub3duMRAwDgYDVQQHEwdVbmtub3duMRAwDgYDVQQKEwdVbmtub3du\n" +
+        "MRAwDgYDVQQLEwdVbmtub3duMQ8wDQYDVQQDEwZqZXJvbWUXDTI2MTAxOTE3MTY1\n" +
+        "MVoYDzIxMjYwOTI1MTcxNjUxWjAXMBUCBG2Jq3IXDTI2MTAxOTE2MTU1NFqgDzAN\n" +
+        "MAsGA1UdFAQEAgIQATAKBggqhkjOPQQDAgNHADBEAiB28cCfXOlv5hDhl6TfJTfo\n" +
+        "j4kY6AYDgxmSIGoQvZdu0wIgUciu7ld86ihfaXh5kF7J5ve+36EL4ZNY6DcDdpK2\n" +
+        "Yj0=\n" +
+        "-----END X509 CRL-----\n";
+
+    private static final String EMPTY_CRL =
+        "-----BEGIN X509 CRL-----\n" +
+        "MIIBBjCBrQIBATAKBggqhkjOPQQDAjBrMRAwDgYDVQQGEwdVbmtub3duMRAwDgYD\n" +
+        "VQQIEwdVbmtub3duMRAwDgYDVQQHEwdVbmtub3duMRAwDgYDVQQKEwdVbmtub3du\n" +
+        "MRAwDgYDVQQLEwdVbmtub3duMQ8wDQYDVQQDEwZqZXJvbWUXDTI2MTAxOTE3MTY1\n" +
+        "NFoYDzIxMjYwOTI1MTcxNjU0WqAPMA0wCwYDVR0UBAQCAhADMAoGCCqGSM49BAMC\n" +
+        "A0gAMEUCIQDt4FkoHYXZBmgnOif0R/Q/ZzSkFPgJxqjh9nekBj5nVAIgAw6dBt4y\n" +
+        "vytngrL255e/ZQdSU24/qHmakj3h8QSHOdI=\n" +
+        "-----END X509 CRL-----\n";
+
+    private static final String STALE_CRL =
+        "-----BEGIN X509 CRL-----\n" +
+        "MIIBHTCBxAIBATAKBggqhkjOPQQDAjBrMRAwDgYDVQQGEwdVbmtub3duMRAwDgYD\n" +
+        "VQQIEwdVbmtub3duMRAwDgYDVQQHEwdVbmtub3duMRAwDgYDVQQKEwdVbmtub3du\n" +
+        "MRAwDgYDVQQLEwdVbmtub3duMQ8wDQYDVQQDEwZqZXJvbWUXDTIwMDEwMTAwMDAw\n" +
+        "MFoXDTIwMDEwMjAwMDAwMFowFzAVAgRtiatyFw0yNjEwMTkxNjE1NTRaoA8wDTAL\n" +
+        "BgNVHRQEBAICEAIwCgYIKoZIzj0EAwIDSAAwRQIhALlKJF89wgui3kq29w3Inh+A\n" +
+        "VT7pf3lQgvW7VUtTxlsjAiAtvLshxCF4HUpgOfKhXfgScFZaQjOlio6avd1hqJfh\n" +
+        "1A==\n" +
+        "-----END X509 CRL-----\n";
+
+    // signed by another key
+    private static final String FORGED_CRL =
+        "-----BEGIN X509 CRL-----\n" +
+        "MIIB4DCByQIBATANBgkqhkiG9w0BAQsFADBrMRAwDgYDVQQGEwdVbmtub3duMRAw\n" +
+        "DgYDVQQIEwdVbmtub3duMRAwDgYDVQQHEwdVbmtub3duMRAwDgYDVQQKEwdVbmtu\n" +
+        "b3duMRAwDgYDVQQLEwdVbmtub3duMQ8wDQYDVQQDEwZqZXJvbWUXDTI2MTAxOTE2\n" +
+        "MTU1NFoYDzIxMjYwOTI1MTYxNTU0WjAXMBUCBG2Jq3IXDTI2MTAxOTE2MTU1NFqg\n" +
+        "DzANMAsGA1UdFAQEAgIQADANBgkqhkiG9w0BAQsFAAOCAQEApUaELm7KizW+Yi1Q\n" +
+        "p8YzTnOUXGy+FUoX/ystHlytRXYDoZgmbV9dS2vRXaT0Br2+OuK3nTM9DocXEHcx\n" +
+        "zjQlvq045x21oTyI/j23lX1lWvf3xLSj2CyVIkr5B0JASDqUXamiHKG4VPjjF6O2\n" +
+        "bsruLTlV+oQS3ISZAhsbGc6e4+zBFrROdPLX4XnVyhwpoIOZuiaGVvr0kWKGPY2Q\n" +
+        "jXOWxw9uFjmsSJix+cXtzDBoomnhuuKuBKcAiuKfh33qlyRHsrvOuofS/IpMyCBO\n" +
+        "BkeqHi+BmeKxpZ+1TaIc6sGTtFjxMmu1CYWwesBTqc+cZPn+Wl3AVMO7nogJU7WD\n" +
+        "hr9CZQ==\n" +
+        "-----END X509 CRL-----\n";
+
     private X509Client client = new X509Client();
 
+    private X509Certificate[] buildCertificates() throws CertificateException {
+        final var certificateData = Base64.getDecoder().decode(CERTIFICATE);
+        final var cert = (X509Certificate) CertificateFactory.getInstance("X.509")
+            .generateCertificate(new ByteArrayInputStream(certificateData));
+        return new X509Certificate[] {cert};
+    }
+
+    private static X509Certificate buildCrlIssuerCertificate() throws CertificateException {
+        return (X509Certificate) CertificateFactory.getInstance("X.509")
+            .generateCertificate(new ByteArrayInputStream(CRL_ISSUER_CERTIFICATE.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private Optional<UserProfile> authenticate(final X509Client x509Client) throws CertificateException {
+        final var context = MockWebContext.create();
+        context.setRequestAttribute(X509CredentialsExtractor.CERTIFICATE_REQUEST_ATTRIBUTE, buildCertificates());
+        return x509Client.getCredentials(context, new MockSessionStore())
+            .flatMap(credentials -> x509Client.getUserProfile(credentials, context, new MockSessionStore()));
+    }
+
     @Test
     public void testOk() throws CertificateException {
         final var context = MockWebContext.create();
@@ -59,4 +157,91 @@ public final class X509ClientTests implements TestsConstants {
         final var profile = (X509Profile) client.getUserProfile(credentials, context, new MockSessionStore()).get();
         assertEquals("jerome", profile.getId());
     }
+
+    @Test
+    public void testCachedProfile() throws CertificateException, NoSuchAlgorithmException {
+        final var authenticator = new X509Authenticator();
+        final var cache = new GuavaStore<String, X509Profile>(100, 1, TimeUnit.HOURS);
+        authenticator.setProfileCache(cache);
+        final var x509Client = new X509Client();
+        x509Client.setAuthenticator(authenticator);
+
+        final var profile = (X509Profile) authenticate(x509Client).get();
+        assertEquals("jerome", profile.getId());
+        final var fingerprint = Base64.getEncoder().encodeToString(
+            MessageDigest.getInstance("SHA-256").digest(buildCertificates()[0].getEncoded()));
+        assertEquals("jerome", cache.get(fingerprint).get().getId());
+
+        final var profile2 = (X509Profile) authenticate(x509Client).get();
+        assertEquals("jerome", profile2.getId());
+        assertNotSame(profile, profile2);
+        assertNotSame(cache.get(fingerprint).get(), profile2);
+    }
+
+    @Test
+    public void testRevokedCertificate() throws IOException, CertificateException {
+        final var crlFile = Path.of("target", "x509-test.crl");
+        Files.writeString(crlFile, REVOKED_CRL);
+        final var crlChecker = new X509CrlChecker(crlFile.toString(), buildCrlIssuerCertificate());
+        crlChecker.setRefreshInterval(0);
+        final var authenticator = new X509Authenticator();
+        authenticator.setCrlChecker(crlChecker);
+        final var x509Client = new X509Client();
+        x509Client.setAuthenticator(authenticator);
+
+        assertFalse(authenticate(x509Client).isPresent());
+        final var credentials = new X509Credentials(buildCertificates()[0]);
+        TestsHelper.expectException(() -> authenticator.validate(credentials, null, null), CredentialsException.class,
+            "Revoked X509 certificate: " + buildCertificates()[0].getSerialNumber());
+
+        Files.writeString(crlFile, EMPTY_CRL);
+        Files.setLastModifiedTime(crlFile, FileTime.fromMillis(System.currentTimeMillis() + 1000));
+        crlChecker.refresh();
+        assertEquals("jerome", authenticate(x509Client).get().getId());
+        crlChecker.destroy();
+    }
+
+    @Test
+    public void testCrlFromUrl() throws IOException, CertificateException {
+        final var crlFile = Path.of("target", "x509-test-url.crl");
+        Files.writeString(crlFile, REVOKED_CRL);
+        final var crlChecker = new X509CrlChecker(crlFile.toUri().toString(), buildCrlIssuerCertificate());
+        crlChecker.setConnectTimeout(1000);
+        crlChecker.setReadTimeout(1000);
+        assertTrue(crlChecker.isRevoked(buildCertificates()[0]));
+        crlChecker.destroy();
+    }
+
+    @Test
+    public void testForgedCrl() throws IOException, CertificateException {
+        final var crlFile = Path.of("target", "x509-test-forged.crl");
+        Files.writeString(crlFile, FORGED_CRL);
+        final var crlChecker = new X509CrlChecker(crlFile.toString(), buildCrlIssuerCertificate());
+        crlChecker.setRefreshInterval(0);
+        TestsHelper.expectException(crlChecker::init, TechnicalException.class, "Unable to load the CRLs from: " + crlFile);
+
+        TestsHelper.expectException(() -> new X509CrlChecker(crlFile.toString()).init(), TechnicalException.class,
+            "issuerCertificates cannot be empty");
+    }
+
+    @Test
+    public void testStaleCrl() throws IOException, CertificateException {
+        final var crlFile = Path.of("target", "x509-test-stale.crl");
+        Files.writeString(crlFile, EMPTY_CRL);
+        final var crlChecker = new X509CrlChecker(crlFile.toString(), buildCrlIssuerCertificate());
+        crlChecker.setRefreshInterval(0);
+        final var authenticator = new X509Authenticator();
+        authenticator.setCrlChecker(crlChecker);
+        assertFalse(crlChecker.isStale());
+
+        Files.writeString(crlFile, STALE_CRL);
+        Files.setLastModifiedTime(crlFile, FileTime.fromMillis(System.currentTimeMillis() + 1000));
+        crlChecker.refresh();
+        assertTrue(crlChecker.isStale());
+        // fail closed
+        assertTrue(crlChecker.isRevoked(buildCertificates()[0]));
+        final var credentials = new X509Credentials(buildCertificates()[0]);
+        TestsHelper.expectException(() -> authenticator.validate(credentials, null, null), CredentialsException.class,
+            "Stale CRLs, cannot check the X509 certificate: " + buildCertificates()[0].getSerialNumber());
+    }
 }
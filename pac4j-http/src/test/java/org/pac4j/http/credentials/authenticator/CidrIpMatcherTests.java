@@ -0,0 +1,109 @@
+package org.pac4j.http.credentials.authenticator;
+
+import org.junit.Test;
+import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.credentials.TokenCredentials;
+import org.pac4j.core.exception.CredentialsException;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+import org.pac4j.http.profile.IpProfile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * This class tests the {@link CidrIpMatcher} and the {@link CidrIpAuthenticator}.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+@SuppressWarnings("PMD")
+public final class CidrIpMatcherTests implements TestsConstants {
+
+    @Test
+    public void testIpv4() {
+        final var matcher = new CidrIpMatcher("10.0.0.0/8", "192.168.1.1", "172.16.0.0/12");
+        assertTrue(matcher.matches("10.1.2.3"));
+        assertTrue(matcher.matches("192.168.1.1"));
+        assertFalse(matcher.matches("192.168.1.2"));
+        assertTrue(matcher.matches("172.31.255.255"));
+        assertFalse(matcher.matches("172.32.0.0"));
+        assertFalse(matcher.matches("11.0.0.1"));
+    }
+
+    @Test
+    public void testIpv6AndMappedIpv4() {
+        final var matcher = new CidrIpMatcher("2001:db8::/32", "::1", "10.0.0.0/8");
+        assertTrue(matcher.matches("2001:db8:1234::1"));
+        assertTrue(matcher.matches("[2001:db8::2]"));
+        assertFalse(matcher.matches("2001:db9::1"));
+        assertTrue(matcher.matches("0:0:0:0:0:0:0:1"));
+        assertTrue(matcher.matches("::ffff:10.0.0.1"));
+    }
+
+    @Test
+    public void testDenied() {
+        final var matcher = new CidrIpMatcher("0.0.0.0/0", "::/0");
+        matcher.setDenied(Arrays.asList("10.0.0.0/24", "2001:db8::/32"));
+        assertTrue(matcher.matches("10.0.1.1"));
+        assertFalse(matcher.matches("10.0.0.1"));
+        assertFalse(matcher.matches("2001:db8::1"));
+        assertTrue(matcher.matches("2001:db9::1"));
+    }
+
+    @Test
+    public void testNotIpLiterals() {
+        final var matcher = new CidrIpMatcher("0.0.0.0/0", "::/0");
+        assertFalse(matcher.matches(null));
+        assertFalse(matcher.matches(""));
+        assertFalse(matcher.matches("localhost"));
+        assertFalse(matcher.matches("1.2.3"));
+        assertFalse(matcher.matches("1.2.3.256"));
+        assertFalse(matcher.matches("1..2.3"));
+        assertFalse(matcher.matches("host:8080"));
+        assertFalse(matcher.matches("1:2:3"));
+    }
+
+    @Test
+    public void testInvalidNetworks() {
+        TestsHelper.expectException(() -> new CidrIpMatcher("10.0.0.0/33").init(), TechnicalException.class,
+            "Invalid prefix length in network: 10.0.0.0/33");
+        TestsHelper.expectException(() -> new CidrIpMatcher("example.org/8").init(), TechnicalException.class,
+            "Invalid network: example.org/8");
+    }
+
+    @Test
+    public void testFile() throws IOException {
+        final var file = Path.of("target", "networks.txt");
+        Files.writeString(file, "# allowed\n10.0.0.0/8\n!10.0.0.0/16\n");
+        final var matcher = new CidrIpMatcher();
+        matcher.setLocation(file.toString());
+        matcher.setRefreshInterval(0);
+        assertTrue(matcher.matches("10.1.0.1"));
+        assertFalse(matcher.matches("10.0.0.1"));
+        assertFalse(matcher.matches("192.168.0.1"));
+
+        Files.writeString(file, "192.168.0.0/16\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 1000));
+        matcher.refresh();
+        assertFalse(matcher.matches("10.1.0.1"));
+        assertTrue(matcher.matches("192.168.0.1"));
+        matcher.destroy();
+    }
+
+    @Test
+    public void testAuthenticator() {
+        final var authenticator = new CidrIpAuthenticator("10.0.0.0/8");
+        final var credentials = new TokenCredentials("10.0.0.1");
+        authenticator.validate(credentials, null, new MockSessionStore());
+        assertEquals("10.0.0.1", ((IpProfile) credentials.getUserProfile()).getId());
+        TestsHelper.expectException(() -> authenticator.validate(new TokenCredentials("11.0.0.1"), null, new MockSessionStore()),
+            CredentialsException.class, "Unauthorized IP address: 11.0.0.1");
+    }
+}
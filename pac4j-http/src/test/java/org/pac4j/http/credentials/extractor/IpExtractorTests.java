@@ -6,6 +6,7 @@ import org.pac4j.core.context.session.MockSessionStore;
 import org.pac4j.core.credentials.TokenCredentials;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.TestsConstants;
+import org.pac4j.http.credentials.authenticator.CidrIpMatcher;
 
 import static org.junit.Assert.*;
 
@@ -64,6 +65,25 @@ public final class IpExtractorTests implements TestsConstants {
         ipExtractor.setAlternateIpHeaders((String[]) null);
     }
 
+    @Test
+    @SuppressWarnings("PMD")
+    public void testRetrieveIpFromForwardedChain() {
+        final var ipExtractor = new IpExtractor();
+        ipExtractor.setTrustedProxies(new CidrIpMatcher("10.0.0.0/8"));
+        final var context = MockWebContext.create().addRequestHeader("X-Forwarded-For", "6.6.6.6, 1.2.3.4, 10.0.0.2")
+            .setRemoteAddress("10.0.0.1");
+        assertEquals("1.2.3.4", ((TokenCredentials) ipExtractor.extract(context, new MockSessionStore()).get()).getToken());
+
+        // only trusted proxies
+        final var context2 = MockWebContext.create().addRequestHeader("X-Forwarded-For", "10.0.0.3,10.0.0.2")
+            .setRemoteAddress("10.0.0.1");
+        assertEquals("10.0.0.3", ((TokenCredentials) ipExtractor.extract(context2, new MockSessionStore()).get()).getToken());
+
+        // not from a trusted proxy: the header is ignored
+        final var context3 = MockWebContext.create().addRequestHeader("X-Forwarded-For", "1.2.3.4").setRemoteAddress("5.6.7.8");
+        assertEquals("5.6.7.8", ((TokenCredentials) ipExtractor.extract(context3, new MockSessionStore()).get()).getToken());
+    }
+
     @Test
     public void testNoIp() {
         final var context = MockWebContext.create();
@@ -13,10 +13,15 @@ import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.Pac4jConstants;
 import org.pac4j.jee.config.AbstractConfigFilter;
 import org.pac4j.saml.client.SAML2Client;
+import org.pac4j.saml.metadata.SAML2ServiceProviderMetadata;
+import org.pac4j.saml.metadata.SAML2ServiceProviderMetadataResolver;
 
 /**
  * This filter prints the SP metadata for SAML.
  *
+ * The cached metadata are served with the <code>ETag</code> and <code>Last-Modified</code> headers (a conditional request
+ * gets a 304 response) and gzipped if the client accepts it.
+ *
  * Example shiro.ini configuration:
  *
  * saml2MetadataFilter = org.pac4j.saml.metadata.Saml2MetadataFilter
@@ -55,8 +60,43 @@ public class Saml2MetadataFilter extends AbstractConfigFilter {
             throw new TechnicalException("No SAML2 client: " + this.clientName);
         }
         client.init();
-        response.getWriter().write(client.getServiceProviderMetadataResolver().getMetadata());
-        response.getWriter().flush();
+        final var metadataResolver = client.getServiceProviderMetadataResolver();
+        if (metadataResolver instanceof SAML2ServiceProviderMetadataResolver) {
+            writeMetadata(request, response, ((SAML2ServiceProviderMetadataResolver) metadataResolver).getCachedMetadata());
+        } else {
+            response.getWriter().write(metadataResolver.getMetadata());
+            response.getWriter().flush();
+        }
+    }
+
+    protected void writeMetadata(final HttpServletRequest request, final HttpServletResponse response,
+                                 final SAML2ServiceProviderMetadata metadata) throws IOException {
+        response.setHeader("ETag", metadata.getEtag());
+        response.setDateHeader("Last-Modified", metadata.getLastModified());
+        response.setHeader("Vary", "Accept-Encoding");
+
+        long ifModifiedSince;
+        try {
+            ifModifiedSince = request.getDateHeader("If-Modified-Since");
+        } catch (final IllegalArgumentException e) {
+            ifModifiedSince = -1;
+        }
+        if (metadata.isNotModified(request.getHeader("If-None-Match"), ifModifiedSince)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setCharacterEncoding("UTF-8");
+        final byte[] bytes;
+        if (SAML2ServiceProviderMetadata.acceptsGzip(request.getHeader("Accept-Encoding"))) {
+            response.setHeader("Content-Encoding", "gzip");
+            bytes = metadata.getGzippedBytes();
+        } else {
+            bytes = metadata.getBytes();
+        }
+        response.setContentLength(bytes.length);
+        response.getOutputStream().write(bytes);
+        response.getOutputStream().flush();
     }
 
     @Override
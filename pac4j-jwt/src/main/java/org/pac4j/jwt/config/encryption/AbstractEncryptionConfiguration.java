@@ -12,6 +12,8 @@ import java.text.ParseException;
 /**
  * Abstract encryption configuration.
  *
+ * The encrypter and the decrypter are built once and reused (they are thread-safe) until the keys, the algorithm or the method change.
+ *
  * @author Jerome Leleu
  * @since 1.9.2
  */
@@ -21,6 +23,10 @@ public abstract class AbstractEncryptionConfiguration extends InitializableObjec
 
     protected EncryptionMethod method;
 
+    private volatile JWEEncrypter encrypter;
+
+    private volatile JWEDecrypter decrypter;
+
     @Override
     public String encrypt(final JWT jwt) {
         init();
@@ -33,7 +39,7 @@ public abstract class AbstractEncryptionConfiguration extends InitializableObjec
 
             try {
                 // Perform encryption
-                jweObject.encrypt(buildEncrypter());
+                jweObject.encrypt(getEncrypter());
             } catch (final JOSEException e) {
                 throw new TechnicalException(e);
             }
@@ -49,7 +55,7 @@ public abstract class AbstractEncryptionConfiguration extends InitializableObjec
                 var encryptedJwt = new EncryptedJWT(header, jwt.getJWTClaimsSet());
 
                 // Perform encryption
-                encryptedJwt.encrypt(buildEncrypter());
+                encryptedJwt.encrypt(getEncrypter());
 
                 // serialize
                 return encryptedJwt.serialize();
@@ -59,27 +65,53 @@ public abstract class AbstractEncryptionConfiguration extends InitializableObjec
         }
     }
 
+    private JWEEncrypter getEncrypter() {
+        var currentEncrypter = this.encrypter;
+        if (currentEncrypter == null) {
+            currentEncrypter = buildEncrypter();
+            this.encrypter = currentEncrypter;
+        }
+        return currentEncrypter;
+    }
+
     /**
-     * Build the appropriate encrypter.
+     * Build the appropriate encrypter: it must be overridden unless the {@link #encrypt(JWT)} method is.
      *
      * @return the appropriate encrypter
      */
-    protected abstract JWEEncrypter buildEncrypter();
+    protected JWEEncrypter buildEncrypter() {
+        throw new TechnicalException(getClass().getName() + " must override either buildEncrypter() or encrypt(JWT)");
+    }
 
     @Override
     public void decrypt(final EncryptedJWT encryptedJWT) throws JOSEException {
         init();
 
         // decrypt
-        encryptedJWT.decrypt(buildDecrypter());
+        var currentDecrypter = this.decrypter;
+        if (currentDecrypter == null) {
+            currentDecrypter = buildDecrypter();
+            this.decrypter = currentDecrypter;
+        }
+        encryptedJWT.decrypt(currentDecrypter);
     }
 
     /**
-     * Build the appropriate decrypter.
+     * Build the appropriate decrypter: it must be overridden unless the {@link #decrypt(EncryptedJWT)} method is.
      *
      * @return the appropriate decrypter
      */
-    protected abstract JWEDecrypter buildDecrypter();
+    protected JWEDecrypter buildDecrypter() {
+        throw new TechnicalException(getClass().getName() + " must override either buildDecrypter() or decrypt(EncryptedJWT)");
+    }
+
+    /**
+     * Discard the encrypter and the decrypter (after a change of the keys).
+     */
+    protected void resetCrypto() {
+        this.encrypter = null;
+        this.decrypter = null;
+    }
 
     public JWEAlgorithm getAlgorithm() {
         return algorithm;
@@ -87,6 +119,7 @@ public abstract class AbstractEncryptionConfiguration extends InitializableObjec
 
     public void setAlgorithm(final JWEAlgorithm algorithm) {
         this.algorithm = algorithm;
+        resetCrypto();
     }
 
     public EncryptionMethod getMethod() {
@@ -95,5 +128,6 @@ public abstract class AbstractEncryptionConfiguration extends InitializableObjec
 
     public void setMethod(final EncryptionMethod method) {
         this.method = method;
+        resetCrypto();
     }
 }
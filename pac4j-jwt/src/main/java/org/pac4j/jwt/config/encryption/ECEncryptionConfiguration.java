@@ -84,6 +84,7 @@ public class ECEncryptionConfiguration extends AbstractEncryptionConfiguration {
         CommonHelper.assertNotNull("keyPair", keyPair);
         this.privateKey = (ECPrivateKey) keyPair.getPrivate();
         this.publicKey = (ECPublicKey) keyPair.getPublic();
+        resetCrypto();
     }
 
     public ECPublicKey getPublicKey() {
@@ -92,6 +93,7 @@ public class ECEncryptionConfiguration extends AbstractEncryptionConfiguration {
 
     public void setPublicKey(final ECPublicKey publicKey) {
         this.publicKey = publicKey;
+        resetCrypto();
     }
 
     public ECPrivateKey getPrivateKey() {
@@ -100,12 +102,14 @@ public class ECEncryptionConfiguration extends AbstractEncryptionConfiguration {
 
     public void setPrivateKey(final ECPrivateKey privateKey) {
         this.privateKey = privateKey;
+        resetCrypto();
     }
 
     public void setKeysFromJwk(final String json) {
         final var pair = JWKHelper.buildECKeyPairFromJwk(json);
         this.publicKey = (ECPublicKey) pair.getPublic();
         this.privateKey = (ECPrivateKey) pair.getPrivate();
+        resetCrypto();
     }
 
     @Override
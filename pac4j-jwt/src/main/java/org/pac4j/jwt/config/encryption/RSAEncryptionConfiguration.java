@@ -74,6 +74,7 @@ public class RSAEncryptionConfiguration extends AbstractEncryptionConfiguration
         CommonHelper.assertNotNull("keyPair", keyPair);
         this.privateKey = (RSAPrivateKey) keyPair.getPrivate();
         this.publicKey = (RSAPublicKey) keyPair.getPublic();
+        resetCrypto();
     }
 
     public RSAPublicKey getPublicKey() {
@@ -82,6 +83,7 @@ public class RSAEncryptionConfiguration extends AbstractEncryptionConfiguration
 
     public void setPublicKey(final RSAPublicKey publicKey) {
         this.publicKey = publicKey;
+        resetCrypto();
     }
 
     public RSAPrivateKey getPrivateKey() {
@@ -90,12 +92,14 @@ public class RSAEncryptionConfiguration extends AbstractEncryptionConfiguration
 
     public void setPrivateKey(final RSAPrivateKey privateKey) {
         this.privateKey = privateKey;
+        resetCrypto();
     }
 
     public void setKeysFromJwk(final String json) {
         final var pair = JWKHelper.buildRSAKeyPairFromJwk(json);
         this.publicKey = (RSAPublicKey) pair.getPublic();
         this.privateKey = (RSAPrivateKey) pair.getPrivate();
+        resetCrypto();
     }
 
     @Override
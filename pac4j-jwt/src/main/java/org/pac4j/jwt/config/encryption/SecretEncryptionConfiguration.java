@@ -102,6 +102,7 @@ public class SecretEncryptionConfiguration extends AbstractEncryptionConfigurati
 
     public void setSecret(final String secret) {
         this.secret = secret.getBytes(UTF_8);
+        resetCrypto();
     }
 
     public byte[] getSecretBytes() {
@@ -110,6 +111,7 @@ public class SecretEncryptionConfiguration extends AbstractEncryptionConfigurati
 
     public void setSecretBytes(final byte[] secretBytes) {
         this.secret = Arrays.copyOf(secretBytes,secretBytes.length);
+        resetCrypto();
     }
 
     public String getSecretBase64() {
@@ -118,6 +120,7 @@ public class SecretEncryptionConfiguration extends AbstractEncryptionConfigurati
 
     public void setSecretBase64(final String secret) {
         this.secret = new Base64(secret).decode();
+        resetCrypto();
     }
 
     @Override
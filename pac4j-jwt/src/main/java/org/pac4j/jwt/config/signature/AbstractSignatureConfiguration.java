@@ -1,11 +1,16 @@
 package org.pac4j.jwt.config.signature;
 
 import com.nimbusds.jose.*;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.InitializableObject;
 
 /**
  * Abstract signature configuration.
  *
+ * The signer and the verifier are built once and reused (they are thread-safe) until the keys or the algorithm change.
+ *
  * @author Jerome Leleu
  * @since 1.9.2
  */
@@ -13,11 +18,74 @@ public abstract class AbstractSignatureConfiguration extends InitializableObject
 
     protected JWSAlgorithm algorithm = JWSAlgorithm.HS256;
 
+    private volatile JWSSigner signer;
+
+    private volatile JWSVerifier verifier;
+
+    @Override
+    public SignedJWT sign(final JWTClaimsSet claims) {
+        init();
+
+        try {
+            var currentSigner = this.signer;
+            if (currentSigner == null) {
+                currentSigner = buildSigner();
+                this.signer = currentSigner;
+            }
+            final var signedJWT = new SignedJWT(new JWSHeader(algorithm), claims);
+            signedJWT.sign(currentSigner);
+            return signedJWT;
+        } catch (final JOSEException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    /**
+     * Build the appropriate signer: it must be overridden unless the {@link #sign(JWTClaimsSet)} method is.
+     *
+     * @return the appropriate signer
+     * @throws JOSEException exception when building the signer
+     */
+    protected JWSSigner buildSigner() throws JOSEException {
+        throw new TechnicalException(getClass().getName() + " must override either buildSigner() or sign(JWTClaimsSet)");
+    }
+
+    @Override
+    public boolean verify(final SignedJWT jwt) throws JOSEException {
+        init();
+
+        var currentVerifier = this.verifier;
+        if (currentVerifier == null) {
+            currentVerifier = buildVerifier();
+            this.verifier = currentVerifier;
+        }
+        return jwt.verify(currentVerifier);
+    }
+
+    /**
+     * Build the appropriate verifier: it must be overridden unless the {@link #verify(SignedJWT)} method is.
+     *
+     * @return the appropriate verifier
+     * @throws JOSEException exception when building the verifier
+     */
+    protected JWSVerifier buildVerifier() throws JOSEException {
+        throw new TechnicalException(getClass().getName() + " must override either buildVerifier() or verify(SignedJWT)");
+    }
+
+    /**
+     * Discard the signer and the verifier (after a change of the keys).
+     */
+    protected void resetCrypto() {
+        this.signer = null;
+        this.verifier = null;
+    }
+
     public JWSAlgorithm getAlgorithm() {
         return algorithm;
     }
 
     public void setAlgorithm(final JWSAlgorithm algorithm) {
         this.algorithm = algorithm;
+        resetCrypto();
     }
 }
@@ -3,8 +3,6 @@ package org.pac4j.jwt.config.signature;
 import com.nimbusds.jose.*;
 import com.nimbusds.jose.crypto.ECDSASigner;
 import com.nimbusds.jose.crypto.ECDSAVerifier;
-import com.nimbusds.jwt.JWTClaimsSet;
-import com.nimbusds.jwt.SignedJWT;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.CommonHelper;
 import org.pac4j.jwt.util.JWKHelper;
@@ -55,33 +53,24 @@ public class ECSignatureConfiguration extends AbstractSignatureConfiguration {
     }
 
     @Override
-    public SignedJWT sign(JWTClaimsSet claims) {
-        init();
+    protected JWSSigner buildSigner() throws JOSEException {
         CommonHelper.assertNotNull("privateKey", privateKey);
 
-        try {
-            final JWSSigner signer = new ECDSASigner(this.privateKey);
-            final var signedJWT = new SignedJWT(new JWSHeader(algorithm), claims);
-            signedJWT.sign(signer);
-            return signedJWT;
-        } catch (final JOSEException e) {
-            throw new TechnicalException(e);
-        }
+        return new ECDSASigner(this.privateKey);
     }
 
     @Override
-    public boolean verify(final SignedJWT jwt) throws JOSEException {
-        init();
+    protected JWSVerifier buildVerifier() throws JOSEException {
         CommonHelper.assertNotNull("publicKey", publicKey);
 
-        final JWSVerifier verifier = new ECDSAVerifier(this.publicKey);
-        return jwt.verify(verifier);
+        return new ECDSAVerifier(this.publicKey);
     }
 
     public void setKeyPair(final KeyPair keyPair) {
         CommonHelper.assertNotNull("keyPair", keyPair);
         this.privateKey = (ECPrivateKey) keyPair.getPrivate();
         this.publicKey = (ECPublicKey) keyPair.getPublic();
+        resetCrypto();
     }
 
     public ECPublicKey getPublicKey() {
@@ -90,6 +79,7 @@ public class ECSignatureConfiguration extends AbstractSignatureConfiguration {
 
     public void setPublicKey(final ECPublicKey publicKey) {
         this.publicKey = publicKey;
+        resetCrypto();
     }
 
     public ECPrivateKey getPrivateKey() {
@@ -98,12 +88,14 @@ public class ECSignatureConfiguration extends AbstractSignatureConfiguration {
 
     public void setPrivateKey(final ECPrivateKey privateKey) {
         this.privateKey = privateKey;
+        resetCrypto();
     }
 
     public void setKeysFromJwk(final String json) {
         final var pair = JWKHelper.buildECKeyPairFromJwk(json);
         this.publicKey = (ECPublicKey) pair.getPublic();
         this.privateKey = (ECPrivateKey) pair.getPrivate();
+        resetCrypto();
     }
 
     @Override
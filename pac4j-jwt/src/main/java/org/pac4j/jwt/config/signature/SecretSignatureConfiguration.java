@@ -4,8 +4,6 @@ import com.nimbusds.jose.*;
 import com.nimbusds.jose.crypto.MACSigner;
 import com.nimbusds.jose.crypto.MACVerifier;
 import com.nimbusds.jose.util.Base64;
-import com.nimbusds.jwt.JWTClaimsSet;
-import com.nimbusds.jwt.SignedJWT;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.CommonHelper;
 
@@ -61,25 +59,13 @@ public class SecretSignatureConfiguration extends AbstractSignatureConfiguration
     }
 
     @Override
-    public SignedJWT sign(final JWTClaimsSet claims) {
-        init();
-
-        try {
-            final JWSSigner signer = new MACSigner(this.secret);
-            final var signedJWT = new SignedJWT(new JWSHeader(algorithm), claims);
-            signedJWT.sign(signer);
-            return signedJWT;
-        } catch (final JOSEException e) {
-            throw new TechnicalException(e);
-        }
+    protected JWSSigner buildSigner() throws JOSEException {
+        return new MACSigner(this.secret);
     }
 
     @Override
-    public boolean verify(final SignedJWT jwt) throws JOSEException {
-        init();
-
-        final JWSVerifier verifier = new MACVerifier(this.secret);
-        return jwt.verify(verifier);
+    protected JWSVerifier buildVerifier() throws JOSEException {
+        return new MACVerifier(this.secret);
     }
 
     public String getSecret() {
@@ -88,6 +74,7 @@ public class SecretSignatureConfiguration extends AbstractSignatureConfiguration
 
     public void setSecret(final String secret) {
         this.secret = secret.getBytes(UTF_8);
+        resetCrypto();
     }
 
     public byte[] getSecretBytes() {
@@ -96,6 +83,7 @@ public class SecretSignatureConfiguration extends AbstractSignatureConfiguration
 
     public void setSecretBytes(final byte[] secretBytes) {
         this.secret = Arrays.copyOf(secretBytes,secretBytes.length);
+        resetCrypto();
     }
 
 
@@ -105,6 +93,7 @@ public class SecretSignatureConfiguration extends AbstractSignatureConfiguration
 
     public void setSecretBase64(final String secret) {
         this.secret = new Base64(secret).decode();
+        resetCrypto();
     }
 
     @Override
@@ -0,0 +1,531 @@
+package org.pac4j.jwt.context.session;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jwt.EncryptedJWT;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.PlainJWT;
+import org.pac4j.core.context.Cookie;
+import org.pac4j.core.context.WebContext;
+import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.InitializableObject;
+import org.pac4j.core.util.serializer.JavaSerializer;
+import org.pac4j.core.util.serializer.Serializer;
+import org.pac4j.jwt.config.encryption.EncryptionConfiguration;
+import org.pac4j.jwt.config.encryption.SecretEncryptionConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.security.SecureRandom;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A stateless session store which keeps the session data in the browser: the session data are serialized, compressed
+ * and encrypted (JWE) in cookies, so no storage is shared between the nodes.
+ *
+ * The encrypted session is split across several cookies (<code>pac4jSession</code>, <code>pac4jSession.1</code>...)
+ * when it is larger than <code>chunkSize</code> characters. The first encryption configuration encrypts the session,
+ * all of them are tried to decrypt it: the previous keys can be kept after the current one for a rotation of the keys
+ * (the sessions encrypted with a previous key are encrypted again with the current key when read). Only the secret
+ * encryption configurations are accepted: with a public key, anyone could forge a session (deserialized by the store).
+ *
+ * The encrypted session always expires <code>maxAge</code> seconds after it is saved: it is saved again (with a new expiration)
+ * once half of this time has elapsed, so that an active session does not expire. Its inflated data cannot exceed
+ * <code>maxDataSize</code> bytes.
+ *
+ * The session data are kept in the request during a request. Each modification writes the cookies again: the session
+ * data must remain small. The concurrent modifications of a session are not merged: the last response wins.
+ * A destroyed session cannot be revoked on the server side (a copy of the cookies remains valid until its expiration)
+ * and the back-channel logout is not supported.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public class JweCookieSessionStore extends InitializableObject implements SessionStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JweCookieSessionStore.class);
+
+    private static final String CURRENT_SESSION = "pac4jJweCookieSession";
+
+    private static final String DATA_CLAIM = "data";
+
+    private static final Session NO_SESSION = new Session(null, Collections.emptyMap(), 0);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private List<EncryptionConfiguration> encryptionConfigurations = new ArrayList<>();
+
+    private Serializer serializer = new JavaSerializer();
+
+    private int chunkSize = 3800;
+
+    private int maxChunks = 10;
+
+    private int maxAge = 1800;
+
+    private int maxDataSize = 1024 * 1024;
+
+    private String cookieName = "pac4jSession";
+
+    private String cookiePath = "/";
+
+    private String cookieDomain;
+
+    private boolean cookieSecure = true;
+
+    private String cookieSameSitePolicy = "Lax";
+
+    public JweCookieSessionStore() {}
+
+    public JweCookieSessionStore(final EncryptionConfiguration... encryptionConfigurations) {
+        setEncryptionConfigurations(Arrays.asList(encryptionConfigurations));
+    }
+
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        CommonHelper.assertNotNull("encryptionConfigurations", encryptionConfigurations);
+        CommonHelper.assertTrue(!encryptionConfigurations.isEmpty(), "encryptionConfigurations cannot be empty");
+        for (final var encryptionConfiguration : encryptionConfigurations) {
+            if (!(encryptionConfiguration instanceof SecretEncryptionConfiguration)) {
+                throw new TechnicalException("Only secret encryption configurations are supported, not: "
+                    + encryptionConfiguration.getClass().getSimpleName());
+            }
+        }
+        CommonHelper.assertNotNull("serializer", serializer);
+        CommonHelper.assertNotBlank("cookieName", cookieName);
+        CommonHelper.assertTrue(chunkSize > 0, "chunkSize must be greater than zero");
+        CommonHelper.assertTrue(maxChunks > 0, "maxChunks must be greater than zero");
+        CommonHelper.assertTrue(maxAge > 0, "maxAge must be greater than zero");
+        CommonHelper.assertTrue(maxDataSize > 0, "maxDataSize must be greater than zero");
+    }
+
+    @Override
+    public Optional<String> getSessionId(final WebContext context, final boolean createSession) {
+        init();
+
+        final var session = currentSession(context);
+        if (session.id != null) {
+            return Optional.of(session.id);
+        } else if (createSession) {
+            return Optional.of(save(context, session, generateId(), Collections.emptyMap()).id);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<Object> get(final WebContext context, final String key) {
+        init();
+
+        return Optional.ofNullable(currentSession(context).data.get(key));
+    }
+
+    @Override
+    public void set(final WebContext context, final String key, final Object value) {
+        init();
+
+        final var session = currentSession(context);
+        if (value == null && !session.data.containsKey(key)) {
+            return;
+        }
+        final Map<String, Object> data = new LinkedHashMap<>(session.data);
+        if (value == null) {
+            data.remove(key);
+        } else {
+            data.put(key, value);
+        }
+        save(context, session, session.id != null ? session.id : generateId(), data);
+    }
+
+    @Override
+    public boolean destroySession(final WebContext context) {
+        init();
+
+        final var session = currentSession(context);
+        for (var i = 0; i < Math.max(1, session.chunks); i++) {
+            final var cookie = buildCookie(chunkName(i), "");
+            cookie.setMaxAge(0);
+            context.addResponseCookie(cookie);
+        }
+        context.setRequestAttribute(CURRENT_SESSION, NO_SESSION);
+        return true;
+    }
+
+    @Override
+    public Optional<Object> getTrackableSession(final WebContext context) {
+        LOGGER.debug("getTrackableSession is not supported");
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<SessionStore> buildFromTrackableSession(final WebContext context, final Object trackableSession) {
+        LOGGER.debug("buildFromTrackableSession is not supported");
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean renewSession(final WebContext context) {
+        init();
+
+        final var session = currentSession(context);
+        if (session.id == null) {
+            return false;
+        }
+        save(context, session, generateId(), session.data);
+        return true;
+    }
+
+    private Session currentSession(final WebContext context) {
+        final var current = context.getRequestAttribute(CURRENT_SESSION);
+        if (current.isPresent()) {
+            return (Session) current.get();
+        }
+        final var chunks = new String[maxChunks];
+        var nbChunks = 0;
+        for (final var cookie : context.getRequestCookies()) {
+            final var index = chunkIndex(cookie.getName());
+            if (index >= 0 && index < maxChunks && chunks[index] == null) {
+                chunks[index] = cookie.getValue();
+                nbChunks = Math.max(nbChunks, index + 1);
+            }
+        }
+        var session = NO_SESSION;
+        if (nbChunks > 0) {
+            final var value = new StringBuilder();
+            for (var i = 0; i < nbChunks && chunks[i] != null; i++) {
+                value.append(chunks[i]);
+            }
+            session = read(context, value.toString(), nbChunks);
+        }
+        context.setRequestAttribute(CURRENT_SESSION, session);
+        return session;
+    }
+
+    private Session read(final WebContext context, final String value, final int nbChunks) {
+        try {
+            for (var i = 0; i < encryptionConfigurations.size(); i++) {
+                final var jwt = EncryptedJWT.parse(value);
+                if (decrypt(encryptionConfigurations.get(i), jwt)) {
+                    return buildSession(context, jwt, i > 0, nbChunks);
+                }
+            }
+            LOGGER.debug("No encryption configuration can decrypt the session cookie");
+        } catch (final ParseException | IllegalArgumentException | TechnicalException e) {
+            LOGGER.debug("Invalid session cookie", e);
+        }
+        return new Session(null, Collections.emptyMap(), nbChunks);
+    }
+
+    private static boolean decrypt(final EncryptionConfiguration config, final EncryptedJWT jwt) {
+        if (config.supports(jwt.getHeader().getAlgorithm(), jwt.getHeader().getEncryptionMethod())) {
+            try {
+                config.decrypt(jwt);
+                return true;
+            } catch (final JOSEException e) {
+                LOGGER.debug("Decryption fails with encryption configuration: {}, passing to the next one", config);
+            }
+        }
+        return false;
+    }
+
+    private Session buildSession(final WebContext context, final EncryptedJWT jwt, final boolean previousKey, final int nbChunks)
+        throws ParseException {
+        final var claims = jwt.getJWTClaimsSet();
+        final var expiration = claims.getExpirationTime();
+        if (expiration == null || expiration.getTime() <= now()) {
+            LOGGER.debug("Expired session cookie (or without expiration)");
+            return new Session(null, Collections.emptyMap(), nbChunks);
+        }
+        final var encodedData = claims.getStringClaim(DATA_CLAIM);
+        final var savedData = encodedData != null
+            ? serializer.deserializeFromBytes(inflate(Base64.getUrlDecoder().decode(encodedData)))
+            : null;
+        if (!(savedData instanceof Map)) {
+            LOGGER.debug("Session cookie without (readable) data");
+            return new Session(null, Collections.emptyMap(), nbChunks);
+        }
+        @SuppressWarnings("unchecked")
+        final var data = (Map<String, Object>) savedData;
+        final var session = new Session(claims.getJWTID(), Collections.unmodifiableMap(data), nbChunks);
+        if (previousKey) {
+            LOGGER.debug("Session cookie decrypted with a previous key: encrypting it with the current key");
+            return save(context, session, session.id, session.data);
+        } else if (expiration.getTime() - now() < maxAge * 1000L / 2) {
+            LOGGER.debug("Half of the maximum age has elapsed: saving the session again to extend its expiration");
+            return save(context, session, session.id, session.data);
+        }
+        return session;
+    }
+
+    private Session save(final WebContext context, final Session previous, final String id, final Map<String, Object> data) {
+        final var now = now();
+        final var claims = new JWTClaimsSet.Builder()
+            .jwtID(id)
+            .issueTime(new Date(now))
+            .expirationTime(new Date(now + maxAge * 1000L))
+            .claim(DATA_CLAIM, Base64.getUrlEncoder().withoutPadding().encodeToString(
+                deflate(serializer.serializeToBytes(new LinkedHashMap<>(data)))));
+        final var value = encryptionConfigurations.get(0).encrypt(new PlainJWT(claims.build()));
+
+        final var nbChunks = (value.length() + chunkSize - 1) / chunkSize;
+        if (nbChunks > maxChunks) {
+            throw new TechnicalException("Session too large for " + maxChunks + " cookies: " + value.length() + " characters");
+        }
+        for (var i = 0; i < nbChunks; i++) {
+            final var cookie = buildCookie(chunkName(i), value.substring(i * chunkSize, Math.min(value.length(), (i + 1) * chunkSize)));
+            cookie.setMaxAge(maxAge);
+            context.addResponseCookie(cookie);
+        }
+        // the chunks of the previous (larger) session are removed
+        for (var i = nbChunks; i < previous.chunks; i++) {
+            final var cookie = buildCookie(chunkName(i), "");
+            cookie.setMaxAge(0);
+            context.addResponseCookie(cookie);
+        }
+
+        final var session = new Session(id, Collections.unmodifiableMap(data), nbChunks);
+        context.setRequestAttribute(CURRENT_SESSION, session);
+        return session;
+    }
+
+    private String chunkName(final int index) {
+        return index == 0 ? cookieName : cookieName + "." + index;
+    }
+
+    private int chunkIndex(final String name) {
+        if (cookieName.equals(name)) {
+            return 0;
+        }
+        if (name == null || name.length() <= cookieName.length() + 1 || !name.startsWith(cookieName)
+            || name.charAt(cookieName.length()) != '.') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(name.substring(cookieName.length() + 1));
+        } catch (final NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    protected Cookie buildCookie(final String name, final String value) {
+        final var cookie = new Cookie(name, value);
+        cookie.setPath(cookiePath);
+        cookie.setDomain(cookieDomain);
+        cookie.setSecure(cookieSecure);
+        cookie.setHttpOnly(true);
+        cookie.setSameSitePolicy(cookieSameSitePolicy);
+        return cookie;
+    }
+
+    protected long now() {
+        return System.currentTimeMillis();
+    }
+
+    protected String generateId() {
+        final var bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static byte[] deflate(final byte[] bytes) {
+        final var deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            final var out = new ByteArrayOutputStream(bytes.length / 2 + 16);
+            final var buffer = new byte[1024];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] inflate(final byte[] bytes) {
+        final var inflater = new Inflater(true);
+        try {
+            inflater.setInput(bytes);
+            final var out = new ByteArrayOutputStream(Math.min(bytes.length * 4, maxDataSize));
+            final var buffer = new byte[1024];
+            while (!inflater.finished()) {
+                final var length = inflater.inflate(buffer);
+                if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new TechnicalException("Truncated session data");
+                }
+                // stop inflating a compression bomb
+                if (out.size() + length > maxDataSize) {
+                    throw new TechnicalException("Session data larger than " + maxDataSize + " bytes");
+                }
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } catch (final DataFormatException e) {
+            throw new TechnicalException(e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    public List<EncryptionConfiguration> getEncryptionConfigurations() {
+        return encryptionConfigurations;
+    }
+
+    /**
+     * Define the encryption configurations: the first one encrypts the session, the next ones (the previous keys) can
+     * only decrypt it.
+     *
+     * @param encryptionConfigurations the encryption configurations
+     */
+    public void setEncryptionConfigurations(final List<EncryptionConfiguration> encryptionConfigurations) {
+        CommonHelper.assertNotNull("encryptionConfigurations", encryptionConfigurations);
+        this.encryptionConfigurations = new ArrayList<>(encryptionConfigurations);
+    }
+
+    public void addEncryptionConfiguration(final EncryptionConfiguration encryptionConfiguration) {
+        CommonHelper.assertNotNull("encryptionConfiguration", encryptionConfiguration);
+        this.encryptionConfigurations.add(encryptionConfiguration);
+    }
+
+    public Serializer getSerializer() {
+        return serializer;
+    }
+
+    public void setSerializer(final Serializer serializer) {
+        this.serializer = serializer;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Define the maximum size of a cookie value (the browsers limit a cookie to about 4096 bytes, including its name
+     * and its attributes).
+     *
+     * @param chunkSize the size of a chunk (in characters)
+     */
+    public void setChunkSize(final int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getMaxChunks() {
+        return maxChunks;
+    }
+
+    /**
+     * Define the maximum number of cookies of a session (a larger session fails to be saved).
+     *
+     * @param maxChunks the maximum number of chunks
+     */
+    public void setMaxChunks(final int maxChunks) {
+        this.maxChunks = maxChunks;
+    }
+
+    public int getMaxAge() {
+        return maxAge;
+    }
+
+    /**
+     * Define how long a session is valid after it is saved, for the cookies and the encrypted session (an active session
+     * is saved again once half of this time has elapsed).
+     *
+     * @param maxAge the maximum age (in seconds)
+     */
+    public void setMaxAge(final int maxAge) {
+        this.maxAge = maxAge;
+    }
+
+    public int getMaxDataSize() {
+        return maxDataSize;
+    }
+
+    /**
+     * Define the maximum size of the inflated session data (a larger session is ignored).
+     *
+     * @param maxDataSize the maximum size (in bytes)
+     */
+    public void setMaxDataSize(final int maxDataSize) {
+        this.maxDataSize = maxDataSize;
+    }
+
+    public String getCookieName() {
+        return cookieName;
+    }
+
+    public void setCookieName(final String cookieName) {
+        this.cookieName = cookieName;
+    }
+
+    public String getCookiePath() {
+        return cookiePath;
+    }
+
+    public void setCookiePath(final String cookiePath) {
+        this.cookiePath = cookiePath;
+    }
+
+    public String getCookieDomain() {
+        return cookieDomain;
+    }
+
+    public void setCookieDomain(final String cookieDomain) {
+        this.cookieDomain = cookieDomain;
+    }
+
+    public boolean isCookieSecure() {
+        return cookieSecure;
+    }
+
+    public void setCookieSecure(final boolean cookieSecure) {
+        this.cookieSecure = cookieSecure;
+    }
+
+    public String getCookieSameSitePolicy() {
+        return cookieSameSitePolicy;
+    }
+
+    public void setCookieSameSitePolicy(final String cookieSameSitePolicy) {
+        this.cookieSameSitePolicy = cookieSameSitePolicy;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "encryptionConfigurations", encryptionConfigurations,
+            "serializer", serializer, "chunkSize", chunkSize, "maxChunks", maxChunks, "maxAge", maxAge, "maxDataSize", maxDataSize,
+            "cookieName", cookieName, "cookiePath", cookiePath, "cookieDomain", cookieDomain, "cookieSecure", cookieSecure,
+            "cookieSameSitePolicy", cookieSameSitePolicy);
+    }
+
+    /**
+     * The identifier, the (unmodifiable) data and the number of cookies of a session.
+     */
+    private static final class Session {
+
+        private final String id;
+
+        private final Map<String, Object> data;
+
+        private final int chunks;
+
+        private Session(final String id, final Map<String, Object> data, final int chunks) {
+            this.id = id;
+            this.data = data;
+            this.chunks = chunks;
+        }
+    }
+}
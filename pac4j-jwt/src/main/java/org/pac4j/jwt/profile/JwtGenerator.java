@@ -8,12 +8,17 @@ import org.pac4j.core.util.CommonHelper;
 import org.pac4j.jwt.config.encryption.EncryptionConfiguration;
 import org.pac4j.jwt.config.signature.SignatureConfiguration;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Generates a JWT token from a user profile.
  *
+ * The static claims (like the issuer or the audience) can be defined once in a claims template: they are added to each JWT
+ * (a claim of the profile with the same name takes precedence). The signer and the encrypter of the configurations are reused.
+ *
  * @author Jerome Leleu
  * @since 1.8.0
  */
@@ -29,6 +34,8 @@ public class JwtGenerator {
 
     private Date expirationTime;
 
+    private JWTClaimsSet claimsTemplate;
+
     public JwtGenerator() {}
 
     public JwtGenerator(final SignatureConfiguration signatureConfiguration) {
@@ -48,7 +55,7 @@ public class JwtGenerator {
      */
     public String generate(final Map<String, Object> claims) {
         // claims builder
-        final var builder = new JWTClaimsSet.Builder();
+        final var builder = newClaimsBuilder();
 
         // add claims
         for (final var entry : claims.entrySet()) {
@@ -72,6 +79,24 @@ public class JwtGenerator {
         return internalGenerate(buildJwtClaimsSet(profile));
     }
 
+    /**
+     * Generate the JWTs from user profiles (with the same issue time).
+     *
+     * @param profiles the given user profiles
+     * @return the created JWTs (in the same order)
+     */
+    public List<String> generateAll(final List<? extends UserProfile> profiles) {
+        CommonHelper.assertNotNull("profiles", profiles);
+
+        final var issueTime = new Date();
+        final List<String> tokens = new ArrayList<>(profiles.size());
+        for (final var profile : profiles) {
+            verifyProfile(profile);
+            tokens.add(internalGenerate(buildJwtClaimsSet(profile, issueTime)));
+        }
+        return tokens;
+    }
+
     /**
      * Generate a JWT from a claims set.
      *
@@ -103,9 +128,13 @@ public class JwtGenerator {
     }
 
     protected JWTClaimsSet buildJwtClaimsSet(final UserProfile profile) {
+        return buildJwtClaimsSet(profile, new Date());
+    }
+
+    protected JWTClaimsSet buildJwtClaimsSet(final UserProfile profile, final Date issueTime) {
         // claims builder with subject and issue time
-        final var builder = new JWTClaimsSet.Builder()
-                .issueTime(new Date());
+        final var builder = newClaimsBuilder()
+                .issueTime(issueTime);
 
         if (this.expirationTime != null) {
             builder.expirationTime(this.expirationTime);
@@ -126,6 +155,11 @@ public class JwtGenerator {
         return builder.build();
     }
 
+    private JWTClaimsSet.Builder newClaimsBuilder() {
+        final var template = this.claimsTemplate;
+        return template != null ? new JWTClaimsSet.Builder(template) : new JWTClaimsSet.Builder();
+    }
+
     public SignatureConfiguration getSignatureConfiguration() {
         return signatureConfiguration;
     }
@@ -150,9 +184,30 @@ public class JwtGenerator {
         this.expirationTime = new Date(expirationTime.getTime());
     }
 
+    public Map<String, Object> getClaimsTemplate() {
+        return claimsTemplate != null ? claimsTemplate.getClaims() : null;
+    }
+
+    /**
+     * Define the static claims added to each JWT.
+     *
+     * @param claims the static claims
+     */
+    public void setClaimsTemplate(final Map<String, Object> claims) {
+        if (claims == null) {
+            this.claimsTemplate = null;
+        } else {
+            final var builder = new JWTClaimsSet.Builder();
+            for (final var entry : claims.entrySet()) {
+                builder.claim(entry.getKey(), entry.getValue());
+            }
+            this.claimsTemplate = builder.build();
+        }
+    }
+
     @Override
     public String toString() {
         return CommonHelper.toNiceString(this.getClass(), "signatureConfiguration", signatureConfiguration,
-            "encryptionConfiguration", encryptionConfiguration);
+            "encryptionConfiguration", encryptionConfiguration, "claimsTemplate", getClaimsTemplate());
     }
 }
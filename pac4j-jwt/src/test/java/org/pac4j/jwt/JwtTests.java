@@ -251,6 +251,37 @@ public final class JwtTests implements TestsConstants {
         assertEquals(tomorrow.getTime() / 1000, ((Date) claims2.get(JwtClaims.EXPIRATION_TIME)).getTime() / 1000);
     }
 
+    @Test
+    public void testGenerateAuthenticateClaimsTemplate() {
+        final var generator = new JwtGenerator(new SecretSignatureConfiguration(MAC_SECRET),
+            new SecretEncryptionConfiguration(MAC_SECRET));
+        final Map<String, Object> template = new HashMap<>();
+        template.put(JwtClaims.ISSUER, CALLBACK_URL);
+        template.put(FacebookProfileDefinition.NAME, VALUE);
+        generator.setClaimsTemplate(template);
+        final var profile = createProfile();
+        final var token = generator.generate(profile);
+        final var claims = new JwtAuthenticator(new SecretSignatureConfiguration(MAC_SECRET),
+            new SecretEncryptionConfiguration(MAC_SECRET)).validateTokenAndGetClaims(token);
+        assertEquals(CALLBACK_URL, claims.get(JwtClaims.ISSUER));
+        // the profile takes precedence over the template
+        assertEquals(NAME, claims.get(FacebookProfileDefinition.NAME));
+        assertToken(profile, token);
+    }
+
+    @Test
+    public void testGenerateAll() {
+        final var generator = new JwtGenerator(new SecretSignatureConfiguration(MAC_SECRET),
+            new SecretEncryptionConfiguration(MAC_SECRET));
+        final var profile = createProfile();
+        final var profile2 = createProfile();
+        profile2.setId(VALUE);
+        final var tokens = generator.generateAll(Arrays.asList(profile, profile2));
+        assertEquals(2, tokens.size());
+        assertToken(profile, tokens.get(0));
+        assertToken(profile2, tokens.get(1));
+    }
+
     private Date tomorrow() {
         final var now = new Date();
         var tomorrow = now.getTime() + 24 * 3600 * 1000;
@@ -5,6 +5,7 @@ import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.jwk.OctetSequenceKey;
 import com.nimbusds.jose.util.Base64;
 import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
 import org.junit.Test;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.TestsConstants;
@@ -17,6 +18,7 @@ import java.util.Arrays;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -46,6 +48,14 @@ public final class SecretSignatureConfigurationTests implements TestsConstants {
             "Only the HS256, HS384 and HS512 algorithms are supported for HMac signature");
     }
 
+    @Test
+    public void testSubclassWithoutSigner() throws JOSEException {
+        final var config = new VerifyingSignatureConfiguration();
+        assertTrue(config.verify(null));
+        TestsHelper.expectException(() -> config.sign(new JWTClaimsSet.Builder().subject(VALUE).build()), TechnicalException.class,
+            VerifyingSignatureConfiguration.class.getName() + " must override either buildSigner() or sign(JWTClaimsSet)");
+    }
+
     @Test
     public void buildFromJwk() throws UnsupportedEncodingException {
         final var json = new OctetSequenceKey.Builder(MAC_SECRET.getBytes("UTF-8")).build().toJSONString();
@@ -60,6 +70,18 @@ public final class SecretSignatureConfigurationTests implements TestsConstants {
         assertTrue(config.verify(signedJwt));
     }
 
+    @Test
+    public void testSignVerifyAfterSecretChange() throws JOSEException {
+        final var config = new SecretSignatureConfiguration(MAC_SECRET);
+        final var claims = new JWTClaimsSet.Builder().subject(VALUE).build();
+        final var signedJwt = config.sign(claims);
+        assertTrue(config.verify(config.sign(claims)));
+
+        config.setSecretBase64(BASE64_512_BIT_SIG_SECRET);
+        assertFalse(config.verify(signedJwt));
+        assertTrue(config.verify(config.sign(claims)));
+    }
+
     @Test
     public void testGetSecretInitializedWithByteArray(){
         var rndBytes = new byte[32];
@@ -98,4 +120,20 @@ public final class SecretSignatureConfigurationTests implements TestsConstants {
         assertTrue(config.verify(signedJwt));
     }
 
+    private static final class VerifyingSignatureConfiguration extends AbstractSignatureConfiguration {
+
+        @Override
+        protected void internalInit(final boolean forceReinit) {
+        }
+
+        @Override
+        public boolean supports(final JWSAlgorithm algorithm) {
+            return true;
+        }
+
+        @Override
+        public boolean verify(final SignedJWT jwt) {
+            return true;
+        }
+    }
 }
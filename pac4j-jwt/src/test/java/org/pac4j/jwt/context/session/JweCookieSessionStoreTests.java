@@ -0,0 +1,236 @@
+package org.pac4j.jwt.context.session;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.PlainJWT;
+import org.junit.Test;
+import org.pac4j.core.context.Cookie;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+import org.pac4j.core.util.serializer.JavaSerializer;
+import org.pac4j.jwt.config.encryption.RSAEncryptionConfiguration;
+import org.pac4j.jwt.config.encryption.SecretEncryptionConfiguration;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link JweCookieSessionStore}.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public final class JweCookieSessionStoreTests implements TestsConstants {
+
+    private static final String OTHER_MAC_SECRET = "abcdefghijklmnopqrstuvwxyz012345";
+
+    private long time = 1000000;
+
+    private JweCookieSessionStore newSessionStore() {
+        return new JweCookieSessionStore(new SecretEncryptionConfiguration(MAC_SECRET)) {
+            @Override
+            protected long now() {
+                return time;
+            }
+        };
+    }
+
+    private static Map<String, Cookie> responseCookies(final MockWebContext context) {
+        final Map<String, Cookie> cookies = new LinkedHashMap<>();
+        for (final var cookie : context.getResponseCookies()) {
+            cookies.put(cookie.getName(), cookie);
+        }
+        return cookies;
+    }
+
+    private static MockWebContext nextRequest(final MockWebContext context) {
+        final var nextContext = MockWebContext.create();
+        for (final var cookie : responseCookies(context).values()) {
+            if (cookie.getMaxAge() != 0) {
+                nextContext.getRequestCookies().add(cookie);
+            }
+        }
+        return nextContext;
+    }
+
+    @Test
+    public void testMissingEncryptionConfiguration() {
+        TestsHelper.expectException(() -> new JweCookieSessionStore().get(MockWebContext.create(), KEY), TechnicalException.class,
+            "encryptionConfigurations cannot be empty");
+    }
+
+    @Test
+    public void testAsymmetricEncryptionConfiguration() {
+        TestsHelper.expectException(() -> new JweCookieSessionStore(new SecretEncryptionConfiguration(MAC_SECRET),
+            new RSAEncryptionConfiguration()).get(MockWebContext.create(), KEY), TechnicalException.class,
+            "Only secret encryption configurations are supported, not: RSAEncryptionConfiguration");
+    }
+
+    @Test
+    public void testExpiration() {
+        final var sessionStore = newSessionStore();
+        final var context = MockWebContext.create();
+        sessionStore.set(context, KEY, VALUE);
+        assertEquals(1800, responseCookies(context).get("pac4jSession").getMaxAge());
+
+        // before half of the maximum age: the cookie is not written again
+        time += TimeUnit.MINUTES.toMillis(10);
+        final var context2 = nextRequest(context);
+        assertEquals(VALUE, sessionStore.get(context2, KEY).get());
+        assertTrue(context2.getResponseCookies().isEmpty());
+
+        time += TimeUnit.MINUTES.toMillis(19);
+        assertEquals(VALUE, sessionStore.get(nextRequest(context), KEY).get());
+        // a copy of the cookie is rejected after its expiration
+        time += TimeUnit.MINUTES.toMillis(2);
+        assertTrue(sessionStore.get(nextRequest(context), KEY).isEmpty());
+    }
+
+    @Test
+    public void testActiveSessionSlidingExpiration() {
+        final var sessionStore = newSessionStore();
+        var context = MockWebContext.create();
+        sessionStore.set(context, KEY, VALUE);
+        final var id = sessionStore.getSessionId(context, false).get();
+
+        // a request every 20 minutes for two hours: the session is saved again and never expires
+        for (var i = 0; i < 6; i++) {
+            time += TimeUnit.MINUTES.toMillis(20);
+            final var nextContext = nextRequest(context);
+            assertEquals(VALUE, sessionStore.get(nextContext, KEY).get());
+            assertEquals(id, sessionStore.getSessionId(nextContext, false).get());
+            if (!nextContext.getResponseCookies().isEmpty()) {
+                context = nextContext;
+            }
+        }
+
+        // inactive for more than the maximum age
+        time += TimeUnit.MINUTES.toMillis(31);
+        assertTrue(sessionStore.get(nextRequest(context), KEY).isEmpty());
+    }
+
+    @Test
+    public void testMissingOrUnreadableData() {
+        final var sessionStore = newSessionStore();
+        final var claims = new JWTClaimsSet.Builder().jwtID(ID).expirationTime(new Date(time + 60000)).build();
+        final var context = MockWebContext.create();
+        context.getRequestCookies().add(new Cookie("pac4jSession",
+            new SecretEncryptionConfiguration(MAC_SECRET).encrypt(new PlainJWT(claims))));
+        assertTrue(sessionStore.get(context, KEY).isEmpty());
+        assertTrue(sessionStore.getSessionId(context, false).isEmpty());
+
+        final var context2 = MockWebContext.create();
+        sessionStore.set(context2, KEY, VALUE);
+        sessionStore.setSerializer(new JavaSerializer() {
+            @Override
+            protected Serializable internalDeserializeFromBytes(final byte[] bytes) {
+                return null;
+            }
+        });
+        final var context3 = nextRequest(context2);
+        assertTrue(sessionStore.get(context3, KEY).isEmpty());
+        assertTrue(sessionStore.getSessionId(context3, false).isEmpty());
+    }
+
+    @Test
+    public void testMaxDataSize() {
+        final var sessionStore = newSessionStore();
+        final var context = MockWebContext.create();
+        sessionStore.set(context, KEY, "a large value, a large value, a large value, a large value, a large value, a large value");
+        assertTrue(sessionStore.get(nextRequest(context), KEY).isPresent());
+        sessionStore.setMaxDataSize(100);
+        assertTrue(sessionStore.get(nextRequest(context), KEY).isEmpty());
+    }
+
+    @Test
+    public void testSetGetAcrossRequests() {
+        final var sessionStore = new JweCookieSessionStore(new SecretEncryptionConfiguration(MAC_SECRET));
+        final var context = MockWebContext.create();
+        assertTrue(sessionStore.getSessionId(context, false).isEmpty());
+        sessionStore.set(context, KEY, VALUE);
+        final var id = sessionStore.getSessionId(context, false).get();
+
+        final var cookie = responseCookies(context).get("pac4jSession");
+        assertTrue(cookie.isHttpOnly());
+        assertTrue(cookie.isSecure());
+        assertFalse(cookie.getValue().contains(VALUE));
+
+        final var context2 = nextRequest(context);
+        assertEquals(VALUE, sessionStore.get(context2, KEY).get());
+        assertEquals(id, sessionStore.getSessionId(context2, false).get());
+        // no other node, no storage: only the cookies are needed
+        assertEquals(VALUE, new JweCookieSessionStore(new SecretEncryptionConfiguration(MAC_SECRET)).get(nextRequest(context), KEY).get());
+
+        assertTrue(new JweCookieSessionStore(new SecretEncryptionConfiguration(OTHER_MAC_SECRET))
+            .get(nextRequest(context), KEY).isEmpty());
+    }
+
+    @Test
+    public void testChunks() {
+        final var sessionStore = new JweCookieSessionStore(new SecretEncryptionConfiguration(MAC_SECRET));
+        sessionStore.setChunkSize(100);
+        final var context = MockWebContext.create();
+        sessionStore.set(context, KEY, VALUE);
+        sessionStore.set(context, NAME, "a value which is compressed but not enough to fit in a single cookie");
+        final var cookies = responseCookies(context);
+        assertTrue(cookies.containsKey("pac4jSession.1"));
+        final var nbCookies = cookies.size();
+
+        final var context2 = nextRequest(context);
+        assertEquals(VALUE, sessionStore.get(context2, KEY).get());
+        sessionStore.set(context2, NAME, null);
+        // the unused chunks are removed
+        final var cookies2 = responseCookies(context2);
+        assertEquals(nbCookies, cookies2.size());
+        assertEquals(0, cookies2.get("pac4jSession." + (nbCookies - 1)).getMaxAge());
+        assertEquals(VALUE, sessionStore.get(nextRequest(context2), KEY).get());
+
+        sessionStore.setMaxChunks(1);
+        final var e = TestsHelper.expectException(() -> sessionStore.set(MockWebContext.create(), NAME, VALUE));
+        assertTrue(e instanceof TechnicalException);
+        assertTrue(e.getMessage().startsWith("Session too large for 1 cookies"));
+    }
+
+    @Test
+    public void testKeyRotation() {
+        final var oldSessionStore = new JweCookieSessionStore(new SecretEncryptionConfiguration(OTHER_MAC_SECRET));
+        final var context = MockWebContext.create();
+        oldSessionStore.set(context, KEY, VALUE);
+
+        final var sessionStore = new JweCookieSessionStore(new SecretEncryptionConfiguration(MAC_SECRET),
+            new SecretEncryptionConfiguration(OTHER_MAC_SECRET));
+        final var context2 = nextRequest(context);
+        assertEquals(VALUE, sessionStore.get(context2, KEY).get());
+        // encrypted again with the current key
+        assertEquals(VALUE, new JweCookieSessionStore(new SecretEncryptionConfiguration(MAC_SECRET))
+            .get(nextRequest(context2), KEY).get());
+    }
+
+    @Test
+    public void testRenewAndDestroy() {
+        final var sessionStore = new JweCookieSessionStore(new SecretEncryptionConfiguration(MAC_SECRET));
+        sessionStore.setMaxAge(60);
+        final var context = MockWebContext.create();
+        assertFalse(sessionStore.renewSession(context));
+        sessionStore.set(context, KEY, VALUE);
+        assertEquals(60, responseCookies(context).get("pac4jSession").getMaxAge());
+        final var id = sessionStore.getSessionId(context, false).get();
+
+        final var context2 = nextRequest(context);
+        assertTrue(sessionStore.renewSession(context2));
+        assertNotEquals(id, sessionStore.getSessionId(context2, false).get());
+        assertEquals(VALUE, sessionStore.get(nextRequest(context2), KEY).get());
+
+        final var context3 = nextRequest(context2);
+        assertTrue(sessionStore.destroySession(context3));
+        assertTrue(sessionStore.get(context3, KEY).isEmpty());
+        assertEquals(0, responseCookies(context3).get("pac4jSession").getMaxAge());
+        assertTrue(sessionStore.get(nextRequest(context3), KEY).isEmpty());
+    }
+}
@@ -4,13 +4,20 @@ import org.pac4j.core.context.WebContext;
 import org.pac4j.core.context.session.SessionStore;
 import org.pac4j.core.credentials.Credentials;
 import org.pac4j.core.credentials.authenticator.Authenticator;
+import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.profile.creator.AuthenticatorProfileCreator;
+import org.pac4j.core.store.Store;
 import org.pac4j.core.util.CommonHelper;
+import org.pac4j.core.util.InitializableObject;
 import org.pac4j.kerberos.credentials.KerberosCredentials;
 import org.pac4j.kerberos.profile.KerberosProfile;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
 /**
  * Authenticator for Kerberos. It creates the user profile and stores it in the credentials
  * for the {@link AuthenticatorProfileCreator}.
@@ -18,12 +25,16 @@ import org.slf4j.LoggerFactory;
  * @author Garry Boyce
  * @since 2.1.0
  */
-public class KerberosAuthenticator implements Authenticator {
+public class KerberosAuthenticator extends InitializableObject implements Authenticator {
 
     protected final Logger logger = LoggerFactory.getLogger(getClass());
 
     protected KerberosTicketValidator ticketValidator;
 
+    protected Store<String, String> validatedTicketsStore;
+
+    protected int validatedTicketTimeout = 10;
+
     /**
      * Initializes the authenticator that will validate Kerberos tickets.
      *
@@ -35,18 +46,135 @@ public class KerberosAuthenticator implements Authenticator {
         this.ticketValidator = ticketValidator;
     }
 
+    /**
+     * Initializes the authenticator that will validate Kerberos tickets and remember the recent validations.
+     *
+     * @param ticketValidator The ticket validator used to validate the Kerberos ticket.
+     * @param validatedTicketsStore The store of the recently validated tickets (only their digest, expiration and user).
+     * @since 5.5.0
+     */
+    public KerberosAuthenticator(KerberosTicketValidator ticketValidator, Store<String, String> validatedTicketsStore) {
+        this(ticketValidator);
+        this.validatedTicketsStore = validatedTicketsStore;
+    }
+
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        CommonHelper.assertNotNull("ticketValidator", ticketValidator);
+        if (validatedTicketsStore != null) {
+            CommonHelper.assertTrue(validatedTicketTimeout > 0, "validatedTicketTimeout must be greater than zero");
+        }
+    }
+
     @Override
     public void validate(final Credentials cred, final WebContext context, final SessionStore sessionStore) {
+        init();
+
         final var credentials = (KerberosCredentials) cred;
         logger.trace("Try to validate Kerberos Token:" + credentials.getKerberosTicketAsString());
-        var ticketValidation = this.ticketValidator.validateTicket(credentials.getKerberosTicket());
+        String key = null;
+        if (validatedTicketsStore != null && !isHoldingOnToGSSContext()) {
+            // the same token re-sent once by the same client shortly after (keep-alive connection) is not validated again,
+            // as the GSS replay cache would reject it: the marker is then removed so that any other replay is validated (and rejected)
+            key = computeTicketKey(credentials.getKerberosTicket(), context);
+            final var subject = consumeValidatedTicket(key);
+            if (subject != null) {
+                logger.debug("Kerberos Token recently validated for: {}", subject);
+                final var profile = new KerberosProfile();
+                profile.setId(subject);
+                credentials.setUserProfile(profile);
+                return;
+            }
+        }
+
+        final var ticketValidation = this.ticketValidator.validateTicket(credentials.getKerberosTicket());
         logger.debug("Kerberos Token validated");
 
         var subject = ticketValidation.username();
         logger.debug("Succesfully validated " + subject);
 
+        if (key != null) {
+            validatedTicketsStore.set(key, (System.currentTimeMillis() + validatedTicketTimeout * 1000L) + ":" + subject);
+        }
+
         var profile = new KerberosProfile(ticketValidation.getGssContext());
         profile.setId(subject);
         credentials.setUserProfile(profile);
     }
+
+    /**
+     * Whether the GSS context is kept in the profile: the recently validated tickets are then always validated again
+     * as a cached validation has no GSS context.
+     *
+     * @return whether the GSS context is kept
+     */
+    protected boolean isHoldingOnToGSSContext() {
+        return ticketValidator instanceof SunJaasKerberosTicketValidator
+            && ((SunJaasKerberosTicketValidator) ticketValidator).isHoldOnToGSSContext();
+    }
+
+    /**
+     * Atomically get and remove the marker of a recently validated ticket.
+     *
+     * @param key the key of the ticket
+     * @return the user of the ticket if it has been validated recently, <code>null</code> otherwise
+     */
+    protected String consumeValidatedTicket(final String key) {
+        final var marker = validatedTicketsStore.pop(key);
+        if (marker.isEmpty()) {
+            return null;
+        }
+        final var value = marker.get();
+        final var separator = value.indexOf(':');
+        if (separator <= 0) {
+            return null;
+        }
+        try {
+            final var expiration = Long.parseLong(value.substring(0, separator));
+            if (System.currentTimeMillis() >= expiration) {
+                return null;
+            }
+        } catch (final NumberFormatException e) {
+            return null;
+        }
+        return value.substring(separator + 1);
+    }
+
+    /**
+     * The key of a validated ticket: its digest bound to the remote address of the client.
+     *
+     * @param ticket the Kerberos ticket
+     * @param context the web context
+     * @return the key
+     */
+    protected String computeTicketKey(final byte[] ticket, final WebContext context) {
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256").digest(ticket);
+            final var remoteAddr = context != null ? context.getRemoteAddr() : null;
+            return Base64.getEncoder().encodeToString(digest) + "|" + remoteAddr;
+        } catch (final NoSuchAlgorithmException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    public Store<String, String> getValidatedTicketsStore() {
+        return validatedTicketsStore;
+    }
+
+    public void setValidatedTicketsStore(final Store<String, String> validatedTicketsStore) {
+        this.validatedTicketsStore = validatedTicketsStore;
+    }
+
+    public int getValidatedTicketTimeout() {
+        return validatedTicketTimeout;
+    }
+
+    /**
+     * Define how long (in seconds) a validated ticket can be re-sent once without being validated again.
+     *
+     * @param validatedTicketTimeout the timeout in seconds
+     */
+    public void setValidatedTicketTimeout(final int validatedTicketTimeout) {
+        this.validatedTicketTimeout = validatedTicketTimeout;
+    }
 }
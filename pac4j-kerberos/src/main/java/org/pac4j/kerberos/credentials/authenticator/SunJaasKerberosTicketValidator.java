@@ -6,6 +6,8 @@ import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.util.CommonHelper;
 import org.pac4j.core.util.InitializableObject;
 import org.pac4j.core.util.Pac4jConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.core.io.Resource;
 
 import javax.security.auth.Subject;
@@ -21,6 +23,10 @@ import java.security.PrivilegedExceptionAction;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implementation of {@link KerberosTicketValidator} which uses the SUN JAAS
@@ -35,17 +41,27 @@ import java.util.Set;
  */
 public class SunJaasKerberosTicketValidator extends InitializableObject implements KerberosTicketValidator {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(SunJaasKerberosTicketValidator.class);
+
+    private static final String KERBEROS_MECHANISM = "1.2.840.113554.1.2.2";
+    private static final String SPNEGO_MECHANISM = "1.3.6.1.5.5.2";
+
     private String servicePrincipal;
     private Resource keyTabLocation;
-    private Subject serviceSubject;
+    private volatile ServiceLogin serviceLogin;
     private boolean holdOnToGSSContext;
     private boolean debug = false;
+    private long reloginPeriod = 0;
+    private ScheduledExecutorService reloginExecutor;
+    private ScheduledFuture<?> reloginTask;
 
     @Override
     public KerberosTicketValidation validateTicket(byte[] token) {
         init();
+        // the service subject and acceptor credential are resolved once per login, not per ticket
+        final var login = this.serviceLogin;
         try {
-            return Subject.doAs(this.serviceSubject, new KerberosValidateAction(token));
+            return Subject.doAs(login.subject, new KerberosValidateAction(token, login.credential));
         } catch (PrivilegedActionException e) {
             throw new BadCredentialsException("Kerberos validation not successful", e);
         }
@@ -55,10 +71,44 @@ public class SunJaasKerberosTicketValidator extends InitializableObject implemen
     protected void internalInit(final boolean forceReinit) {
         // P.S. this fn is called from init(), so if init() is not called explicitly,
         // then internalInit() runs lazily during the first validateTicket() call
+        CommonHelper.assertNotNull("servicePrincipal must be specified", this.servicePrincipal);
+        CommonHelper.assertNotNull("keyTab must be specified", this.keyTabLocation);
+        CommonHelper.assertTrue(this.reloginPeriod >= 0, "reloginPeriod cannot be negative");
+
+        this.serviceLogin = login();
+
+        if (this.reloginTask != null) {
+            this.reloginTask.cancel(false);
+            this.reloginTask = null;
+        }
+        if (this.reloginPeriod > 0) {
+            if (this.reloginExecutor == null) {
+                this.reloginExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    final var thread = new Thread(runnable, "pac4j-kerberos-relogin");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            this.reloginTask = this.reloginExecutor.scheduleWithFixedDelay(this::relogin, this.reloginPeriod, this.reloginPeriod,
+                TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Log in again from the keytab (for example, after a key rotation) and replace the service subject and acceptor credential.
+     * The current login is kept if the new one fails.
+     */
+    public void relogin() {
         try {
-            CommonHelper.assertNotNull("servicePrincipal must be specified", this.servicePrincipal);
-            CommonHelper.assertNotNull("keyTab must be specified", this.keyTabLocation);
+            this.serviceLogin = login();
+            LOGGER.debug("Kerberos service principal {} logged in again", this.servicePrincipal);
+        } catch (final RuntimeException e) {
+            LOGGER.warn("Cannot log in again the Kerberos service principal {}, keeping the current login", this.servicePrincipal, e);
+        }
+    }
 
+    protected ServiceLogin login() {
+        try {
             var keyTabLocationAsString = this.keyTabLocation.getURL().toExternalForm();
             // We need to remove the file prefix (if there is one), as it is not supported in Java 7 anymore.
             // As Java 6 accepts it with and without the prefix, we don't need to check for Java 7
@@ -72,9 +122,15 @@ public class SunJaasKerberosTicketValidator extends InitializableObject implemen
             var sub = new Subject(false, princ, new HashSet<>(), new HashSet<>());
             var lc = new LoginContext(Pac4jConstants.EMPTY_STRING, sub, null, loginConfig);
             lc.login();
-            this.serviceSubject = lc.getSubject();
+            final var subject = lc.getSubject();
+            final var credential = Subject.doAs(subject, (PrivilegedExceptionAction<GSSCredential>) () ->
+                GSSManager.getInstance().createCredential(null, GSSCredential.INDEFINITE_LIFETIME,
+                    new Oid[] {new Oid(KERBEROS_MECHANISM), new Oid(SPNEGO_MECHANISM)}, GSSCredential.ACCEPT_ONLY));
+            return new ServiceLogin(subject, credential);
         } catch (final LoginException | IOException e) {
             throw new TechnicalException(e);
+        } catch (final PrivilegedActionException e) {
+            throw new TechnicalException(e.getException());
         }
     }
 
@@ -116,6 +172,10 @@ public class SunJaasKerberosTicketValidator extends InitializableObject implemen
         this.debug = debug;
     }
 
+    public boolean isHoldOnToGSSContext() {
+        return holdOnToGSSContext;
+    }
+
     /**
      * Determines whether to hold on to the {@link GSSContext GSS security context} or
      * otherwise {@link GSSContext#dispose() dispose} of it immediately (the default behaviour).
@@ -128,22 +188,60 @@ public class SunJaasKerberosTicketValidator extends InitializableObject implemen
         this.holdOnToGSSContext = holdOnToGSSContext;
     }
 
+    /**
+     * Defines the period (in seconds) of the background re-login from the keytab: it must be shorter than the lifetime
+     * of the service keys (rotation). Default is 0: no re-login.
+     *
+     * @param reloginPeriod the re-login period in seconds
+     */
+    public void setReloginPeriod(long reloginPeriod) {
+        this.reloginPeriod = reloginPeriod;
+    }
+
+    public long getReloginPeriod() {
+        return reloginPeriod;
+    }
+
+    /**
+     * Defines the executor running the background re-login (a daemon thread is created otherwise).
+     *
+     * @param reloginExecutor the re-login executor
+     */
+    public void setReloginExecutor(ScheduledExecutorService reloginExecutor) {
+        this.reloginExecutor = reloginExecutor;
+    }
+
+    /**
+     * The service subject and its acceptor credential, replaced together at each login.
+     */
+    protected static final class ServiceLogin {
+        private final Subject subject;
+        private final GSSCredential credential;
+
+        private ServiceLogin(Subject subject, GSSCredential credential) {
+            this.subject = subject;
+            this.credential = credential;
+        }
+    }
+
     /**
      * This class is needed, because the validation must run with previously generated JAAS subject
      * which belongs to the service principal and was loaded out of the keytab during startup.
      */
     private class KerberosValidateAction implements PrivilegedExceptionAction<KerberosTicketValidation> {
         byte[] kerberosTicket;
+        GSSCredential credential;
 
-        public KerberosValidateAction(byte[] kerberosTicket) {
+        public KerberosValidateAction(byte[] kerberosTicket, GSSCredential credential) {
             this.kerberosTicket = kerberosTicket;
+            this.credential = credential;
         }
 
         @Override
         public KerberosTicketValidation run() throws Exception {
             var responseToken = new byte[0];
             GSSName gssName = null;
-            var context = GSSManager.getInstance().createContext((GSSCredential) null);
+            var context = GSSManager.getInstance().createContext(credential);
             var first = true;
             while (!context.isEstablished()) {
                 if (first) {
@@ -6,16 +6,23 @@ import org.pac4j.core.context.HttpConstants;
 import org.pac4j.core.context.MockWebContext;
 import org.pac4j.core.context.WebContext;
 import org.pac4j.core.context.session.MockSessionStore;
+import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.UserProfile;
+import org.pac4j.core.store.Store;
 import org.pac4j.core.util.TestsConstants;
 import org.pac4j.core.util.TestsHelper;
 import org.pac4j.kerberos.credentials.KerberosCredentials;
 import org.pac4j.kerberos.credentials.authenticator.KerberosAuthenticator;
 import org.pac4j.kerberos.credentials.authenticator.KerberosTicketValidation;
 import org.pac4j.kerberos.credentials.authenticator.KerberosTicketValidator;
+import org.pac4j.kerberos.credentials.authenticator.SunJaasKerberosTicketValidator;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -91,4 +98,80 @@ public class KerberosClientTests implements TestsConstants {
         final var profile = (CommonProfile) client.getUserProfile(credentials, context, new MockSessionStore()).get();
         assertEquals("garry", profile.getId());
     }
+
+    @Test
+    public void testValidatedTicketsStore() {
+        when(krbValidator.validateTicket(any())).thenReturn(new KerberosTicketValidation("garry", null, null, null));
+        final Map<String, String> validations = new HashMap<>();
+        final var authenticator = new KerberosAuthenticator(krbValidator, buildStore(validations));
+        final var client = new DirectKerberosClient(authenticator);
+
+        // validated, re-sent once without validation, then validated again
+        for (var i = 0; i < 3; i++) {
+            assertEquals("garry", authenticate(client, GOOD_USERNAME).getId());
+        }
+        verify(krbValidator, times(2)).validateTicket(any());
+        assertEquals(1, validations.size());
+        assertFalse(validations.values().iterator().next().contains(new String(KERBEROS_TICKET, StandardCharsets.UTF_8)));
+
+        // same ticket from another client (address)
+        authenticate(client, BAD_USERNAME);
+        verify(krbValidator, times(3)).validateTicket(any());
+        assertEquals(2, validations.size());
+
+        // expired marker
+        validations.replaceAll((key, value) -> (System.currentTimeMillis() - 1000) + value.substring(value.indexOf(':')));
+        authenticate(client, GOOD_USERNAME);
+        verify(krbValidator, times(4)).validateTicket(any());
+        assertEquals(2, validations.size());
+    }
+
+    @Test
+    public void testValidatedTicketsStoreNoTimeout() {
+        final var authenticator = new KerberosAuthenticator(krbValidator, buildStore(new HashMap<>()));
+        authenticator.setValidatedTicketTimeout(0);
+        TestsHelper.expectException(authenticator::init, TechnicalException.class, "validatedTicketTimeout must be greater than zero");
+    }
+
+    @Test
+    public void testValidatedTicketsStoreHoldOnToGSSContext() {
+        final var validator = mock(SunJaasKerberosTicketValidator.class);
+        when(validator.isHoldOnToGSSContext()).thenReturn(true);
+        when(validator.validateTicket(any())).thenReturn(new KerberosTicketValidation("garry", null, null, null));
+        final Map<String, String> validations = new HashMap<>();
+        final var client = new DirectKerberosClient(new KerberosAuthenticator(validator, buildStore(validations)));
+
+        // always validated (with a GSS context)
+        for (var i = 0; i < 3; i++) {
+            assertEquals("garry", authenticate(client, GOOD_USERNAME).getId());
+        }
+        verify(validator, times(3)).validateTicket(any());
+        assertTrue(validations.isEmpty());
+    }
+
+    private Store<String, String> buildStore(final Map<String, String> validations) {
+        return new Store<>() {
+            @Override
+            public Optional<String> get(final String key) {
+                return Optional.ofNullable(validations.get(key));
+            }
+
+            @Override
+            public void set(final String key, final String value) {
+                validations.put(key, value);
+            }
+
+            @Override
+            public void remove(final String key) {
+                validations.remove(key);
+            }
+        };
+    }
+
+    private UserProfile authenticate(final DirectKerberosClient client, final String remoteAddress) {
+        final var context = MockWebContext.create().setRemoteAddress(remoteAddress);
+        context.addRequestHeader(HttpConstants.AUTHORIZATION_HEADER, "Negotiate " + new String(KERBEROS_TICKET, StandardCharsets.UTF_8));
+        final var credentials = client.getCredentials(context, new MockSessionStore()).get();
+        return client.getUserProfile(credentials, context, new MockSessionStore()).get();
+    }
 }
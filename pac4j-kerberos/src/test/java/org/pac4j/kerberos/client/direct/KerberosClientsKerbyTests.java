@@ -89,6 +89,15 @@ public class KerberosClientsKerbyTests implements TestsConstants {
         checkWithGoodTicket(setupDirectKerberosClient());
     }
 
+    @Test
+    public void testDirectAuthenticationAfterRelogin() throws Exception {
+        final var validator = getKerberosValidator();
+        validator.setReloginPeriod(3600);
+        final var client = new DirectKerberosClient(new KerberosAuthenticator(validator));
+        checkWithGoodTicket(client);
+        validator.relogin();
+        checkWithGoodTicket(client);
+    }
 
     // =====================
     // Indirect client below
@@ -11,10 +11,12 @@ import org.pac4j.core.credentials.UsernamePasswordCredentials;
 import org.pac4j.core.exception.*;
 import org.pac4j.core.profile.definition.CommonProfileDefinition;
 import org.pac4j.core.profile.service.AbstractProfileService;
+import org.pac4j.core.store.Store;
 import org.pac4j.core.util.serializer.JsonSerializer;
 import org.pac4j.ldap.profile.LdapProfile;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 import static org.pac4j.core.util.CommonHelper.*;
 
@@ -23,6 +25,10 @@ import static org.pac4j.core.util.CommonHelper.*;
  *
  * Notice that binary attributes are not supported.
  *
+ * The connections can be pooled (<code>maxPoolSize</code>) and the searches by identifier or linked identifier cached
+ * (<code>searchCache</code>). The searches can also be sent without waiting for their results (<code>async</code> batch reads
+ * and the <code>findByIdAsync</code> and <code>findByLinkedIdAsync</code> methods).
+ *
  * @author Jerome Leleu
  * @since 2.0.0
  */
@@ -34,6 +40,28 @@ public class LdapProfileService extends AbstractProfileService<LdapProfile> {
 
     private String usersDn;
 
+    private int batchSize = 100;
+
+    private int minPoolSize = 1;
+
+    private int maxPoolSize = 0;
+
+    private boolean async = false;
+
+    private Store<String, List<Map<String, Object>>> searchCache;
+
+    private ConnectionFactory operationConnectionFactory;
+
+    private PooledConnectionFactory pooledConnectionFactory;
+
+    private AddOperation addOperation;
+
+    private ModifyOperation modifyOperation;
+
+    private DeleteOperation deleteOperation;
+
+    private SearchOperation searchOperation;
+
     public LdapProfileService() {}
 
     public LdapProfileService(final Authenticator ldapAuthenticator) {
@@ -65,6 +93,28 @@ public class LdapProfileService extends AbstractProfileService<LdapProfile> {
         assertNotNull("connectionFactory", connectionFactory);
         assertNull("passwordEncoder", getPasswordEncoder());
         assertNotBlank("usersDn", usersDn);
+        assertTrue(batchSize > 0, "batchSize must be greater than zero");
+        assertTrue(maxPoolSize >= 0, "maxPoolSize cannot be negative");
+
+        close();
+        if (maxPoolSize > 0 && !(connectionFactory instanceof PooledConnectionFactory)) {
+            assertTrue(minPoolSize >= 0 && minPoolSize <= maxPoolSize, "minPoolSize must be between 0 and maxPoolSize");
+            pooledConnectionFactory = new PooledConnectionFactory(connectionFactory.getConnectionConfig());
+            pooledConnectionFactory.setMinPoolSize(minPoolSize);
+            pooledConnectionFactory.setMaxPoolSize(maxPoolSize);
+            pooledConnectionFactory.initialize();
+            operationConnectionFactory = pooledConnectionFactory;
+        } else {
+            operationConnectionFactory = connectionFactory;
+        }
+        // the operations are immutable once configured: they are reused for all the requests
+        addOperation = new AddOperation(operationConnectionFactory);
+        addOperation.setThrowCondition(ResultPredicate.NOT_SUCCESS);
+        modifyOperation = new ModifyOperation(operationConnectionFactory);
+        modifyOperation.setThrowCondition(ResultPredicate.NOT_SUCCESS);
+        deleteOperation = new DeleteOperation(operationConnectionFactory);
+        deleteOperation.setThrowCondition(ResultPredicate.NOT_SUCCESS);
+        searchOperation = new SearchOperation(operationConnectionFactory);
 
         defaultProfileDefinition(new CommonProfileDefinition(x -> new LdapProfile()));
         setSerializer(new JsonSerializer(LdapProfile.class));
@@ -81,12 +131,11 @@ public class LdapProfileService extends AbstractProfileService<LdapProfile> {
             .build();
 
         try {
-            final var add = new AddOperation(connectionFactory);
-            add.setThrowCondition(ResultPredicate.NOT_SUCCESS);
-            add.execute(new AddRequest(ldapEntry.getDn(), ldapEntry.getAttributes()));
+            addOperation.execute(new AddRequest(ldapEntry.getDn(), ldapEntry.getAttributes()));
         } catch (final LdapException e) {
             throw new TechnicalException(e);
         }
+        invalidateSearchCache((String) attributes.get(getIdAttribute()), attributes.get(LINKEDID));
     }
 
     protected String getEntryId(final Map<String, Object> attributes) {
@@ -117,40 +166,205 @@ public class LdapProfileService extends AbstractProfileService<LdapProfile> {
     @Override
     protected void update(final Map<String, Object> attributes) {
         try {
-            final var modify = new ModifyOperation(connectionFactory);
-            modify.setThrowCondition(ResultPredicate.NOT_SUCCESS);
             final List<AttributeModification> modifications = new ArrayList<>();
             for (final var attribute : getLdapAttributes(attributes)) {
                 modifications.add(new AttributeModification(AttributeModification.Type.REPLACE, attribute));
             }
             final var modifyRequest = new ModifyRequest(
                 getEntryId(attributes), modifications.toArray(new AttributeModification[modifications.size()]));
-            modify.execute(modifyRequest);
+            modifyOperation.execute(modifyRequest);
         } catch (final LdapException e) {
             throw new TechnicalException(e);
         }
+        invalidateSearchCache((String) attributes.get(getIdAttribute()), attributes.get(LINKEDID));
     }
 
     @Override
     protected void deleteById(final String id) {
         try {
-            final var delete = new DeleteOperation(connectionFactory);
-            delete.setThrowCondition(ResultPredicate.NOT_SUCCESS);
-            delete.execute(new DeleteRequest(getIdAttribute() + "=" + id + "," + usersDn));
+            deleteOperation.execute(new DeleteRequest(getIdAttribute() + "=" + id + "," + usersDn));
         } catch (final LdapException e) {
             throw new TechnicalException(e);
         }
+        invalidateSearchCache(id, null);
     }
 
     @Override
     protected List<Map<String, Object>> read(final List<String> names, final String key, final String value) {
+        final var cacheKey = computeSearchCacheKey(names, key, value);
+        if (cacheKey != null) {
+            final var cached = searchCache.get(cacheKey);
+            if (cached.isPresent()) {
+                return copy(cached.get());
+            }
+        }
+        final List<Map<String, Object>> listAttributes;
+        try {
+            listAttributes = getAttributesFromResponse(searchOperation.execute(buildSearchRequest(names, key, value)));
+        } catch (final LdapException e) {
+            throw new TechnicalException(e);
+        }
+        if (cacheKey != null) {
+            searchCache.set(cacheKey, copy(listAttributes));
+        }
+        return listAttributes;
+    }
+
+    /**
+     * Search the entries without waiting for the result.
+     *
+     * @param names the attributes to read
+     * @param key the attribute to search on
+     * @param value the value of the attribute
+     * @return the future list of attributes of the entries
+     */
+    protected CompletableFuture<List<Map<String, Object>>> readAsync(final List<String> names, final String key, final String value) {
+        final var cacheKey = computeSearchCacheKey(names, key, value);
+        if (cacheKey != null) {
+            final var cached = searchCache.get(cacheKey);
+            if (cached.isPresent()) {
+                return CompletableFuture.completedFuture(copy(cached.get()));
+            }
+        }
+        final var future = new CompletableFuture<List<Map<String, Object>>>();
+        final List<Map<String, Object>> listAttributes = Collections.synchronizedList(new ArrayList<>());
+        final var search = new SearchOperation(operationConnectionFactory);
+        // the handlers are called as the entries and the result are received
+        search.setEntryHandlers(entry -> {
+            listAttributes.add(getAttributesFromEntry(entry));
+            return entry;
+        });
+        search.setResultHandlers(result -> future.complete(new ArrayList<>(listAttributes)));
+        search.setExceptionHandler(e -> future.completeExceptionally(new TechnicalException(e)));
+        try {
+            search.send(buildSearchRequest(names, key, value));
+        } catch (final LdapException e) {
+            future.completeExceptionally(new TechnicalException(e));
+        }
+        if (cacheKey == null) {
+            return future;
+        }
+        return future.thenApply(found -> {
+            searchCache.set(cacheKey, copy(found));
+            return found;
+        });
+    }
+
+    /**
+     * Find a profile by its identifier without blocking the current thread.
+     *
+     * @param id the identifier
+     * @return the future profile (<code>null</code> if not found)
+     */
+    public CompletableFuture<LdapProfile> findByIdAsync(final String id) {
+        init();
+
+        assertNotBlank(getIdAttribute(), id);
+
+        return readAsync(defineAttributesToRead(), getIdAttribute(), id)
+            .thenApply(listAttributes -> convertAttributesToProfile(listAttributes, null));
+    }
+
+    /**
+     * Find a profile by its linked identifier without blocking the current thread.
+     *
+     * @param linkedId the linked identifier
+     * @return the future profile (<code>null</code> if not found)
+     */
+    public CompletableFuture<LdapProfile> findByLinkedIdAsync(final String linkedId) {
+        init();
+
+        assertNotBlank(LINKEDID, linkedId);
+
+        return readAsync(defineAttributesToRead(), LINKEDID, linkedId)
+            .thenApply(listAttributes -> convertAttributesToProfile(listAttributes, null));
+    }
+
+    protected SearchRequest buildSearchRequest(final List<String> names, final String key, final String value) {
+        return new SearchRequest(usersDn, new FilterTemplate("(" + key + "={0})", new Object[] {value}),
+            names.toArray(new String[names.size()]));
+    }
+
+    /**
+     * Only the searches by identifier and linked identifier (of the profiles) are cached.
+     *
+     * @param names the attributes to read
+     * @param key the attribute to search on
+     * @param value the value of the attribute
+     * @return the key in the search cache (<code>null</code> if the search must not be cached)
+     */
+    protected String computeSearchCacheKey(final List<String> names, final String key, final String value) {
+        if (searchCache != null && (getIdAttribute().equals(key) || LINKEDID.equals(key)) && names.equals(defineAttributesToRead())) {
+            return key + "=" + value;
+        }
+        return null;
+    }
+
+    /**
+     * Remove the cached searches of an entry, by identifier and by the old and new linked identifiers.
+     *
+     * @param id the identifier
+     * @param linkedId the new linked identifier (optional)
+     */
+    protected void invalidateSearchCache(final String id, final Object linkedId) {
+        if (searchCache != null) {
+            final var idKey = getIdAttribute() + "=" + id;
+            final var cached = searchCache.get(idKey);
+            searchCache.remove(idKey);
+            if (cached.isPresent()) {
+                for (final var attributes : cached.get()) {
+                    final var oldLinkedId = attributes.get(LINKEDID);
+                    if (oldLinkedId != null) {
+                        searchCache.remove(LINKEDID + "=" + oldLinkedId);
+                    }
+                }
+            }
+            if (linkedId != null) {
+                searchCache.remove(LINKEDID + "=" + linkedId);
+            }
+        }
+    }
+
+    private static List<Map<String, Object>> copy(final List<Map<String, Object>> listAttributes) {
+        final List<Map<String, Object>> copy = new ArrayList<>(listAttributes.size());
+        for (final var attributes : listAttributes) {
+            copy.add(new HashMap<>(attributes));
+        }
+        return copy;
+    }
+
+    protected List<Map<String, Object>> getAttributesFromResponse(final SearchResponse response) {
+        final List<Map<String, Object>> listAttributes = new ArrayList<>();
+        for (final var entry : response.getEntries()) {
+            listAttributes.add(getAttributesFromEntry(entry));
+        }
+        return listAttributes;
+    }
+
+    @Override
+    protected List<Map<String, Object>> batchRead(final List<String> names, final String key, final Collection<String> values) {
         final List<Map<String, Object>> listAttributes = new ArrayList<>();
+        final List<String> valuesList = new ArrayList<>(values);
+        final List<SearchOperationHandle> handles = new ArrayList<>();
         try {
-            final var search = new SearchOperation(connectionFactory);
-            final var result = search.execute(new SearchRequest(usersDn,key + "=" + value,
-                names.toArray(new String[names.size()])));
-            for (final var entry : result.getEntries()) {
-                listAttributes.add(getAttributesFromEntry(entry));
+            for (var start = 0; start < valuesList.size(); start += batchSize) {
+                final var chunk = valuesList.subList(start, Math.min(start + batchSize, valuesList.size()));
+                final var filter = new StringBuilder("(|");
+                for (var i = 0; i < chunk.size(); i++) {
+                    filter.append("(").append(key).append("={").append(i).append("})");
+                }
+                filter.append(")");
+                final var request = new SearchRequest(usersDn, new FilterTemplate(filter.toString(), chunk.toArray()),
+                    names.toArray(new String[names.size()]));
+                if (async) {
+                    // send all the searches before waiting for their results
+                    handles.add(searchOperation.send(request));
+                } else {
+                    listAttributes.addAll(getAttributesFromResponse(searchOperation.execute(request)));
+                }
+            }
+            for (final var handle : handles) {
+                listAttributes.addAll(getAttributesFromResponse(handle.await()));
             }
         } catch (final LdapException e) {
             throw new TechnicalException(e);
@@ -178,6 +392,22 @@ public class LdapProfileService extends AbstractProfileService<LdapProfile> {
         final var credentials = (UsernamePasswordCredentials) cred;
         final var username = credentials.getUsername();
         assertNotBlank(Pac4jConstants.USERNAME, username);
+
+        // recently verified credentials: no bind, only read the entry
+        // (a password change or an account lockout made in the directory is only seen when the cached verification expires)
+        final var cache = getVerifiedCredentialsCache();
+        if (cache != null) {
+            final var id = cache.get(username, credentials.getPassword(), null);
+            if (id.isPresent()) {
+                final var listAttributes = read(defineAttributesToRead(), getIdAttribute(), id.get());
+                if (listAttributes.size() == 1) {
+                    credentials.setUserProfile(convertAttributesToProfile(listAttributes, username));
+                    return;
+                }
+                invalidateVerifiedCredentials(id.get(), username);
+            }
+        }
+
         final AuthenticationResponse response;
         try {
             logger.debug("Attempting LDAP authentication for: {}", credentials);
@@ -194,6 +424,7 @@ public class LdapProfileService extends AbstractProfileService<LdapProfile> {
             final var entry = response.getLdapEntry();
             final List<Map<String, Object>> listAttributes = new ArrayList<>();
             listAttributes.add(getAttributesFromEntry(entry));
+            rememberVerifiedCredentials(listAttributes.get(0), username, credentials.getPassword(), null);
             final var profile = convertAttributesToProfile(listAttributes, username);
             credentials.setUserProfile(profile);
             return;
@@ -221,6 +452,66 @@ public class LdapProfileService extends AbstractProfileService<LdapProfile> {
         this.usersDn = usersDn;
     }
 
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(final int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Close the connection pool created by this service (if any).
+     */
+    public void close() {
+        if (pooledConnectionFactory != null) {
+            pooledConnectionFactory.close();
+            pooledConnectionFactory = null;
+        }
+    }
+
+    public int getMinPoolSize() {
+        return minPoolSize;
+    }
+
+    public void setMinPoolSize(final int minPoolSize) {
+        this.minPoolSize = minPoolSize;
+    }
+
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    /**
+     * Define the maximum size of the pool of connections created from the connection factory (0: no pool).
+     *
+     * @param maxPoolSize the maximum pool size
+     */
+    public void setMaxPoolSize(final int maxPoolSize) {
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * Define whether the searches of a batch read are all sent before waiting for their results.
+     *
+     * @param async whether the searches are sent without waiting
+     */
+    public void setAsync(final boolean async) {
+        this.async = async;
+    }
+
+    public Store<String, List<Map<String, Object>>> getSearchCache() {
+        return searchCache;
+    }
+
+    public void setSearchCache(final Store<String, List<Map<String, Object>>> searchCache) {
+        this.searchCache = searchCache;
+    }
+
     public Authenticator getLdapAuthenticator() {
         return ldapAuthenticator;
     }
@@ -232,7 +523,7 @@ public class LdapProfileService extends AbstractProfileService<LdapProfile> {
     @Override
     public String toString() {
         return toNiceString(this.getClass(), "connectionFactory", connectionFactory, "ldapAuthenticator", ldapAuthenticator,
-                "usersDn", usersDn, "idAttribute", getIdAttribute(), "attributes", getAttributes(),
-                "profileDefinition", getProfileDefinition());
+                "usersDn", usersDn, "maxPoolSize", maxPoolSize, "async", async, "searchCache", searchCache,
+                "idAttribute", getIdAttribute(), "attributes", getAttributes(), "profileDefinition", getProfileDefinition());
     }
 }
@@ -9,6 +9,8 @@ import org.pac4j.core.credentials.UsernamePasswordCredentials;
 import org.pac4j.core.exception.BadCredentialsException;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.profile.service.AbstractProfileService;
+import org.pac4j.core.profile.service.VerifiedCredentialsCache;
+import org.pac4j.core.store.Store;
 import org.pac4j.core.util.Pac4jConstants;
 import org.pac4j.core.util.TestsConstants;
 import org.pac4j.core.util.TestsHelper;
@@ -16,10 +18,13 @@ import org.pac4j.ldap.profile.LdapProfile;
 import org.pac4j.ldap.test.tools.LdapClient;
 import org.pac4j.ldap.test.tools.LdapServer;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static org.junit.Assert.*;
 
@@ -192,6 +197,146 @@ public final class LdapProfileServiceTests implements TestsConstants {
         assertEquals(0, results3.size());
     }
 
+    @Test
+    public void testVerifiedCredentialsCache() {
+        final var profile = new LdapProfile();
+        profile.setId(LDAP_ID);
+        profile.addAttribute(USERNAME, LDAP_USER);
+        final var ldapProfileService = new LdapProfileService(connectionFactory, authenticator, LdapServer.BASE_PEOPLE_DN);
+        ldapProfileService.setIdAttribute(LdapServer.CN);
+        ldapProfileService.setUsernameAttribute(LdapServer.SN);
+        ldapProfileService.setPasswordAttribute("userPassword");
+        ldapProfileService.setVerifiedCredentialsCache(new VerifiedCredentialsCache());
+        ldapProfileService.create(profile, LDAP_PASS);
+        // bind then cache
+        for (var i = 0; i < 2; i++) {
+            final var credentials = new UsernamePasswordCredentials(LDAP_ID, LDAP_PASS);
+            ldapProfileService.validate(credentials, null, null);
+            assertEquals(LDAP_ID, credentials.getUserProfile().getId());
+        }
+        TestsHelper.expectException(() -> ldapProfileService.validate(new UsernamePasswordCredentials(LDAP_ID, LDAP_PASS2), null, null),
+            BadCredentialsException.class, "Invalid credentials for: " + LDAP_ID);
+        // the update invalidates the cache
+        ldapProfileService.update(profile, LDAP_PASS2);
+        TestsHelper.expectException(() -> ldapProfileService.validate(new UsernamePasswordCredentials(LDAP_ID, LDAP_PASS), null, null),
+            BadCredentialsException.class, "Invalid credentials for: " + LDAP_ID);
+        ldapProfileService.validate(new UsernamePasswordCredentials(LDAP_ID, LDAP_PASS2), null, null);
+        // and the removal too
+        ldapProfileService.remove(profile);
+        TestsHelper.expectException(() -> ldapProfileService.validate(new UsernamePasswordCredentials(LDAP_ID, LDAP_PASS2), null, null));
+    }
+
+    @Test
+    public void testBatchCreateFind() {
+        final var ldapProfileService = new LdapProfileService(connectionFactory, authenticator, LdapServer.BASE_PEOPLE_DN);
+        ldapProfileService.setIdAttribute(LdapServer.CN);
+        ldapProfileService.setUsernameAttribute(LdapServer.SN);
+        ldapProfileService.setPasswordAttribute("userPassword");
+        ldapProfileService.setBatchSize(2);
+        final List<LdapProfile> profiles = new ArrayList<>();
+        final Map<String, String> passwords = new HashMap<>();
+        for (var i = 1; i <= 3; i++) {
+            final var profile = new LdapProfile();
+            profile.setId(LDAP_ID + i);
+            profile.setLinkedId(LDAP_LINKED_ID + i);
+            profile.addAttribute(USERNAME, LDAP_USER + i);
+            profiles.add(profile);
+            passwords.put(profile.getId(), LDAP_PASS);
+        }
+        // create
+        ldapProfileService.createAll(profiles, passwords);
+        // find
+        final var results = ldapProfileService.findAllByIds(Arrays.asList(LDAP_ID + 1, LDAP_ID + 2, LDAP_ID + 3, "unknown"));
+        assertEquals(3, results.size());
+        for (final var profile : results) {
+            assertEquals(LDAP_USER + profile.getId().substring(LDAP_ID.length()), profile.getUsername());
+        }
+        // clean up
+        for (final var profile : profiles) {
+            ldapProfileService.remove(profile);
+        }
+        assertTrue(ldapProfileService.findAllByIds(Arrays.asList(LDAP_ID + 1)).isEmpty());
+    }
+
+    @Test
+    public void testPooledCachedAndAsyncSearches() throws Exception {
+        final Map<String, List<Map<String, Object>>> cache = new HashMap<>();
+        final var ldapProfileService = new LdapProfileService(connectionFactory, authenticator, LdapServer.BASE_PEOPLE_DN);
+        ldapProfileService.setIdAttribute(LdapServer.CN);
+        ldapProfileService.setUsernameAttribute(LdapServer.SN);
+        ldapProfileService.setPasswordAttribute("userPassword");
+        ldapProfileService.setBatchSize(1);
+        ldapProfileService.setMaxPoolSize(2);
+        ldapProfileService.setAsync(true);
+        ldapProfileService.setSearchCache(new Store<>() {
+            @Override
+            public Optional<List<Map<String, Object>>> get(final String key) {
+                return Optional.ofNullable(cache.get(key));
+            }
+
+            @Override
+            public void set(final String key, final List<Map<String, Object>> value) {
+                cache.put(key, value);
+            }
+
+            @Override
+            public void remove(final String key) {
+                cache.remove(key);
+            }
+        });
+        try {
+            final List<LdapProfile> profiles = new ArrayList<>();
+            final Map<String, String> passwords = new HashMap<>();
+            for (var i = 1; i <= 3; i++) {
+                final var profile = new LdapProfile();
+                profile.setId(LDAP_ID + i);
+                profile.setLinkedId(LDAP_LINKED_ID + i);
+                profile.addAttribute(USERNAME, LDAP_USER + i);
+                profiles.add(profile);
+                passwords.put(profile.getId(), LDAP_PASS);
+            }
+            ldapProfileService.createAll(profiles, passwords);
+            // cached searches
+            assertEquals(LDAP_USER + 1, ldapProfileService.findById(LDAP_ID + 1).getUsername());
+            assertTrue(cache.containsKey(LdapServer.CN + "=" + LDAP_ID + 1));
+            assertEquals(LDAP_USER + 1, ldapProfileService.findById(LDAP_ID + 1).getUsername());
+            assertEquals(LDAP_ID + 2, ldapProfileService.findByLinkedIdAsync(LDAP_LINKED_ID + 2).get().getId());
+            assertTrue(cache.containsKey(AbstractProfileService.LINKEDID + "=" + LDAP_LINKED_ID + 2));
+            assertEquals(LDAP_USER + 3, ldapProfileService.findByIdAsync(LDAP_ID + 3).get().getUsername());
+            assertNull(ldapProfileService.findByIdAsync("unknown").get());
+            // pipelined batch read
+            assertEquals(3, ldapProfileService.findAllByIds(Arrays.asList(LDAP_ID + 1, LDAP_ID + 2, LDAP_ID + 3)).size());
+            // the update invalidates the cache
+            final var profile = profiles.get(0);
+            profile.addAttribute(USERNAME, LDAP_USER2);
+            ldapProfileService.update(profile, LDAP_PASS2);
+            assertFalse(cache.containsKey(LdapServer.CN + "=" + LDAP_ID + 1));
+            assertEquals(LDAP_USER2, ldapProfileService.findById(LDAP_ID + 1).getUsername());
+            // clean up
+            for (final var p : profiles) {
+                ldapProfileService.remove(p);
+            }
+            assertNull(ldapProfileService.findById(LDAP_ID + 1));
+        } finally {
+            ldapProfileService.close();
+        }
+    }
+
+    @Test
+    public void testEscapedSearchFilter() {
+        final var ldapProfileService = new LdapProfileService(connectionFactory, authenticator, LdapServer.BASE_PEOPLE_DN);
+        ldapProfileService.setIdAttribute(LdapServer.CN);
+        ldapProfileService.setUsernameAttribute(LdapServer.SN);
+        final var profile = new LdapProfile();
+        profile.setId(LDAP_ID);
+        profile.addAttribute(USERNAME, LDAP_USER);
+        ldapProfileService.create(profile, LDAP_PASS);
+        assertNotNull(ldapProfileService.findById(LDAP_ID));
+        assertNull(ldapProfileService.findById("*"));
+        assertNull(ldapProfileService.findById(LDAP_ID + ")(" + LdapServer.CN + "=*"));
+        ldapProfileService.removeById(LDAP_ID);
+    }
+
     private List<Map<String, Object>> getData(final LdapProfileService ldapProfileService, final String id) {
         return ldapProfileService.read(Arrays.asList(LdapServer.CN, LdapServer.SN, "id", "username", "linkedid", "password",
             "serializedprofile"), LdapServer.CN, id);
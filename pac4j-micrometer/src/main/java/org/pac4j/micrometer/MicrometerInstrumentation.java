@@ -0,0 +1,93 @@
+package org.pac4j.micrometer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.pac4j.core.metrics.Instrumentation;
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Record the pac4j metrics in a Micrometer registry: the timers (with an optional percentiles histogram, for example
+ * to follow the latency of each identity provider) and the counters.
+ *
+ * The meters are registered once and cached by name and tags (their number is bounded by the number of clients and components).
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public class MicrometerInstrumentation implements Instrumentation {
+
+    private final MeterRegistry registry;
+
+    private final Map<List<String>, Timer> timers = new ConcurrentHashMap<>();
+
+    private final Map<List<String>, Counter> counters = new ConcurrentHashMap<>();
+
+    private boolean percentileHistogram = true;
+
+    public MicrometerInstrumentation(final MeterRegistry registry) {
+        CommonHelper.assertNotNull("registry", registry);
+        this.registry = registry;
+    }
+
+    @Override
+    public Sample start(final String name, final String... tags) {
+        final var clock = registry.config().clock();
+        final var startTime = clock.monotonicTime();
+        return outcome -> {
+            final var duration = clock.monotonicTime() - startTime;
+            final var key = computeKey(name, tags, outcome);
+            timers.computeIfAbsent(key, k -> Timer.builder(name)
+                .tags(tags)
+                .tag(TAG_OUTCOME, outcome)
+                .publishPercentileHistogram(percentileHistogram)
+                .register(registry))
+                .record(duration, TimeUnit.NANOSECONDS);
+        };
+    }
+
+    @Override
+    public void increment(final String name, final String... tags) {
+        counters.computeIfAbsent(computeKey(name, tags, null), k -> Counter.builder(name).tags(tags).register(registry)).increment();
+    }
+
+    private static List<String> computeKey(final String name, final String[] tags, final String outcome) {
+        final List<String> key = new ArrayList<>(tags.length + 2);
+        key.add(name);
+        Collections.addAll(key, tags);
+        if (outcome != null) {
+            key.add(outcome);
+        }
+        return key;
+    }
+
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+
+    public boolean isPercentileHistogram() {
+        return percentileHistogram;
+    }
+
+    /**
+     * Define whether the timers publish a percentiles histogram (for aggregable percentiles in the monitoring system).
+     * It must be defined before any timer is recorded.
+     *
+     * @param percentileHistogram whether to publish a percentiles histogram
+     */
+    public void setPercentileHistogram(final boolean percentileHistogram) {
+        this.percentileHistogram = percentileHistogram;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "registry", registry, "percentileHistogram", percentileHistogram);
+    }
+}
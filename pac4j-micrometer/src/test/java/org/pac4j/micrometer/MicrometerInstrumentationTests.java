@@ -0,0 +1,51 @@
+package org.pac4j.micrometer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+import org.pac4j.core.metrics.Instrumentation;
+import org.pac4j.core.util.TestsConstants;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link MicrometerInstrumentation}.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public final class MicrometerInstrumentationTests implements TestsConstants {
+
+    @Test
+    public void testTimersAndCounters() {
+        final var registry = new SimpleMeterRegistry();
+        final var instrumentation = new MicrometerInstrumentation(registry);
+
+        instrumentation.start(Instrumentation.AUTHENTICATION, Instrumentation.TAG_CLIENT, NAME).stop(Instrumentation.SUCCESS);
+        instrumentation.start(Instrumentation.AUTHENTICATION, Instrumentation.TAG_CLIENT, NAME).stop(Instrumentation.SUCCESS);
+        instrumentation.start(Instrumentation.AUTHENTICATION, Instrumentation.TAG_CLIENT, NAME).stop(Instrumentation.FAILURE);
+        instrumentation.increment(Instrumentation.SECURITY, Instrumentation.TAG_OUTCOME, "granted");
+
+        assertEquals(2, registry.get(Instrumentation.AUTHENTICATION).tag(Instrumentation.TAG_CLIENT, NAME)
+            .tag(Instrumentation.TAG_OUTCOME, Instrumentation.SUCCESS).timer().count());
+        assertEquals(1, registry.get(Instrumentation.AUTHENTICATION).tag(Instrumentation.TAG_OUTCOME, Instrumentation.FAILURE)
+            .timer().count());
+        assertEquals(1.0, registry.get(Instrumentation.SECURITY).tag(Instrumentation.TAG_OUTCOME, "granted").counter().count(), 0.0);
+        assertEquals(3, registry.getMeters().size());
+    }
+
+    @Test
+    public void testMetersAreCached() {
+        final var registry = new SimpleMeterRegistry();
+        final var instrumentation = new MicrometerInstrumentation(registry);
+
+        instrumentation.start(Instrumentation.AUTHENTICATION, Instrumentation.TAG_CLIENT, NAME).stop(Instrumentation.SUCCESS);
+        final var timer = registry.get(Instrumentation.AUTHENTICATION).timer();
+        instrumentation.start(Instrumentation.AUTHENTICATION, Instrumentation.TAG_CLIENT, NAME).stop(Instrumentation.SUCCESS);
+        // same name and tags but another client
+        instrumentation.start(Instrumentation.AUTHENTICATION, Instrumentation.TAG_CLIENT, VALUE).stop(Instrumentation.SUCCESS);
+
+        assertSame(timer, registry.get(Instrumentation.AUTHENTICATION).tag(Instrumentation.TAG_CLIENT, NAME).timer());
+        assertEquals(2, timer.count());
+        assertEquals(2, registry.getMeters().size());
+    }
+}
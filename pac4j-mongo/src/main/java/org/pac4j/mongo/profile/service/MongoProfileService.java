@@ -2,6 +2,8 @@ package org.pac4j.mongo.profile.service;
 
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
 import org.bson.Document;
 import org.pac4j.core.credentials.password.PasswordEncoder;
 import org.pac4j.core.profile.definition.CommonProfileDefinition;
@@ -11,6 +13,7 @@ import org.pac4j.core.util.serializer.JsonSerializer;
 import org.pac4j.mongo.profile.MongoProfile;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -76,8 +79,36 @@ public class MongoProfileService extends AbstractProfileService<MongoProfile> {
         getCollection().insertOne(doc);
     }
 
+    @Override
+    protected void batchInsert(final List<Map<String, Object>> listAttributes) {
+        final List<Document> docs = new ArrayList<>(listAttributes.size());
+        for (final var attributes : listAttributes) {
+            docs.add(new Document(attributes));
+        }
+
+        logger.debug("Insert docs: {}", docs);
+        getCollection().insertMany(docs);
+    }
+
     @Override
     protected void update(final Map<String, Object> attributes) {
+        final var model = buildUpdateModel(attributes);
+        logger.debug("Updating with: {}", model);
+        getCollection().updateOne(model.getFilter(), model.getUpdate());
+    }
+
+    @Override
+    protected void batchUpdate(final List<Map<String, Object>> listAttributes) {
+        final List<WriteModel<Document>> models = new ArrayList<>(listAttributes.size());
+        for (final var attributes : listAttributes) {
+            models.add(buildUpdateModel(attributes));
+        }
+
+        logger.debug("Updating with: {}", models);
+        getCollection().bulkWrite(models);
+    }
+
+    protected UpdateOneModel<Document> buildUpdateModel(final Map<String, Object> attributes) {
         String id = null;
         final var doc = new Document();
         for (final var entry : attributes.entrySet()) {
@@ -91,8 +122,7 @@ public class MongoProfileService extends AbstractProfileService<MongoProfile> {
         }
 
         CommonHelper.assertNotNull(ID, id);
-        logger.debug("Updating id: {} with doc: {}", id, doc);
-        getCollection().updateOne(eq(getIdAttribute(), id), new Document("$set", doc));
+        return new UpdateOneModel<>(eq(getIdAttribute(), id), new Document("$set", doc));
     }
 
     @Override
@@ -110,16 +140,7 @@ public class MongoProfileService extends AbstractProfileService<MongoProfile> {
         try (var cursor = getCollection().find(eq(key, value)).iterator()) {
             var i = 0;
             while (cursor.hasNext() && i <= 2) {
-                final var result = cursor.next();
-                final Map<String, Object> newAttributes = new HashMap<>();
-                // filter on names
-                for (final var entry : result.entrySet()) {
-                    final var name = entry.getKey();
-                    if (names == null || names.contains(name)) {
-                        newAttributes.put(name, entry.getValue());
-                    }
-                }
-                listAttributes.add(newAttributes);
+                listAttributes.add(filterAttributes(cursor.next(), names));
                 i++;
             }
         }
@@ -128,6 +149,32 @@ public class MongoProfileService extends AbstractProfileService<MongoProfile> {
         return listAttributes;
     }
 
+    @Override
+    protected List<Map<String, Object>> batchRead(final List<String> names, final String key, final Collection<String> values) {
+
+        logger.debug("Reading key / values: {} / {}", key, values);
+        final List<Map<String, Object>> listAttributes = new ArrayList<>();
+        try (var cursor = getCollection().find(in(key, values)).iterator()) {
+            while (cursor.hasNext()) {
+                listAttributes.add(filterAttributes(cursor.next(), names));
+            }
+        }
+        logger.debug("Found: {}", listAttributes);
+
+        return listAttributes;
+    }
+
+    protected Map<String, Object> filterAttributes(final Document result, final List<String> names) {
+        final Map<String, Object> newAttributes = new HashMap<>();
+        for (final var entry : result.entrySet()) {
+            final var name = entry.getKey();
+            if (names == null || names.contains(name)) {
+                newAttributes.put(name, entry.getValue());
+            }
+        }
+        return newAttributes;
+    }
+
     protected MongoCollection<Document> getCollection() {
         final var db = mongoClient.getDatabase(usersDatabase);
         return db.getCollection(usersCollection);
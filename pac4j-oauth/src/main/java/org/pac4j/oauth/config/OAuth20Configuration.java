@@ -31,7 +31,7 @@ public class OAuth20Configuration extends OAuthConfiguration {
     private ValueGenerator stateGenerator = new RandomValueGenerator();
 
     /**
-     * Build an OAuth service from the web context.
+     * Build (or get from cache) an OAuth service from the web context.
      *
      * @param context the web context
      * @param client the client
@@ -43,8 +43,8 @@ public class OAuth20Configuration extends OAuthConfiguration {
 
         final var finalCallbackUrl = client.computeFinalCallbackUrl(context);
 
-        return ((DefaultApi20) api).createService(this.key, this.secret, finalCallbackUrl, this.scope,
-            this.responseType, null, null, this.httpClientConfig, null);
+        return getOrBuildService(client, finalCallbackUrl, callbackUrl -> ((DefaultApi20) api).createService(this.key,
+            this.secret, callbackUrl, this.scope, this.responseType, null, null, this.httpClientConfig, getSharedHttpClient()));
     }
 
     public Map<String, String> getCustomParams() {
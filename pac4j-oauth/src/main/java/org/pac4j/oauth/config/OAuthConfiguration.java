@@ -1,6 +1,8 @@
 package org.pac4j.oauth.config;
 
+import com.github.scribejava.core.httpclient.HttpClient;
 import com.github.scribejava.core.httpclient.HttpClientConfig;
+import com.github.scribejava.core.httpclient.HttpClientProvider;
 import com.github.scribejava.core.oauth.OAuthService;
 import org.pac4j.core.client.IndirectClient;
 import org.pac4j.core.client.config.BaseClientConfiguration;
@@ -8,6 +10,12 @@ import org.pac4j.core.context.WebContext;
 import org.pac4j.core.util.CommonHelper;
 import org.pac4j.oauth.profile.definition.OAuthProfileDefinition;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.function.Function;
+
 /**
  * The base OAuth configuration.
  *
@@ -36,8 +44,18 @@ public abstract class OAuthConfiguration extends BaseClientConfiguration {
 
     protected HttpClientConfig httpClientConfig;
 
+    protected HttpClient httpClient;
+
     protected Object api;
 
+    protected int serviceCacheSize = 100;
+
+    /* HTTP client shared by all the services: the defined one or the one created from the httpClientConfig */
+    private HttpClient sharedHttpClient;
+
+    /* Services by client name and callback URL */
+    private Map<String, OAuthService> services;
+
     @Override
     protected void internalInit(final boolean forceReinit) {
         CommonHelper.assertNotNull("api", api);
@@ -45,10 +63,67 @@ public abstract class OAuthConfiguration extends BaseClientConfiguration {
         CommonHelper.assertNotBlank("secret", this.secret);
         CommonHelper.assertNotNull("hasBeenCancelledFactory", hasBeenCancelledFactory);
         CommonHelper.assertNotNull("profileDefinition", profileDefinition);
+        CommonHelper.assertTrue(this.serviceCacheSize >= 0, "serviceCacheSize cannot be negative");
+
+        if (httpClient != null) {
+            sharedHttpClient = httpClient;
+        } else if (httpClientConfig != null) {
+            sharedHttpClient = createHttpClient(httpClientConfig);
+        } else {
+            sharedHttpClient = null;
+        }
+        final var maxSize = serviceCacheSize;
+        services = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, OAuthService> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * Create the HTTP client from its configuration, the same way scribejava does for each service.
+     *
+     * @param config the HTTP client configuration
+     * @return the HTTP client (or <code>null</code> if no provider supports the configuration)
+     */
+    protected HttpClient createHttpClient(final HttpClientConfig config) {
+        for (final var provider : ServiceLoader.load(HttpClientProvider.class)) {
+            final var client = provider.createClient(config);
+            if (client != null) {
+                return client;
+            }
+        }
+        return null;
     }
 
     public abstract OAuthService buildService(final WebContext context, final IndirectClient client);
 
+    /**
+     * Get the OAuth service for the client and the callback URL: services are built once and cached (unless the cache
+     * is disabled). The service is built outside of the cache lock: two concurrent callers may both build it, only one
+     * is cached.
+     *
+     * @param client the client
+     * @param finalCallbackUrl the final callback URL
+     * @param serviceBuilder the builder of the service from the callback URL
+     * @return the OAuth service
+     */
+    protected OAuthService getOrBuildService(final IndirectClient client, final String finalCallbackUrl,
+                                             final Function<String, OAuthService> serviceBuilder) {
+        if (serviceCacheSize == 0) {
+            return serviceBuilder.apply(finalCallbackUrl);
+        }
+        final var cacheKey = client.getName() + "|" + finalCallbackUrl;
+        final var service = services.get(cacheKey);
+        if (service != null) {
+            return service;
+        }
+        final var newService = serviceBuilder.apply(finalCallbackUrl);
+        final var existingService = services.putIfAbsent(cacheKey, newService);
+        return existingService != null ? existingService : newService;
+    }
+
     public String getKey() {
         return key;
     }
@@ -113,6 +188,32 @@ public abstract class OAuthConfiguration extends BaseClientConfiguration {
         this.httpClientConfig = httpClientConfig;
     }
 
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    public void setHttpClient(final HttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    protected HttpClient getSharedHttpClient() {
+        return sharedHttpClient;
+    }
+
+    public int getServiceCacheSize() {
+        return serviceCacheSize;
+    }
+
+    /**
+     * Define how many services (per client and callback URL) are cached, the least recently used ones being evicted
+     * (zero disables the cache: a service is built for each request).
+     *
+     * @param serviceCacheSize the size of the service cache
+     */
+    public void setServiceCacheSize(final int serviceCacheSize) {
+        this.serviceCacheSize = serviceCacheSize;
+    }
+
     public Object getApi() {
         return api;
     }
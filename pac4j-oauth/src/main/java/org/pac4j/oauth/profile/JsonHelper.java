@@ -1,8 +1,12 @@
 package org.pac4j.oauth.profile;
 
 import java.io.IOException;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -95,6 +99,58 @@ public final class JsonHelper {
         return null;
     }
 
+    /**
+     * Read the fields of the JSON object of a text in a streaming way, without building the JSON tree: the fields accepted
+     * by the filter are read as a string, a boolean, a number or a node (like {@link #getElement(JsonNode, String)})
+     * and passed to the consumer, the other fields are skipped.
+     *
+     * @param text JSON text
+     * @param filter the filter on the field names
+     * @param consumer the consumer of the accepted fields (name and value)
+     * @return whether the text is a JSON object
+     */
+    public static boolean readFields(final String text, final Predicate<String> filter, final BiConsumer<String, Object> consumer) {
+        try (var parser = mapper.getFactory().createParser(text)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return false;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final var name = parser.getCurrentName();
+                parser.nextToken();
+                if (filter.test(name)) {
+                    final var value = readValue(parser);
+                    if (value != null) {
+                        consumer.accept(name, value);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return true;
+        } catch (final IOException e) {
+            logger.error("Cannot read fields", e);
+        }
+        return false;
+    }
+
+    private static Object readValue(final JsonParser parser) throws IOException {
+        switch (parser.currentToken()) {
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getNumberValue();
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                return parser.getBooleanValue();
+            case VALUE_STRING:
+                return parser.getText();
+            case START_OBJECT:
+            case START_ARRAY:
+                return parser.readValueAsTree();
+            default:
+                return null;
+        }
+    }
+
     /**
      * Returns the JSON string for the object.
      *
@@ -38,18 +38,14 @@ public final class JsonConverter implements AttributeConverter {
             if (clazz.isAssignableFrom(attribute.getClass())) {
                 return attribute;
             } else if (attribute instanceof String || attribute instanceof JsonNode) {
-                final String s;
-                if (attribute instanceof String) {
-                    s = (String) attribute;
-                } else {
-                    s = JsonHelper.toJSONString(attribute);
-                }
-
+                final var mapper = JsonHelper.getMapper();
+                final var reader = typeReference != null ? mapper.readerFor(typeReference) : mapper.readerFor(clazz);
                 try {
-                    if (typeReference != null) {
-                        return JsonHelper.getMapper().readValue(s, typeReference);
+                    if (attribute instanceof String) {
+                        return reader.readValue((String) attribute);
                     } else {
-                        return JsonHelper.getMapper().readValue(s, clazz);
+                        // bind the node directly, without serializing it back to a string
+                        return reader.readValue((JsonNode) attribute);
                     }
                 } catch (final IOException e) {
                     logger.error("Cannot read value", e);
@@ -3,11 +3,16 @@ package org.pac4j.oauth.profile.definition;
 import com.github.scribejava.core.model.Token;
 import com.github.scribejava.core.model.Verb;
 import org.pac4j.core.profile.CommonProfile;
+import org.pac4j.core.profile.ProfileHelper;
+import org.pac4j.core.profile.UserProfile;
 import org.pac4j.core.profile.definition.CommonProfileDefinition;
 import org.pac4j.core.profile.factory.ProfileFactory;
 import org.pac4j.oauth.config.OAuthConfiguration;
 
 import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.oauth.profile.JsonHelper;
+
+import static org.pac4j.core.profile.AttributeLocation.PROFILE_ATTRIBUTE;
 
 /**
  * OAuth profile definition.
@@ -51,6 +56,33 @@ public abstract class OAuthProfileDefinition extends CommonProfileDefinition {
      */
     public abstract CommonProfile extractUserProfile(String body);
 
+    /**
+     * Extract the identifier and the primary attributes from the JSON object of the body in a streaming way:
+     * only these (top-level) fields are read and converted as soon as they are parsed, the other ones are skipped
+     * and no JSON tree is built for the whole body.
+     *
+     * @param profile the profile to fill
+     * @param body the JSON body
+     * @param idAttribute the name of the identifier field
+     */
+    protected void extractJsonAttributes(final UserProfile profile, final String body, final String idAttribute) {
+        final var primaries = getPrimaryAttributes();
+        final var isObject = JsonHelper.readFields(body, name -> name.equals(idAttribute) || primaries.contains(name),
+            (name, value) -> {
+                if (name.equals(idAttribute)) {
+                    profile.setId(ProfileHelper.sanitizeIdentifier(value));
+                }
+                if (primaries.contains(name)) {
+                    convertAndAdd(profile, PROFILE_ATTRIBUTE, name, value);
+                }
+            });
+        if (!isObject) {
+            raiseProfileExtractionJsonError(body);
+        } else if (profile.getId() == null) {
+            raiseProfileExtractionJsonError(body, idAttribute);
+        }
+    }
+
     /**
      * Throws a {@link TechnicalException} to indicate that user profile extraction has failed.
      *
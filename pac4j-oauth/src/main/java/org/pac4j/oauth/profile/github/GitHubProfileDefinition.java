@@ -1,15 +1,11 @@
 package org.pac4j.oauth.profile.github;
 
 import com.github.scribejava.core.model.Token;
-import org.pac4j.core.profile.ProfileHelper;
 import org.pac4j.core.profile.converter.Converters;
 import org.pac4j.oauth.config.OAuthConfiguration;
-import org.pac4j.oauth.profile.JsonHelper;
 import org.pac4j.oauth.profile.converter.JsonConverter;
 import org.pac4j.oauth.profile.definition.OAuthProfileDefinition;
 
-import static org.pac4j.core.profile.AttributeLocation.PROFILE_ATTRIBUTE;
-
 import java.util.Arrays;
 
 /**
@@ -69,15 +65,7 @@ public class GitHubProfileDefinition extends OAuthProfileDefinition {
     @Override
     public GitHubProfile extractUserProfile(final String body) {
         final var profile = (GitHubProfile) newProfile();
-        final var json = JsonHelper.getFirstNode(body);
-        if (json != null) {
-            profile.setId(ProfileHelper.sanitizeIdentifier(JsonHelper.getElement(json, "id")));
-            for (final var attribute : getPrimaryAttributes()) {
-                convertAndAdd(profile, PROFILE_ATTRIBUTE, attribute, JsonHelper.getElement(json, attribute));
-            }
-        } else {
-            raiseProfileExtractionJsonError(body);
-        }
+        extractJsonAttributes(profile, body, "id");
         return profile;
     }
 }
@@ -1,14 +1,10 @@
 package org.pac4j.oauth.profile.google2;
 
 import com.github.scribejava.core.model.Token;
-import org.pac4j.core.profile.ProfileHelper;
 import org.pac4j.core.profile.converter.Converters;
 import org.pac4j.oauth.config.OAuthConfiguration;
-import org.pac4j.oauth.profile.JsonHelper;
 import org.pac4j.oauth.profile.definition.OAuthProfileDefinition;
 
-import static org.pac4j.core.profile.AttributeLocation.PROFILE_ATTRIBUTE;
-
 /**
  * This class is the Google profile definition (using OAuth 2.0 protocol).
  *
@@ -40,15 +36,7 @@ public class Google2ProfileDefinition extends OAuthProfileDefinition {
     @Override
     public Google2Profile extractUserProfile(final String body) {
         final var profile = (Google2Profile) newProfile();
-        final var json = JsonHelper.getFirstNode(body);
-        if (json != null) {
-            profile.setId(ProfileHelper.sanitizeIdentifier(JsonHelper.getElement(json, "sub")));
-            for (final var attribute : getPrimaryAttributes()) {
-                convertAndAdd(profile, PROFILE_ATTRIBUTE, attribute, JsonHelper.getElement(json, attribute));
-            }
-        } else {
-            raiseProfileExtractionJsonError(body);
-        }
+        extractJsonAttributes(profile, body, "sub");
         return profile;
     }
 }
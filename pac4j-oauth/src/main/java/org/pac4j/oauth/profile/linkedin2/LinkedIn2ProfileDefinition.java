@@ -1,15 +1,11 @@
 package org.pac4j.oauth.profile.linkedin2;
 
 import com.github.scribejava.core.model.Token;
-import org.pac4j.core.profile.ProfileHelper;
 import org.pac4j.core.profile.converter.Converters;
 import org.pac4j.oauth.config.OAuthConfiguration;
-import org.pac4j.oauth.profile.JsonHelper;
 import org.pac4j.oauth.profile.converter.JsonConverter;
 import org.pac4j.oauth.profile.definition.OAuthProfileDefinition;
 
-import static org.pac4j.core.profile.AttributeLocation.PROFILE_ATTRIBUTE;
-
 import java.util.Arrays;
 
 /**
@@ -38,14 +34,7 @@ public class LinkedIn2ProfileDefinition extends OAuthProfileDefinition {
     @Override
     public LinkedIn2Profile extractUserProfile(final String body) {
         final var profile = (LinkedIn2Profile) newProfile();
-        final var json = JsonHelper.getFirstNode(body);
-        if (json == null) {
-            raiseProfileExtractionJsonError(body);
-        }
-        profile.setId(ProfileHelper.sanitizeIdentifier(JsonHelper.getElement(json, "id")));
-        for (final var attribute : getPrimaryAttributes()) {
-            convertAndAdd(profile, PROFILE_ATTRIBUTE, attribute, JsonHelper.getElement(json, attribute));
-        }
+        extractJsonAttributes(profile, body, "id");
         return profile;
     }
 }
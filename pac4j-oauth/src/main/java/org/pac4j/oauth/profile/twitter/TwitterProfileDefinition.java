@@ -1,15 +1,11 @@
 package org.pac4j.oauth.profile.twitter;
 
 import com.github.scribejava.core.model.Token;
-import org.pac4j.core.profile.ProfileHelper;
 import org.pac4j.core.profile.converter.Converters;
 import org.pac4j.core.profile.converter.DateConverter;
 import org.pac4j.oauth.config.OAuthConfiguration;
-import org.pac4j.oauth.profile.JsonHelper;
 import org.pac4j.oauth.profile.definition.OAuthProfileDefinition;
 
-import static org.pac4j.core.profile.AttributeLocation.PROFILE_ATTRIBUTE;
-
 import java.util.Arrays;
 import java.util.Locale;
 
@@ -98,15 +94,7 @@ public class TwitterProfileDefinition extends OAuthProfileDefinition {
     @Override
     public TwitterProfile extractUserProfile(final String body) {
         final var profile = (TwitterProfile) newProfile();
-        final var json = JsonHelper.getFirstNode(body);
-        if (json != null) {
-            profile.setId(ProfileHelper.sanitizeIdentifier(JsonHelper.getElement(json, "id")));
-            for (final var attribute : getPrimaryAttributes()) {
-                convertAndAdd(profile, PROFILE_ATTRIBUTE, attribute, JsonHelper.getElement(json, attribute));
-            }
-        } else {
-            raiseProfileExtractionJsonError(body);
-        }
+        extractJsonAttributes(profile, body, "id");
         return profile;
     }
 }
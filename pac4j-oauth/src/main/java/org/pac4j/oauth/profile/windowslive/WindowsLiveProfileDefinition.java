@@ -1,14 +1,10 @@
 package org.pac4j.oauth.profile.windowslive;
 
 import com.github.scribejava.core.model.Token;
-import org.pac4j.core.profile.ProfileHelper;
 import org.pac4j.core.profile.converter.Converters;
 import org.pac4j.oauth.config.OAuthConfiguration;
-import org.pac4j.oauth.profile.JsonHelper;
 import org.pac4j.oauth.profile.definition.OAuthProfileDefinition;
 
-import static org.pac4j.core.profile.AttributeLocation.PROFILE_ATTRIBUTE;
-
 import java.util.Arrays;
 
 /**
@@ -37,15 +33,7 @@ public class WindowsLiveProfileDefinition extends OAuthProfileDefinition {
     @Override
     public WindowsLiveProfile extractUserProfile(final String body) {
         final var profile = (WindowsLiveProfile) newProfile();
-        final var json = JsonHelper.getFirstNode(body);
-        if (json != null) {
-            profile.setId(ProfileHelper.sanitizeIdentifier(JsonHelper.getElement(json, "id")));
-            for (final var attribute : getPrimaryAttributes()) {
-                convertAndAdd(profile, PROFILE_ATTRIBUTE, attribute, JsonHelper.getElement(json, attribute));
-            }
-        } else {
-            raiseProfileExtractionJsonError(body);
-        }
+        extractJsonAttributes(profile, body, "id");
         return profile;
     }
 }
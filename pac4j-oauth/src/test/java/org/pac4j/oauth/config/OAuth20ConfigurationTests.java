@@ -0,0 +1,71 @@
+package org.pac4j.oauth.config;
+
+import org.junit.Test;
+import org.pac4j.core.context.MockWebContext;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+import org.pac4j.oauth.client.GitHubClient;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the {@link OAuth20Configuration}.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public final class OAuth20ConfigurationTests implements TestsConstants {
+
+    private GitHubClient getClient() {
+        final var client = new GitHubClient(KEY, SECRET);
+        client.setCallbackUrl(CALLBACK_URL);
+        client.init();
+        return client;
+    }
+
+    @Test
+    public void testServiceIsReused() {
+        final var client = getClient();
+        final var configuration = client.getConfiguration();
+        final var service = configuration.buildService(MockWebContext.create(), client);
+        assertSame(service, configuration.buildService(MockWebContext.create(), client));
+    }
+
+    @Test
+    public void testServicePerCallbackUrl() {
+        final var client = getClient();
+        final var configuration = client.getConfiguration();
+        final var service = configuration.buildService(MockWebContext.create(), client);
+        client.setCallbackUrl(PAC4J_URL);
+        final var otherService = configuration.buildService(MockWebContext.create(), client);
+        assertNotSame(service, otherService);
+        assertEquals(PAC4J_URL + "?client_name=GitHubClient", otherService.getCallback());
+    }
+
+    @Test
+    public void testBoundedServiceCache() {
+        final var client = getClient();
+        final var configuration = client.getConfiguration();
+        configuration.setServiceCacheSize(1);
+        configuration.init(true);
+        final var service = configuration.buildService(MockWebContext.create(), client);
+        client.setCallbackUrl(PAC4J_URL);
+        configuration.buildService(MockWebContext.create(), client);
+        client.setCallbackUrl(CALLBACK_URL);
+        assertNotSame(service, configuration.buildService(MockWebContext.create(), client));
+    }
+
+    @Test
+    public void testDisabledServiceCache() {
+        final var client = getClient();
+        final var configuration = client.getConfiguration();
+        configuration.setServiceCacheSize(0);
+        configuration.init(true);
+        final var service = configuration.buildService(MockWebContext.create(), client);
+        assertNotSame(service, configuration.buildService(MockWebContext.create(), client));
+
+        configuration.setServiceCacheSize(-1);
+        TestsHelper.expectException(() -> configuration.init(true), TechnicalException.class, "serviceCacheSize cannot be negative");
+    }
+}
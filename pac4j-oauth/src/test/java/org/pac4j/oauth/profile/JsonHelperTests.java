@@ -4,6 +4,8 @@ import org.junit.Test;
 import org.pac4j.core.util.TestsConstants;
 import org.pac4j.oauth.profile.facebook.FacebookObject;
 
+import java.util.HashMap;
+
 import static org.junit.Assert.*;
 
 /**
@@ -65,6 +67,25 @@ public final class JsonHelperTests implements TestsConstants {
                      JsonHelper.getElement(JsonHelper.getFirstNode(GOOD_NODE_JSON), KEY));
     }
 
+    @Test
+    public void testReadFields() {
+        final var fields = new HashMap<String, Object>();
+        final var json = "{ \"skipped\": { \"" + KEY + "\": [1, 2] }, \"text\": \"" + VALUE + "\", \"number\": 1, "
+            + "\"boolean\": true, \"null\": null, \"node\": " + GOOD_TEXT_JSON + " }";
+        assertTrue(JsonHelper.readFields(json, name -> !"skipped".equals(name), fields::put));
+        assertEquals(4, fields.size());
+        assertEquals(VALUE, fields.get("text"));
+        assertEquals(1, fields.get("number"));
+        assertEquals(Boolean.TRUE, fields.get("boolean"));
+        assertEquals(JsonHelper.getFirstNode(GOOD_TEXT_JSON), fields.get("node"));
+    }
+
+    @Test
+    public void testReadFieldsKo() {
+        assertFalse(JsonHelper.readFields(BAD_JSON, name -> true, (name, value) -> fail()));
+        assertFalse(JsonHelper.readFields("[1, 2]", name -> true, (name, value) -> fail()));
+    }
+
     @Test
     public void testToJSONString() {
         final var object = new FacebookObject();
@@ -0,0 +1,49 @@
+package org.pac4j.oauth.profile.github;
+
+import org.junit.Test;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.core.util.TestsHelper;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the {@link GitHubProfileDefinition}.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public final class GitHubProfileDefinitionTests implements TestsConstants {
+
+    private static final String BODY = "{ \"login\": \"octocat\", \"id\": 1, \"node_id\": \"MDQ6VXNlcjE=\", "
+        + "\"avatar_url\": \"https://github.com/images/error/octocat_happy.gif\", \"hireable\": false, "
+        + "\"public_repos\": 2, \"created_at\": \"2008-01-14T04:33:35Z\", \"unknown\": { \"nested\": [1, 2, { \"a\": null }] }, "
+        + "\"plan\": { \"name\": \"Medium\", \"space\": 400, \"private_repos\": 20, \"collaborators\": 0 } }";
+
+    @Test
+    public void testExtractUserProfile() {
+        final var profile = new GitHubProfileDefinition().extractUserProfile(BODY);
+        assertEquals("1", profile.getId());
+        assertEquals("octocat", profile.getUsername());
+        assertEquals("https://github.com/images/error/octocat_happy.gif", profile.getPictureUrl().toString());
+        assertEquals(Boolean.FALSE, profile.getHireable());
+        assertEquals(Integer.valueOf(2), profile.getPublicRepos());
+        assertNotNull(profile.getCreatedAt());
+        assertEquals("Medium", profile.getPlan().getName());
+        assertEquals(Integer.valueOf(20), profile.getPlan().getPrivateRepos());
+        assertFalse(profile.containsAttribute("unknown"));
+        assertFalse(profile.containsAttribute("node_id"));
+    }
+
+    @Test
+    public void testNoIdentifier() {
+        TestsHelper.expectException(() -> new GitHubProfileDefinition().extractUserProfile("{ \"login\": \"octocat\" }"),
+            TechnicalException.class, "No JSON node 'id' to extract user profile from");
+    }
+
+    @Test
+    public void testNotJson() {
+        TestsHelper.expectException(() -> new GitHubProfileDefinition().extractUserProfile("not_json"),
+            TechnicalException.class, "No JSON node to extract user profile from");
+    }
+}
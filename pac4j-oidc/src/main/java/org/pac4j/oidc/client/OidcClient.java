@@ -1,9 +1,14 @@
 package org.pac4j.oidc.client;
 
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.proc.BadJOSEException;
 import org.pac4j.core.client.IndirectClient;
 import org.pac4j.core.context.WebContext;
 import org.pac4j.core.context.session.SessionStore;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.profile.ProfileHelper;
 import org.pac4j.core.profile.UserProfile;
+import org.pac4j.core.util.serializer.JavaSerializer;
 import org.pac4j.oidc.config.OidcConfiguration;
 import org.pac4j.oidc.credentials.OidcCredentials;
 import org.pac4j.oidc.credentials.authenticator.OidcAuthenticator;
@@ -29,6 +34,8 @@ import static org.pac4j.core.util.CommonHelper.*;
  */
 public class OidcClient extends IndirectClient {
 
+    private static final JavaSerializer PROFILE_SERIALIZER = new JavaSerializer();
+
     private OidcConfiguration configuration;
 
     public OidcClient() { }
@@ -73,6 +80,47 @@ public class OidcClient extends IndirectClient {
         return Optional.empty();
     }
 
+    /**
+     * Renew the tokens of the profile with the refresh token grant (the new ID token, if any, is validated without nonce):
+     * the other attributes of the profile are kept.
+     *
+     * @param profile the user profile
+     * @return the renewed user profile (optional)
+     */
+    @Override
+    public Optional<UserProfile> renewUserProfileInBackground(final UserProfile profile) {
+        final var oidcProfile = (OidcProfile) profile;
+        final var refreshToken = oidcProfile.getRefreshToken();
+        if (refreshToken == null) {
+            return Optional.empty();
+        }
+        final var credentials = new OidcCredentials();
+        credentials.setRefreshToken(refreshToken);
+        final var authenticator = new OidcAuthenticator(getConfiguration(), this);
+        authenticator.refresh(credentials);
+        if (credentials.getAccessToken() == null) {
+            return Optional.empty();
+        }
+
+        final var newProfile = (OidcProfile) PROFILE_SERIALIZER.deserializeFromBytes(PROFILE_SERIALIZER.serializeToBytes(oidcProfile));
+        final var idToken = credentials.getIdToken();
+        if (idToken != null) {
+            try {
+                final var claimsSet = configuration.findTokenValidator().validate(idToken, null);
+                assertTrue(ProfileHelper.sanitizeIdentifier(claimsSet.getSubject()).equals(oidcProfile.getId()),
+                    "The subject of the new ID token must be the same");
+            } catch (final JOSEException | BadJOSEException e) {
+                throw new TechnicalException(e);
+            }
+            newProfile.setIdTokenString(idToken.getParsedString());
+        }
+        newProfile.setAccessToken(credentials.getAccessToken());
+        if (credentials.getRefreshToken() != null) {
+            newProfile.setRefreshToken(credentials.getRefreshToken());
+        }
+        return Optional.of(newProfile);
+    }
+
     @Override
     public void notifySessionRenewal(final String oldSessionId, final WebContext context, final SessionStore sessionStore) {
         configuration.findLogoutHandler().renewSession(oldSessionId, context, sessionStore);
@@ -197,4 +197,14 @@ public class OidcProfile extends AbstractJwtProfile {
         return expiration != null
                 && expiration.toInstant().isBefore(Instant.now().plusSeconds(tokenExpirationAdvance));
     }
+
+    @Override
+    public long getExpirationTime() {
+        var tokenExpirationAdvance = getTokenExpirationAdvance();
+        var expiration = getExpiration();
+        if (tokenExpirationAdvance < 0 || expiration == null) {
+            return Long.MAX_VALUE;
+        }
+        return expiration.getTime() - tokenExpirationAdvance * 1000L;
+    }
 }
@@ -189,6 +189,20 @@ public final class OidcProfileTests implements TestsConstants {
         assertTrue(profile.isExpired());
     }
 
+    /**
+     * The expiration time takes the token expiration advance into account.
+     */
+    @Test
+    public void testExpirationTime() {
+        final var profile = new OidcProfile();
+        assertEquals(Long.MAX_VALUE, profile.getExpirationTime());
+        profile.setExpiration(new Date(100000L));
+        profile.setTokenExpirationAdvance(10);
+        assertEquals(90000L, profile.getExpirationTime());
+        profile.setTokenExpirationAdvance(-1);
+        assertEquals(Long.MAX_VALUE, profile.getExpirationTime());
+    }
+
     /**
      * Test experation based on access token exp date.
      */
@@ -216,7 +216,8 @@ public class SAML2Client extends IndirectClient {
     }
 
     protected void initSAMLReplayCache() {
-        replayCache = new InMemoryReplayCacheProvider();
+        final var configuredReplayCache = configuration.getReplayCacheProvider();
+        replayCache = configuredReplayCache != null ? configuredReplayCache : new InMemoryReplayCacheProvider();
     }
 
     public void destroy() {
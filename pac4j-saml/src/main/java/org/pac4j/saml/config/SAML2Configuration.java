@@ -25,6 +25,7 @@ import org.pac4j.saml.metadata.keystore.SAML2FileSystemKeystoreGenerator;
 import org.pac4j.saml.metadata.keystore.SAML2HttpUrlKeystoreGenerator;
 import org.pac4j.saml.metadata.keystore.SAML2KeystoreGenerator;
 import org.pac4j.saml.profile.converter.SimpleSAML2AttributeConverter;
+import org.pac4j.saml.replay.ReplayCacheProvider;
 import org.pac4j.saml.sso.impl.SAML2ScopingIdentityProvider;
 import org.pac4j.saml.store.EmptyStoreFactory;
 import org.pac4j.saml.store.SAMLMessageStoreFactory;
@@ -129,6 +130,8 @@ public class SAML2Configuration extends BaseClientConfiguration {
 
     private SAMLMessageStoreFactory samlMessageStoreFactory = new EmptyStoreFactory();
 
+    private ReplayCacheProvider replayCacheProvider;
+
     private SAML2KeystoreGenerator keystoreGenerator;
 
     private SAML2MetadataGenerator metadataGenerator;
@@ -639,6 +642,14 @@ public class SAML2Configuration extends BaseClientConfiguration {
         this.samlMessageStoreFactory = samlMessageStoreFactory;
     }
 
+    public ReplayCacheProvider getReplayCacheProvider() {
+        return replayCacheProvider;
+    }
+
+    public void setReplayCacheProvider(final ReplayCacheProvider replayCacheProvider) {
+        this.replayCacheProvider = replayCacheProvider;
+    }
+
     public Collection<String> getBlackListedSignatureSigningAlgorithms() {
         return blackListedSignatureSigningAlgorithms;
     }
@@ -0,0 +1,119 @@
+package org.pac4j.saml.metadata;
+
+import org.pac4j.core.exception.TechnicalException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The generated (and signed) SP metadata, ready to be served: its bytes, its gzipped bytes and its HTTP validators
+ * (an <code>ETag</code> computed from the content and the <code>Last-Modified</code> generation time).
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public final class SAML2ServiceProviderMetadata {
+
+    private final String content;
+
+    private final byte[] bytes;
+
+    private final byte[] gzippedBytes;
+
+    private final String etag;
+
+    private final long lastModified;
+
+    public SAML2ServiceProviderMetadata(final String content) {
+        this.content = content;
+        this.bytes = content.getBytes(StandardCharsets.UTF_8);
+        this.gzippedBytes = gzip(this.bytes);
+        this.etag = computeEtag(this.bytes);
+        // the HTTP dates have a precision of one second
+        this.lastModified = System.currentTimeMillis() / 1000 * 1000;
+    }
+
+    private static byte[] gzip(final byte[] bytes) {
+        final var out = new ByteArrayOutputStream(bytes.length / 4);
+        try (var gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (final IOException e) {
+            throw new TechnicalException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String computeEtag(final byte[] bytes) {
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        } catch (final NoSuchAlgorithmException e) {
+            throw new TechnicalException(e);
+        }
+    }
+
+    /**
+     * Whether the client already has this metadata, according to the conditional request headers.
+     * The <code>If-None-Match</code> header takes precedence over the <code>If-Modified-Since</code> header.
+     *
+     * @param ifNoneMatch the <code>If-None-Match</code> header (or <code>null</code>)
+     * @param ifModifiedSince the <code>If-Modified-Since</code> header as a date (or <code>-1</code>)
+     * @return whether the metadata is not modified
+     */
+    public boolean isNotModified(final String ifNoneMatch, final long ifModifiedSince) {
+        if (ifNoneMatch != null) {
+            for (final var tag : ifNoneMatch.split(",")) {
+                final var trimmedTag = tag.trim();
+                if ("*".equals(trimmedTag) || etag.equals(trimmedTag) || ("W/" + etag).equals(trimmedTag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return ifModifiedSince >= lastModified;
+    }
+
+    /**
+     * Whether the client accepts the gzipped metadata, according to the <code>Accept-Encoding</code> header.
+     *
+     * @param acceptEncoding the <code>Accept-Encoding</code> header (or <code>null</code>)
+     * @return whether the gzipped metadata can be sent
+     */
+    public static boolean acceptsGzip(final String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (final var encoding : acceptEncoding.split(",")) {
+            final var parts = encoding.trim().split(";");
+            if ("gzip".equalsIgnoreCase(parts[0].trim())) {
+                return parts.length < 2 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    public byte[] getGzippedBytes() {
+        return gzippedBytes;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+}
@@ -12,6 +12,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * The generated (and signed) SP metadata is cached: as the configuration and the keystore are only read when the client
+ * is initialized, it is generated again only after a re-initialization of the client (which builds a new resolver)
+ * or an explicit {@link #invalidateMetadata()}.
+ *
  * @author Misagh Moayyed
  * @since 1.7
  */
@@ -21,6 +25,7 @@ public class SAML2ServiceProviderMetadataResolver implements SAML2MetadataResolv
 
     protected final SAML2Configuration configuration;
     private MetadataResolver metadataResolver;
+    private volatile SAML2ServiceProviderMetadata cachedMetadata;
 
     public SAML2ServiceProviderMetadataResolver(final SAML2Configuration configuration) {
         this.configuration = configuration;
@@ -63,6 +68,36 @@ public class SAML2ServiceProviderMetadataResolver implements SAML2MetadataResolv
 
     @Override
     public String getMetadata() {
+        return getCachedMetadata().getContent();
+    }
+
+    /**
+     * Return the SP metadata, generated (and signed) only once.
+     *
+     * @return the SP metadata
+     */
+    public SAML2ServiceProviderMetadata getCachedMetadata() {
+        var metadata = this.cachedMetadata;
+        if (metadata == null) {
+            synchronized (this) {
+                metadata = this.cachedMetadata;
+                if (metadata == null) {
+                    metadata = new SAML2ServiceProviderMetadata(generateMetadata());
+                    this.cachedMetadata = metadata;
+                }
+            }
+        }
+        return metadata;
+    }
+
+    /**
+     * Discard the cached SP metadata: it will be generated again on the next call.
+     */
+    public void invalidateMetadata() {
+        this.cachedMetadata = null;
+    }
+
+    protected String generateMetadata() {
         try {
             final var metadataGenerator = configuration.toMetadataGenerator();
             final var entity = metadataGenerator.buildEntityDescriptor();
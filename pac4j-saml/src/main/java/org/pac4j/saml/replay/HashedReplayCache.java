@@ -0,0 +1,88 @@
+package org.pac4j.saml.replay;
+
+import net.shibboleth.utilities.java.support.component.ComponentInitializationException;
+import org.opensaml.storage.ReplayCache;
+import org.opensaml.storage.impl.MemoryStorageService;
+import org.pac4j.core.exception.TechnicalException;
+import org.pac4j.core.util.CommonHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+
+/**
+ * Replay cache which does not rely on an OpenSAML storage service: the (context, identifier) pairs are hashed
+ * into fixed-width SHA-256 keys and kept until their expiration by the subclass.
+ *
+ * The expiration is the one given by OpenSAML: for the SAML responses, the issue instant of the message plus
+ * the accepted skew (not the <code>NotOnOrAfter</code> of the assertions).
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public abstract class HashedReplayCache extends ReplayCache {
+
+    /** Size of the hashed keys (SHA-256). */
+    public static final int KEY_SIZE = 32;
+
+    protected final Logger logger = LoggerFactory.getLogger(getClass());
+
+    protected HashedReplayCache() {
+        setId(getClass().getSimpleName());
+    }
+
+    @Override
+    protected void doInitialize() throws ComponentInitializationException {
+        // the hashed keys are not kept in the storage service, but the parent initialization requires one
+        final var storageService = new MemoryStorageService();
+        storageService.setId(getId() + "-unused-storage");
+        setStorage(storageService);
+        super.doInitialize();
+    }
+
+    @Override
+    public synchronized boolean check(final String context, final String s, final Instant expires) {
+        CommonHelper.assertNotBlank("context", context);
+        CommonHelper.assertNotBlank("s", s);
+
+        final var expiration = expires != null ? expires.toEpochMilli() : Long.MAX_VALUE;
+        if (checkAndRecord(hash(context, s), expiration, System.currentTimeMillis())) {
+            logger.debug("Value '{}' was not a replay, adding to cache with expiration time {}", s, expires);
+            return true;
+        }
+        logger.debug("Replay of value '{}' detected in cache", s);
+        return false;
+    }
+
+    /**
+     * Check that the key is not already known and record it until its expiration.
+     *
+     * @param key the hashed key ({@link #KEY_SIZE} bytes)
+     * @param expiration the expiration of the key (epoch millis)
+     * @param now the current time (epoch millis)
+     * @return whether the key was not already known (not a replay)
+     */
+    protected abstract boolean checkAndRecord(byte[] key, long expiration, long now);
+
+    /**
+     * Hash the context and the value into a fixed-width key.
+     *
+     * @param context the context
+     * @param value the value
+     * @return the hashed key
+     */
+    public static byte[] hash(final String context, final String value) {
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256");
+            digest.update(context.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+            return digest.digest();
+        } catch (final NoSuchAlgorithmException e) {
+            throw new TechnicalException(e);
+        }
+    }
+}
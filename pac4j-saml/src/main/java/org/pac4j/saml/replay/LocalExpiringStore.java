@@ -0,0 +1,86 @@
+package org.pac4j.saml.replay;
+
+import org.pac4j.core.store.AbstractStore;
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for a Redis-like store where each key expires at the time held by its value
+ * (like a <code>SET key expiration PXAT expiration</code>).
+ *
+ * Expired keys are removed when read and by a sweep every <code>sweepInterval</code> writes.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public class LocalExpiringStore extends AbstractStore<String, Long> {
+
+    private final Map<String, Long> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong writes = new AtomicLong();
+
+    private int sweepInterval = 1000;
+
+    public LocalExpiringStore() {}
+
+    public LocalExpiringStore(final int sweepInterval) {
+        this.sweepInterval = sweepInterval;
+    }
+
+    @Override
+    protected void internalInit(final boolean forceReinit) {
+        CommonHelper.assertTrue(this.sweepInterval > 0, "sweepInterval must be greater than zero");
+    }
+
+    @Override
+    protected Optional<Long> internalGet(final String key) {
+        final var expiration = entries.get(key);
+        if (expiration != null && expiration <= System.currentTimeMillis()) {
+            entries.remove(key, expiration);
+            return Optional.empty();
+        }
+        return Optional.ofNullable(expiration);
+    }
+
+    @Override
+    protected void internalSet(final String key, final Long value) {
+        entries.put(key, value);
+        if (writes.incrementAndGet() % sweepInterval == 0) {
+            sweep();
+        }
+    }
+
+    @Override
+    protected void internalRemove(final String key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Remove all the expired keys.
+     */
+    public void sweep() {
+        final var now = System.currentTimeMillis();
+        entries.values().removeIf(expiration -> expiration <= now);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getSweepInterval() {
+        return sweepInterval;
+    }
+
+    public void setSweepInterval(final int sweepInterval) {
+        this.sweepInterval = sweepInterval;
+    }
+
+    @Override
+    public String toString() {
+        return CommonHelper.toNiceString(this.getClass(), "size", entries.size(), "sweepInterval", sweepInterval);
+    }
+}
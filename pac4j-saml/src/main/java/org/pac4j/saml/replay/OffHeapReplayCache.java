@@ -0,0 +1,88 @@
+package org.pac4j.saml.replay;
+
+import org.pac4j.core.util.CommonHelper;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Replay cache storing the keys in an off-heap open addressing hash set of fixed size.
+ *
+ * Each slot holds a 128 bits fingerprint of the hashed key and its expiration (24 bytes per slot).
+ * Expired slots are reused. If all the slots probed for a key are still valid, the one expiring first is overwritten:
+ * size the capacity above the number of assertions received during their validity period.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public class OffHeapReplayCache extends HashedReplayCache {
+
+    /** Maximum capacity: 2^26 slots. */
+    public static final int MAX_CAPACITY = 1 << 26;
+
+    private static final int EXPIRATION_OFFSET = 2 * Long.BYTES;
+
+    private static final int SLOT_SIZE = EXPIRATION_OFFSET + Long.BYTES;
+
+    private static final int MAX_PROBES = 16;
+
+    private final ByteBuffer table;
+
+    private final int capacity;
+
+    private final int probes;
+
+    public OffHeapReplayCache(final int capacity) {
+        CommonHelper.assertTrue(capacity > 0 && capacity <= MAX_CAPACITY,
+            "capacity must be between 1 and " + MAX_CAPACITY);
+        this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.probes = Math.min(MAX_PROBES, this.capacity);
+        this.table = ByteBuffer.allocateDirect(this.capacity * SLOT_SIZE);
+    }
+
+    @Override
+    protected boolean checkAndRecord(final byte[] key, final long expiration, final long now) {
+        final var keyBuffer = ByteBuffer.wrap(key);
+        final var high = keyBuffer.getLong(0);
+        final var low = keyBuffer.getLong(Long.BYTES);
+        final var mask = capacity - 1;
+        final var start = (int) (low ^ (low >>> 32)) & mask;
+
+        var freeOffset = -1;
+        var victimOffset = -1;
+        var victimExpiration = Long.MAX_VALUE;
+        for (var i = 0; i < probes; i++) {
+            final var offset = ((start + i) & mask) * SLOT_SIZE;
+            final var slotExpiration = table.getLong(offset + EXPIRATION_OFFSET);
+            if (slotExpiration > now) {
+                if (table.getLong(offset) == high && table.getLong(offset + Long.BYTES) == low) {
+                    return false;
+                }
+                if (slotExpiration < victimExpiration) {
+                    victimExpiration = slotExpiration;
+                    victimOffset = offset;
+                }
+            } else {
+                if (freeOffset < 0) {
+                    freeOffset = offset;
+                }
+                // a slot never used ends the probe sequence
+                if (slotExpiration == 0L) {
+                    break;
+                }
+            }
+        }
+
+        if (freeOffset < 0) {
+            logger.warn("Replay cache full ({} slots): evicting a key valid until {}", capacity, victimExpiration);
+            freeOffset = victimOffset;
+        }
+        table.putLong(freeOffset, high);
+        table.putLong(freeOffset + Long.BYTES, low);
+        table.putLong(freeOffset + EXPIRATION_OFFSET, expiration);
+        return true;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
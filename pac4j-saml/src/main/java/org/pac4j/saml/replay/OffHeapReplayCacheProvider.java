@@ -0,0 +1,38 @@
+package org.pac4j.saml.replay;
+
+import net.shibboleth.utilities.java.support.component.ComponentInitializationException;
+import org.opensaml.storage.ReplayCache;
+import org.pac4j.saml.exceptions.SAMLException;
+
+/**
+ * Replay cache provider which stores the hashed identifiers off-heap, in a memory bounded by its capacity.
+ * Like the {@link InMemoryReplayCacheProvider}, it does not work in a clustered environment.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public class OffHeapReplayCacheProvider implements ReplayCacheProvider {
+
+    /** Default capacity: 2^18 slots (6 MB). */
+    public static final int DEFAULT_CAPACITY = 1 << 18;
+
+    private final OffHeapReplayCache cache;
+
+    public OffHeapReplayCacheProvider() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public OffHeapReplayCacheProvider(final int capacity) {
+        cache = new OffHeapReplayCache(capacity);
+        try {
+            cache.initialize();
+        } catch (final ComponentInitializationException e) {
+            throw new SAMLException(e);
+        }
+    }
+
+    @Override
+    public ReplayCache get() {
+        return cache;
+    }
+}
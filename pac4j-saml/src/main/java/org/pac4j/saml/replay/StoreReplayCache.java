@@ -0,0 +1,44 @@
+package org.pac4j.saml.replay;
+
+import org.pac4j.core.store.Store;
+import org.pac4j.core.util.CommonHelper;
+
+import java.util.Base64;
+
+/**
+ * Replay cache backed by a pac4j {@link Store}: the keys are the Base64 encoded hashes and the values
+ * their expiration (epoch millis). An expired value is considered as missing whatever the store eviction policy.
+ *
+ * As the pac4j {@link Store} has no expiration per key, the store must expire its entries by itself (like the
+ * {@link LocalExpiringStore}, a Guava store with a timeout longer than the accepted skew or a Redis store with a TTL):
+ * otherwise, it grows without bound.
+ *
+ * The check-then-set is atomic for a JVM, but not across JVMs sharing the same store.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public class StoreReplayCache extends HashedReplayCache {
+
+    private final Store<String, Long> store;
+
+    public StoreReplayCache(final Store<String, Long> store) {
+        CommonHelper.assertNotNull("store", store);
+        this.store = store;
+    }
+
+    @Override
+    protected boolean checkAndRecord(final byte[] key, final long expiration, final long now) {
+        final var id = Base64.getUrlEncoder().withoutPadding().encodeToString(key);
+        final var existingExpiration = store.get(id);
+        if (existingExpiration.isPresent() && existingExpiration.get() > now) {
+            return false;
+        }
+        store.set(id, expiration);
+        return true;
+    }
+
+    public Store<String, Long> getStore() {
+        return store;
+    }
+}
@@ -0,0 +1,37 @@
+package org.pac4j.saml.replay;
+
+import net.shibboleth.utilities.java.support.component.ComponentInitializationException;
+import org.opensaml.storage.ReplayCache;
+import org.pac4j.core.store.Store;
+import org.pac4j.saml.exceptions.SAMLException;
+
+/**
+ * Replay cache provider which stores the hashed identifiers in a pac4j {@link Store}.
+ * Use a shared store (Redis, Hazelcast...) to detect the replays in a clustered environment:
+ * the store must expire its entries (see {@link StoreReplayCache}).
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public class StoreReplayCacheProvider implements ReplayCacheProvider {
+
+    private final StoreReplayCache cache;
+
+    public StoreReplayCacheProvider() {
+        this(new LocalExpiringStore());
+    }
+
+    public StoreReplayCacheProvider(final Store<String, Long> store) {
+        cache = new StoreReplayCache(store);
+        try {
+            cache.initialize();
+        } catch (final ComponentInitializationException e) {
+            throw new SAMLException(e);
+        }
+    }
+
+    @Override
+    public ReplayCache get() {
+        return cache;
+    }
+}
@@ -53,6 +53,18 @@ public class SAML2ServiceProviderMetadataResolverTest {
         assertNotNull(metadataResolver.resolve());
     }
 
+    @Test
+    public void cacheServiceProviderMetadata() {
+        final var configuration =
+            initializeConfiguration(new FileSystemResource("target/out.xml"), "target/keystore.jks");
+        final var metadataResolver = new SAML2ServiceProviderMetadataResolver(configuration);
+        final var metadata = metadataResolver.getCachedMetadata();
+        assertSame(metadata, metadataResolver.getCachedMetadata());
+        assertEquals(metadata.getContent(), metadataResolver.getMetadata());
+        metadataResolver.invalidateMetadata();
+        assertNotSame(metadata, metadataResolver.getCachedMetadata());
+    }
+
     @Test
     public void resolveServiceProviderMetadataViaExistingClasspath() {
         final var configuration =
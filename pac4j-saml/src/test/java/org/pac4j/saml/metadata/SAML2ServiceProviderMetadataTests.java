@@ -0,0 +1,61 @@
+package org.pac4j.saml.metadata;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link SAML2ServiceProviderMetadata}.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public final class SAML2ServiceProviderMetadataTests {
+
+    private static final String CONTENT = "<md:EntityDescriptor entityID=\"urn:sp\"/>";
+
+    @Test
+    public void testBytesAndGzippedBytes() throws IOException {
+        final var metadata = new SAML2ServiceProviderMetadata(CONTENT);
+        assertEquals(CONTENT, metadata.getContent());
+        assertArrayEquals(CONTENT.getBytes(StandardCharsets.UTF_8), metadata.getBytes());
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(metadata.getGzippedBytes()))) {
+            assertEquals(CONTENT, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testEtag() {
+        final var metadata = new SAML2ServiceProviderMetadata(CONTENT);
+        assertEquals(metadata.getEtag(), new SAML2ServiceProviderMetadata(CONTENT).getEtag());
+        assertNotEquals(metadata.getEtag(), new SAML2ServiceProviderMetadata(CONTENT + " ").getEtag());
+        assertTrue(metadata.getEtag().startsWith("\""));
+    }
+
+    @Test
+    public void testNotModified() {
+        final var metadata = new SAML2ServiceProviderMetadata(CONTENT);
+        assertFalse(metadata.isNotModified(null, -1));
+        assertTrue(metadata.isNotModified(metadata.getEtag(), -1));
+        assertTrue(metadata.isNotModified("\"other\", W/" + metadata.getEtag(), -1));
+        assertTrue(metadata.isNotModified("*", -1));
+        assertFalse(metadata.isNotModified("\"other\"", metadata.getLastModified()));
+        assertTrue(metadata.isNotModified(null, metadata.getLastModified()));
+        assertFalse(metadata.isNotModified(null, metadata.getLastModified() - 1000));
+    }
+
+    @Test
+    public void testAcceptsGzip() {
+        assertFalse(SAML2ServiceProviderMetadata.acceptsGzip(null));
+        assertFalse(SAML2ServiceProviderMetadata.acceptsGzip("deflate, br"));
+        assertTrue(SAML2ServiceProviderMetadata.acceptsGzip("deflate, gzip"));
+        assertTrue(SAML2ServiceProviderMetadata.acceptsGzip("GZIP;q=0.5"));
+        assertFalse(SAML2ServiceProviderMetadata.acceptsGzip("gzip;q=0"));
+        assertFalse(SAML2ServiceProviderMetadata.acceptsGzip("gzip; q=0.0"));
+    }
+}
@@ -0,0 +1,77 @@
+package org.pac4j.saml.replay;
+
+import org.junit.Test;
+import org.opensaml.storage.ReplayCache;
+
+import java.time.Instant;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the {@link HashedReplayCache} implementations.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public final class HashedReplayCacheTests {
+
+    private static final String CONTEXT = "context";
+
+    private void assertReplayDetection(final ReplayCache cache) {
+        final var expires = Instant.now().plusSeconds(60);
+        assertTrue(cache.check(CONTEXT, "id1", expires));
+        assertFalse(cache.check(CONTEXT, "id1", expires));
+        assertTrue(cache.check("otherContext", "id1", expires));
+        assertTrue(cache.check(CONTEXT, "id2", expires));
+    }
+
+    private void assertExpiration(final ReplayCache cache) {
+        final var expired = Instant.now().minusSeconds(1);
+        assertTrue(cache.check(CONTEXT, "expired", expired));
+        assertTrue(cache.check(CONTEXT, "expired", Instant.now().plusSeconds(60)));
+        assertFalse(cache.check(CONTEXT, "expired", Instant.now().plusSeconds(60)));
+    }
+
+    @Test
+    public void testHashIsFixedWidth() {
+        assertEquals(HashedReplayCache.KEY_SIZE, HashedReplayCache.hash(CONTEXT, "a").length);
+        assertEquals(HashedReplayCache.KEY_SIZE, HashedReplayCache.hash(CONTEXT, "a".repeat(10000)).length);
+    }
+
+    @Test
+    public void testStoreReplayCache() {
+        final var provider = new StoreReplayCacheProvider();
+        assertReplayDetection(provider.get());
+        assertExpiration(provider.get());
+    }
+
+    @Test
+    public void testLocalExpiringStoreSweep() {
+        final var store = new LocalExpiringStore(2);
+        store.set("expired", System.currentTimeMillis() - 1);
+        store.set("valid", System.currentTimeMillis() + 60000);
+        assertEquals(1, store.size());
+        assertFalse(store.get("expired").isPresent());
+        assertTrue(store.get("valid").isPresent());
+    }
+
+    @Test
+    public void testOffHeapReplayCache() {
+        final var provider = new OffHeapReplayCacheProvider(64);
+        assertReplayDetection(provider.get());
+        assertExpiration(provider.get());
+    }
+
+    @Test
+    public void testOffHeapReplayCacheFull() {
+        final var cache = new OffHeapReplayCache(4);
+        assertEquals(4, cache.getCapacity());
+        final var now = System.currentTimeMillis();
+        for (var i = 0; i < 4; i++) {
+            assertTrue(cache.checkAndRecord(HashedReplayCache.hash(CONTEXT, "id" + i), now + 1000 + i, now));
+        }
+        assertTrue(cache.checkAndRecord(HashedReplayCache.hash(CONTEXT, "id4"), now + 2000, now));
+        assertFalse(cache.checkAndRecord(HashedReplayCache.hash(CONTEXT, "id4"), now + 2000, now));
+        assertTrue(cache.checkAndRecord(HashedReplayCache.hash(CONTEXT, "id0"), now + 2000, now));
+    }
+}
@@ -1,6 +1,7 @@
 package org.pac4j.springboot.config;
 
 import org.pac4j.config.client.PropertiesConfigFactory;
+import org.pac4j.core.client.ClientsInitializer;
 import org.pac4j.core.config.Config;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -26,6 +27,14 @@ public class ConfigAutoConfiguration {
     public Config config() {
         final var factory =
             new PropertiesConfigFactory(pac4j.getCallbackUrl(), pac4j.getProperties());
-        return factory.build();
+        final var config = factory.build();
+        final var init = pac4j.getInit();
+        if (init.isEager()) {
+            final var initializer = new ClientsInitializer(config.getClients());
+            initializer.setThreads(init.getThreads());
+            initializer.setTimeout(init.getTimeout());
+            initializer.initialize();
+        }
+        return config;
     }
 }
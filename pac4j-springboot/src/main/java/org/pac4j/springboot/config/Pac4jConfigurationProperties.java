@@ -17,6 +17,8 @@ public class Pac4jConfigurationProperties {
 
     private String callbackUrl;
 
+    private Init init = new Init();
+
     public Map<String, String> getProperties() {
         return properties;
     }
@@ -32,4 +34,47 @@ public class Pac4jConfigurationProperties {
     public void setCallbackUrl(final String callbackUrl) {
         this.callbackUrl = callbackUrl;
     }
+
+    public Init getInit() {
+        return init;
+    }
+
+    public void setInit(final Init init) {
+        this.init = init;
+    }
+
+    /**
+     * The initialization of the clients at startup (by default, they are initialized on first use).
+     */
+    public static class Init {
+        private boolean eager;
+
+        private int threads = 4;
+
+        private int timeout = 30;
+
+        public boolean isEager() {
+            return eager;
+        }
+
+        public void setEager(final boolean eager) {
+            this.eager = eager;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(final int threads) {
+            this.threads = threads;
+        }
+
+        public int getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(final int timeout) {
+            this.timeout = timeout;
+        }
+    }
 }
@@ -1,32 +1,61 @@
 package org.pac4j.sql.profile.service;
 
 import org.pac4j.core.credentials.password.PasswordEncoder;
+import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.profile.definition.CommonProfileDefinition;
 import org.pac4j.core.profile.service.AbstractProfileService;
 import org.pac4j.core.util.serializer.JsonSerializer;
 import org.pac4j.sql.profile.DbProfile;
+import org.skife.jdbi.v2.CachingStatementBuilderFactory;
 import org.skife.jdbi.v2.DBI;
 import org.skife.jdbi.v2.Handle;
 
 import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
 
 import static org.pac4j.core.util.CommonHelper.*;
 
 /**
  * The DB profile service (which supersedes the DB authenticator).
  *
+ * The SQL statements are built once and kept in a LRU cache. A connection (JDBI handle) is retrieved from the data source
+ * for each operation: the prepared statements are only reused within a handle (batches, chunked reads), their reuse across
+ * operations must be enabled at the data source level (statement cache of the connection pool or of the JDBC driver).
+ *
  * @author Jerome Leleu
  * @since 2.0.0
  */
 public class DbProfileService extends AbstractProfileService<DbProfile> {
 
+    protected static final String INSERT = "insert";
+
+    protected static final String UPDATE = "update";
+
+    protected static final String SELECT = "select";
+
+    protected static final String DELETE = "delete";
+
     protected DBI dbi;
 
     private String usersTable = "users";
 
+    private int batchSize = 500;
+
+    private int statementCacheSize = 256;
+
+    private boolean cachePreparedStatements = true;
+
+    private Map<List<Object>, String> statements = Collections.emptyMap();
+
     private DataSource dataSource;
 
     public DbProfileService() {}
@@ -55,63 +84,68 @@ public class DbProfileService extends AbstractProfileService<DbProfile> {
     protected void internalInit(final boolean forceReinit) {
         assertNotNull("passwordEncoder", getPasswordEncoder());
         assertNotNull("dataSource", this.dataSource);
+        assertTrue(this.batchSize > 0, "batchSize must be greater than zero");
+        assertTrue(this.statementCacheSize >= 0, "statementCacheSize cannot be negative");
         this.dbi = new DBI(this.dataSource);
+        if (this.cachePreparedStatements) {
+            this.dbi.setStatementBuilderFactory(new CachingStatementBuilderFactory());
+        }
 
         defaultProfileDefinition(new CommonProfileDefinition(x -> new DbProfile()));
         setSerializer(new JsonSerializer(DbProfile.class));
 
         super.internalInit(forceReinit);
+
+        // the statements only depend on the configuration: precompute the most used ones
+        final var maxSize = this.statementCacheSize;
+        this.statements = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<List<Object>, String> eldest) {
+                return size() > maxSize;
+            }
+        });
+        final var names = defineAttributesToRead();
+        getStatement(SELECT, names, getIdAttribute());
+        getStatement(SELECT, names, LINKEDID);
+        names.add(getPasswordAttribute());
+        getStatement(SELECT, names, getUsernameAttribute());
+        getStatement(DELETE, new ArrayList<>(), getIdAttribute());
     }
 
     @Override
     protected void insert(final Map<String, Object> attributes) {
-        final List<String> names = new ArrayList<>();
-        final List<String> questionMarks = new ArrayList<>();
-        final List<Object> values = new ArrayList<>();
-        for (final var entry : attributes.entrySet()) {
-            names.add(entry.getKey());
-            questionMarks.add("?");
-            values.add(entry.getValue());
+        final var names = sortedNames(attributes);
+        final var values = new Object[names.size()];
+        for (var i = 0; i < values.length; i++) {
+            values[i] = attributes.get(names.get(i));
         }
 
-        final var query = "insert into " + usersTable + " (" + buildAttributesList(names) + ") values ("
-            + buildAttributesList(questionMarks) + ")";
-        execute(query, values.toArray());
+        execute(getStatement(INSERT, names, null), values);
     }
 
     @Override
     protected void update(final Map<String, Object> attributes) {
-        final var attributesList = new StringBuilder();
-        String id = null;
-        final List<Object> values = new ArrayList<>();
-        var i = 0;
-        for (final var entry : attributes.entrySet()) {
-            final var name = entry.getKey();
-            final var value = entry.getValue();
-            if (ID.equals(name)) {
-                id = (String) value;
-            } else {
-                if (i > 0) {
-                    attributesList.append(",");
-                }
-                attributesList.append(name);
-                attributesList.append("= :");
-                attributesList.append(name);
-                values.add(value);
-                i++;
-            }
+        final var id = attributes.get(getIdAttribute());
+        assertNotNull(ID, id);
+
+        final var names = sortedNames(attributes);
+        names.remove(getIdAttribute());
+        if (names.isEmpty()) {
+            logger.debug("No attribute to update for: {}", id);
+            return;
         }
+        final var values = new Object[names.size() + 1];
+        for (var i = 0; i < names.size(); i++) {
+            values[i] = attributes.get(names.get(i));
+        }
+        values[names.size()] = id;
 
-        assertNotNull(ID, id);
-        values.add(id);
-        final var query = "update " + usersTable + " set " + attributesList.toString() + " where " + getIdAttribute() + " = :id";
-        execute(query, values.toArray());
+        execute(getStatement(UPDATE, names, getIdAttribute()), values);
     }
 
     @Override
     protected void deleteById(final String id) {
-        final var query = "delete from " + usersTable + " where " + getIdAttribute() + " = :id";
-        execute(query, id);
+        execute(getStatement(DELETE, new ArrayList<>(), getIdAttribute()), id);
     }
 
     protected void execute(final String query, final Object... args) {
@@ -129,10 +163,7 @@ public class DbProfileService extends AbstractProfileService<DbProfile> {
 
     @Override
     protected List<Map<String, Object>> read(final List<String> names, final String key, final String value) {
-        final var attributesList = buildAttributesList(names);
-
-        final var query = "select " + attributesList + " from " + usersTable + " where " + key + " = :" + key;
-        return query(query, key, value);
+        return query(getStatement(SELECT, names, key), key, value);
     }
 
     protected List<Map<String, Object>> query(final String query, final String key, final String value) {
@@ -140,7 +171,7 @@ public class DbProfileService extends AbstractProfileService<DbProfile> {
         try {
             h = dbi.open();
             logger.debug("Query: {} for key/value: {} / {}", query, key, value);
-            return h.createQuery(query).bind(key, value).list(2);
+            return h.createQuery(query).bind(0, value).list(2);
         } finally {
             if (h != null) {
                 h.close();
@@ -148,6 +179,189 @@ public class DbProfileService extends AbstractProfileService<DbProfile> {
         }
     }
 
+    @Override
+    public DbProfile findById(final String id) {
+        init();
+
+        assertNotBlank(getIdAttribute(), id);
+
+        return readProfile(getIdAttribute(), id);
+    }
+
+    @Override
+    public DbProfile findByLinkedId(final String linkedId) {
+        init();
+
+        assertNotBlank(LINKEDID, linkedId);
+
+        return readProfile(LINKEDID, linkedId);
+    }
+
+    /**
+     * Read the profile for a key=value query, mapping the result set row directly into the profile.
+     *
+     * @param key the key for the query
+     * @param value the value for the query
+     * @return the profile (or <code>null</code> if not found)
+     */
+    protected DbProfile readProfile(final String key, final String value) {
+        final var names = defineAttributesToRead();
+        final var query = getStatement(SELECT, names, key);
+        try (var h = dbi.open()) {
+            logger.debug("Query: {} for key/value: {} / {}", query, key, value);
+            return h.createQuery(query).bind(0, value).map((index, rs, ctx) -> mapProfile(rs, names)).first();
+        }
+    }
+
+    protected DbProfile mapProfile(final ResultSet rs, final List<String> names) throws SQLException {
+        if (isLegacyMode()) {
+            final Map<String, Object> attributes = new HashMap<>();
+            for (final var name : names) {
+                attributes.put(name, rs.getObject(name));
+            }
+            return convertAttributesToProfile(Collections.singletonList(attributes), null);
+        } else {
+            return convertSerializedProfile(rs.getString(SERIALIZED_PROFILE), rs.getObject(getIdAttribute()), rs.getString(LINKEDID));
+        }
+    }
+
+    @Override
+    protected List<Map<String, Object>> batchRead(final List<String> names, final String key, final Collection<String> values) {
+        final List<String> valuesList = new ArrayList<>(values);
+        final List<Map<String, Object>> listAttributes = new ArrayList<>();
+        try (var h = dbi.open()) {
+            for (var start = 0; start < valuesList.size(); start += batchSize) {
+                final var chunk = valuesList.subList(start, Math.min(start + batchSize, valuesList.size()));
+                final var query = getStatement(SELECT, names, key, chunk.size());
+                logger.debug("Query: {} for key/values: {} / {}", query, key, chunk);
+                final var sqlQuery = h.createQuery(query);
+                for (var i = 0; i < chunk.size(); i++) {
+                    sqlQuery.bind(i, chunk.get(i));
+                }
+                listAttributes.addAll(sqlQuery.list());
+            }
+        }
+        return listAttributes;
+    }
+
+    @Override
+    protected void batchInsert(final List<Map<String, Object>> listAttributes) {
+        executeBatches(listAttributes, INSERT, null);
+    }
+
+    @Override
+    protected void batchUpdate(final List<Map<String, Object>> listAttributes) {
+        executeBatches(listAttributes, UPDATE, getIdAttribute());
+    }
+
+    /**
+     * Execute JDBI batches in a transaction: the rows are grouped by attribute names (one statement per group).
+     *
+     * @param listAttributes the rows
+     * @param type the type of statement
+     * @param key the attribute name used in the where clause and bound at the end of the statement (may be <code>null</code>)
+     */
+    protected void executeBatches(final List<Map<String, Object>> listAttributes, final String type, final String key) {
+        final Map<List<String>, List<Map<String, Object>>> groups = new LinkedHashMap<>();
+        for (final var attributes : listAttributes) {
+            final var names = sortedNames(attributes);
+            if (key != null) {
+                names.remove(key);
+                // no SET list: nothing to update
+                if (names.isEmpty()) {
+                    logger.debug("No attribute to update for: {}", attributes.get(key));
+                    continue;
+                }
+            }
+            groups.computeIfAbsent(names, k -> new ArrayList<>()).add(attributes);
+        }
+
+        try (var h = dbi.open()) {
+            h.useTransaction((handle, status) -> {
+                for (final var group : groups.entrySet()) {
+                    final var names = group.getKey();
+                    final var query = getStatement(type, names, key);
+                    logger.debug("Execute batch: {} for {} rows", query, group.getValue().size());
+                    final var batch = handle.prepareBatch(query);
+                    for (final var attributes : group.getValue()) {
+                        final var values = new Object[key != null ? names.size() + 1 : names.size()];
+                        for (var i = 0; i < names.size(); i++) {
+                            values[i] = attributes.get(names.get(i));
+                        }
+                        if (key != null) {
+                            values[names.size()] = attributes.get(key);
+                        }
+                        batch.add(values);
+                    }
+                    batch.execute();
+                }
+            });
+        }
+    }
+
+    private List<String> sortedNames(final Map<String, Object> attributes) {
+        return new ArrayList<>(new TreeSet<>(attributes.keySet()));
+    }
+
+    protected String getStatement(final String type, final List<String> names, final String key) {
+        return getStatement(type, names, key, 1);
+    }
+
+    /**
+     * Get the statement from the cache or build it (with positional parameters), the least recently used statements
+     * being evicted.
+     *
+     * @param type the type of statement
+     * @param names the attribute names
+     * @param key the attribute name used in the where clause
+     * @param nbValues the number of values for the where clause
+     * @return the statement
+     */
+    protected String getStatement(final String type, final List<String> names, final String key, final int nbValues) {
+        final List<Object> cacheKey = new ArrayList<>(names.size() + 3);
+        cacheKey.add(type);
+        cacheKey.add(key);
+        cacheKey.add(nbValues);
+        cacheKey.addAll(names);
+        var statement = statements.get(cacheKey);
+        if (statement == null) {
+            statement = buildStatement(type, names, key, nbValues);
+            if (statementCacheSize > 0) {
+                statements.put(cacheKey, statement);
+            }
+        }
+        return statement;
+    }
+
+    protected String buildStatement(final String type, final List<String> names, final String key, final int nbValues) {
+        final var condition = nbValues == 1 ? " = ?" : " in (" + buildAttributesList(questionMarks(nbValues)) + ")";
+        switch (type) {
+            case INSERT:
+                return "insert into " + usersTable + " (" + buildAttributesList(names) + ") values ("
+                    + buildAttributesList(questionMarks(names.size())) + ")";
+            case UPDATE:
+                final List<String> assignments = new ArrayList<>(names.size());
+                for (final var name : names) {
+                    assignments.add(name + " = ?");
+                }
+                return "update " + usersTable + " set " + buildAttributesList(assignments) + " where " + key + condition;
+            case SELECT:
+                return "select " + buildAttributesList(names) + " from " + usersTable + " where " + key + condition;
+            case DELETE:
+                return "delete from " + usersTable + " where " + key + condition;
+            default:
+                throw new TechnicalException("Unsupported statement type: " + type);
+        }
+    }
+
+    private List<String> questionMarks(final int nb) {
+        final List<String> questionMarks = new ArrayList<>(nb);
+        for (var i = 0; i < nb; i++) {
+            questionMarks.add("?");
+        }
+        return questionMarks;
+    }
+
     protected String buildAttributesList(final List<String> names) {
         final var sb = new StringBuilder();
         var firstOne = true;
@@ -178,6 +392,41 @@ public class DbProfileService extends AbstractProfileService<DbProfile> {
         this.usersTable = usersTable;
     }
 
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(final int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    /**
+     * Define how many SQL statements are cached (zero disables the cache).
+     *
+     * @param statementCacheSize the size of the statement cache
+     */
+    public void setStatementCacheSize(final int statementCacheSize) {
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    public boolean isCachePreparedStatements() {
+        return cachePreparedStatements;
+    }
+
+    /**
+     * Define whether the prepared statements are reused within a JDBI handle (for the batches and the chunked reads).
+     * Each operation uses a new handle: configure the statement cache of the data source to reuse them across operations.
+     *
+     * @param cachePreparedStatements whether the prepared statements are reused within a handle
+     */
+    public void setCachePreparedStatements(final boolean cachePreparedStatements) {
+        this.cachePreparedStatements = cachePreparedStatements;
+    }
+
     public DBI getDbi() {
         return dbi;
     }
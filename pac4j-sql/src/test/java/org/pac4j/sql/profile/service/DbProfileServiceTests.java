@@ -2,11 +2,13 @@ package org.pac4j.sql.profile.service;
 
 import org.junit.Test;
 import org.pac4j.core.credentials.UsernamePasswordCredentials;
+import org.pac4j.core.credentials.password.PasswordEncoder;
 import org.pac4j.core.exception.AccountNotFoundException;
 import org.pac4j.core.exception.BadCredentialsException;
 import org.pac4j.core.exception.MultipleAccountsFoundException;
 import org.pac4j.core.exception.TechnicalException;
 import org.pac4j.core.profile.service.AbstractProfileService;
+import org.pac4j.core.profile.service.VerifiedCredentialsCache;
 import org.pac4j.core.util.Pac4jConstants;
 import org.pac4j.core.util.TestsConstants;
 import org.pac4j.core.util.TestsHelper;
@@ -16,8 +18,13 @@ import org.skife.jdbi.v2.DBI;
 import org.skife.jdbi.v2.Handle;
 
 import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -104,6 +111,46 @@ public final class DbProfileServiceTests implements TestsConstants {
             BadCredentialsException.class, "Bad credentials for: jle");
     }
 
+    @Test
+    public void testVerifiedCredentialsCache() {
+        final var nbMatches = new AtomicInteger();
+        final var dbProfileService = new DbProfileService(ds, new PasswordEncoder() {
+            @Override
+            public String encode(final String password) {
+                return DbServer.PASSWORD_ENCODER.encode(password);
+            }
+
+            @Override
+            public boolean matches(final String plainPassword, final String encodedPassword) {
+                nbMatches.incrementAndGet();
+                return DbServer.PASSWORD_ENCODER.matches(plainPassword, encodedPassword);
+            }
+        });
+        dbProfileService.setVerifiedCredentialsCache(new VerifiedCredentialsCache());
+        final var profile = new DbProfile();
+        profile.setId(Pac4jConstants.EMPTY_STRING + DB_ID);
+        profile.addAttribute(USERNAME, DB_USER);
+        dbProfileService.create(profile, DB_PASS);
+        for (var i = 0; i < 3; i++) {
+            final var credentials = new UsernamePasswordCredentials(DB_USER, DB_PASS);
+            dbProfileService.validate(credentials, null, null);
+            assertEquals(Pac4jConstants.EMPTY_STRING + DB_ID, credentials.getUserProfile().getId());
+        }
+        assertEquals(1, nbMatches.get());
+        // a bad password is always checked
+        TestsHelper.expectException(() -> dbProfileService.validate(new UsernamePasswordCredentials(DB_USER, PASSWORD), null, null),
+            BadCredentialsException.class, "Bad credentials for: " + DB_USER);
+        assertEquals(2, nbMatches.get());
+        // the update invalidates the cache
+        dbProfileService.update(profile, DB_PASS);
+        dbProfileService.validate(new UsernamePasswordCredentials(DB_USER, DB_PASS), null, null);
+        assertEquals(3, nbMatches.get());
+        // and the removal too
+        dbProfileService.removeById(profile.getId());
+        TestsHelper.expectException(() -> dbProfileService.validate(new UsernamePasswordCredentials(DB_USER, DB_PASS), null, null),
+            AccountNotFoundException.class, "No account found for: " + DB_USER);
+    }
+
     @Test
     public void testCreateUpdateFindDelete() {
         final var profile = new DbProfile();
@@ -153,6 +200,88 @@ public final class DbProfileServiceTests implements TestsConstants {
         assertEquals(0, results3.size());
     }
 
+    @Test
+    public void testBatchCreateUpdateFind() {
+        final var dbProfileService = new DbProfileService(ds, DbServer.PASSWORD_ENCODER);
+        dbProfileService.setBatchSize(2);
+        final List<DbProfile> profiles = new ArrayList<>();
+        final Map<String, String> passwords = new HashMap<>();
+        for (var i = 1; i <= 3; i++) {
+            final var profile = new DbProfile();
+            profile.setId(Pac4jConstants.EMPTY_STRING + (DB_ID + i));
+            profile.setLinkedId(DB_LINKED_ID + i);
+            profile.addAttribute(USERNAME, DB_USER + i);
+            profiles.add(profile);
+            passwords.put(profile.getId(), DB_PASS);
+        }
+        // create
+        dbProfileService.createAll(profiles, passwords);
+        final var results = dbProfileService.findAllByIds(Arrays.asList(Pac4jConstants.EMPTY_STRING + (DB_ID + 1),
+            Pac4jConstants.EMPTY_STRING + (DB_ID + 2), Pac4jConstants.EMPTY_STRING + (DB_ID + 3),
+            Pac4jConstants.EMPTY_STRING + (DB_ID + 4)));
+        assertEquals(3, results.size());
+        for (final var profile : results) {
+            assertEquals(DB_USER + profile.getLinkedId().substring(DB_LINKED_ID.length()), profile.getUsername());
+        }
+        // update
+        for (final var profile : profiles) {
+            profile.addAttribute(USERNAME, DB_USER2 + profile.getLinkedId());
+        }
+        dbProfileService.updateAll(profiles, null);
+        for (final var profile : profiles) {
+            final var result = getData(Integer.parseInt(profile.getId())).get(0);
+            assertEquals(DB_USER2 + profile.getLinkedId(), result.get(USERNAME));
+            assertTrue(DbServer.PASSWORD_ENCODER.matches(DB_PASS, (String) result.get(PASSWORD)));
+        }
+        // only the identifier: nothing to update
+        dbProfileService.executeBatches(Collections.singletonList(Collections.singletonMap(AbstractProfileService.ID,
+            profiles.get(0).getId())), DbProfileService.UPDATE, AbstractProfileService.ID);
+        assertEquals(DB_USER2 + profiles.get(0).getLinkedId(), getData(Integer.parseInt(profiles.get(0).getId())).get(0).get(USERNAME));
+        // clean up
+        for (final var profile : profiles) {
+            dbProfileService.remove(profile);
+        }
+        assertTrue(dbProfileService.findAllByIds(Arrays.asList(Pac4jConstants.EMPTY_STRING + (DB_ID + 1))).isEmpty());
+    }
+
+    @Test
+    public void testFindByIdLegacyMode() {
+        final var dbProfileService = new DbProfileService(ds, FIRSTNAME, DbServer.PASSWORD_ENCODER);
+        final var profile = dbProfileService.findById("1");
+        assertEquals(GOOD_USERNAME, profile.getId());
+        assertEquals(FIRSTNAME_VALUE, profile.getAttribute(FIRSTNAME));
+        assertNull(dbProfileService.findById("4"));
+    }
+
+    @Test
+    public void testPrecomputedStatements() {
+        final var dbProfileService = new DbProfileService(ds, DbServer.PASSWORD_ENCODER);
+        dbProfileService.init();
+        final var names = Arrays.asList(ID, AbstractProfileService.LINKEDID, AbstractProfileService.SERIALIZED_PROFILE);
+        final var statement = dbProfileService.getStatement(DbProfileService.SELECT, names, ID);
+        assertEquals("select id,linkedid,serializedprofile from users where id = ?", statement);
+        assertSame(statement, dbProfileService.getStatement(DbProfileService.SELECT, names, ID));
+        assertEquals("select id,linkedid,serializedprofile from users where id in (?,?,?)",
+            dbProfileService.getStatement(DbProfileService.SELECT, names, ID, 3));
+        assertEquals("update users set linkedid = ?,serializedprofile = ? where id = ?",
+            dbProfileService.getStatement(DbProfileService.UPDATE, names.subList(1, 3), ID));
+    }
+
+    @Test
+    public void testStatementCacheEviction() {
+        final var dbProfileService = new DbProfileService(ds, DbServer.PASSWORD_ENCODER);
+        dbProfileService.setStatementCacheSize(2);
+        dbProfileService.init();
+        final var names = Arrays.asList(ID, AbstractProfileService.LINKEDID);
+        final var statement = dbProfileService.getStatement(DbProfileService.SELECT, names, ID);
+        final var otherStatement = dbProfileService.getStatement(DbProfileService.DELETE, names, ID);
+        // the least recently used statement is evicted
+        assertSame(statement, dbProfileService.getStatement(DbProfileService.SELECT, names, ID));
+        dbProfileService.getStatement(DbProfileService.UPDATE, names, ID);
+        assertSame(statement, dbProfileService.getStatement(DbProfileService.SELECT, names, ID));
+        assertNotSame(otherStatement, dbProfileService.getStatement(DbProfileService.DELETE, names, ID));
+    }
+
     @Test
     public void testChangeUserAndPasswordAttributes() {
         alterTableChangeColumnName(USERNAME, ALT_USER_ATT);
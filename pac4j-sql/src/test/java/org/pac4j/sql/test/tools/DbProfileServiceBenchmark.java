@@ -0,0 +1,118 @@
+package org.pac4j.sql.test.tools;
+
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.pac4j.core.credentials.UsernamePasswordCredentials;
+import org.pac4j.core.profile.service.AbstractProfileService;
+import org.pac4j.core.profile.service.VerifiedCredentialsCache;
+import org.pac4j.core.util.Pac4jConstants;
+import org.pac4j.core.util.TestsConstants;
+import org.pac4j.sql.profile.DbProfile;
+import org.pac4j.sql.profile.service.DbProfileService;
+import org.skife.jdbi.v2.DBI;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the {@link DbProfileService} against an embedded H2 database (run the main method, not a unit test).
+ *
+ * It compares the lookups through the generic read path (list of maps) and the direct mapping, the single versus batched
+ * creations and the validations (hashed passwords) with and without the verified credentials cache. The reuse of the prepared
+ * statements across operations is not measured: it depends on the statement cache of the data source.
+ *
+ * @author Jerome Leleu
+ * @since 5.5.0
+ */
+public final class DbProfileServiceBenchmark implements TestsConstants {
+
+    private static final int NB_PROFILES = 1000;
+    private static final int NB_ITERATIONS = 20;
+    private static final int NB_VALIDATIONS = 100;
+
+    private DbProfileServiceBenchmark() {}
+
+    public static void main(final String[] args) {
+        final DataSource ds = JdbcConnectionPool.create("jdbc:h2:mem:benchmark", Pac4jConstants.USERNAME, Pac4jConstants.PASSWORD);
+        try (var h = new DBI(ds).open()) {
+            h.execute("create table users (" + AbstractProfileService.ID + " varchar(100) primary key, " + Pac4jConstants.USERNAME
+                + " varchar(100), " + Pac4jConstants.PASSWORD + " varchar(300), " + AbstractProfileService.LINKEDID + " varchar(100), "
+                + AbstractProfileService.SERIALIZED_PROFILE + " varchar(6000))");
+        }
+
+        final var service = new DbProfileService(ds, DbServer.PASSWORD_ENCODER);
+        run("create (single)", () -> {
+            for (var i = 0; i < NB_PROFILES; i++) {
+                service.create(newProfile("single" + i), PASSWORD);
+            }
+        }, 1);
+        final var batchProfiles = newProfiles("batch");
+        final Map<String, String> passwords = new HashMap<>();
+        for (final var profile : batchProfiles) {
+            passwords.put(profile.getId(), PASSWORD);
+        }
+        run("create (batch)", () -> service.createAll(batchProfiles, passwords), 1);
+
+        final List<String> ids = new ArrayList<>(NB_PROFILES);
+        for (var i = 0; i < NB_PROFILES; i++) {
+            ids.add("single" + i);
+        }
+        run("findById (generic read path)", () -> {
+            for (final var id : ids) {
+                service.findAllByIds(List.of(id));
+            }
+        }, NB_ITERATIONS);
+        run("findById (direct mapping)", () -> {
+            for (final var id : ids) {
+                service.findById(id);
+            }
+        }, NB_ITERATIONS);
+        run("findAllByIds", () -> service.findAllByIds(ids), NB_ITERATIONS);
+
+        final var slowService = new DbProfileService(ds, DbServer.PASSWORD_ENCODER);
+        slowService.create(newProfile("slow"), PASSWORD);
+        final var cachedSlowService = new DbProfileService(ds, slowService.getPasswordEncoder());
+        cachedSlowService.setVerifiedCredentialsCache(new VerifiedCredentialsCache());
+        run("validate", () -> validate(slowService), NB_ITERATIONS);
+        run("validate (verified credentials cache)", () -> validate(cachedSlowService), NB_ITERATIONS);
+    }
+
+    private static void validate(final DbProfileService service) {
+        for (var i = 0; i < NB_VALIDATIONS; i++) {
+            service.validate(new UsernamePasswordCredentials("userslow", PASSWORD), null, null);
+        }
+    }
+
+    private static DbProfile newProfile(final String id) {
+        final var profile = new DbProfile();
+        profile.setId(id);
+        profile.setLinkedId("linked" + id);
+        profile.addAttribute(USERNAME, "user" + id);
+        profile.addAttribute(FIRSTNAME, FIRSTNAME_VALUE);
+        return profile;
+    }
+
+    private static List<DbProfile> newProfiles(final String prefix) {
+        final List<DbProfile> profiles = new ArrayList<>(NB_PROFILES);
+        for (var i = 0; i < NB_PROFILES; i++) {
+            profiles.add(newProfile(prefix + i));
+        }
+        return profiles;
+    }
+
+    private static void run(final String name, final Runnable runnable, final int nbIterations) {
+        // warm up
+        if (nbIterations > 1) {
+            runnable.run();
+        }
+        final var start = System.nanoTime();
+        for (var i = 0; i < nbIterations; i++) {
+            runnable.run();
+        }
+        final var duration = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) / nbIterations;
+        System.out.println(name + ": " + duration + " us");
+    }
+}